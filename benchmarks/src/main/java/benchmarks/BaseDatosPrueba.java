@@ -0,0 +1,243 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Base de datos H2 en memoria, en modo MariaDB, con el esquema de la aplicación y datos generados.
+ * El esquema es el de olimpiadas.sql con las migraciones aplicadas: los índices de V002 y V003 y la tabla ResumenOlimpiada
+ * de V001, rellenada a partir de los datos. Los índices FULLTEXT de V003 no se crean porque H2 no los admite.
+ * Los datos se generan con una semilla fija, así que cada ejecución trabaja con exactamente las mismas filas.
+ * Escribe un archivo de configuración temporal con la clave url y lo indica con la propiedad "olimpiadas.config",
+ * de forma que ConexionBBDD y el pool de conexiones usan esta base de datos sin cambios.
+ */
+public class BaseDatosPrueba {
+    private static final long SEMILLA = 20240601L;
+    private static final String[] SILABAS = {"an", "ber", "ca", "dor", "el", "fa", "gon", "hi", "is", "jo",
+            "ka", "lu", "mar", "ne", "o", "pe", "qui", "ra", "son", "ti", "u", "var", "wa", "xe", "yo", "zu"};
+
+    private final String url;
+    private final int deportistas;
+    private final int eventos;
+
+    /**
+     * Crea la base de datos y la rellena.
+     *
+     * @param nombre nombre de la base de datos en memoria
+     * @param participaciones número de participaciones; el resto de tablas se dimensiona a partir de él
+     * @throws SQLException si ocurre un error con la base de datos
+     * @throws IOException si no se puede escribir el archivo de configuración
+     */
+    public BaseDatosPrueba(String nombre, int participaciones) throws SQLException, IOException {
+        this.url = "jdbc:h2:mem:" + nombre + ";MODE=MariaDB;DB_CLOSE_DELAY=-1";
+        this.deportistas = Math.max(10, participaciones / 4);
+        this.eventos = participaciones / 100 + 10;
+        try (Connection conn = DriverManager.getConnection(url, "sa", "")) {
+            crearEsquema(conn);
+            rellenar(conn, participaciones);
+            crearIndices(conn);
+            rellenarResumen(conn);
+        }
+        escribirConfiguracion();
+    }
+
+    /**
+     * Obtiene el número de deportistas generados, con ids de 1 a este valor.
+     *
+     * @return número de deportistas
+     */
+    public int getDeportistas() {
+        return deportistas;
+    }
+
+    /**
+     * Genera nombres con la misma semilla y distribución que los de la tabla Deportista.
+     *
+     * @param cantidad número de nombres
+     * @return los nombres
+     */
+    public static List<String> nombres(int cantidad) {
+        Random random = new Random(SEMILLA);
+        List<String> nombres = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            nombres.add(nombre(random));
+        }
+        return nombres;
+    }
+
+    private void crearEsquema(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE Deporte (id_deporte INT AUTO_INCREMENT PRIMARY KEY, nombre VARCHAR(100) NOT NULL)");
+            stmt.execute("CREATE TABLE Deportista (id_deportista INT AUTO_INCREMENT PRIMARY KEY, nombre VARCHAR(150) NOT NULL,"
+                    + " sexo VARCHAR(1) NOT NULL, peso INT, altura INT, foto BLOB)");
+            stmt.execute("CREATE TABLE Equipo (id_equipo INT AUTO_INCREMENT PRIMARY KEY, nombre VARCHAR(50) NOT NULL, iniciales VARCHAR(3) NOT NULL)");
+            stmt.execute("CREATE TABLE Olimpiada (id_olimpiada INT AUTO_INCREMENT PRIMARY KEY, nombre VARCHAR(11) NOT NULL,"
+                    + " anio SMALLINT NOT NULL, temporada VARCHAR(6) NOT NULL, ciudad VARCHAR(50) NOT NULL)");
+            stmt.execute("CREATE TABLE Evento (id_evento INT AUTO_INCREMENT PRIMARY KEY, nombre VARCHAR(150) NOT NULL,"
+                    + " id_olimpiada INT NOT NULL REFERENCES Olimpiada (id_olimpiada), id_deporte INT NOT NULL REFERENCES Deporte (id_deporte))");
+            stmt.execute("CREATE TABLE Participacion (id_deportista INT NOT NULL REFERENCES Deportista (id_deportista),"
+                    + " id_evento INT NOT NULL REFERENCES Evento (id_evento), id_equipo INT NOT NULL REFERENCES Equipo (id_equipo),"
+                    + " edad TINYINT, medalla VARCHAR(6), PRIMARY KEY (id_deportista, id_evento))");
+            stmt.execute("CREATE TABLE ResumenOlimpiada (id_olimpiada INT NOT NULL PRIMARY KEY REFERENCES Olimpiada (id_olimpiada) ON DELETE CASCADE,"
+                    + " temporada VARCHAR(6) NOT NULL, eventos INT NOT NULL DEFAULT 0, participaciones INT NOT NULL DEFAULT 0,"
+                    + " deportistas INT NOT NULL DEFAULT 0, equipos INT NOT NULL DEFAULT 0, oros INT NOT NULL DEFAULT 0,"
+                    + " platas INT NOT NULL DEFAULT 0, bronces INT NOT NULL DEFAULT 0)");
+        }
+    }
+
+    /**
+     * Crea los índices de olimpiadas.sql y de las migraciones V002 y V003 después de la carga, que así es más rápida.
+     */
+    private void crearIndices(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX idx_resumen_temporada ON ResumenOlimpiada (temporada)");
+            stmt.execute("CREATE INDEX idx_evento_olimpiada ON Evento (id_olimpiada)");
+            stmt.execute("CREATE INDEX idx_evento_deporte ON Evento (id_deporte)");
+            stmt.execute("CREATE INDEX idx_participacion_evento ON Participacion (id_evento, medalla)");
+            stmt.execute("CREATE INDEX idx_participacion_equipo ON Participacion (id_equipo)");
+            stmt.execute("CREATE INDEX idx_deportista_nombre ON Deportista (nombre)");
+            stmt.execute("CREATE INDEX idx_evento_nombre ON Evento (nombre)");
+        }
+    }
+
+    /**
+     * Rellena ResumenOlimpiada con el mismo cálculo que la migración V001.
+     */
+    private void rellenarResumen(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO ResumenOlimpiada (id_olimpiada, temporada, eventos, participaciones, deportistas, equipos, oros, platas, bronces)"
+                    + " SELECT o.id_olimpiada, o.temporada, COUNT(DISTINCT ev.id_evento), COUNT(p.id_evento),"
+                    + " COUNT(DISTINCT p.id_deportista), COUNT(DISTINCT p.id_equipo),"
+                    + " SUM(CASE WHEN p.medalla = 'Gold' THEN 1 ELSE 0 END), SUM(CASE WHEN p.medalla = 'Silver' THEN 1 ELSE 0 END),"
+                    + " SUM(CASE WHEN p.medalla = 'Bronze' THEN 1 ELSE 0 END)"
+                    + " FROM Olimpiada o"
+                    + " LEFT JOIN Evento ev ON ev.id_olimpiada = o.id_olimpiada"
+                    + " LEFT JOIN Participacion p ON p.id_evento = ev.id_evento"
+                    + " GROUP BY o.id_olimpiada, o.temporada");
+        }
+        conn.commit();
+    }
+
+    private void rellenar(Connection conn, int participaciones) throws SQLException {
+        Random random = new Random(SEMILLA);
+        conn.setAutoCommit(false);
+        int deportes = 60;
+        int olimpiadas = 50;
+        int equipos = 200;
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO Deporte (id_deporte,nombre) VALUES (?,?)")) {
+            for (int i = 1; i <= deportes; i++) {
+                pstmt.setInt(1, i);
+                pstmt.setString(2, "Deporte " + i);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO Olimpiada (id_olimpiada,nombre,anio,temporada,ciudad) VALUES (?,?,?,?,?)")) {
+            for (int i = 1; i <= olimpiadas; i++) {
+                int anio = 1896 + 2 * i;
+                String temporada = i % 2 == 0 ? "Summer" : "Winter";
+                pstmt.setInt(1, i);
+                pstmt.setString(2, anio + " " + temporada);
+                pstmt.setInt(3, anio);
+                pstmt.setString(4, temporada);
+                pstmt.setString(5, "Ciudad " + i);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO Equipo (id_equipo,nombre,iniciales) VALUES (?,?,?)")) {
+            for (int i = 1; i <= equipos; i++) {
+                pstmt.setInt(1, i);
+                pstmt.setString(2, "Equipo " + i);
+                pstmt.setString(3, String.format("%03d", i));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO Evento (id_evento,nombre,id_olimpiada,id_deporte) VALUES (?,?,?,?)")) {
+            for (int i = 1; i <= eventos; i++) {
+                pstmt.setInt(1, i);
+                pstmt.setString(2, "Evento " + i);
+                pstmt.setInt(3, 1 + random.nextInt(olimpiadas));
+                pstmt.setInt(4, 1 + random.nextInt(deportes));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        List<String> nombres = nombres(deportistas);
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO Deportista (id_deportista,nombre,sexo,peso,altura) VALUES (?,?,?,?,?)")) {
+            for (int i = 1; i <= deportistas; i++) {
+                pstmt.setInt(1, i);
+                pstmt.setString(2, nombres.get(i - 1));
+                pstmt.setString(3, random.nextBoolean() ? "M" : "F");
+                pstmt.setInt(4, 45 + random.nextInt(80));
+                pstmt.setInt(5, 150 + random.nextInt(60));
+                pstmt.addBatch();
+                if (i % 10000 == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+        String[] medallas = {"Gold", "Silver", "Bronze", null, null, null, null, null, null, null};
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO Participacion (id_deportista,id_evento,id_equipo,edad,medalla) VALUES (?,?,?,?,?)")) {
+            for (int i = 0; i < participaciones; i++) {
+                // Cada fila tiene un par (deportista, evento) distinto
+                pstmt.setInt(1, i % deportistas + 1);
+                pstmt.setInt(2, (i / deportistas) % eventos + 1);
+                pstmt.setInt(3, 1 + random.nextInt(equipos));
+                pstmt.setInt(4, 16 + random.nextInt(25));
+                pstmt.setString(5, medallas[random.nextInt(medallas.length)]);
+                pstmt.addBatch();
+                if (i % 10000 == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+        conn.commit();
+    }
+
+    private void escribirConfiguracion() throws IOException {
+        Properties configuracion = new Properties();
+        configuracion.setProperty("url", url);
+        configuracion.setProperty("user", "sa");
+        configuracion.setProperty("password", "");
+        configuracion.setProperty("pool.min", "1");
+        configuracion.setProperty("pool.max", "4");
+        File archivo = File.createTempFile("olimpiadas-benchmark", ".properties");
+        archivo.deleteOnExit();
+        try (OutputStream salida = new FileOutputStream(archivo)) {
+            configuracion.store(salida, "Configuración de los benchmarks");
+        }
+        System.setProperty("olimpiadas.config", archivo.getAbsolutePath());
+    }
+
+    private static String nombre(Random random) {
+        StringBuilder nombre = new StringBuilder();
+        for (int parte = 0; parte < 2; parte++) {
+            StringBuilder palabra = new StringBuilder();
+            int silabas = 2 + random.nextInt(3);
+            for (int i = 0; i < silabas; i++) {
+                palabra.append(SILABAS[random.nextInt(SILABAS.length)]);
+            }
+            palabra.setCharAt(0, Character.toUpperCase(palabra.charAt(0)));
+            if (parte > 0) {
+                nombre.append(' ');
+            }
+            nombre.append(palabra);
+        }
+        return nombre.toString();
+    }
+}
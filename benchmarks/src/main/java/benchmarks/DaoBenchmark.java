@@ -0,0 +1,76 @@
+package benchmarks;
+
+import BBDD.ConexionBBDD;
+import BBDD.PoolConexiones;
+import Dao.DaoDeportista;
+import Dao.DaoParticipacion;
+import model.Deportista;
+import model.Participacion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de los caminos críticos de acceso a datos: el listado de participaciones,
+ * la búsqueda de un deportista por id y la obtención de una conexión del pool.
+ * El tamaño indica el número de participaciones; cada tamaño se ejecuta en su propia JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int filas;
+
+    private BaseDatosPrueba baseDatos;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException, IOException {
+        baseDatos = new BaseDatosPrueba("dao" + filas, filas);
+        random = new SplittableRandom(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() {
+        PoolConexiones.cerrarPool();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Participacion> cargarParticipaciones() {
+        return DaoParticipacion.cargarListado();
+    }
+
+    @Benchmark
+    public Deportista getDeportista() {
+        return DaoDeportista.getDeportista(1 + random.nextInt(baseDatos.getDeportistas()));
+    }
+
+    @Benchmark
+    public boolean nuevaConexion() throws SQLException {
+        try (ConexionBBDD connection = new ConexionBBDD()) {
+            return connection.getConnection() != null;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package benchmarks;
+
+import controlador.IndiceTrigramas;
+import model.Deportista;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks del filtro por nombre de la tabla principal. Compara el recorrido completo que hacía
+ * filtrar() (pasar cada nombre a minúsculas y usar contains) con la búsqueda en el índice de trigramas.
+ * Los dos trabajan sobre deportistas, como la tabla: los nombres generados se repiten, así que indexar los textos
+ * juntaría los repetidos y el índice devolvería menos filas que el recorrido.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FiltroBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int filas;
+
+    /**
+     * Textos buscados: uno corto que no usa trigramas, uno frecuente y uno poco frecuente.
+     */
+    @Param({"an", "son", "marqui"})
+    private String texto;
+
+    private List<Deportista> deportistas;
+    private IndiceTrigramas<Deportista> indice;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        List<String> nombres = BaseDatosPrueba.nombres(filas);
+        deportistas = new ArrayList<>(filas);
+        indice = new IndiceTrigramas<>(Deportista::getNombre);
+        for (int i = 0; i < filas; i++) {
+            Deportista deportista = new Deportista(i + 1, nombres.get(i), 'F', 60, 170, null);
+            deportistas.add(deportista);
+            indice.aniadir(deportista);
+        }
+    }
+
+    @Benchmark
+    public List<Deportista> filtroLineal() {
+        String valor = texto.toLowerCase();
+        List<Deportista> resultado = new ArrayList<>();
+        for (Deportista deportista : deportistas) {
+            if (deportista.getNombre().toLowerCase().contains(valor)) {
+                resultado.add(deportista);
+            }
+        }
+        return resultado;
+    }
+
+    @Benchmark
+    public Set<Deportista> filtroIndice() {
+        return indice.buscar(texto);
+    }
+}
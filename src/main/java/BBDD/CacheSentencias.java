@@ -0,0 +1,209 @@
+package BBDD;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché de sentencias preparadas de una conexión física del pool, indexada por el texto SQL.
+ * Las sentencias se preparan una vez en el servidor y se reutilizan en todos los préstamos de la conexión.
+ * Cuando se supera la capacidad se cierra la sentencia usada hace más tiempo (LRU).
+ * <p>
+ * Las sentencias se entregan envueltas: cerrarlas (por ejemplo al salir de un try-with-resources)
+ * solo limpia sus parámetros, lotes y tamaño de bloque de lectura (fetch size) y las deja disponibles para el siguiente uso.
+ * Si se pide una sentencia que ya está en uso se prepara otra aparte que sí se cierra normalmente.
+ * No es segura entre hilos; una conexión solo la utiliza quien la tiene prestada.
+ */
+class CacheSentencias {
+    private final Connection connection;
+    private final int capacidad;
+    private final LongAdder aciertos;
+    private final LongAdder fallos;
+    private final LongAdder expulsiones;
+    private final LinkedHashMap<String, SentenciaCacheada> sentencias;
+
+    /**
+     * Sentencia guardada en la caché junto con su envoltorio y si está en uso.
+     */
+    private static class SentenciaCacheada {
+        private final PreparedStatement sentencia;
+        private PreparedStatement envoltorio;
+        private boolean enUso = false;
+
+        private SentenciaCacheada(PreparedStatement sentencia) {
+            this.sentencia = sentencia;
+        }
+    }
+
+    /**
+     * Constructor de la caché de una conexión.
+     *
+     * @param connection conexión física
+     * @param capacidad número máximo de sentencias abiertas
+     * @param aciertos contador compartido de sentencias reutilizadas
+     * @param fallos contador compartido de sentencias preparadas
+     * @param expulsiones contador compartido de sentencias cerradas por superar la capacidad
+     */
+    CacheSentencias(Connection connection, int capacidad, LongAdder aciertos, LongAdder fallos, LongAdder expulsiones) {
+        this.connection = connection;
+        this.capacidad = capacidad;
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.expulsiones = expulsiones;
+        this.sentencias = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Obtiene la sentencia preparada de un texto SQL, preparándola si no está en la caché.
+     *
+     * @param sql texto de la sentencia
+     * @param clavesGeneradas {@link java.sql.Statement#RETURN_GENERATED_KEYS} o {@link java.sql.Statement#NO_GENERATED_KEYS}
+     * @return la sentencia lista para asignar parámetros
+     * @throws SQLException si ocurre un error al preparar la sentencia
+     */
+    PreparedStatement preparar(String sql, int clavesGeneradas) throws SQLException {
+        String clave = clavesGeneradas + ":" + sql;
+        SentenciaCacheada cacheada = sentencias.get(clave);
+        if (cacheada != null && cacheada.enUso) {
+            // La misma consulta anidada en el mismo préstamo: se usa una sentencia independiente
+            return connection.prepareStatement(sql, clavesGeneradas);
+        }
+        if (cacheada != null && !cacheada.sentencia.isClosed()) {
+            aciertos.increment();
+        } else {
+            fallos.increment();
+            cacheada = new SentenciaCacheada(connection.prepareStatement(sql, clavesGeneradas));
+            cacheada.envoltorio = envolver(cacheada);
+            sentencias.put(clave, cacheada);
+            // Se marca antes de expulsar para que la sentencia nueva no se cierre al hacer sitio
+            cacheada.enUso = true;
+            expulsar();
+        }
+        cacheada.enUso = true;
+        return cacheada.envoltorio;
+    }
+
+    /**
+     * Marca todas las sentencias como libres. Se utiliza al devolver la conexión al pool,
+     * por si quien la tenía prestada no cerró alguna sentencia.
+     */
+    void liberar() {
+        for (SentenciaCacheada cacheada : sentencias.values()) {
+            if (cacheada.enUso) {
+                cacheada.enUso = false;
+                try {
+                    limpiar(cacheada.sentencia);
+                } catch (SQLException e) {
+                    System.err.println(e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Cierra todas las sentencias. Se utiliza cuando el pool descarta la conexión.
+     */
+    void cerrar() {
+        for (SentenciaCacheada cacheada : sentencias.values()) {
+            cerrar(cacheada.sentencia);
+        }
+        sentencias.clear();
+    }
+
+    /**
+     * Cierra las sentencias usadas hace más tiempo que no están en uso hasta volver a la capacidad.
+     */
+    private void expulsar() {
+        Iterator<SentenciaCacheada> it = sentencias.values().iterator();
+        while (sentencias.size() > capacidad && it.hasNext()) {
+            SentenciaCacheada cacheada = it.next();
+            if (!cacheada.enUso) {
+                it.remove();
+                cerrar(cacheada.sentencia);
+                expulsiones.increment();
+            }
+        }
+    }
+
+    /**
+     * Cierra una sentencia física ignorando los errores.
+     *
+     * @param sentencia sentencia a cerrar
+     */
+    private static void cerrar(PreparedStatement sentencia) {
+        try {
+            sentencia.close();
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Deja una sentencia como recién preparada para el siguiente uso. El fetch size se restablece porque
+     * los listados en flujo lo cambian y, si se mantuviera, las consultas normales leerían por bloques sin necesidad.
+     *
+     * @param sentencia sentencia real
+     * @throws SQLException si ocurre un error con la sentencia
+     */
+    private static void limpiar(PreparedStatement sentencia) throws SQLException {
+        sentencia.clearParameters();
+        sentencia.clearBatch();
+        sentencia.setFetchSize(0);
+    }
+
+    /**
+     * Crea el envoltorio de una sentencia cacheada. Todas las llamadas pasan a la sentencia real salvo close(),
+     * que la deja lista para reutilizarse.
+     *
+     * @param cacheada sentencia a envolver
+     * @return el envoltorio
+     */
+    private static PreparedStatement envolver(SentenciaCacheada cacheada) {
+        InvocationHandler manejador = (proxy, metodo, args) -> {
+            switch (metodo.getName()) {
+                case "close":
+                    if (cacheada.enUso) {
+                        cacheada.enUso = false;
+                        limpiar(cacheada.sentencia);
+                    }
+                    return null;
+                case "isClosed":
+                    return !cacheada.enUso || cacheada.sentencia.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return invocar(cacheada.sentencia, metodo, args);
+        };
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, manejador);
+    }
+
+    /**
+     * Invoca un método sobre la sentencia real devolviendo la excepción original.
+     *
+     * @param sentencia sentencia real
+     * @param metodo método invocado
+     * @param args argumentos
+     * @return el resultado del método
+     * @throws Throwable la excepción lanzada por la sentencia
+     */
+    private static Object invocar(PreparedStatement sentencia, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(sentencia, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -1,42 +1,40 @@
 package BBDD;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.HashMap;
+import java.sql.Statement;
 import java.util.Properties;
 
 /**
  * Clase de conexión a la base de datos.
- * Esta clase establece y gestiona la conexión con la base de datos utilizando los parámetros definidos en un archivo de configuración.
+ * Cada instancia toma prestada una conexión del {@link PoolConexiones} y la devuelve al cerrarse,
+ * por lo que debe cerrarse siempre (preferiblemente con try-with-resources).
+ * Si el hilo tiene abierta una {@link UnidadDeTrabajo}, se utiliza la conexión de la unidad y al cerrarse no se devuelve.
  */
-public class ConexionBBDD {
+public class ConexionBBDD implements AutoCloseable {
+   private final PoolConexiones pool;
    private final Connection connection;
+   private final Connection compartida;
 
     /**
-     * Constructor de la clase que establece la conexión a la base de datos.
-     * Utiliza los parámetros de configuración leídos desde el archivo "configuracion.properties".
+     * Constructor de la clase que obtiene una conexión del pool de conexiones.
+     * El pool se configura con los parámetros leídos desde el archivo "configuration.properties".
+     * La conexión se devuelve siempre al pool que la prestó, aunque entretanto se haya recargado la configuración.
      *
      * @throws SQLException Si ocurre un error al intentar conectar a la base de datos.
 */
     public ConexionBBDD() throws SQLException {
-        // Los parámetros de la conexión
-        Properties configuracion = getConfiguracion();
-        Properties connConfig = new Properties();
-        connConfig.setProperty("user", configuracion.getProperty("user"));
-        connConfig.setProperty("password", configuracion.getProperty("password"));
-
-        // La conexión en sí
-        connection = DriverManager.getConnection("jdbc:mariadb://" + configuracion.getProperty("address") + ":" + configuracion.getProperty("port") + "/" + configuracion.getProperty("database") + "?createDatabaseIfNotExist=true", connConfig);
-
-        DatabaseMetaData databaseMetaData = connection.getMetaData();
-        connection.setAutoCommit(true);
-
+        UnidadDeTrabajo unidad = UnidadDeTrabajo.actual();
+        if (unidad != null) {
+            pool = unidad.getPool();
+            connection = unidad.getConexionFisica();
+            compartida = unidad.getConexionCompartida();
+        } else {
+            pool = PoolConexiones.getInstance();
+            connection = pool.prestar();
+            compartida = null;
+        }
     }
 
     /**
@@ -46,48 +44,68 @@ public class ConexionBBDD {
      *
      */
     public Connection getConnection() {
-        return connection;
+        return compartida != null ? compartida : connection;
+    }
+
+
+    /**
+     * Prepara una sentencia reutilizando la que ya se preparó con el mismo texto en esta conexión física.
+     * Se cierra como cualquier sentencia; al cerrarla queda disponible en la caché para el siguiente préstamo.
+     *
+     * @param sql texto de la sentencia
+     * @return la sentencia preparada
+     * @throws SQLException si ocurre un error al preparar la sentencia
+     */
+    public PreparedStatement prepararSentencia(String sql) throws SQLException {
+        return pool.preparar(connection, sql, Statement.NO_GENERATED_KEYS);
     }
 
+    /**
+     * Prepara una sentencia de la caché de la conexión indicando si debe devolver las claves generadas.
+     *
+     * @param sql texto de la sentencia
+     * @param clavesGeneradas {@link Statement#RETURN_GENERATED_KEYS} o {@link Statement#NO_GENERATED_KEYS}
+     * @return la sentencia preparada
+     * @throws SQLException si ocurre un error al preparar la sentencia
+     */
+    public PreparedStatement prepararSentencia(String sql, int clavesGeneradas) throws SQLException {
+        return pool.preparar(connection, sql, clavesGeneradas);
+    }
 
     /**
-     * Cierra la conexión a la base de datos.
+     * Devuelve la conexión al pool para que pueda reutilizarse.
+     * Si pertenece a una unidad de trabajo no se devuelve: lo hace la unidad al cerrarse.
      *
-     * @return La conexión cerrada.
+     * @return La conexión devuelta.
      * @throws SQLException Si ocurre un error al intentar cerrar la conexión.
     */
     public Connection closeConnection() throws SQLException {
-        connection.close();
+        if (compartida != null) {
+            return compartida;
+        }
+        pool.devolver(connection);
         return connection;
     }
 
-    // Se inicializa la configuración
-    Properties configuracion = getConfiguracion();
+    /**
+     * Devuelve la conexión al pool. Permite usar la clase en un try-with-resources.
+     *
+     * @throws SQLException Si ocurre un error al intentar cerrar la conexión.
+     */
+    @Override
+    public void close() throws SQLException {
+        closeConnection();
+    }
 
     /**
-     * Lee y devuelve la configuración de la base de datos desde el archivo "configuracion.properties".
-     * Este archivo debe contener los parámetros necesarios para la conexión.
+     * Devuelve la configuración de la base de datos del archivo "configuration.properties".
+     * El archivo se lee una sola vez (ver {@link Configuracion}); este método no accede al disco.
+     * Se puede indicar otro archivo con la propiedad del sistema "olimpiadas.config", por ejemplo en los benchmarks.
      *
-     * @return Las propiedades de configuración necesarias para establecer la conexión a la base de datos.
+     * @return Una copia de las propiedades de configuración necesarias para establecer la conexión a la base de datos.
      * @throws RuntimeException Si no se encuentra el archivo de configuración.
      */
     public static Properties getConfiguracion() {
-        HashMap<String, String> map = new HashMap<String, String>();
-        File f = new File("configuration.properties");
-        Properties properties;
-        try {
-            FileInputStream configFileReader = new FileInputStream(f);
-            properties = new Properties();
-            try {
-                properties.load(configFileReader);
-                configFileReader.close();
-            } catch (IOException e) {
-                System.out.println(e.getMessage());
-            }
-        } catch (FileNotFoundException e) {
-            System.out.println(e.getMessage());
-            throw new RuntimeException("configuracion.properties not found at config file path " + f.getPath());
-        }
-        return properties;
+        return Configuracion.getActual().getPropiedades();
     }
 }
@@ -0,0 +1,306 @@
+package BBDD;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Configuración de la aplicación leída de "configuration.properties" (base de datos, pool, búsquedas...)
+ * y de "lang.properties" (idioma).
+ * <p>
+ * Cada instancia es una instantánea inmutable. Los archivos se leen una vez al arrancar y la instantánea actual
+ * se guarda en una referencia atómica, de forma que consultar la configuración no accede al disco.
+ * Si se activa la vigilancia con {@link #vigilar()}, al modificar los archivos se carga una instantánea nueva,
+ * se sustituye la actual de una vez y se avisa a los oyentes registrados (el pool y el idioma).
+ */
+public class Configuracion {
+    private static final String ARCHIVO_IDIOMA = "lang.properties";
+
+    private static final AtomicReference<Configuracion> actual = new AtomicReference<>();
+    private static final List<BiConsumer<Configuracion, Configuracion>> oyentes = new CopyOnWriteArrayList<>();
+    private static WatchService vigilante;
+
+    private final Properties propiedades;
+    private final Properties idioma;
+
+    private Configuracion(Properties propiedades, Properties idioma) {
+        this.propiedades = propiedades;
+        this.idioma = idioma;
+    }
+
+    /**
+     * Obtiene la configuración actual, leyéndola de los archivos la primera vez.
+     *
+     * @return la instantánea actual
+     * @throws RuntimeException si no se encuentra el archivo de configuración
+     */
+    public static Configuracion getActual() {
+        Configuracion configuracion = actual.get();
+        if (configuracion == null) {
+            actual.compareAndSet(null, leer());
+            configuracion = actual.get();
+        }
+        return configuracion;
+    }
+
+    /**
+     * Registra un oyente que se llama, desde el hilo de vigilancia, cada vez que cambia la configuración.
+     *
+     * @param oyente función que recibe la configuración anterior y la nueva
+     */
+    public static void addListener(BiConsumer<Configuracion, Configuracion> oyente) {
+        oyentes.add(oyente);
+    }
+
+    /**
+     * Empieza a vigilar los archivos de configuración en un hilo en segundo plano. Si ya se estaban vigilando no hace nada.
+     */
+    public static synchronized void vigilar() {
+        if (vigilante != null) {
+            return;
+        }
+        getActual();
+        try {
+            vigilante = FileSystems.getDefault().newWatchService();
+            Path config = archivoConfiguracion().toPath().toAbsolutePath();
+            Path lang = new File(ARCHIVO_IDIOMA).toPath().toAbsolutePath();
+            config.getParent().register(vigilante, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            if (!lang.getParent().equals(config.getParent())) {
+                lang.getParent().register(vigilante, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            }
+            WatchService servicio = vigilante;
+            Thread hilo = new Thread(() -> vigilar(servicio, config, lang), "configuracion-vigilancia");
+            hilo.setDaemon(true);
+            hilo.start();
+        } catch (IOException e) {
+            System.err.println("No se pueden vigilar los archivos de configuración: " + e.getMessage());
+            vigilante = null;
+        }
+    }
+
+    /**
+     * Deja de vigilar los archivos de configuración.
+     */
+    public static synchronized void dejarDeVigilar() {
+        if (vigilante != null) {
+            try {
+                vigilante.close();
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+            }
+            vigilante = null;
+        }
+    }
+
+    /**
+     * Vuelve a leer los archivos y, si han cambiado, sustituye la configuración actual y avisa a los oyentes.
+     * Si no se pueden leer se mantiene la configuración anterior.
+     */
+    public static void recargar() {
+        Configuracion nueva;
+        try {
+            nueva = leer();
+        } catch (RuntimeException e) {
+            System.err.println("No se ha podido recargar la configuración: " + e.getMessage());
+            return;
+        }
+        Configuracion anterior = actual.getAndSet(nueva);
+        if (anterior != null && !anterior.equals(nueva)) {
+            for (BiConsumer<Configuracion, Configuracion> oyente : oyentes) {
+                try {
+                    oyente.accept(anterior, nueva);
+                } catch (RuntimeException e) {
+                    System.err.println(e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtiene un valor de "configuration.properties".
+     *
+     * @param clave nombre de la propiedad
+     * @return el valor o null si no existe
+     */
+    public String get(String clave) {
+        return propiedades.getProperty(clave);
+    }
+
+    /**
+     * Obtiene un valor de "configuration.properties" o un valor por defecto.
+     *
+     * @param clave nombre de la propiedad
+     * @param defecto valor si no existe
+     * @return el valor de la propiedad
+     */
+    public String get(String clave, String defecto) {
+        return propiedades.getProperty(clave, defecto);
+    }
+
+    /**
+     * Obtiene un valor entero de "configuration.properties".
+     *
+     * @param clave nombre de la propiedad
+     * @param defecto valor si la propiedad no existe o no es numérica
+     * @return el valor de la propiedad o el valor por defecto
+     */
+    public int getEntero(String clave, int defecto) {
+        String valor = propiedades.getProperty(clave);
+        if (valor == null) {
+            return defecto;
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Valor no numérico para " + clave + ": " + valor);
+            return defecto;
+        }
+    }
+
+    /**
+     * Obtiene una copia de todas las propiedades de "configuration.properties".
+     *
+     * @return copia de las propiedades, se puede modificar sin afectar a la configuración
+     */
+    public Properties getPropiedades() {
+        Properties copia = new Properties();
+        copia.putAll(propiedades);
+        return copia;
+    }
+
+    /**
+     * Obtiene el código del idioma configurado en "lang.properties".
+     *
+     * @return el código de idioma, "es" si no está configurado
+     */
+    public String getIdioma() {
+        return idioma.getProperty("language", "es");
+    }
+
+    /**
+     * Comprueba si cambia alguna propiedad de "configuration.properties" que empiece por alguno de los prefijos.
+     *
+     * @param otra configuración con la que comparar
+     * @param prefijos prefijos de las claves a comparar
+     * @return true si alguna de esas propiedades es distinta
+     */
+    public boolean cambia(Configuracion otra, String... prefijos) {
+        for (String clave : propiedades.stringPropertyNames()) {
+            if (empiezaPor(clave, prefijos) && !Objects.equals(get(clave), otra.get(clave))) {
+                return true;
+            }
+        }
+        for (String clave : otra.propiedades.stringPropertyNames()) {
+            if (empiezaPor(clave, prefijos) && get(clave) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Configuracion that = (Configuracion) o;
+        return propiedades.equals(that.propiedades) && idioma.equals(that.idioma);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(propiedades, idioma);
+    }
+
+    private static boolean empiezaPor(String clave, String... prefijos) {
+        for (String prefijo : prefijos) {
+            if (clave.startsWith(prefijo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Archivo de configuración de la base de datos. Se puede cambiar con la propiedad del sistema "olimpiadas.config",
+     * por ejemplo en los benchmarks.
+     *
+     * @return el archivo de configuración
+     */
+    private static File archivoConfiguracion() {
+        return new File(System.getProperty("olimpiadas.config", "configuration.properties"));
+    }
+
+    /**
+     * Lee los dos archivos de configuración. El archivo de idioma es opcional, ya que los programas sin interfaz
+     * (el importador o los benchmarks) no lo necesitan.
+     *
+     * @return la instantánea leída
+     * @throws RuntimeException si no se encuentra el archivo de configuración
+     */
+    private static Configuracion leer() {
+        File idioma = new File(ARCHIVO_IDIOMA);
+        return new Configuracion(leer(archivoConfiguracion()), idioma.exists() ? leer(idioma) : new Properties());
+    }
+
+    /**
+     * Lee un archivo de propiedades.
+     *
+     * @param f archivo a leer
+     * @return las propiedades leídas
+     * @throws RuntimeException si no se encuentra o no se puede leer el archivo
+     */
+    private static Properties leer(File f) {
+        Properties properties = new Properties();
+        try (InputStream configFileReader = new FileInputStream(f)) {
+            properties.load(configFileReader);
+        } catch (IOException e) {
+            throw new RuntimeException(f.getName() + " not found at config file path " + f.getPath(), e);
+        }
+        return properties;
+    }
+
+    /**
+     * Bucle del hilo de vigilancia: recarga la configuración cuando se modifica alguno de los archivos.
+     *
+     * @param servicio servicio de vigilancia
+     * @param config ruta del archivo de configuración
+     * @param lang ruta del archivo de idioma
+     */
+    private static void vigilar(WatchService servicio, Path config, Path lang) {
+        try {
+            while (true) {
+                WatchKey clave = servicio.take();
+                boolean cambiado = false;
+                Path directorio = (Path) clave.watchable();
+                for (WatchEvent<?> evento : clave.pollEvents()) {
+                    if (evento.context() instanceof Path nombre) {
+                        Path ruta = directorio.resolve(nombre);
+                        cambiado |= ruta.equals(config) || ruta.equals(lang);
+                    }
+                }
+                clave.reset();
+                if (cambiado) {
+                    // Los editores suelen escribir el archivo en varios pasos; se espera a que terminen
+                    Thread.sleep(100);
+                    recargar();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Se ha dejado de vigilar
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package BBDD;
+
+/**
+ * Clase que representa una instantánea de las estadísticas del pool de conexiones.
+ * Los valores se copian en el momento de la consulta, por lo que no cambian aunque el pool siga trabajando.
+ */
+public class EstadisticasPool {
+    private final int activas;
+    private final int inactivas;
+    private final int maximo;
+    private final long totalPrestamos;
+    private final long esperaTotalNanos;
+    private final long esperaMaximaNanos;
+    private final long conexionesCreadas;
+    private final long conexionesDescartadas;
+    private final long fugasDetectadas;
+    private final long sentenciasReutilizadas;
+    private final long sentenciasPreparadas;
+    private final long sentenciasExpulsadas;
+
+    /**
+     * Constructor con todos los valores de la instantánea.
+     *
+     * @param activas conexiones prestadas en este momento
+     * @param inactivas conexiones abiertas esperando a ser prestadas
+     * @param maximo número máximo de conexiones del pool
+     * @param totalPrestamos número de préstamos realizados desde el arranque
+     * @param esperaTotalNanos tiempo total esperado por los préstamos, en nanosegundos
+     * @param esperaMaximaNanos mayor tiempo esperado por un préstamo, en nanosegundos
+     * @param conexionesCreadas conexiones físicas abiertas desde el arranque
+     * @param conexionesDescartadas conexiones cerradas por inactividad o por no ser válidas
+     * @param fugasDetectadas préstamos que han superado el umbral de fuga
+     * @param sentenciasReutilizadas sentencias preparadas obtenidas de la caché de su conexión
+     * @param sentenciasPreparadas sentencias que se han tenido que preparar por no estar en la caché
+     * @param sentenciasExpulsadas sentencias cerradas por superar la capacidad de la caché
+     */
+    public EstadisticasPool(int activas, int inactivas, int maximo, long totalPrestamos, long esperaTotalNanos,
+                            long esperaMaximaNanos, long conexionesCreadas, long conexionesDescartadas, long fugasDetectadas,
+                            long sentenciasReutilizadas, long sentenciasPreparadas, long sentenciasExpulsadas) {
+        this.activas = activas;
+        this.inactivas = inactivas;
+        this.maximo = maximo;
+        this.totalPrestamos = totalPrestamos;
+        this.esperaTotalNanos = esperaTotalNanos;
+        this.esperaMaximaNanos = esperaMaximaNanos;
+        this.conexionesCreadas = conexionesCreadas;
+        this.conexionesDescartadas = conexionesDescartadas;
+        this.fugasDetectadas = fugasDetectadas;
+        this.sentenciasReutilizadas = sentenciasReutilizadas;
+        this.sentenciasPreparadas = sentenciasPreparadas;
+        this.sentenciasExpulsadas = sentenciasExpulsadas;
+    }
+
+    public int getActivas() {
+        return activas;
+    }
+
+    public int getInactivas() {
+        return inactivas;
+    }
+
+    public int getMaximo() {
+        return maximo;
+    }
+
+    public long getTotalPrestamos() {
+        return totalPrestamos;
+    }
+
+    public long getEsperaTotalNanos() {
+        return esperaTotalNanos;
+    }
+
+    public long getEsperaMaximaNanos() {
+        return esperaMaximaNanos;
+    }
+
+    /**
+     * Calcula el tiempo medio de espera de un préstamo.
+     *
+     * @return media de espera en milisegundos, 0 si no ha habido préstamos
+     */
+    public double getEsperaMediaMillis() {
+        if (totalPrestamos == 0) {
+            return 0;
+        }
+        return esperaTotalNanos / 1_000_000.0 / totalPrestamos;
+    }
+
+    public long getConexionesCreadas() {
+        return conexionesCreadas;
+    }
+
+    public long getConexionesDescartadas() {
+        return conexionesDescartadas;
+    }
+
+    public long getFugasDetectadas() {
+        return fugasDetectadas;
+    }
+
+    public long getSentenciasReutilizadas() {
+        return sentenciasReutilizadas;
+    }
+
+    public long getSentenciasPreparadas() {
+        return sentenciasPreparadas;
+    }
+
+    public long getSentenciasExpulsadas() {
+        return sentenciasExpulsadas;
+    }
+
+    @Override
+    public String toString() {
+        return "activas=" + activas + ", inactivas=" + inactivas + ", maximo=" + maximo
+                + ", prestamos=" + totalPrestamos + ", esperaMedia=" + String.format("%.3f", getEsperaMediaMillis()) + "ms"
+                + ", esperaMaxima=" + (esperaMaximaNanos / 1_000_000.0) + "ms"
+                + ", creadas=" + conexionesCreadas + ", descartadas=" + conexionesDescartadas
+                + ", fugas=" + fugasDetectadas + ", sentencias reutilizadas=" + sentenciasReutilizadas
+                + ", preparadas=" + sentenciasPreparadas + ", expulsadas=" + sentenciasExpulsadas;
+    }
+}
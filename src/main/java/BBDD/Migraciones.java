@@ -0,0 +1,293 @@
+package BBDD;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Aplica al arrancar las migraciones del esquema que falten en la base de datos.
+ * <p>
+ * Las migraciones son scripts SQL en el directorio de recursos "Sql/migraciones", listados en orden en
+ * "migraciones.txt". El nombre de cada script empieza por V y su número de versión (por ejemplo V002__indices.sql).
+ * Las versiones aplicadas se anotan en la tabla schema_version, de forma que cada script se ejecuta una sola vez.
+ * En MariaDB las sentencias DDL confirman la transacción por sí mismas, así que los scripts deben poder repetirse
+ * sin error (CREATE ... IF NOT EXISTS) por si una migración se interrumpe a medias.
+ * <p>
+ * También permite comprobar con EXPLAIN que las consultas de los DAO que filtran por clave ajena o buscan por nombre
+ * usan un índice.
+ */
+public class Migraciones {
+    private static final String DIRECTORIO = "/Sql/migraciones/";
+    private static final String BLOQUEO = "olimpiadas_migraciones";
+
+    /**
+     * Consultas de los DAO que deben resolverse con un índice y no recorriendo la tabla entera.
+     */
+    private static final Map<String, String> CONSULTAS_INDEXADAS = new LinkedHashMap<>();
+
+    static {
+        CONSULTAS_INDEXADAS.put("Participacion por deportista", "SELECT EXISTS (SELECT 1 FROM Participacion WHERE id_deportista = 1)");
+        CONSULTAS_INDEXADAS.put("Participacion por evento", "SELECT EXISTS (SELECT 1 FROM Participacion WHERE id_evento = 1)");
+        CONSULTAS_INDEXADAS.put("Participacion por equipo", "SELECT EXISTS (SELECT 1 FROM Participacion WHERE id_equipo = 1)");
+        CONSULTAS_INDEXADAS.put("Evento por deporte", "SELECT EXISTS (SELECT 1 FROM Evento WHERE id_deporte = 1)");
+        CONSULTAS_INDEXADAS.put("Evento por olimpiada", "SELECT EXISTS (SELECT 1 FROM Evento WHERE id_olimpiada = 1)");
+        CONSULTAS_INDEXADAS.put("Deportista por prefijo del nombre", "SELECT id_deportista FROM Deportista WHERE nombre LIKE 'Zzq%' ORDER BY nombre LIMIT 500");
+        CONSULTAS_INDEXADAS.put("Evento por prefijo del nombre", "SELECT id_evento FROM Evento WHERE nombre LIKE 'Zzq%' ORDER BY nombre LIMIT 500");
+        // La subcadena no puede buscar en el índice, pero debe recorrerlo en lugar de la tabla (tipo index, no ALL)
+        CONSULTAS_INDEXADAS.put("Deportista por subcadena del nombre", "SELECT id_deportista FROM Deportista WHERE nombre LIKE '%zzq%' ORDER BY nombre LIMIT 500");
+        CONSULTAS_INDEXADAS.put("Evento por subcadena del nombre", "SELECT id_evento FROM Evento WHERE nombre LIKE '%zzq%' ORDER BY nombre LIMIT 500");
+        CONSULTAS_INDEXADAS.put("Deportista por texto completo", "SELECT id_deportista FROM Deportista WHERE MATCH(nombre) AGAINST ('+zzq*' IN BOOLEAN MODE)");
+        CONSULTAS_INDEXADAS.put("Evento por texto completo", "SELECT id_evento FROM Evento WHERE MATCH(nombre) AGAINST ('+zzq*' IN BOOLEAN MODE)");
+    }
+
+    /**
+     * Migración leída del índice de migraciones.
+     */
+    private static class Migracion {
+        private final int version;
+        private final String archivo;
+
+        private Migracion(int version, String archivo) {
+            this.version = version;
+            this.archivo = archivo;
+        }
+    }
+
+    private Migraciones() {}
+
+    /**
+     * Aplica en orden las migraciones pendientes. Mientras tanto se toma un bloqueo en el servidor para que
+     * dos instancias de la aplicación no migren a la vez.
+     *
+     * @return número de migraciones aplicadas
+     * @throws SQLException si falla alguna migración; las anteriores quedan aplicadas
+     */
+    public static int aplicar() throws SQLException {
+        List<Migracion> migraciones = leerIndice();
+        try (ConexionBBDD connection = new ConexionBBDD()) {
+            Connection conn = connection.getConnection();
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                        + "version int(11) NOT NULL, archivo varchar(200) NOT NULL,"
+                        + " aplicada timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP, PRIMARY KEY (version))");
+            }
+            bloquear(conn, true);
+            try {
+                Set<Integer> aplicadas = versionesAplicadas(conn);
+                int total = 0;
+                for (Migracion migracion : migraciones) {
+                    if (!aplicadas.contains(migracion.version)) {
+                        ejecutar(conn, migracion);
+                        total++;
+                    }
+                }
+                return total;
+            } finally {
+                bloquear(conn, false);
+            }
+        }
+    }
+
+    /**
+     * Comprueba con EXPLAIN que las consultas por clave ajena y la búsqueda por nombre de los DAO utilizan un índice.
+     *
+     * @return un aviso por cada consulta que recorre una tabla entera; vacío si todas usan índice
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    public static List<String> comprobarIndices() throws SQLException {
+        List<String> avisos = new ArrayList<>();
+        try (ConexionBBDD connection = new ConexionBBDD();
+             Statement stmt = connection.getConnection().createStatement()) {
+            for (Map.Entry<String, String> consulta : CONSULTAS_INDEXADAS.entrySet()) {
+                try (ResultSet rs = stmt.executeQuery("EXPLAIN " + consulta.getValue())) {
+                    while (rs.next()) {
+                        String tipo = rs.getString("type");
+                        // Las filas sin tabla son la parte exterior del EXISTS
+                        if (rs.getString("table") != null && ("ALL".equalsIgnoreCase(tipo) || rs.getString("key") == null)) {
+                            avisos.add(consulta.getKey() + ": recorre la tabla " + rs.getString("table") + " sin índice");
+                        }
+                    }
+                }
+            }
+        }
+        return avisos;
+    }
+
+    /**
+     * Aplica las migraciones pendientes y comprueba los índices desde la línea de comandos.
+     * Uso: Migraciones
+     *
+     * @param args argumentos de la línea de comandos (no se utilizan)
+     */
+    public static void main(String[] args) {
+        try {
+            System.out.println("Migraciones aplicadas: " + aplicar());
+            List<String> avisos = comprobarIndices();
+            if (avisos.isEmpty()) {
+                System.out.println("Todas las consultas comprobadas utilizan un índice");
+            }
+            for (String aviso : avisos) {
+                System.err.println(aviso);
+            }
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        } finally {
+            PoolConexiones.cerrarPool();
+        }
+    }
+
+    /**
+     * Ejecuta las sentencias de una migración y la anota en schema_version.
+     *
+     * @param conn conexión
+     * @param migracion migración a aplicar
+     * @throws SQLException si falla alguna sentencia
+     */
+    private static void ejecutar(Connection conn, Migracion migracion) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sentencia : sentencias(leerRecurso(migracion.archivo))) {
+                try {
+                    stmt.execute(sentencia);
+                } catch (SQLException e) {
+                    throw new SQLException("Error en la migración " + migracion.archivo + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO schema_version (version, archivo) VALUES (?, ?)")) {
+            pstmt.setInt(1, migracion.version);
+            pstmt.setString(2, migracion.archivo);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Obtiene las versiones ya aplicadas.
+     *
+     * @param conn conexión
+     * @return las versiones anotadas en schema_version
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    private static Set<Integer> versionesAplicadas(Connection conn) throws SQLException {
+        Set<Integer> versiones = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version FROM schema_version")) {
+            while (rs.next()) {
+                versiones.add(rs.getInt(1));
+            }
+        }
+        return versiones;
+    }
+
+    /**
+     * Toma o libera el bloqueo de las migraciones en el servidor.
+     *
+     * @param conn conexión
+     * @param tomar true para tomarlo, false para liberarlo
+     * @throws SQLException si no se consigue el bloqueo en 60 segundos
+     */
+    private static void bloquear(Connection conn, boolean tomar) throws SQLException {
+        String consulta = tomar ? "SELECT GET_LOCK(?, 60)" : "SELECT RELEASE_LOCK(?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(consulta)) {
+            pstmt.setString(1, BLOQUEO);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (tomar && (!rs.next() || rs.getInt(1) != 1)) {
+                    throw new SQLException("Otra instancia está aplicando las migraciones");
+                }
+            }
+        }
+    }
+
+    /**
+     * Lee el índice de migraciones, ignorando líneas vacías y comentarios.
+     *
+     * @return las migraciones en orden
+     * @throws SQLException si el índice no existe o tiene un nombre de archivo no válido
+     */
+    private static List<Migracion> leerIndice() throws SQLException {
+        List<Migracion> migraciones = new ArrayList<>();
+        int anterior = 0;
+        for (String linea : leerRecurso("migraciones.txt").split("\\R")) {
+            String archivo = linea.trim();
+            if (archivo.isEmpty() || archivo.startsWith("#")) {
+                continue;
+            }
+            int version;
+            try {
+                version = Integer.parseInt(archivo.substring(1, archivo.indexOf("__")));
+            } catch (RuntimeException e) {
+                throw new SQLException("Nombre de migración no válido: " + archivo);
+            }
+            if (!archivo.startsWith("V") || version <= anterior) {
+                throw new SQLException("Las migraciones deben empezar por V y estar en orden creciente: " + archivo);
+            }
+            anterior = version;
+            migraciones.add(new Migracion(version, archivo));
+        }
+        return migraciones;
+    }
+
+    /**
+     * Divide un script en sentencias separadas por punto y coma al final de línea, quitando los comentarios de línea.
+     *
+     * @param script texto del script
+     * @return las sentencias sin el punto y coma
+     */
+    private static List<String> sentencias(String script) {
+        List<String> sentencias = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        for (String linea : script.split("\\R")) {
+            String limpia = linea.trim();
+            if (limpia.isEmpty() || limpia.startsWith("--")) {
+                continue;
+            }
+            actual.append(linea).append('\n');
+            if (limpia.endsWith(";")) {
+                String sentencia = actual.toString().trim();
+                sentencias.add(sentencia.substring(0, sentencia.length() - 1));
+                actual.setLength(0);
+            }
+        }
+        if (!actual.toString().isBlank()) {
+            sentencias.add(actual.toString().trim());
+        }
+        return sentencias;
+    }
+
+    /**
+     * Lee un archivo del directorio de migraciones.
+     *
+     * @param nombre nombre del archivo
+     * @return el contenido del archivo
+     * @throws SQLException si no existe o no se puede leer
+     */
+    private static String leerRecurso(String nombre) throws SQLException {
+        try (InputStream entrada = Migraciones.class.getResourceAsStream(DIRECTORIO + nombre)) {
+            if (entrada == null) {
+                throw new SQLException("No se encuentra la migración " + DIRECTORIO + nombre);
+            }
+            StringBuilder texto = new StringBuilder();
+            try (BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = lector.readLine()) != null) {
+                    texto.append(linea).append('\n');
+                }
+            }
+            return texto.toString();
+        } catch (IOException e) {
+            throw new SQLException("No se puede leer la migración " + nombre, e);
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package BBDD;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de conexiones a la base de datos.
+ * Mantiene un número acotado de conexiones abiertas que se prestan a los DAO y se devuelven al terminar,
+ * evitando abrir una conexión TCP nueva en cada consulta.
+ * <p>
+ * Los parámetros se toman de la {@link Configuracion} (archivo "configuration.properties"):
+ * <ul>
+ *     <li>pool.min: conexiones que se mantienen abiertas aunque no se usen (por defecto 1)</li>
+ *     <li>pool.max: conexiones abiertas como máximo (por defecto 10)</li>
+ *     <li>pool.idle.timeout: milisegundos que puede estar inactiva una conexión antes de cerrarse (por defecto 300000)</li>
+ *     <li>pool.borrow.timeout: milisegundos que se espera por una conexión libre (por defecto 30000)</li>
+ *     <li>pool.validation.timeout: segundos para validar una conexión antes de prestarla (por defecto 2)</li>
+ *     <li>pool.leak.threshold: milisegundos prestada a partir de los cuales se avisa de una posible fuga (por defecto 60000, 0 lo desactiva)</li>
+ *     <li>pool.statement.cache.size: sentencias preparadas que se mantienen abiertas por conexión (por defecto 50, 0 lo desactiva)</li>
+ * </ul>
+ * Si cambia alguno de estos parámetros o los datos de conexión mientras la aplicación está abierta,
+ * se crea un pool nuevo con la configuración nueva y el anterior se cierra: sus conexiones inactivas se cierran
+ * en ese momento y las prestadas al devolverse.
+ */
+public class PoolConexiones {
+    private static final String[] CLAVES_POOL = {"url", "address", "port", "user", "password", "database", "pool."};
+    private static PoolConexiones instance;
+    private static boolean recargaRegistrada = false;
+
+    private final String url;
+    private final Properties credenciales;
+    private final int minimo;
+    private final int maximo;
+    private final long tiempoInactividad;
+    private final long tiempoEsperaMaximo;
+    private final int tiempoValidacion;
+    private final long umbralFuga;
+    private final int tamanioCacheSentencias;
+
+    private final Deque<ConexionInactiva> inactivas = new ArrayDeque<>();
+    private final Map<Connection, Prestamo> prestadas = new IdentityHashMap<>();
+    private final Map<Connection, CacheSentencias> sentencias = new IdentityHashMap<>();
+    private final Semaphore permisos;
+    private final ScheduledExecutorService mantenimiento;
+    private boolean cerrado = false;
+
+    private long totalPrestamos = 0;
+    private long esperaTotalNanos = 0;
+    private long esperaMaximaNanos = 0;
+    private long conexionesCreadas = 0;
+    private long conexionesDescartadas = 0;
+    private long fugasDetectadas = 0;
+    private final LongAdder sentenciasReutilizadas = new LongAdder();
+    private final LongAdder sentenciasPreparadas = new LongAdder();
+    private final LongAdder sentenciasExpulsadas = new LongAdder();
+
+    /**
+     * Conexión abierta que está esperando en el pool junto con el momento en el que se devolvió.
+     */
+    private static class ConexionInactiva {
+        private final Connection connection;
+        private final long devueltaEn;
+
+        private ConexionInactiva(Connection connection, long devueltaEn) {
+            this.connection = connection;
+            this.devueltaEn = devueltaEn;
+        }
+    }
+
+    /**
+     * Datos de un préstamo en curso, utilizados para detectar fugas de conexiones.
+     */
+    private static class Prestamo {
+        private final long prestadaEn;
+        private final String hilo;
+        private final Exception origen;
+        private boolean avisado = false;
+
+        private Prestamo(long prestadaEn, String hilo, Exception origen) {
+            this.prestadaEn = prestadaEn;
+            this.hilo = hilo;
+            this.origen = origen;
+        }
+    }
+
+    /**
+     * Constructor privado del pool. Lee la configuración, abre las conexiones mínimas
+     * y arranca la tarea de mantenimiento.
+     *
+     * @param configuracion configuración con los datos de conexión y los parámetros del pool
+     */
+    private PoolConexiones(Configuracion configuracion) {
+        credenciales = new Properties();
+        credenciales.setProperty("user", configuracion.get("user"));
+        credenciales.setProperty("password", configuracion.get("password"));
+        // Con la clave url se puede usar otra base de datos compatible, por ejemplo H2 en modo MariaDB
+        url = configuracion.get("url", "jdbc:mariadb://" + configuracion.get("address") + ":" + configuracion.get("port") + "/" + configuracion.get("database") + "?createDatabaseIfNotExist=true&useBulkStmts=true&useServerPrepStmts=true");
+
+        maximo = Math.max(1, configuracion.getEntero("pool.max", 10));
+        minimo = Math.min(maximo, Math.max(0, configuracion.getEntero("pool.min", 1)));
+        tiempoInactividad = configuracion.getEntero("pool.idle.timeout", 300000);
+        tiempoEsperaMaximo = configuracion.getEntero("pool.borrow.timeout", 30000);
+        tiempoValidacion = configuracion.getEntero("pool.validation.timeout", 2);
+        umbralFuga = configuracion.getEntero("pool.leak.threshold", 60000);
+        tamanioCacheSentencias = Math.max(0, configuracion.getEntero("pool.statement.cache.size", 50));
+
+        permisos = new Semaphore(maximo, true);
+        mantenimiento = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "pool-conexiones-mantenimiento");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long periodo = Math.max(1000, Math.min(tiempoInactividad, umbralFuga > 0 ? umbralFuga : tiempoInactividad) / 2);
+        mantenimiento.scheduleWithFixedDelay(this::mantener, periodo, periodo, TimeUnit.MILLISECONDS);
+        rellenarMinimo();
+    }
+
+    /**
+     * Crea y devuelve la instancia única del pool.
+     *
+     * @return el pool de conexiones
+     */
+    public static synchronized PoolConexiones getInstance() {
+        if (instance == null) {
+            instance = new PoolConexiones(Configuracion.getActual());
+            if (!recargaRegistrada) {
+                Configuracion.addListener(PoolConexiones::reconfigurar);
+                recargaRegistrada = true;
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Sustituye el pool por uno nuevo si la configuración recargada cambia los datos de conexión o los parámetros del pool.
+     * Las conexiones que estén prestadas se devuelven al pool anterior, que las cierra.
+     *
+     * @param anterior configuración anterior
+     * @param nueva configuración nueva
+     */
+    private static void reconfigurar(Configuracion anterior, Configuracion nueva) {
+        if (!nueva.cambia(anterior, CLAVES_POOL)) {
+            return;
+        }
+        PoolConexiones antiguo;
+        synchronized (PoolConexiones.class) {
+            if (instance == null) {
+                return;
+            }
+            antiguo = instance;
+            instance = new PoolConexiones(nueva);
+        }
+        antiguo.cerrar();
+    }
+
+    /**
+     * Cierra el pool si se ha llegado a crear. Se utiliza al salir de la aplicación.
+     */
+    public static synchronized void cerrarPool() {
+        if (instance != null) {
+            instance.cerrar();
+            instance = null;
+        }
+    }
+
+    /**
+     * Presta una conexión del pool. Si no hay ninguna libre y ya se ha alcanzado el máximo,
+     * espera hasta que se devuelva alguna o se agote el tiempo de espera.
+     * Las conexiones reutilizadas se validan antes de prestarse.
+     *
+     * @return una conexión válida con autocommit activado
+     * @throws SQLException si no se puede abrir la conexión o se agota el tiempo de espera
+     */
+    public Connection prestar() throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            if (!permisos.tryAcquire(tiempoEsperaMaximo, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("No hay conexiones libres en el pool tras esperar " + tiempoEsperaMaximo + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido esperando una conexión del pool", e);
+        }
+        try {
+            Connection connection = obtenerConexionValida();
+            long espera = System.nanoTime() - inicio;
+            synchronized (this) {
+                if (cerrado) {
+                    connection.close();
+                    throw new SQLException("El pool de conexiones está cerrado");
+                }
+                prestadas.put(connection, new Prestamo(System.currentTimeMillis(), Thread.currentThread().getName(),
+                        umbralFuga > 0 ? new Exception("Conexión prestada aquí") : null));
+                totalPrestamos++;
+                esperaTotalNanos += espera;
+                esperaMaximaNanos = Math.max(esperaMaximaNanos, espera);
+            }
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Devuelve una conexión al pool. Si la conexión está cerrada se descarta;
+     * si se dejó una transacción abierta se deshace y se vuelve a activar el autocommit.
+     *
+     * @param connection la conexión prestada previamente por {@link #prestar()}
+     */
+    public void devolver(Connection connection) {
+        synchronized (this) {
+            if (prestadas.remove(connection) == null) {
+                // No es una conexión prestada por este pool o ya se había devuelto
+                return;
+            }
+        }
+        try {
+            boolean reutilizable = !connection.isClosed();
+            CacheSentencias cache;
+            synchronized (this) {
+                cache = sentencias.get(connection);
+            }
+            if (reutilizable && cache != null) {
+                cache.liberar();
+            }
+            if (reutilizable && !connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            synchronized (this) {
+                if (reutilizable && !cerrado) {
+                    inactivas.push(new ConexionInactiva(connection, System.currentTimeMillis()));
+                } else {
+                    descartar(connection);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            synchronized (this) {
+                descartar(connection);
+            }
+        } finally {
+            permisos.release();
+        }
+    }
+
+    /**
+     * Obtiene una instantánea de las estadísticas del pool.
+     *
+     * @return estadísticas de préstamos, esperas y conexiones
+     */
+    public synchronized EstadisticasPool getEstadisticas() {
+        return new EstadisticasPool(prestadas.size(), inactivas.size(), maximo, totalPrestamos, esperaTotalNanos,
+                esperaMaximaNanos, conexionesCreadas, conexionesDescartadas, fugasDetectadas,
+                sentenciasReutilizadas.sum(), sentenciasPreparadas.sum(), sentenciasExpulsadas.sum());
+    }
+
+    /**
+     * Prepara una sentencia en una conexión prestada, reutilizándola si ya se había preparado en esa conexión.
+     * La sentencia devuelta debe cerrarse como cualquier otra; al cerrarla vuelve a la caché.
+     *
+     * @param connection conexión prestada por {@link #prestar()}
+     * @param sql texto de la sentencia
+     * @param clavesGeneradas {@link java.sql.Statement#RETURN_GENERATED_KEYS} o {@link java.sql.Statement#NO_GENERATED_KEYS}
+     * @return la sentencia preparada
+     * @throws SQLException si ocurre un error al preparar la sentencia
+     */
+    public PreparedStatement preparar(Connection connection, String sql, int clavesGeneradas) throws SQLException {
+        CacheSentencias cache;
+        synchronized (this) {
+            cache = sentencias.get(connection);
+            if (cache == null && tamanioCacheSentencias > 0 && prestadas.containsKey(connection)) {
+                cache = new CacheSentencias(connection, tamanioCacheSentencias, sentenciasReutilizadas,
+                        sentenciasPreparadas, sentenciasExpulsadas);
+                sentencias.put(connection, cache);
+            }
+        }
+        if (cache == null) {
+            return connection.prepareStatement(sql, clavesGeneradas);
+        }
+        return cache.preparar(sql, clavesGeneradas);
+    }
+
+    /**
+     * Cierra todas las conexiones inactivas y detiene el mantenimiento.
+     * Las conexiones prestadas se cierran al devolverse.
+     */
+    public void cerrar() {
+        mantenimiento.shutdownNow();
+        synchronized (this) {
+            cerrado = true;
+            while (!inactivas.isEmpty()) {
+                descartar(inactivas.pop().connection);
+            }
+        }
+    }
+
+    /**
+     * Saca del pool la conexión inactiva más reciente que siga siendo válida o abre una nueva.
+     *
+     * @return conexión lista para prestar
+     * @throws SQLException si hay que abrir una conexión nueva y falla
+     */
+    private Connection obtenerConexionValida() throws SQLException {
+        while (true) {
+            ConexionInactiva inactiva;
+            synchronized (this) {
+                inactiva = inactivas.poll();
+            }
+            if (inactiva == null) {
+                return abrirConexion();
+            }
+            boolean valida;
+            try {
+                valida = inactiva.connection.isValid(tiempoValidacion);
+            } catch (SQLException e) {
+                valida = false;
+            }
+            if (valida) {
+                return inactiva.connection;
+            }
+            synchronized (this) {
+                descartar(inactiva.connection);
+            }
+        }
+    }
+
+    /**
+     * Abre una conexión física nueva con los parámetros de la configuración.
+     *
+     * @return la conexión abierta
+     * @throws SQLException si ocurre un error al conectar
+     */
+    private Connection abrirConexion() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, credenciales);
+        connection.setAutoCommit(true);
+        synchronized (this) {
+            conexionesCreadas++;
+        }
+        return connection;
+    }
+
+    /**
+     * Cierra una conexión que ya no se va a reutilizar. Debe llamarse con el monitor del pool tomado.
+     *
+     * @param connection conexión a cerrar
+     */
+    private void descartar(Connection connection) {
+        conexionesDescartadas++;
+        CacheSentencias cache = sentencias.remove(connection);
+        if (cache != null) {
+            cache.cerrar();
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Tarea periódica de mantenimiento: cierra conexiones inactivas que han superado el tiempo
+     * de inactividad, vuelve a abrir las mínimas y avisa de los préstamos que parecen fugas.
+     */
+    private void mantener() {
+        long ahora = System.currentTimeMillis();
+        List<Prestamo> fugas = new ArrayList<>();
+        synchronized (this) {
+            if (cerrado) {
+                return;
+            }
+            Iterator<ConexionInactiva> it = inactivas.descendingIterator();
+            while (it.hasNext() && prestadas.size() + inactivas.size() > minimo) {
+                ConexionInactiva inactiva = it.next();
+                if (ahora - inactiva.devueltaEn > tiempoInactividad) {
+                    it.remove();
+                    descartar(inactiva.connection);
+                }
+            }
+            if (umbralFuga > 0) {
+                for (Prestamo prestamo : prestadas.values()) {
+                    if (!prestamo.avisado && ahora - prestamo.prestadaEn > umbralFuga) {
+                        prestamo.avisado = true;
+                        fugasDetectadas++;
+                        fugas.add(prestamo);
+                    }
+                }
+            }
+        }
+        for (Prestamo prestamo : fugas) {
+            System.err.println("Posible fuga de conexión: prestada hace " + (ahora - prestamo.prestadaEn) + " ms al hilo " + prestamo.hilo);
+            prestamo.origen.printStackTrace();
+        }
+        rellenarMinimo();
+    }
+
+    /**
+     * Abre conexiones hasta tener al menos el mínimo configurado entre prestadas e inactivas.
+     * Cada conexión se abre con un permiso reservado, igual que en {@link #prestar()}, para no superar el máximo
+     * si a la vez hay préstamos abriendo conexiones nuevas; si no queda ningún permiso libre no se abre ninguna.
+     */
+    private void rellenarMinimo() {
+        while (true) {
+            synchronized (this) {
+                if (cerrado || prestadas.size() + inactivas.size() >= minimo) {
+                    return;
+                }
+            }
+            if (!permisos.tryAcquire()) {
+                return;
+            }
+            try {
+                Connection connection = abrirConexion();
+                synchronized (this) {
+                    if (cerrado) {
+                        descartar(connection);
+                        return;
+                    }
+                    inactivas.addLast(new ConexionInactiva(connection, System.currentTimeMillis()));
+                }
+            } catch (SQLException e) {
+                // La base de datos no está disponible, se reintentará en el siguiente mantenimiento
+                return;
+            } finally {
+                permisos.release();
+            }
+        }
+    }
+}
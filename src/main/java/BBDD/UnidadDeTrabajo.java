@@ -0,0 +1,340 @@
+package BBDD;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unidad de trabajo: agrupa en una única transacción todas las operaciones de los DAO que se hagan en el hilo actual
+ * hasta que se confirma o se cierra.
+ * <p>
+ * Mientras está abierta, cada {@link ConexionBBDD} que se crea en el mismo hilo utiliza la conexión de la unidad en
+ * lugar de pedir otra al pool, por lo que todos los DAO participan sin cambiar su código. Los commit, rollback y
+ * setAutoCommit que hagan los DAO sobre esa conexión no tienen efecto; si un DAO deshace su parte por un error,
+ * la unidad entera queda marcada para deshacerse. Se utiliza con try-with-resources:
+ * <pre>
+ * try (UnidadDeTrabajo unidad = UnidadDeTrabajo.iniciar()) {
+ *     if (DaoEvento.insertar(evento) &amp;&amp; DaoParticipacion.insertarTodos(participaciones) ...) {
+ *         unidad.confirmar();
+ *     }
+ * }
+ * </pre>
+ * Si la unidad se cierra sin confirmar se deshace todo. Las escrituras que no necesitan resultado se pueden encolar con
+ * {@link #encolar(String, Object, Escritura)}: se envían por lotes justo antes del commit, y las que tienen la misma
+ * clave se envían una sola vez. Hoy solo se encola el recálculo de {@code ResumenOlimpiada}: las escrituras de los DAO
+ * necesitan en el momento la clave generada o el número de filas afectadas, así que se ejecutan directamente sobre
+ * la conexión de la unidad. Una unidad solo sirve para el hilo que la inicia; si se inicia otra dentro de ella,
+ * la interior forma parte de la exterior.
+ */
+public class UnidadDeTrabajo implements AutoCloseable {
+    private static final ThreadLocal<UnidadDeTrabajo> ACTUAL = new ThreadLocal<>();
+
+    private final UnidadDeTrabajo exterior;
+    private final PoolConexiones pool;
+    private final Connection connection;
+    private final Connection compartida;
+    private final Map<Object, EscrituraEncolada> encoladas = new LinkedHashMap<>();
+    private final List<Runnable> alDeshacer = new ArrayList<>();
+    private final List<Runnable> alConfirmar = new ArrayList<>();
+    private boolean soloDeshacer = false;
+    private boolean confirmada = false;
+    private boolean cerrada = false;
+
+    /**
+     * Función que asigna los parámetros de una escritura encolada.
+     */
+    @FunctionalInterface
+    public interface Escritura {
+        /**
+         * Asigna los parámetros de la escritura.
+         *
+         * @param pstmt sentencia a la que se asignan los parámetros
+         * @throws SQLException si ocurre un error al asignar un parámetro
+         */
+        void asignar(PreparedStatement pstmt) throws SQLException;
+    }
+
+    /**
+     * Escritura encolada junto con el texto de su sentencia.
+     */
+    private static class EscrituraEncolada {
+        private final String sql;
+        private final Escritura escritura;
+
+        private EscrituraEncolada(String sql, Escritura escritura) {
+            this.sql = sql;
+            this.escritura = escritura;
+        }
+    }
+
+    /**
+     * Constructor de una unidad que toma una conexión del pool.
+     *
+     * @throws SQLException si no se puede obtener la conexión
+     */
+    private UnidadDeTrabajo() throws SQLException {
+        exterior = null;
+        pool = PoolConexiones.getInstance();
+        connection = pool.prestar();
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            pool.devolver(connection);
+            throw e;
+        }
+        compartida = envolver();
+    }
+
+    /**
+     * Constructor de una unidad iniciada dentro de otra, que utiliza su conexión y su transacción.
+     *
+     * @param exterior unidad exterior
+     */
+    private UnidadDeTrabajo(UnidadDeTrabajo exterior) {
+        this.exterior = exterior;
+        pool = exterior.pool;
+        connection = exterior.connection;
+        compartida = exterior.compartida;
+    }
+
+    /**
+     * Inicia una unidad de trabajo en el hilo actual.
+     *
+     * @return la unidad, que debe cerrarse siempre
+     * @throws SQLException si no se puede obtener una conexión del pool
+     */
+    public static UnidadDeTrabajo iniciar() throws SQLException {
+        UnidadDeTrabajo actual = ACTUAL.get();
+        if (actual != null) {
+            return new UnidadDeTrabajo(actual);
+        }
+        UnidadDeTrabajo unidad = new UnidadDeTrabajo();
+        ACTUAL.set(unidad);
+        return unidad;
+    }
+
+    /**
+     * Indica si hay una unidad de trabajo abierta en el hilo actual.
+     *
+     * @return true si las operaciones de los DAO forman parte de una unidad de trabajo
+     */
+    public static boolean activa() {
+        return ACTUAL.get() != null;
+    }
+
+    /**
+     * Obtiene la unidad de trabajo abierta en el hilo actual. La utiliza {@link ConexionBBDD}.
+     *
+     * @return la unidad o null si no hay ninguna
+     */
+    static UnidadDeTrabajo actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Encola una escritura en la unidad del hilo actual para enviarla por lotes al confirmar.
+     * Si ya hay una escritura encolada con la misma sentencia y clave, no se vuelve a encolar.
+     *
+     * @param sql sentencia INSERT, UPDATE, REPLACE o DELETE
+     * @param clave clave que identifica la escritura para no repetirla, o null si no se debe agrupar
+     * @param escritura función que asigna los parámetros
+     * @return true si se ha encolado, false si no hay ninguna unidad abierta y la escritura debe hacerse directamente
+     */
+    public static boolean encolar(String sql, Object clave, Escritura escritura) {
+        UnidadDeTrabajo unidad = ACTUAL.get();
+        if (unidad == null) {
+            return false;
+        }
+        Object id = clave == null ? new Object() : List.of(sql, clave);
+        unidad.encoladas.putIfAbsent(id, new EscrituraEncolada(sql, escritura));
+        return true;
+    }
+
+    /**
+     * Registra una acción que se ejecuta si la unidad del hilo actual se deshace, por ejemplo para descartar
+     * datos en memoria que se actualizaron con escrituras que finalmente no se confirman.
+     * Si no hay ninguna unidad abierta no hace nada.
+     *
+     * @param accion acción a ejecutar tras deshacer la transacción
+     */
+    public static void alDeshacer(Runnable accion) {
+        UnidadDeTrabajo unidad = ACTUAL.get();
+        if (unidad != null) {
+            unidad.alDeshacer.add(accion);
+        }
+    }
+
+    /**
+     * Registra una acción que se ejecuta cuando se confirma la unidad del hilo actual, por ejemplo para avisar
+     * de cambios que no deben verse hasta que estén guardados.
+     *
+     * @param accion acción a ejecutar tras el commit
+     * @return true si se ha registrado, false si no hay ninguna unidad abierta y la acción debe ejecutarse directamente
+     */
+    public static boolean alConfirmar(Runnable accion) {
+        UnidadDeTrabajo unidad = ACTUAL.get();
+        if (unidad == null) {
+            return false;
+        }
+        unidad.alConfirmar.add(accion);
+        return true;
+    }
+
+    /**
+     * Obtiene la conexión de la unidad. Sus commit, rollback, setAutoCommit y close no tienen efecto.
+     *
+     * @return la conexión compartida por las operaciones de la unidad
+     */
+    Connection getConexionCompartida() {
+        return compartida;
+    }
+
+    /**
+     * Obtiene la conexión física de la unidad, utilizada para la caché de sentencias del pool.
+     *
+     * @return la conexión prestada por el pool
+     */
+    Connection getConexionFisica() {
+        return connection;
+    }
+
+    /**
+     * Obtiene el pool del que se tomó la conexión.
+     *
+     * @return el pool
+     */
+    PoolConexiones getPool() {
+        return pool;
+    }
+
+    /**
+     * Envía las escrituras encoladas y confirma la transacción. En una unidad interior solo indica que
+     * su parte es correcta; la transacción se confirma al confirmar la exterior.
+     *
+     * @throws SQLException si alguna operación de la unidad falló o no se puede confirmar; la unidad se deshará al cerrarla
+     */
+    public void confirmar() throws SQLException {
+        if (cerrada || confirmada) {
+            throw new SQLException("La unidad de trabajo ya está confirmada o cerrada");
+        }
+        if (exterior != null) {
+            confirmada = true;
+            return;
+        }
+        if (soloDeshacer) {
+            throw new SQLException("No se puede confirmar la unidad de trabajo porque falló una de sus operaciones");
+        }
+        try {
+            enviarEncoladas();
+            connection.commit();
+            confirmada = true;
+        } catch (SQLException e) {
+            soloDeshacer = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Cierra la unidad. Si no se ha confirmado se deshace toda la transacción y se ejecutan las acciones
+     * registradas con {@link #alDeshacer(Runnable)}; si se ha confirmado se ejecutan las registradas con
+     * {@link #alConfirmar(Runnable)}. La conexión se devuelve al pool antes de ejecutarlas.
+     */
+    @Override
+    public void close() {
+        if (cerrada) {
+            return;
+        }
+        cerrada = true;
+        if (exterior != null) {
+            if (!confirmada) {
+                exterior.soloDeshacer = true;
+            }
+            return;
+        }
+        ACTUAL.remove();
+        try {
+            if (!confirmada) {
+                connection.rollback();
+            }
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        } finally {
+            pool.devolver(connection);
+        }
+        for (Runnable accion : confirmada ? alConfirmar : alDeshacer) {
+            accion.run();
+        }
+    }
+
+    /**
+     * Envía las escrituras encoladas en orden, agrupando en un lote JDBC las consecutivas con la misma sentencia.
+     *
+     * @throws SQLException si falla alguna escritura
+     */
+    private void enviarEncoladas() throws SQLException {
+        List<EscrituraEncolada> pendientes = new ArrayList<>(encoladas.values());
+        encoladas.clear();
+        int inicio = 0;
+        while (inicio < pendientes.size()) {
+            String sql = pendientes.get(inicio).sql;
+            int fin = inicio;
+            try (PreparedStatement pstmt = pool.preparar(connection, sql, PreparedStatement.NO_GENERATED_KEYS)) {
+                while (fin < pendientes.size() && pendientes.get(fin).sql.equals(sql)) {
+                    pendientes.get(fin).escritura.asignar(pstmt);
+                    pstmt.addBatch();
+                    fin++;
+                }
+                pstmt.executeBatch();
+            }
+            inicio = fin;
+        }
+    }
+
+    /**
+     * Crea la conexión que se entrega a los DAO: todas las llamadas pasan a la conexión física salvo las que
+     * controlan la transacción, que quedan en manos de la unidad.
+     *
+     * @return el envoltorio de la conexión
+     */
+    private Connection envolver() {
+        InvocationHandler manejador = (proxy, metodo, args) -> {
+            switch (metodo.getName()) {
+                case "commit":
+                case "setAutoCommit":
+                case "close":
+                    return null;
+                case "rollback":
+                    if (args == null) {
+                        // Un DAO ha deshecho su parte: no se puede confirmar el resto
+                        soloDeshacer = true;
+                        return null;
+                    }
+                    break;
+                case "getAutoCommit":
+                    return false;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            try {
+                return metodo.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, manejador);
+    }
+}
@@ -0,0 +1,103 @@
+package Dao;
+
+import model.Evento;
+import model.Participacion;
+
+/**
+ * Formas de agrupar el medallero. Cada agrupación sabe qué tabla se une a las participaciones en la consulta
+ * con GROUP BY y cómo obtener el id y el nombre del grupo a partir de una participación en memoria.
+ */
+public enum AgrupacionMedallero {
+    /**
+     * Medallas de cada equipo.
+     */
+    EQUIPO("Equipo", "g.id_equipo", "JOIN Equipo g ON g.id_equipo = p.id_equipo"),
+    /**
+     * Medallas repartidas en cada olimpiada.
+     */
+    OLIMPIADA("Olimpiada", "g.id_olimpiada", "JOIN Olimpiada g ON g.id_olimpiada = ev.id_olimpiada"),
+    /**
+     * Medallas repartidas en cada deporte.
+     */
+    DEPORTE("Deporte", "g.id_deporte", "JOIN Deporte g ON g.id_deporte = ev.id_deporte"),
+    /**
+     * Medallas de cada deportista.
+     */
+    DEPORTISTA("Deportista", "g.id_deportista", "JOIN Deportista g ON g.id_deportista = p.id_deportista");
+
+    private final String tabla;
+    private final String columnaId;
+    private final String union;
+
+    AgrupacionMedallero(String tabla, String columnaId, String union) {
+        this.tabla = tabla;
+        this.columnaId = columnaId;
+        this.union = union;
+    }
+
+    /**
+     * Obtiene la tabla de los grupos.
+     *
+     * @return el nombre de la tabla
+     */
+    String getTabla() {
+        return tabla;
+    }
+
+    /**
+     * Obtiene la columna con el id del grupo, con el alias g de la tabla unida.
+     *
+     * @return la columna
+     */
+    String getColumnaId() {
+        return columnaId;
+    }
+
+    /**
+     * Obtiene el JOIN de la tabla del grupo. La consulta ya une Participacion p con Evento ev.
+     *
+     * @return la cláusula JOIN
+     */
+    String getUnion() {
+        return union;
+    }
+
+    /**
+     * Obtiene el id del grupo al que pertenece una participación.
+     *
+     * @param participacion participación con sus entidades cargadas
+     * @return el id o -1 si a la participación le faltan las entidades necesarias
+     */
+    int id(Participacion participacion) {
+        Evento evento = participacion.getEvento();
+        switch (this) {
+            case EQUIPO:
+                return participacion.getEquipo() == null ? -1 : participacion.getEquipo().getId_equipo();
+            case OLIMPIADA:
+                return evento == null || evento.getOlimpiada() == null ? -1 : evento.getOlimpiada().getId_olimpiada();
+            case DEPORTE:
+                return evento == null || evento.getDeporte() == null ? -1 : evento.getDeporte().getId_deporte();
+            default:
+                return participacion.getDeportista() == null ? -1 : participacion.getDeportista().getId_deportista();
+        }
+    }
+
+    /**
+     * Obtiene el nombre del grupo al que pertenece una participación.
+     *
+     * @param participacion participación con sus entidades cargadas
+     * @return el nombre del grupo
+     */
+    String nombre(Participacion participacion) {
+        switch (this) {
+            case EQUIPO:
+                return participacion.getEquipo().getNombre();
+            case OLIMPIADA:
+                return participacion.getEvento().getOlimpiada().getNombre();
+            case DEPORTE:
+                return participacion.getEvento().getDeporte().getNombre();
+            default:
+                return participacion.getDeportista().getNombre();
+        }
+    }
+}
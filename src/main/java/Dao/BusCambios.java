@@ -0,0 +1,97 @@
+package Dao;
+
+import BBDD.UnidadDeTrabajo;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bus de cambios en memoria: los métodos de escritura de los DAO publican cada entidad insertada, modificada
+ * o eliminada, y las ventanas se suscriben para aplicar el cambio a sus listas sin volver a consultar la base de datos.
+ * <p>
+ * Los cambios se entregan en el hilo que hizo la escritura, normalmente un hilo virtual de {@link DaoAsync},
+ * por lo que los suscriptores que modifiquen la interfaz deben pasar al hilo de JavaFX. Si la escritura forma parte
+ * de una {@link UnidadDeTrabajo}, los cambios se publican cuando se confirma y se descartan si se deshace.
+ */
+public class BusCambios {
+    private static BusCambios instance;
+
+    private final List<Consumer<Cambio<?>>> suscriptores = new CopyOnWriteArrayList<>();
+
+    private BusCambios() {}
+
+    /**
+     * Crea y devuelve la instancia única del bus.
+     *
+     * @return el bus de cambios
+     */
+    public static synchronized BusCambios getInstance() {
+        if (instance == null) {
+            instance = new BusCambios();
+        }
+        return instance;
+    }
+
+    /**
+     * Suscribe una función a todos los cambios.
+     *
+     * @param suscriptor función que recibe cada cambio
+     */
+    public void suscribir(Consumer<Cambio<?>> suscriptor) {
+        suscriptores.add(suscriptor);
+    }
+
+    /**
+     * Cancela una suscripción.
+     *
+     * @param suscriptor función suscrita con {@link #suscribir(Consumer)}
+     */
+    public void cancelar(Consumer<Cambio<?>> suscriptor) {
+        suscriptores.remove(suscriptor);
+    }
+
+    /**
+     * Publica un cambio, o lo deja pendiente hasta que se confirme la unidad de trabajo del hilo actual.
+     *
+     * @param cambio cambio a publicar
+     */
+    void publicar(Cambio<?> cambio) {
+        if (suscriptores.isEmpty()) {
+            return;
+        }
+        if (!UnidadDeTrabajo.alConfirmar(() -> entregar(cambio))) {
+            entregar(cambio);
+        }
+    }
+
+    /**
+     * Publica los cambios de las filas correctas de una escritura por lotes.
+     *
+     * @param correctas resultado de cada fila del lote
+     * @param cambio función que crea el cambio de la fila indicada
+     */
+    void publicar(boolean[] correctas, Function<Integer, Cambio<?>> cambio) {
+        for (int i = 0; i < correctas.length; i++) {
+            if (correctas[i]) {
+                publicar(cambio.apply(i));
+            }
+        }
+    }
+
+    /**
+     * Entrega un cambio a todos los suscriptores. Un error en un suscriptor no impide entregarlo al resto.
+     *
+     * @param cambio cambio a entregar
+     */
+    private void entregar(Cambio<?> cambio) {
+        for (Consumer<Cambio<?>> suscriptor : suscriptores) {
+            try {
+                suscriptor.accept(cambio);
+            } catch (RuntimeException e) {
+                System.err.println(e.getMessage());
+            }
+        }
+    }
+}
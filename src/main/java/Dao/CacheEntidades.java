@@ -0,0 +1,111 @@
+package Dao;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché de entidades indexada por su id con un tamaño máximo.
+ * Cuando se supera el tamaño se expulsa la entidad usada hace más tiempo (LRU).
+ * Lleva la cuenta de aciertos, fallos y expulsiones para poder medir su eficacia.
+ *
+ * @param <T> tipo de la entidad almacenada
+ */
+public class CacheEntidades<T> {
+    private final String nombre;
+    private final int capacidad;
+    private final LinkedHashMap<Integer, T> entidades;
+    private long aciertos = 0;
+    private long fallos = 0;
+    private long expulsiones = 0;
+
+    /**
+     * Constructor de la caché.
+     *
+     * @param nombre nombre de la entidad, utilizado al mostrar las estadísticas
+     * @param capacidad número máximo de entidades almacenadas
+     */
+    public CacheEntidades(String nombre, int capacidad) {
+        this.nombre = nombre;
+        this.capacidad = capacidad;
+        this.entidades = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, T> eldest) {
+                if (size() > CacheEntidades.this.capacidad) {
+                    expulsiones++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Busca una entidad en la caché.
+     *
+     * @param id id de la entidad
+     * @return la entidad o null si no está en la caché
+     */
+    public synchronized T get(int id) {
+        T entidad = entidades.get(id);
+        if (entidad == null) {
+            fallos++;
+        } else {
+            aciertos++;
+        }
+        return entidad;
+    }
+
+    /**
+     * Guarda una entidad en la caché, sustituyendo la anterior con el mismo id.
+     *
+     * @param id id de la entidad
+     * @param entidad entidad a guardar, si es null no se guarda nada
+     */
+    public synchronized void put(int id, T entidad) {
+        if (entidad != null) {
+            entidades.put(id, entidad);
+        }
+    }
+
+    /**
+     * Elimina una entidad de la caché. Se utiliza cuando la entidad se modifica o elimina en la base de datos.
+     *
+     * @param id id de la entidad
+     */
+    public synchronized void invalidar(int id) {
+        entidades.remove(id);
+    }
+
+    /**
+     * Vacía la caché por completo.
+     */
+    public synchronized void limpiar() {
+        entidades.clear();
+    }
+
+    public synchronized int getTamanio() {
+        return entidades.size();
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    public synchronized long getExpulsiones() {
+        return expulsiones;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return nombre + ": tamaño=" + entidades.size() + "/" + capacidad + ", aciertos=" + aciertos
+                + ", fallos=" + fallos + ", expulsiones=" + expulsiones;
+    }
+}
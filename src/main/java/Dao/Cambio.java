@@ -0,0 +1,135 @@
+package Dao;
+
+/**
+ * Cambio en una entidad de la base de datos hecho por un DAO, que se publica en el {@link BusCambios}.
+ *
+ * @param <T> tipo de la entidad
+ */
+public class Cambio<T> {
+
+    /**
+     * Operación realizada sobre la entidad.
+     */
+    public enum Operacion {
+        INSERTADO, MODIFICADO, ELIMINADO
+    }
+
+    private final Class<T> tipo;
+    private final Operacion operacion;
+    private final Object id;
+    private final T entidad;
+    private final T anterior;
+
+    /**
+     * Constructor del cambio.
+     *
+     * @param tipo clase de la entidad
+     * @param operacion operación realizada
+     * @param id clave de la entidad
+     * @param entidad entidad con sus datos nuevos, o la eliminada
+     * @param anterior entidad con sus datos anteriores si se ha modificado, o null
+     */
+    private Cambio(Class<T> tipo, Operacion operacion, Object id, T entidad, T anterior) {
+        this.tipo = tipo;
+        this.operacion = operacion;
+        this.id = id;
+        this.entidad = entidad;
+        this.anterior = anterior;
+    }
+
+    /**
+     * Crea el cambio de una entidad insertada.
+     *
+     * @param tipo clase de la entidad
+     * @param id clave de la entidad
+     * @param entidad entidad insertada
+     * @param <T> tipo de la entidad
+     * @return el cambio
+     */
+    static <T> Cambio<T> insertado(Class<T> tipo, Object id, T entidad) {
+        return new Cambio<>(tipo, Operacion.INSERTADO, id, entidad, null);
+    }
+
+    /**
+     * Crea el cambio de una entidad modificada.
+     *
+     * @param tipo clase de la entidad
+     * @param id clave de la entidad antes de modificarla
+     * @param anterior entidad con los datos anteriores
+     * @param nueva entidad con los datos nuevos
+     * @param <T> tipo de la entidad
+     * @return el cambio
+     */
+    static <T> Cambio<T> modificado(Class<T> tipo, Object id, T anterior, T nueva) {
+        return new Cambio<>(tipo, Operacion.MODIFICADO, id, nueva, anterior);
+    }
+
+    /**
+     * Crea el cambio de una entidad eliminada.
+     *
+     * @param tipo clase de la entidad
+     * @param id clave de la entidad
+     * @param entidad entidad eliminada
+     * @param <T> tipo de la entidad
+     * @return el cambio
+     */
+    static <T> Cambio<T> eliminado(Class<T> tipo, Object id, T entidad) {
+        return new Cambio<>(tipo, Operacion.ELIMINADO, id, entidad, null);
+    }
+
+    /**
+     * Obtiene la clase de la entidad.
+     *
+     * @return la clase, por ejemplo Deportista.class
+     */
+    public Class<T> getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Obtiene la operación realizada.
+     *
+     * @return INSERTADO, MODIFICADO o ELIMINADO
+     */
+    public Operacion getOperacion() {
+        return operacion;
+    }
+
+    /**
+     * Obtiene la clave de la entidad: su id, o la lista [id_deportista, id_evento] en las participaciones.
+     * En las modificaciones es la clave anterior.
+     *
+     * @return la clave
+     */
+    public Object getId() {
+        return id;
+    }
+
+    /**
+     * Obtiene la entidad con sus datos nuevos, o la entidad eliminada.
+     *
+     * @return la entidad
+     */
+    public T getEntidad() {
+        return entidad;
+    }
+
+    /**
+     * Obtiene la entidad con sus datos anteriores a la modificación.
+     *
+     * @return la entidad anterior, o null si no es una modificación
+     */
+    public T getAnterior() {
+        return anterior;
+    }
+
+    /**
+     * Devuelve una representación en forma de cadena del cambio.
+     *
+     * @return el tipo, la operación y la clave
+     */
+    @Override
+    public String toString() {
+        return tipo.getSimpleName() + " " + operacion + " " + id;
+    }
+}
@@ -0,0 +1,458 @@
+package Dao;
+
+import model.Evento;
+import model.Participacion;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Copia de solo lectura de la tabla Participacion organizada por columnas de tipos primitivos, para filtrar y agregar
+ * cientos de miles de participaciones ocupando una fracción de la memoria de los objetos {@link Participacion}.
+ * <p>
+ * Las claves ajenas se guardan codificadas con diccionario: cada fila guarda la posición del id en un array ordenado
+ * con los ids distintos de la columna. La edad ocupa un byte y la medalla otro (0 sin medalla, 1 oro, 2 plata,
+ * 3 bronce). Del diccionario de eventos se guardan también su olimpiada y su deporte para poder agrupar por ellos.
+ * <p>
+ * La copia se construye leyendo la tabla en flujo con {@link Flujos} y no cambia una vez creada. {@link #getActual()}
+ * devuelve la última copia y la vuelve a construir si desde entonces se ha publicado en el {@link BusCambios}
+ * algún cambio de participaciones o eventos, o si se ha llamado a {@link #invalidar()}.
+ * {@link Medallero} puede contar las medallas en ella si ya está construida ({@link #getVigente()}).
+ */
+public class ColumnasParticipacion {
+    private static final String CONSULTA = "SELECT p.id_deportista, p.id_evento, p.id_equipo, p.edad, p.medalla,"
+            + " ev.id_olimpiada, ev.id_deporte"
+            + " FROM Participacion p JOIN Evento ev ON ev.id_evento = p.id_evento"
+            + " ORDER BY p.id_deportista, p.id_evento";
+    private static final byte SIN_MEDALLA = 0;
+    private static final String[] MEDALLAS = {null, DaoMedallero.ORO, DaoMedallero.PLATA, DaoMedallero.BRONCE};
+
+    private static ColumnasParticipacion actual;
+    private static ColumnasParticipacion vigente;
+    private static boolean obsoleta = true;
+    private static boolean suscrita = false;
+
+    private final int filas;
+    private final int[] deportista;
+    private final int[] evento;
+    private final int[] equipo;
+    private final byte[] edad;
+    private final byte[] medalla;
+    private final int[] idsDeportista;
+    private final int[] idsEvento;
+    private final int[] idsEquipo;
+    private final int[] olimpiadaEvento;
+    private final int[] deporteEvento;
+
+    /**
+     * Condición que deben cumplir las filas al filtrar. Recibe los ids ya decodificados.
+     */
+    @FunctionalInterface
+    public interface Filtro {
+        /**
+         * Indica si una fila cumple la condición.
+         *
+         * @param id_deportista id del deportista
+         * @param id_evento id del evento
+         * @param id_equipo id del equipo
+         * @param edad edad del deportista
+         * @param medalla 0 sin medalla, 1 oro, 2 plata o 3 bronce
+         * @return true si la fila debe incluirse
+         */
+        boolean acepta(int id_deportista, int id_evento, int id_equipo, int edad, int medalla);
+    }
+
+    /**
+     * Fila leída de la base de datos, que se pasa a las columnas nada más leerla.
+     */
+    private static class Fila {
+        private int id_deportista;
+        private int id_evento;
+        private int id_equipo;
+        private int edad;
+        private byte medalla;
+        private int id_olimpiada;
+        private int id_deporte;
+    }
+
+    /**
+     * Constructor que codifica las columnas leídas. Los arrays de ids se reemplazan por sus códigos.
+     *
+     * @param filas número de filas leídas; los arrays pueden ser más largos
+     * @param deportista ids de deportista
+     * @param evento ids de evento
+     * @param equipo ids de equipo
+     * @param edad edades
+     * @param medalla códigos de medalla
+     * @param olimpiada id de la olimpiada del evento de cada fila
+     * @param deporte id del deporte del evento de cada fila
+     */
+    ColumnasParticipacion(int filas, int[] deportista, int[] evento, int[] equipo, byte[] edad, byte[] medalla,
+                                  int[] olimpiada, int[] deporte) {
+        this.filas = filas;
+        this.deportista = Arrays.copyOf(deportista, filas);
+        this.evento = Arrays.copyOf(evento, filas);
+        this.equipo = Arrays.copyOf(equipo, filas);
+        this.edad = Arrays.copyOf(edad, filas);
+        this.medalla = Arrays.copyOf(medalla, filas);
+        idsDeportista = codificar(this.deportista);
+        idsEvento = codificar(this.evento);
+        idsEquipo = codificar(this.equipo);
+        olimpiadaEvento = new int[idsEvento.length];
+        deporteEvento = new int[idsEvento.length];
+        for (int i = 0; i < filas; i++) {
+            olimpiadaEvento[this.evento[i]] = olimpiada[i];
+            deporteEvento[this.evento[i]] = deporte[i];
+        }
+    }
+
+    /**
+     * Obtiene la copia actual de la tabla, construyéndola de nuevo si no existe o ha quedado desfasada.
+     *
+     * @return la copia, o la anterior si no se ha podido leer la tabla (vacía si nunca se ha podido)
+     */
+    public static ColumnasParticipacion getActual() {
+        try {
+            return consultar();
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            synchronized (ColumnasParticipacion.class) {
+                if (actual == null) {
+                    int[] vacio = new int[0];
+                    return new ColumnasParticipacion(0, vacio, vacio, vacio, new byte[0], new byte[0], vacio, vacio);
+                }
+                return actual;
+            }
+        }
+    }
+
+    /**
+     * Obtiene la copia actual sin construirla: solo si ya existe y no ha quedado desfasada.
+     *
+     * @return la copia al día o null si habría que leer la tabla
+     */
+    static synchronized ColumnasParticipacion getVigente() {
+        return vigente;
+    }
+
+    /**
+     * Obtiene la copia actual de la tabla igual que {@link #getActual()}, pero propagando los errores
+     * en lugar de devolver una copia anterior o vacía.
+     *
+     * @return la copia al día
+     * @throws SQLException si no se ha podido leer la tabla
+     */
+    static ColumnasParticipacion consultar() throws SQLException {
+        synchronized (ColumnasParticipacion.class) {
+            if (!suscrita) {
+                BusCambios.getInstance().suscribir(cambio -> {
+                    if (cambio.getTipo() == Participacion.class || cambio.getTipo() == Evento.class) {
+                        invalidar();
+                    }
+                });
+                suscrita = true;
+            }
+            if (vigente != null) {
+                return vigente;
+            }
+            obsoleta = false;
+        }
+        ColumnasParticipacion nueva;
+        try {
+            nueva = cargar();
+        } catch (SQLException e) {
+            synchronized (ColumnasParticipacion.class) {
+                obsoleta = true;
+            }
+            throw e;
+        }
+        synchronized (ColumnasParticipacion.class) {
+            actual = nueva;
+            // Si se ha invalidado durante la lectura la copia puede no incluir el cambio
+            vigente = obsoleta ? null : nueva;
+            return nueva;
+        }
+    }
+
+    /**
+     * Marca la copia como desfasada para que se vuelva a construir la siguiente vez que se pida,
+     * por ejemplo tras una importación que no pasa por los DAO.
+     */
+    public static synchronized void invalidar() {
+        obsoleta = true;
+        vigente = null;
+    }
+
+    /**
+     * Lee la tabla en flujo y construye una copia nueva.
+     *
+     * @return la copia
+     * @throws SQLException si no se puede leer la tabla
+     */
+    private static ColumnasParticipacion cargar() throws SQLException {
+        int capacidad = 1024;
+        int[] deportista = new int[capacidad];
+        int[] evento = new int[capacidad];
+        int[] equipo = new int[capacidad];
+        byte[] edad = new byte[capacidad];
+        byte[] medalla = new byte[capacidad];
+        int[] olimpiada = new int[capacidad];
+        int[] deporte = new int[capacidad];
+        int total = 0;
+        try (Stream<Fila> flujo = Flujos.consultar(CONSULTA, rs -> {
+            Fila fila = new Fila();
+            fila.id_deportista = rs.getInt("id_deportista");
+            fila.id_evento = rs.getInt("id_evento");
+            fila.id_equipo = rs.getInt("id_equipo");
+            fila.edad = rs.getInt("edad");
+            fila.medalla = codigoMedalla(rs.getString("medalla"));
+            fila.id_olimpiada = rs.getInt("id_olimpiada");
+            fila.id_deporte = rs.getInt("id_deporte");
+            return fila;
+        })) {
+            for (Fila fila : (Iterable<Fila>) flujo::iterator) {
+                if (total == capacidad) {
+                    capacidad *= 2;
+                    deportista = Arrays.copyOf(deportista, capacidad);
+                    evento = Arrays.copyOf(evento, capacidad);
+                    equipo = Arrays.copyOf(equipo, capacidad);
+                    edad = Arrays.copyOf(edad, capacidad);
+                    medalla = Arrays.copyOf(medalla, capacidad);
+                    olimpiada = Arrays.copyOf(olimpiada, capacidad);
+                    deporte = Arrays.copyOf(deporte, capacidad);
+                }
+                deportista[total] = fila.id_deportista;
+                evento[total] = fila.id_evento;
+                equipo[total] = fila.id_equipo;
+                edad[total] = (byte) Math.min(255, Math.max(0, fila.edad));
+                medalla[total] = fila.medalla;
+                olimpiada[total] = fila.id_olimpiada;
+                deporte[total] = fila.id_deporte;
+                total++;
+            }
+        } catch (IllegalStateException e) {
+            throw new SQLException(e.getMessage(), e.getCause());
+        }
+        return new ColumnasParticipacion(total, deportista, evento, equipo, edad, medalla, olimpiada, deporte);
+    }
+
+    /**
+     * Sustituye cada id de una columna por su posición en el diccionario de ids distintos.
+     *
+     * @param columna ids de la columna, que se reemplazan por sus códigos
+     * @return el diccionario ordenado
+     */
+    private static int[] codificar(int[] columna) {
+        int[] diccionario = Arrays.stream(columna).sorted().distinct().toArray();
+        for (int i = 0; i < columna.length; i++) {
+            columna[i] = Arrays.binarySearch(diccionario, columna[i]);
+        }
+        return diccionario;
+    }
+
+    /**
+     * Obtiene el código de una medalla.
+     *
+     * @param medalla valor de la columna medalla
+     * @return 1 oro, 2 plata, 3 bronce o 0 si no es una medalla
+     */
+    private static byte codigoMedalla(String medalla) {
+        for (byte i = 1; i < MEDALLAS.length; i++) {
+            if (MEDALLAS[i].equalsIgnoreCase(medalla)) {
+                return i;
+            }
+        }
+        return SIN_MEDALLA;
+    }
+
+    /**
+     * Obtiene el número de participaciones de la copia.
+     *
+     * @return el número de filas
+     */
+    public int getFilas() {
+        return filas;
+    }
+
+    /**
+     * Obtiene el id del deportista de una fila.
+     *
+     * @param fila posición de la fila
+     * @return id del deportista
+     */
+    public int getIdDeportista(int fila) {
+        return idsDeportista[deportista[fila]];
+    }
+
+    /**
+     * Obtiene el id del evento de una fila.
+     *
+     * @param fila posición de la fila
+     * @return id del evento
+     */
+    public int getIdEvento(int fila) {
+        return idsEvento[evento[fila]];
+    }
+
+    /**
+     * Obtiene el id del equipo de una fila.
+     *
+     * @param fila posición de la fila
+     * @return id del equipo
+     */
+    public int getIdEquipo(int fila) {
+        return idsEquipo[equipo[fila]];
+    }
+
+    /**
+     * Obtiene la edad de una fila.
+     *
+     * @param fila posición de la fila
+     * @return edad del deportista
+     */
+    public int getEdad(int fila) {
+        return edad[fila] & 0xFF;
+    }
+
+    /**
+     * Obtiene la medalla de una fila.
+     *
+     * @param fila posición de la fila
+     * @return Gold, Silver, Bronze o null si no obtuvo medalla
+     */
+    public String getMedalla(int fila) {
+        return MEDALLAS[medalla[fila]];
+    }
+
+    /**
+     * Obtiene las filas que cumplen una condición.
+     *
+     * @param filtro condición
+     * @return posiciones de las filas, en orden de deportista y evento
+     */
+    public int[] filtrar(Filtro filtro) {
+        int[] resultado = new int[16];
+        int total = 0;
+        for (int i = 0; i < filas; i++) {
+            if (acepta(filtro, i)) {
+                if (total == resultado.length) {
+                    resultado = Arrays.copyOf(resultado, total * 2);
+                }
+                resultado[total++] = i;
+            }
+        }
+        return Arrays.copyOf(resultado, total);
+    }
+
+    /**
+     * Cuenta las filas que cumplen una condición.
+     *
+     * @param filtro condición
+     * @return número de filas
+     */
+    public int contar(Filtro filtro) {
+        int total = 0;
+        for (int i = 0; i < filas; i++) {
+            if (acepta(filtro, i)) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Cuenta las medallas de cada grupo. Solo se recorren las columnas de medalla y de la clave del grupo.
+     *
+     * @param agrupacion por qué se agrupan las medallas
+     * @return id del grupo con sus oros, platas y bronces; los grupos sin medallas no aparecen
+     */
+    public Map<Integer, int[]> contarMedallas(AgrupacionMedallero agrupacion) {
+        int[][] porCodigo = new int[diccionario(agrupacion).length][];
+        for (int i = 0; i < filas; i++) {
+            if (medalla[i] == SIN_MEDALLA) {
+                continue;
+            }
+            int codigo = codigoGrupo(agrupacion, i);
+            if (porCodigo[codigo] == null) {
+                porCodigo[codigo] = new int[3];
+            }
+            porCodigo[codigo][medalla[i] - 1]++;
+        }
+        int[] ids = diccionario(agrupacion);
+        Map<Integer, int[]> medallas = new HashMap<>();
+        for (int codigo = 0; codigo < porCodigo.length; codigo++) {
+            if (porCodigo[codigo] != null) {
+                medallas.merge(ids[codigo], porCodigo[codigo], ColumnasParticipacion::sumar);
+            }
+        }
+        return medallas;
+    }
+
+    /**
+     * Indica si una fila cumple una condición.
+     *
+     * @param filtro condición
+     * @param i posición de la fila
+     * @return true si la cumple
+     */
+    private boolean acepta(Filtro filtro, int i) {
+        return filtro.acepta(idsDeportista[deportista[i]], idsEvento[evento[i]], idsEquipo[equipo[i]],
+                edad[i] & 0xFF, medalla[i]);
+    }
+
+    /**
+     * Obtiene el diccionario de ids de los grupos de una agrupación. Olimpiadas y deportes se agrupan a través
+     * del diccionario de eventos, por lo que varios códigos pueden corresponder al mismo id.
+     *
+     * @param agrupacion agrupación
+     * @return ids indexados por el código de grupo
+     */
+    private int[] diccionario(AgrupacionMedallero agrupacion) {
+        switch (agrupacion) {
+            case EQUIPO:
+                return idsEquipo;
+            case OLIMPIADA:
+                return olimpiadaEvento;
+            case DEPORTE:
+                return deporteEvento;
+            default:
+                return idsDeportista;
+        }
+    }
+
+    /**
+     * Obtiene el código de grupo de una fila.
+     *
+     * @param agrupacion agrupación
+     * @param i posición de la fila
+     * @return posición en el diccionario de la agrupación
+     */
+    private int codigoGrupo(AgrupacionMedallero agrupacion, int i) {
+        switch (agrupacion) {
+            case EQUIPO:
+                return equipo[i];
+            case OLIMPIADA:
+            case DEPORTE:
+                return evento[i];
+            default:
+                return deportista[i];
+        }
+    }
+
+    /**
+     * Suma dos contadores de medallas.
+     *
+     * @param a primer contador
+     * @param b segundo contador
+     * @return a con las medallas de b sumadas
+     */
+    private static int[] sumar(int[] a, int[] b) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] += b[i];
+        }
+        return a;
+    }
+}
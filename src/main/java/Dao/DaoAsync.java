@@ -0,0 +1,96 @@
+package Dao;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Clase que ejecuta las llamadas a los DAO fuera del hilo de JavaFX.
+ * Cada consulta se ejecuta en un hilo virtual y su resultado se entrega en el hilo de JavaFX,
+ * de forma que la interfaz no se bloquea mientras se espera a la base de datos.
+ * <p>
+ * Ejemplo: {@code DaoAsync.ejecutar(DaoDeporte::cargarListado, deportes -> combo.getItems().setAll(deportes));}
+ */
+public class DaoAsync {
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Executor que ejecuta las tareas en el hilo de JavaFX.
+     */
+    public static final Executor HILO_FX = Platform::runLater;
+
+    /**
+     * Tarea que deben esperar todas las consultas, por ejemplo las migraciones del esquema al arrancar.
+     */
+    private static volatile CompletableFuture<?> previa = CompletableFuture.completedFuture(null);
+
+    private DaoAsync() {}
+
+    /**
+     * Ejecuta una tarea en un hilo virtual y hace que las consultas que se pidan después no empiecen hasta que termine,
+     * aunque termine con un error.
+     *
+     * @param tarea tarea previa, por ejemplo {@code Migraciones::aplicar}
+     * @param <T> tipo del resultado
+     * @return el resultado futuro de la tarea
+     */
+    public static <T> CompletableFuture<T> antesDeTodo(Supplier<T> tarea) {
+        CompletableFuture<T> futuro = ejecutar(tarea);
+        previa = futuro;
+        return futuro;
+    }
+
+    /**
+     * Ejecuta una consulta en un hilo virtual. Si hay una tarea de {@link #antesDeTodo(Supplier)} sin terminar,
+     * la consulta empieza cuando termine.
+     *
+     * @param consulta llamada al DAO, por ejemplo {@code DaoDeporte::cargarListado}
+     * @param <T> tipo del resultado
+     * @return el resultado futuro de la consulta
+     */
+    public static <T> CompletableFuture<T> ejecutar(Supplier<T> consulta) {
+        CompletableFuture<?> espera = previa;
+        if (espera.isDone()) {
+            return CompletableFuture.supplyAsync(consulta, executor);
+        }
+        return espera.handle((resultado, error) -> null).thenApplyAsync(nada -> consulta.get(), executor);
+    }
+
+    /**
+     * Ejecuta una consulta en un hilo virtual y entrega el resultado en el hilo de JavaFX.
+     * Si el futuro devuelto se cancela antes de que termine la consulta, el resultado se descarta.
+     *
+     * @param consulta llamada al DAO
+     * @param alTerminar acción que recibe el resultado en el hilo de JavaFX
+     * @param <T> tipo del resultado
+     * @return futuro que termina cuando se ha ejecutado la acción; cancelarlo descarta el resultado
+     */
+    public static <T> CompletableFuture<Void> ejecutar(Supplier<T> consulta, Consumer<T> alTerminar) {
+        CompletableFuture<Void> tarea = ejecutar(consulta).thenAcceptAsync(alTerminar, HILO_FX);
+        tarea.whenComplete((resultado, error) -> {
+            Throwable causa = error instanceof CompletionException ? error.getCause() : error;
+            if (causa != null && !(causa instanceof CancellationException)) {
+                System.err.println(causa.getMessage());
+            }
+        });
+        return tarea;
+    }
+
+    /**
+     * Cancela una tarea si está en curso. Acepta null para simplificar su uso.
+     *
+     * @param tarea tarea a cancelar
+     */
+    public static void cancelar(CompletableFuture<?> tarea) {
+        if (tarea != null) {
+            tarea.cancel(false);
+        }
+    }
+}
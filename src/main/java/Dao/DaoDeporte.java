@@ -7,12 +7,29 @@ import BBDD.ConexionBBDD;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Clase donde se ejecutan las consultas para la tabla Deporte.
  */
 public class DaoDeporte {
 
+    /**
+     * Caché de deportes por id, compartida por todas las consultas de esta clase.
+     */
+    private static final CacheEntidades<Deporte> cache = new CacheEntidades<>("Deporte", 1000);
+
+    /**
+     * Obtiene la caché de deportes, por ejemplo para consultar sus estadísticas.
+     *
+     * @return la caché de deportes
+     */
+    public static CacheEntidades<Deporte> getCache() {
+        return cache;
+    }
+
     /**
      * Metodo que busca un deporte por medio de su id.
      *
@@ -20,21 +37,22 @@ public class DaoDeporte {
      * @return El objeto Deporte con los datos correspondientes o null si no se encuentra.
      */
     public static Deporte getDeporte(int id) {
-        ConexionBBDD connection;
-        Deporte deporte = null;
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "SELECT id_deporte,nombre FROM Deporte WHERE id_deporte = ?";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
+        Deporte deporte = cache.get(id);
+        if (deporte != null) {
+            return deporte;
+        }
+        String consulta = "SELECT id_deporte,nombre FROM Deporte WHERE id_deporte = ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
             pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int id_deporte = rs.getInt("id_deporte");
-                String nombre = rs.getString("nombre");
-                deporte = new Deporte(id_deporte, nombre);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    int id_deporte = rs.getInt("id_deporte");
+                    String nombre = rs.getString("nombre");
+                    deporte = new Deporte(id_deporte, nombre);
+                    cache.put(deporte.getId_deporte(), deporte);
+                }
             }
-            rs.close();
-            connection.closeConnection();
         } catch (SQLException e) {
             System.err.println(e.getMessage());
         }
@@ -48,21 +66,18 @@ public class DaoDeporte {
      * @return Un ObservableList de deportes para cargar en un TableView.
      */
     public static ObservableList<Deporte> cargarListado() {
-        ConexionBBDD connection;
         ObservableList<Deporte> deportes = FXCollections.observableArrayList();
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "SELECT id_deporte,nombre FROM Deporte";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
-            ResultSet rs = pstmt.executeQuery();
+        String consulta = "SELECT id_deporte,nombre FROM Deporte";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta);
+             ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
                 int id_deporte = rs.getInt("id_deporte");
                 String nombre = rs.getString("nombre");
                 Deporte deporte = new Deporte(id_deporte, nombre);
+                cache.put(deporte.getId_deporte(), deporte);
                 deportes.add(deporte);
             }
-            rs.close();
-            connection.closeConnection();
         } catch (SQLException e) {
             System.err.println(e.getMessage());
         }
@@ -77,17 +92,20 @@ public class DaoDeporte {
      * @return true si la actualización fue exitosa, false si ocurrió un error.
      */
     public static boolean modificar(Deporte deporte, Deporte deporteNuevo) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "UPDATE Deporte SET nombre = ? WHERE id_deporte = ?";
-            pstmt = connection.getConnection().prepareStatement(consulta);
+        String consulta = "UPDATE Deporte SET nombre = ? WHERE id_deporte = ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
             pstmt.setString(1, deporteNuevo.getNombre());
             pstmt.setInt(2, deporte.getId_deporte());
             int filasAfectadas = pstmt.executeUpdate();
-            pstmt.close();
-            connection.closeConnection();
+            Medallero.getInstance().invalidar(AgrupacionMedallero.DEPORTE);
+            cache.invalidar(deporte.getId_deporte());
+            // Los eventos en caché guardan una referencia a este deporte
+            DaoEvento.getCache().limpiar();
+            if (filasAfectadas > 0) {
+                deporteNuevo.setId_deporte(deporte.getId_deporte());
+                BusCambios.getInstance().publicar(Cambio.modificado(Deporte.class, deporte.getId_deporte(), deporte, deporteNuevo));
+            }
             return filasAfectadas > 0;
         } catch (SQLException e) {
             System.err.println(e.getMessage());
@@ -102,25 +120,21 @@ public class DaoDeporte {
      * @return El id del nuevo deporte insertado, o -1 si ocurrió un error.
      */
     public static int insertar(Deporte deporte) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "INSERT INTO Deporte (nombre) VALUES (?) ";
-            pstmt = connection.getConnection().prepareStatement(consulta, PreparedStatement.RETURN_GENERATED_KEYS);
+        String consulta = "INSERT INTO Deporte (nombre) VALUES (?) ";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta, PreparedStatement.RETURN_GENERATED_KEYS)) {
             pstmt.setString(1, deporte.getNombre());
             int filasAfectadas = pstmt.executeUpdate();
             if (filasAfectadas > 0) {
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
-                    int id = rs.getInt(1);
-                    pstmt.close();
-                    connection.closeConnection();
-                    return id;
+                try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        int id = rs.getInt(1);
+                        deporte.setId_deporte(id);
+                        BusCambios.getInstance().publicar(Cambio.insertado(Deporte.class, id, deporte));
+                        return id;
+                    }
                 }
             }
-            pstmt.close();
-            connection.closeConnection();
             return -1;
         } catch (SQLException e) {
             System.err.println(e.getMessage());
@@ -135,16 +149,15 @@ public class DaoDeporte {
      * @return true si el deporte fue eliminado con éxito, false si ocurrió un error.
      */
     public static boolean eliminar(Deporte deporte) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "DELETE FROM Deporte WHERE id_deporte = ?";
-            pstmt = connection.getConnection().prepareStatement(consulta);
+        String consulta = "DELETE FROM Deporte WHERE id_deporte = ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
             pstmt.setInt(1, deporte.getId_deporte());
             int filasAfectadas = pstmt.executeUpdate();
-            pstmt.close();
-            connection.closeConnection();
+            cache.invalidar(deporte.getId_deporte());
+            if (filasAfectadas > 0) {
+                BusCambios.getInstance().publicar(Cambio.eliminado(Deporte.class, deporte.getId_deporte(), deporte));
+            }
             return filasAfectadas > 0;
         } catch (SQLException e) {
             System.err.println(e.getMessage());
@@ -152,6 +165,75 @@ public class DaoDeporte {
         }
     }
 
+    /**
+     * Metodo que inserta los deportes indicados en una única transacción con un lote JDBC.
+     *
+     * @param deportes deportes a insertar
+     * @return el id generado para cada uno en el mismo orden; todos -1 si hubo un error
+     */
+    public static int[] insertarTodos(List<Deporte> deportes) {
+        String consulta = "INSERT INTO Deporte (nombre) VALUES (?)";
+        int[] ids = Lotes.insertar(consulta, deportes.size(), (pstmt, i) -> {
+            Deporte deporte = deportes.get(i);
+            pstmt.setString(1, deporte.getNombre());
+        });
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] > 0) {
+                deportes.get(i).setId_deporte(ids[i]);
+                BusCambios.getInstance().publicar(Cambio.insertado(Deporte.class, ids[i], deportes.get(i)));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Metodo que modifica los deportes indicados en una única transacción con un lote JDBC.
+     *
+     * @param deportes deportes con los datos actuales
+     * @param nuevos nuevos datos de cada uno, en el mismo orden
+     * @return para cada uno, true si se modificó; todos false si hubo un error
+     */
+    public static boolean[] modificarTodos(List<Deporte> deportes, List<Deporte> nuevos) {
+        Lotes.comprobarTamanio(deportes.size(), nuevos.size());
+        String consulta = "UPDATE Deporte SET nombre = ? WHERE id_deporte = ?";
+        boolean[] resultado = Lotes.ejecutar(consulta, deportes.size(), (pstmt, i) -> {
+            Deporte deporte = deportes.get(i);
+            Deporte deporteNuevo = nuevos.get(i);
+            pstmt.setString(1, deporteNuevo.getNombre());
+            pstmt.setInt(2, deporte.getId_deporte());
+        });
+        for (Deporte deporte : deportes) {
+            cache.invalidar(deporte.getId_deporte());
+        }
+        // Los eventos en caché guardan referencias a estos deportes
+        DaoEvento.getCache().limpiar();
+        Medallero.getInstance().invalidar(AgrupacionMedallero.DEPORTE);
+        BusCambios.getInstance().publicar(resultado, i -> {
+            nuevos.get(i).setId_deporte(deportes.get(i).getId_deporte());
+            return Cambio.modificado(Deporte.class, deportes.get(i).getId_deporte(), deportes.get(i), nuevos.get(i));
+        });
+        return resultado;
+    }
+
+    /**
+     * Metodo que elimina los deportes indicados en una única transacción con un lote JDBC.
+     *
+     * @param deportes deportes a eliminar
+     * @return para cada uno, true si se eliminó; todos false si hubo un error
+     */
+    public static boolean[] eliminarTodos(List<Deporte> deportes) {
+        String consulta = "DELETE FROM Deporte WHERE id_deporte = ?";
+        boolean[] resultado = Lotes.ejecutar(consulta, deportes.size(), (pstmt, i) -> {
+            Deporte deporte = deportes.get(i);
+            pstmt.setInt(1, deporte.getId_deporte());
+        });
+        for (Deporte deporte : deportes) {
+            cache.invalidar(deporte.getId_deporte());
+        }
+        BusCambios.getInstance().publicar(resultado, i -> Cambio.eliminado(Deporte.class, deportes.get(i).getId_deporte(), deportes.get(i)));
+        return resultado;
+    }
+
     /**
      * Metodo que verifica si un deporte es eliminable, es decir, si no tiene eventos asociados.
      *
@@ -159,24 +241,38 @@ public class DaoDeporte {
      * @return true si el deporte puede eliminarse (sin eventos asociados), false en caso contrario.
      */
     public static boolean esEliminable(Deporte deporte) {
-        ConexionBBDD connection;
         try {
-            connection = new ConexionBBDD();
-            String consulta = "SELECT count(*) as cont FROM Evento WHERE id_deporte = ?";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
-            pstmt.setInt(1, deporte.getId_deporte());
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int cont = rs.getInt("cont");
-                rs.close();
-                connection.closeConnection();
-                return (cont == 0);
+            return !Referencias.existe("Evento", "id_deporte", deporte.getId_deporte());
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Metodo que obtiene, de entre los deportes indicados, los que se pueden eliminar, con una consulta por cada bloque de ids
+     * en lugar de una comprobación por cada uno.
+     *
+     * @param deportes deportes a comprobar
+     * @return los que no están relacionados con ningún evento, en el mismo orden; vacío si hubo un error
+     */
+    public static List<Deporte> filtrarEliminables(List<Deporte> deportes) {
+        List<Integer> ids = new ArrayList<>(deportes.size());
+        for (Deporte deporte : deportes) {
+            ids.add(deporte.getId_deporte());
+        }
+        List<Deporte> eliminables = new ArrayList<>();
+        try {
+            Set<Integer> usados = Referencias.usados("Evento", "id_deporte", ids);
+            for (Deporte deporte : deportes) {
+                if (!usados.contains(deporte.getId_deporte())) {
+                    eliminables.add(deporte);
+                }
             }
-            rs.close();
-            connection.closeConnection();
         } catch (SQLException e) {
             System.err.println(e.getMessage());
+            eliminables.clear();
         }
-        return false;
+        return eliminables;
     }
 }
@@ -9,6 +9,10 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Clase donde se ejecutan las consultas para la tabla Deportista.
@@ -16,62 +20,171 @@ import java.sql.*;
 public class DaoDeportista {
 
     /**
-     * Metodo que busca un deportista por medio de su id.
+     * Metodo que busca un deportista por medio de su id. La foto no se carga, ver {@link #getFoto(int)}.
      *
      * @param id id del deportista a buscar
      * @return deportista o null si no se encuentra
      */
     public static Deportista getDeportista(int id) {
-        ConexionBBDD connection;
         Deportista deportista = null;
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "SELECT id_deportista,nombre,sexo,peso,altura,foto FROM Deportista WHERE id_deportista = ?";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
+        String consulta = "SELECT id_deportista,nombre,sexo,peso,altura,foto IS NOT NULL AS tiene_foto FROM Deportista WHERE id_deportista = ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
             pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int id_deportista = rs.getInt("id_deportista");
-                String nombre = rs.getString("nombre");
-                char sexo = rs.getString("sexo").charAt(0);
-                int peso = rs.getInt("peso");
-                int altura = rs.getInt("altura");
-                Blob foto = rs.getBlob("foto");
-                deportista = new Deportista(id_deportista, nombre, sexo, peso, altura, foto);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    int id_deportista = rs.getInt("id_deportista");
+                    String nombre = rs.getString("nombre");
+                    char sexo = rs.getString("sexo").charAt(0);
+                    int peso = rs.getInt("peso");
+                    int altura = rs.getInt("altura");
+                    deportista = new Deportista(id_deportista, nombre, sexo, peso, altura, null);
+                    deportista.setTieneFoto(rs.getBoolean("tiene_foto"));
+                }
             }
-            rs.close();
-            connection.closeConnection();
         } catch (SQLException e) {
             System.err.println(e.getMessage());
         }
         return deportista;
     }
 
+    /**
+     * Metodo que obtiene la foto de un deportista. Los listados no cargan la foto,
+     * por lo que se debe pedir con este metodo solo cuando se va a mostrar o editar.
+     *
+     * @param id id del deportista
+     * @return la foto del deportista o null si no tiene
+     */
+    public static Blob getFoto(int id) {
+        Blob foto = null;
+        String consulta = "SELECT foto FROM Deportista WHERE id_deportista = ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    foto = rs.getBlob("foto");
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+        return foto;
+    }
+
     /**
      * Metodo que carga los datos de la tabla Deportistas y los devuelve como una lista observable.
      *
      * @return listado de deportistas para cargar en un tableview
      */
     public static ObservableList<Deportista> cargarListado() {
-        ConexionBBDD connection;
         ObservableList<Deportista> deportistas = FXCollections.observableArrayList();
-        try{
-            connection = new ConexionBBDD();
-            String consulta = "SELECT id_deportista,nombre,sexo,peso,altura,foto FROM Deportista";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                int id_deportista = rs.getInt("id_deportista");
-                String nombre = rs.getString("nombre");
-                char sexo = rs.getString("sexo").charAt(0);
-                int peso = rs.getInt("peso");
-                int altura = rs.getInt("altura");
-                Blob foto = rs.getBlob("foto");
-                Deportista deportista = new Deportista(id_deportista, nombre, sexo, peso, altura, foto);
-                deportistas.add(deportista);
+        String consulta = "SELECT id_deportista,nombre,sexo,peso,altura,foto IS NOT NULL AS tiene_foto FROM Deportista";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int id_deportista = rs.getInt("id_deportista");
+                    String nombre = rs.getString("nombre");
+                    char sexo = rs.getString("sexo").charAt(0);
+                    int peso = rs.getInt("peso");
+                    int altura = rs.getInt("altura");
+                    Deportista deportista = new Deportista(id_deportista, nombre, sexo, peso, altura, null);
+                    deportista.setTieneFoto(rs.getBoolean("tiene_foto"));
+                    deportistas.add(deportista);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+        return deportistas;
+    }
+
+    /**
+     * Metodo que recorre todos los deportistas sin cargarlos a la vez en memoria: las filas se leen del servidor
+     * por bloques a medida que se consume el Stream. Pensado para exportaciones y agregaciones de tablas grandes.
+     * El Stream tiene una conexión prestada y debe cerrarse, por ejemplo con try-with-resources.
+     *
+     * @return Stream de deportistas (sin foto) en orden de id
+     */
+    public static Stream<Deportista> flujo() {
+        String consulta = "SELECT id_deportista,nombre,sexo,peso,altura,foto IS NOT NULL AS tiene_foto FROM Deportista ORDER BY id_deportista";
+        return Flujos.abrir(consulta, rs -> {
+            int id_deportista = rs.getInt("id_deportista");
+            String nombre = rs.getString("nombre");
+            char sexo = rs.getString("sexo").charAt(0);
+            int peso = rs.getInt("peso");
+            int altura = rs.getInt("altura");
+            Deportista deportista = new Deportista(id_deportista, nombre, sexo, peso, altura, null);
+            deportista.setTieneFoto(rs.getBoolean("tiene_foto"));
+            return deportista;
+        });
+    }
+
+    /**
+     * Metodo que carga una página de deportistas ordenados por id utilizando paginación por clave:
+     * solo se leen los deportistas con id mayor que el último de la página anterior.
+     *
+     * @param ultimoId id del último deportista de la página anterior, 0 para la primera página
+     * @param tamanio número máximo de deportistas de la página
+     * @return página de deportistas, vacía si no quedan más
+     */
+    public static ObservableList<Deportista> cargarPagina(int ultimoId, int tamanio) {
+        ObservableList<Deportista> deportistas = FXCollections.observableArrayList();
+        String consulta = "SELECT id_deportista,nombre,sexo,peso,altura,foto IS NOT NULL AS tiene_foto FROM Deportista WHERE id_deportista > ? ORDER BY id_deportista LIMIT ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            pstmt.setInt(1, ultimoId);
+            pstmt.setInt(2, tamanio);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int id_deportista = rs.getInt("id_deportista");
+                    String nombre = rs.getString("nombre");
+                    char sexo = rs.getString("sexo").charAt(0);
+                    int peso = rs.getInt("peso");
+                    int altura = rs.getInt("altura");
+                    Deportista deportista = new Deportista(id_deportista, nombre, sexo, peso, altura, null);
+                    deportista.setTieneFoto(rs.getBoolean("tiene_foto"));
+                    deportistas.add(deportista);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+        return deportistas;
+    }
+
+    /**
+     * Metodo que busca deportistas por nombre en la base de datos, ordenados por nombre.
+     * El prefijo utiliza el índice idx_deportista_nombre, la subcadena lo recorre entero y el texto completo utiliza
+     * el índice ft_deportista_nombre.
+     *
+     * @param texto texto a buscar
+     * @param modo modo de búsqueda
+     * @param limite número máximo de deportistas devueltos
+     * @return deportistas encontrados
+     */
+    public static ObservableList<Deportista> buscar(String texto, ModoBusqueda modo, int limite) {
+        ObservableList<Deportista> deportistas = FXCollections.observableArrayList();
+        modo = modo.para(texto);
+        String consulta = modo.consulta("id_deportista,nombre,sexo,peso,altura,foto IS NOT NULL AS tiene_foto", "Deportista",
+                "id_deportista", "idx_deportista_nombre");
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            pstmt.setString(1, modo.parametro(texto));
+            pstmt.setInt(2, limite);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int id_deportista = rs.getInt("id_deportista");
+                    String nombre = rs.getString("nombre");
+                    char sexo = rs.getString("sexo").charAt(0);
+                    int peso = rs.getInt("peso");
+                    int altura = rs.getInt("altura");
+                    Deportista deportista = new Deportista(id_deportista, nombre, sexo, peso, altura, null);
+                    deportista.setTieneFoto(rs.getBoolean("tiene_foto"));
+                    deportistas.add(deportista);
+                }
             }
-            rs.close();
-            connection.closeConnection();
         } catch (SQLException e) {
             System.err.println(e.getMessage());
         }
@@ -86,21 +199,39 @@ public class DaoDeportista {
      * @return true si la actualización fue exitosa, false en caso contrario
      */
     public static boolean modificar(Deportista deportista, Deportista deportistaNuevo) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "UPDATE Deportista SET nombre = ?,sexo = ?,peso = ?,altura = ?,foto = ? WHERE id_deportista = ?";
-            pstmt = connection.getConnection().prepareStatement(consulta);
-            pstmt.setString(1, deportistaNuevo.getNombre());
-            pstmt.setString(2, deportistaNuevo.getSexo() + "");
-            pstmt.setInt(3, deportistaNuevo.getPeso());
-            pstmt.setInt(4, deportistaNuevo.getAltura());
-            pstmt.setBlob(5, deportistaNuevo.getFoto());
-            pstmt.setInt(6, deportista.getId_deportista());
+        return modificar(deportista, deportistaNuevo, true);
+    }
+
+    /**
+     * Metodo que modifica los datos de un deportista en la base de datos, cambiando la foto solo si se indica.
+     * Los listados no cargan la foto, así que un deportista que viene de ellos no debe escribirla.
+     *
+     * @param deportista Instancia del deportista con datos actuales
+     * @param deportistaNuevo Nuevos datos del deportista a modificar
+     * @param cambiarFoto true para guardar también la foto de deportistaNuevo, false para conservar la actual
+     * @return true si la actualización fue exitosa, false en caso contrario
+     */
+    public static boolean modificar(Deportista deportista, Deportista deportistaNuevo, boolean cambiarFoto) {
+        String consulta = cambiarFoto
+                ? "UPDATE Deportista SET nombre = ?,sexo = ?,peso = ?,altura = ?,foto = ? WHERE id_deportista = ?"
+                : "UPDATE Deportista SET nombre = ?,sexo = ?,peso = ?,altura = ? WHERE id_deportista = ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            int indice = 1;
+            pstmt.setString(indice++, deportistaNuevo.getNombre());
+            pstmt.setString(indice++, deportistaNuevo.getSexo() + "");
+            pstmt.setInt(indice++, deportistaNuevo.getPeso());
+            pstmt.setInt(indice++, deportistaNuevo.getAltura());
+            if (cambiarFoto) {
+                pstmt.setBlob(indice++, deportistaNuevo.getFoto());
+            }
+            pstmt.setInt(indice, deportista.getId_deportista());
             int filasAfectadas = pstmt.executeUpdate();
-            pstmt.close();
-            connection.closeConnection();
+            Medallero.getInstance().invalidar(AgrupacionMedallero.DEPORTISTA);
+            if (filasAfectadas > 0) {
+                deportistaNuevo.setId_deportista(deportista.getId_deportista());
+                BusCambios.getInstance().publicar(Cambio.modificado(Deportista.class, deportista.getId_deportista(), deportista, deportistaNuevo));
+            }
             return filasAfectadas > 0;
         } catch (SQLException e) {
             System.err.println(e.getMessage());
@@ -115,12 +246,9 @@ public class DaoDeportista {
      * @return id del deportista creado o -1 si hubo un error
      */
     public static int insertar(Deportista deportista) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "INSERT INTO Deportista (nombre,sexo,peso,altura,foto) VALUES (?,?,?,?,?)";
-            pstmt = connection.getConnection().prepareStatement(consulta, PreparedStatement.RETURN_GENERATED_KEYS);
+        String consulta = "INSERT INTO Deportista (nombre,sexo,peso,altura,foto) VALUES (?,?,?,?,?)";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta, PreparedStatement.RETURN_GENERATED_KEYS)) {
             pstmt.setString(1, deportista.getNombre());
             pstmt.setString(2, deportista.getSexo() + "");
             pstmt.setInt(3, deportista.getPeso());
@@ -128,16 +256,15 @@ public class DaoDeportista {
             pstmt.setBlob(5, deportista.getFoto());
             int filasAfectadas = pstmt.executeUpdate();
             if (filasAfectadas > 0) {
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
-                    int id = rs.getInt(1);
-                    pstmt.close();
-                    connection.closeConnection();
-                    return id;
+                try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        int id = rs.getInt(1);
+                        deportista.setId_deportista(id);
+                        BusCambios.getInstance().publicar(Cambio.insertado(Deportista.class, id, deportista));
+                        return id;
+                    }
                 }
             }
-            pstmt.close();
-            connection.closeConnection();
             return -1;
         } catch (SQLException e) {
             System.err.println(e.getMessage());
@@ -152,16 +279,14 @@ public class DaoDeportista {
      * @return true si la eliminación fue exitosa, false en caso contrario
      */
     public static boolean eliminar(Deportista deportista) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "DELETE FROM Deportista WHERE id_deportista = ?";
-            pstmt = connection.getConnection().prepareStatement(consulta);
+        String consulta = "DELETE FROM Deportista WHERE id_deportista = ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
             pstmt.setInt(1, deportista.getId_deportista());
             int filasAfectadas = pstmt.executeUpdate();
-            pstmt.close();
-            connection.closeConnection();
+            if (filasAfectadas > 0) {
+                BusCambios.getInstance().publicar(Cambio.eliminado(Deportista.class, deportista.getId_deportista(), deportista));
+            }
             return filasAfectadas > 0;
         } catch (SQLException e) {
             System.err.println(e.getMessage());
@@ -169,6 +294,91 @@ public class DaoDeportista {
         }
     }
 
+    /**
+     * Metodo que inserta los deportistas indicados en una única transacción con un lote JDBC.
+     *
+     * @param deportistas deportistas a insertar
+     * @return el id generado para cada uno en el mismo orden; todos -1 si hubo un error
+     */
+    public static int[] insertarTodos(List<Deportista> deportistas) {
+        String consulta = "INSERT INTO Deportista (nombre,sexo,peso,altura,foto) VALUES (?,?,?,?,?)";
+        int[] ids = Lotes.insertar(consulta, deportistas.size(), (pstmt, i) -> {
+            Deportista deportista = deportistas.get(i);
+            pstmt.setString(1, deportista.getNombre());
+            pstmt.setString(2, deportista.getSexo() + "");
+            pstmt.setInt(3, deportista.getPeso());
+            pstmt.setInt(4, deportista.getAltura());
+            pstmt.setBlob(5, deportista.getFoto());
+        });
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] > 0) {
+                deportistas.get(i).setId_deportista(ids[i]);
+                BusCambios.getInstance().publicar(Cambio.insertado(Deportista.class, ids[i], deportistas.get(i)));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Metodo que modifica los deportistas indicados en una única transacción con un lote JDBC.
+     * La foto no se modifica: los listados no la cargan y se borraría; para cambiarla ver {@link #modificar(Deportista, Deportista, boolean)}.
+     *
+     * @param deportistas deportistas con los datos actuales
+     * @param nuevos nuevos datos de cada uno, en el mismo orden
+     * @return para cada uno, true si se modificó; todos false si hubo un error
+     */
+    public static boolean[] modificarTodos(List<Deportista> deportistas, List<Deportista> nuevos) {
+        Lotes.comprobarTamanio(deportistas.size(), nuevos.size());
+        String consulta = "UPDATE Deportista SET nombre = ?,sexo = ?,peso = ?,altura = ? WHERE id_deportista = ?";
+        boolean[] resultado = Lotes.ejecutar(consulta, deportistas.size(), (pstmt, i) -> {
+            Deportista deportista = deportistas.get(i);
+            Deportista deportistaNuevo = nuevos.get(i);
+            pstmt.setString(1, deportistaNuevo.getNombre());
+            pstmt.setString(2, deportistaNuevo.getSexo() + "");
+            pstmt.setInt(3, deportistaNuevo.getPeso());
+            pstmt.setInt(4, deportistaNuevo.getAltura());
+            pstmt.setInt(5, deportista.getId_deportista());
+        });
+        Medallero.getInstance().invalidar(AgrupacionMedallero.DEPORTISTA);
+        BusCambios.getInstance().publicar(resultado, i -> {
+            nuevos.get(i).setId_deportista(deportistas.get(i).getId_deportista());
+            return Cambio.modificado(Deportista.class, deportistas.get(i).getId_deportista(), deportistas.get(i), nuevos.get(i));
+        });
+        return resultado;
+    }
+
+    /**
+     * Metodo que elimina los deportistas indicados en una única transacción con un lote JDBC.
+     *
+     * @param deportistas deportistas a eliminar
+     * @return para cada uno, true si se eliminó; todos false si hubo un error
+     */
+    public static boolean[] eliminarTodos(List<Deportista> deportistas) {
+        String consulta = "DELETE FROM Deportista WHERE id_deportista = ?";
+        boolean[] resultado = Lotes.ejecutar(consulta, deportistas.size(), (pstmt, i) -> {
+            Deportista deportista = deportistas.get(i);
+            pstmt.setInt(1, deportista.getId_deportista());
+        });
+        BusCambios.getInstance().publicar(resultado, i -> Cambio.eliminado(Deportista.class, deportistas.get(i).getId_deportista(), deportistas.get(i)));
+        return resultado;
+    }
+
+    /**
+     * Metodo que elimina los deportistas seleccionados en una única transacción.
+     * Los que tienen participaciones no se eliminan y se devuelven como bloqueados.
+     *
+     * @param deportistas deportistas a eliminar
+     * @return los deportistas eliminados y los bloqueados; si hubo un error no se elimina ninguno
+     */
+    public static ResultadoEliminacion<Deportista> eliminarSeleccion(List<Deportista> deportistas) {
+        String consulta = "DELETE FROM Deportista WHERE id_deportista = ?";
+        ResultadoEliminacion<Deportista> resultado = Lotes.eliminar(consulta, deportistas, Deportista::getId_deportista, "Participacion", "id_deportista");
+        for (Deportista deportista : resultado.getEliminados()) {
+            BusCambios.getInstance().publicar(Cambio.eliminado(Deportista.class, deportista.getId_deportista(), deportista));
+        }
+        return resultado;
+    }
+
     /**
      * Verifica si un deportista puede ser eliminado.
      *
@@ -176,25 +386,39 @@ public class DaoDeportista {
      * @return true si el deportista no está relacionado con ninguna participación, false en caso contrario
      */
     public static boolean esEliminable(Deportista deportista) {
-        ConexionBBDD connection;
         try {
-            connection = new ConexionBBDD();
-            String consulta = "SELECT count(*) as cont FROM Participacion WHERE id_deportista = ?";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
-            pstmt.setInt(1, deportista.getId_deportista());
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int cont = rs.getInt("cont");
-                rs.close();
-                connection.closeConnection();
-                return (cont == 0);
+            return !Referencias.existe("Participacion", "id_deportista", deportista.getId_deportista());
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Metodo que obtiene, de entre los deportistas indicados, los que se pueden eliminar, con una consulta por cada bloque de ids
+     * en lugar de una comprobación por cada uno.
+     *
+     * @param deportistas deportistas a comprobar
+     * @return los que no están relacionados con ninguna participación, en el mismo orden; vacío si hubo un error
+     */
+    public static List<Deportista> filtrarEliminables(List<Deportista> deportistas) {
+        List<Integer> ids = new ArrayList<>(deportistas.size());
+        for (Deportista deportista : deportistas) {
+            ids.add(deportista.getId_deportista());
+        }
+        List<Deportista> eliminables = new ArrayList<>();
+        try {
+            Set<Integer> usados = Referencias.usados("Participacion", "id_deportista", ids);
+            for (Deportista deportista : deportistas) {
+                if (!usados.contains(deportista.getId_deportista())) {
+                    eliminables.add(deportista);
+                }
             }
-            rs.close();
-            connection.closeConnection();
         } catch (SQLException e) {
             System.err.println(e.getMessage());
+            eliminables.clear();
         }
-        return false;
+        return eliminables;
     }
 
     /**
@@ -206,12 +430,11 @@ public class DaoDeportista {
      * @throws IOException si ocurre un error al leer el archivo
      */
     public static Blob convertFileToBlob(File file) throws SQLException, IOException {
-        ConexionBBDD connection = new ConexionBBDD();
-        // Open a connection to the database
-        try (Connection conn = connection.getConnection();
+        // Borrow a connection from the pool; it is returned, not closed, at the end
+        try (ConexionBBDD connection = new ConexionBBDD();
              FileInputStream inputStream = new FileInputStream(file)) {
             // Create Blob
-            Blob blob = conn.createBlob();
+            Blob blob = connection.getConnection().createBlob();
             // Write the file's bytes to the Blob
             byte[] buffer = new byte[1024];
             int bytesRead;
@@ -7,6 +7,9 @@ import model.Equipo;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Clase que contiene los métodos para ejecutar consultas a la base de datos para la tabla Equipo.
@@ -14,6 +17,20 @@ import java.sql.SQLException;
  */
 public class DaoEquipo {
 
+    /**
+     * Caché de equipos por id, compartida por todas las consultas de esta clase.
+     */
+    private static final CacheEntidades<Equipo> cache = new CacheEntidades<>("Equipo", 1000);
+
+    /**
+     * Obtiene la caché de equipos, por ejemplo para consultar sus estadísticas.
+     *
+     * @return la caché de equipos
+     */
+    public static CacheEntidades<Equipo> getCache() {
+        return cache;
+    }
+
     /**
      * Busca un equipo en la base de datos por su ID.
      *
@@ -21,22 +38,23 @@ public class DaoEquipo {
      * @return El objeto Equipo correspondiente o null si no se encuentra.
      */
     public static Equipo getEquipo(int id) {
-        ConexionBBDD connection;
-        Equipo equipo = null;
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "SELECT id_equipo,nombre,iniciales FROM Equipo WHERE id_equipo = ?";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
+        Equipo equipo = cache.get(id);
+        if (equipo != null) {
+            return equipo;
+        }
+        String consulta = "SELECT id_equipo,nombre,iniciales FROM Equipo WHERE id_equipo = ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
             pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int id_equipo = rs.getInt("id_equipo");
-                String nombre = rs.getString("nombre");
-                String iniciales = rs.getString("iniciales");
-                equipo = new Equipo(id_equipo,nombre,iniciales);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    int id_equipo = rs.getInt("id_equipo");
+                    String nombre = rs.getString("nombre");
+                    String iniciales = rs.getString("iniciales");
+                    equipo = new Equipo(id_equipo,nombre,iniciales);
+                    cache.put(equipo.getId_equipo(), equipo);
+                }
             }
-            rs.close();
-            connection.closeConnection();
         } catch (SQLException e) {
             System.err.println(e.getMessage());
         }
@@ -49,22 +67,20 @@ public class DaoEquipo {
      * @return Un ObservableList de objetos Equipo.
      */
     public static ObservableList<Equipo> cargarListado() {
-        ConexionBBDD connection;
         ObservableList<Equipo> equipos = FXCollections.observableArrayList();
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "SELECT id_equipo,nombre,iniciales FROM Equipo";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                int id_equipo = rs.getInt("id_equipo");
-                String nombre = rs.getString("nombre");
-                String iniciales = rs.getString("iniciales");
-                Equipo equipo = new Equipo(id_equipo,nombre,iniciales);
-                equipos.add(equipo);
+        String consulta = "SELECT id_equipo,nombre,iniciales FROM Equipo";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int id_equipo = rs.getInt("id_equipo");
+                    String nombre = rs.getString("nombre");
+                    String iniciales = rs.getString("iniciales");
+                    Equipo equipo = new Equipo(id_equipo,nombre,iniciales);
+                    cache.put(equipo.getId_equipo(), equipo);
+                    equipos.add(equipo);
+                }
             }
-            rs.close();
-            connection.closeConnection();
         } catch (SQLException e) {
             System.err.println(e.getMessage());
         }
@@ -79,19 +95,19 @@ public class DaoEquipo {
      * @return true si la actualización fue exitosa, false en caso contrario.
      */
     public static boolean modificar(Equipo equipo, Equipo equipoNuevo) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "UPDATE Equipo SET nombre = ?,iniciales = ? WHERE id_equipo = ?";
-            pstmt = connection.getConnection().prepareStatement(consulta);
+        String consulta = "UPDATE Equipo SET nombre = ?,iniciales = ? WHERE id_equipo = ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
             pstmt.setString(1, equipoNuevo.getNombre());
             pstmt.setString(2, equipoNuevo.getIniciales());
             pstmt.setInt(3, equipo.getId_equipo());
             int filasAfectadas = pstmt.executeUpdate();
-
-            pstmt.close();
-            connection.closeConnection();
+            Medallero.getInstance().invalidar(AgrupacionMedallero.EQUIPO);
+            cache.invalidar(equipo.getId_equipo());
+            if (filasAfectadas > 0) {
+                equipoNuevo.setId_equipo(equipo.getId_equipo());
+                BusCambios.getInstance().publicar(Cambio.modificado(Equipo.class, equipo.getId_equipo(), equipo, equipoNuevo));
+            }
             return filasAfectadas > 0;
         } catch (SQLException e) {
             System.err.println(e.getMessage());
@@ -106,26 +122,22 @@ public class DaoEquipo {
      * @return El ID generado del nuevo equipo si la inserción fue exitosa, -1 en caso contrario.
      */
     public static int insertar(Equipo equipo) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "INSERT INTO Equipo (nombre,iniciales) VALUES (?,?) ";
-            pstmt = connection.getConnection().prepareStatement(consulta, PreparedStatement.RETURN_GENERATED_KEYS);
+        String consulta = "INSERT INTO Equipo (nombre,iniciales) VALUES (?,?) ";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta, PreparedStatement.RETURN_GENERATED_KEYS)) {
             pstmt.setString(1, equipo.getNombre());
             pstmt.setString(2, equipo.getIniciales());
             int filasAfectadas = pstmt.executeUpdate();
             if (filasAfectadas > 0) {
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
-                    int id = rs.getInt(1);
-                    pstmt.close();
-                    connection.closeConnection();
-                    return id;
+                try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        int id = rs.getInt(1);
+                        equipo.setId_equipo(id);
+                        BusCambios.getInstance().publicar(Cambio.insertado(Equipo.class, id, equipo));
+                        return id;
+                    }
                 }
             }
-            pstmt.close();
-            connection.closeConnection();
             return -1;
         } catch (SQLException e) {
             System.err.println(e.getMessage());
@@ -140,16 +152,15 @@ public class DaoEquipo {
      * @return true si la eliminación fue exitosa, false en caso contrario.
      */
     public static boolean eliminar(Equipo equipo) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "DELETE FROM Equipo WHERE id_equipo = ?";
-            pstmt = connection.getConnection().prepareStatement(consulta);
+        String consulta = "DELETE FROM Equipo WHERE id_equipo = ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
             pstmt.setInt(1, equipo.getId_equipo());
             int filasAfectadas = pstmt.executeUpdate();
-            pstmt.close();
-            connection.closeConnection();
+            cache.invalidar(equipo.getId_equipo());
+            if (filasAfectadas > 0) {
+                BusCambios.getInstance().publicar(Cambio.eliminado(Equipo.class, equipo.getId_equipo(), equipo));
+            }
             return filasAfectadas > 0;
         } catch (SQLException e) {
             System.err.println(e.getMessage());
@@ -157,6 +168,75 @@ public class DaoEquipo {
         }
     }
 
+    /**
+     * Metodo que inserta los equipos indicados en una única transacción con un lote JDBC.
+     *
+     * @param equipos equipos a insertar
+     * @return el id generado para cada uno en el mismo orden; todos -1 si hubo un error
+     */
+    public static int[] insertarTodos(List<Equipo> equipos) {
+        String consulta = "INSERT INTO Equipo (nombre,iniciales) VALUES (?,?)";
+        int[] ids = Lotes.insertar(consulta, equipos.size(), (pstmt, i) -> {
+            Equipo equipo = equipos.get(i);
+            pstmt.setString(1, equipo.getNombre());
+            pstmt.setString(2, equipo.getIniciales());
+        });
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] > 0) {
+                equipos.get(i).setId_equipo(ids[i]);
+                BusCambios.getInstance().publicar(Cambio.insertado(Equipo.class, ids[i], equipos.get(i)));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Metodo que modifica los equipos indicados en una única transacción con un lote JDBC.
+     *
+     * @param equipos equipos con los datos actuales
+     * @param nuevos nuevos datos de cada uno, en el mismo orden
+     * @return para cada uno, true si se modificó; todos false si hubo un error
+     */
+    public static boolean[] modificarTodos(List<Equipo> equipos, List<Equipo> nuevos) {
+        Lotes.comprobarTamanio(equipos.size(), nuevos.size());
+        String consulta = "UPDATE Equipo SET nombre = ?,iniciales = ? WHERE id_equipo = ?";
+        boolean[] resultado = Lotes.ejecutar(consulta, equipos.size(), (pstmt, i) -> {
+            Equipo equipo = equipos.get(i);
+            Equipo equipoNuevo = nuevos.get(i);
+            pstmt.setString(1, equipoNuevo.getNombre());
+            pstmt.setString(2, equipoNuevo.getIniciales());
+            pstmt.setInt(3, equipo.getId_equipo());
+        });
+        for (Equipo equipo : equipos) {
+            cache.invalidar(equipo.getId_equipo());
+        }
+        Medallero.getInstance().invalidar(AgrupacionMedallero.EQUIPO);
+        BusCambios.getInstance().publicar(resultado, i -> {
+            nuevos.get(i).setId_equipo(equipos.get(i).getId_equipo());
+            return Cambio.modificado(Equipo.class, equipos.get(i).getId_equipo(), equipos.get(i), nuevos.get(i));
+        });
+        return resultado;
+    }
+
+    /**
+     * Metodo que elimina los equipos indicados en una única transacción con un lote JDBC.
+     *
+     * @param equipos equipos a eliminar
+     * @return para cada uno, true si se eliminó; todos false si hubo un error
+     */
+    public static boolean[] eliminarTodos(List<Equipo> equipos) {
+        String consulta = "DELETE FROM Equipo WHERE id_equipo = ?";
+        boolean[] resultado = Lotes.ejecutar(consulta, equipos.size(), (pstmt, i) -> {
+            Equipo equipo = equipos.get(i);
+            pstmt.setInt(1, equipo.getId_equipo());
+        });
+        for (Equipo equipo : equipos) {
+            cache.invalidar(equipo.getId_equipo());
+        }
+        BusCambios.getInstance().publicar(resultado, i -> Cambio.eliminado(Equipo.class, equipos.get(i).getId_equipo(), equipos.get(i)));
+        return resultado;
+    }
+
     /**
      * Verifica si un equipo se puede eliminar. Un equipo solo es eliminable si no tiene participaciones asociadas.
      *
@@ -164,24 +244,38 @@ public class DaoEquipo {
      * @return true si el equipo no tiene participaciones asociadas y puede ser eliminado, false en caso contrario.
      */
     public static boolean esEliminable(Equipo equipo) {
-        ConexionBBDD connection;
         try {
-            connection = new ConexionBBDD();
-            String consulta = "SELECT count(*) as cont FROM Participacion WHERE id_equipo = ?";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
-            pstmt.setInt(1, equipo.getId_equipo());
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int cont = rs.getInt("cont");
-                rs.close();
-                connection.closeConnection();
-                return (cont == 0);
+            return !Referencias.existe("Participacion", "id_equipo", equipo.getId_equipo());
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Metodo que obtiene, de entre los equipos indicados, los que se pueden eliminar, con una consulta por cada bloque de ids
+     * en lugar de una comprobación por cada uno.
+     *
+     * @param equipos equipos a comprobar
+     * @return los que no están relacionados con ninguna participación, en el mismo orden; vacío si hubo un error
+     */
+    public static List<Equipo> filtrarEliminables(List<Equipo> equipos) {
+        List<Integer> ids = new ArrayList<>(equipos.size());
+        for (Equipo equipo : equipos) {
+            ids.add(equipo.getId_equipo());
+        }
+        List<Equipo> eliminables = new ArrayList<>();
+        try {
+            Set<Integer> usados = Referencias.usados("Participacion", "id_equipo", ids);
+            for (Equipo equipo : equipos) {
+                if (!usados.contains(equipo.getId_equipo())) {
+                    eliminables.add(equipo);
+                }
             }
-            rs.close();
-            connection.closeConnection();
         } catch (SQLException e) {
             System.err.println(e.getMessage());
+            eliminables.clear();
         }
-        return false;
+        return eliminables;
     }
 }
@@ -1,15 +1,21 @@
 package Dao;
 
 import BBDD.ConexionBBDD;
+import BBDD.UnidadDeTrabajo;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import model.Deporte;
 import model.Evento;
 import model.Olimpiada;
+import model.Participacion;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Clase donde se ejecutan las consultas para la tabla Evento.
@@ -18,6 +24,20 @@ import java.sql.SQLException;
  */
 public class DaoEvento {
 
+    /**
+     * Caché de eventos por id, compartida por todas las consultas de esta clase.
+     */
+    private static final CacheEntidades<Evento> cache = new CacheEntidades<>("Evento", 10000);
+
+    /**
+     * Obtiene la caché de eventos, por ejemplo para consultar sus estadísticas.
+     *
+     * @return la caché de eventos
+     */
+    public static CacheEntidades<Evento> getCache() {
+        return cache;
+    }
+
     /**
      * Metodo que busca un evento por medio de su id.
      *
@@ -25,25 +45,26 @@ public class DaoEvento {
      * @return evento o null si no se encuentra
      */
     public static Evento getEvento(int id) {
-        ConexionBBDD connection;
-        Evento evento = null;
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "SELECT id_evento,nombre,id_olimpiada,id_deporte FROM Evento WHERE id_evento = ?";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
+        Evento evento = cache.get(id);
+        if (evento != null) {
+            return evento;
+        }
+        String consulta = "SELECT id_evento,nombre,id_olimpiada,id_deporte FROM Evento WHERE id_evento = ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
             pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int id_evento = rs.getInt("id_evento");
-                String nombre = rs.getString("nombre");
-                int id_olimpiada = rs.getInt("id_olimpiada");
-                Olimpiada olimpiada = DaoOlimpiada.getOlimpiada(id_olimpiada);
-                int id_deporte = rs.getInt("id_deporte");
-                Deporte deporte = DaoDeporte.getDeporte(id_deporte);
-                evento = new Evento(id_evento, nombre, olimpiada, deporte);
-            }
-            rs.close();
-            connection.closeConnection();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    int id_evento = rs.getInt("id_evento");
+                    String nombre = rs.getString("nombre");
+                    int id_olimpiada = rs.getInt("id_olimpiada");
+                    Olimpiada olimpiada = DaoOlimpiada.getOlimpiada(id_olimpiada);
+                    int id_deporte = rs.getInt("id_deporte");
+                    Deporte deporte = DaoDeporte.getDeporte(id_deporte);
+                    evento = new Evento(id_evento, nombre, olimpiada, deporte);
+                    cache.put(evento.getId_evento(), evento);
+                }
+            }
         } catch (SQLException e) {
             System.err.println(e.getMessage());
         }
@@ -57,25 +78,112 @@ public class DaoEvento {
      * @return listado de eventos
      */
     public static ObservableList<Evento> cargarListado() {
-        ConexionBBDD connection;
         ObservableList<Evento> eventos = FXCollections.observableArrayList();
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "SELECT id_evento,nombre,id_olimpiada,id_deporte FROM Evento";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                int id_evento = rs.getInt("id_evento");
-                String nombre = rs.getString("nombre");
-                int id_olimpiada = rs.getInt("id_olimpiada");
-                Olimpiada olimpiada = DaoOlimpiada.getOlimpiada(id_olimpiada);
-                int id_deporte = rs.getInt("id_deporte");
-                Deporte deporte = DaoDeporte.getDeporte(id_deporte);
-                Evento evento = new Evento(id_evento, nombre, olimpiada, deporte);
-                eventos.add(evento);
-            }
-            rs.close();
-            connection.closeConnection();
+        String consulta = "SELECT id_evento,nombre,id_olimpiada,id_deporte FROM Evento";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int id_evento = rs.getInt("id_evento");
+                    String nombre = rs.getString("nombre");
+                    int id_olimpiada = rs.getInt("id_olimpiada");
+                    Olimpiada olimpiada = DaoOlimpiada.getOlimpiada(id_olimpiada);
+                    int id_deporte = rs.getInt("id_deporte");
+                    Deporte deporte = DaoDeporte.getDeporte(id_deporte);
+                    Evento evento = new Evento(id_evento, nombre, olimpiada, deporte);
+                    cache.put(evento.getId_evento(), evento);
+                    eventos.add(evento);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+        return eventos;
+    }
+
+    /**
+     * Metodo que recorre todos los eventos sin cargarlos a la vez en memoria: las filas se leen del servidor
+     * por bloques a medida que se consume el Stream. La olimpiada y el deporte de cada evento se obtienen de sus cachés.
+     * El Stream tiene una conexión prestada y debe cerrarse, por ejemplo con try-with-resources.
+     *
+     * @return Stream de eventos en orden de id
+     */
+    public static Stream<Evento> flujo() {
+        String consulta = "SELECT id_evento,nombre,id_olimpiada,id_deporte FROM Evento ORDER BY id_evento";
+        return Flujos.abrir(consulta, rs -> {
+            int id_evento = rs.getInt("id_evento");
+            String nombre = rs.getString("nombre");
+            Olimpiada olimpiada = DaoOlimpiada.getOlimpiada(rs.getInt("id_olimpiada"));
+            Deporte deporte = DaoDeporte.getDeporte(rs.getInt("id_deporte"));
+            return new Evento(id_evento, nombre, olimpiada, deporte);
+        });
+    }
+
+    /**
+     * Metodo que carga una página de eventos ordenados por id utilizando paginación por clave:
+     * solo se leen los eventos con id mayor que el último de la página anterior.
+     *
+     * @param ultimoId id del último evento de la página anterior, 0 para la primera página
+     * @param tamanio número máximo de eventos de la página
+     * @return página de eventos, vacía si no quedan más
+     */
+    public static ObservableList<Evento> cargarPagina(int ultimoId, int tamanio) {
+        ObservableList<Evento> eventos = FXCollections.observableArrayList();
+        String consulta = "SELECT id_evento,nombre,id_olimpiada,id_deporte FROM Evento WHERE id_evento > ? ORDER BY id_evento LIMIT ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            pstmt.setInt(1, ultimoId);
+            pstmt.setInt(2, tamanio);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int id_evento = rs.getInt("id_evento");
+                    String nombre = rs.getString("nombre");
+                    int id_olimpiada = rs.getInt("id_olimpiada");
+                    Olimpiada olimpiada = DaoOlimpiada.getOlimpiada(id_olimpiada);
+                    int id_deporte = rs.getInt("id_deporte");
+                    Deporte deporte = DaoDeporte.getDeporte(id_deporte);
+                    Evento evento = new Evento(id_evento, nombre, olimpiada, deporte);
+                    cache.put(evento.getId_evento(), evento);
+                    eventos.add(evento);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+        return eventos;
+    }
+
+    /**
+     * Metodo que busca eventos por nombre en la BD, ordenados por nombre.
+     * El prefijo utiliza el índice idx_evento_nombre, la subcadena lo recorre entero y el texto completo utiliza
+     * el índice ft_evento_nombre.
+     *
+     * @param texto texto a buscar
+     * @param modo modo de búsqueda
+     * @param limite número máximo de eventos devueltos
+     * @return eventos encontrados
+     */
+    public static ObservableList<Evento> buscar(String texto, ModoBusqueda modo, int limite) {
+        ObservableList<Evento> eventos = FXCollections.observableArrayList();
+        modo = modo.para(texto);
+        String consulta = modo.consulta("id_evento,nombre,id_olimpiada,id_deporte", "Evento", "id_evento", "idx_evento_nombre");
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            pstmt.setString(1, modo.parametro(texto));
+            pstmt.setInt(2, limite);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int id_evento = rs.getInt("id_evento");
+                    String nombre = rs.getString("nombre");
+                    int id_olimpiada = rs.getInt("id_olimpiada");
+                    Olimpiada olimpiada = DaoOlimpiada.getOlimpiada(id_olimpiada);
+                    int id_deporte = rs.getInt("id_deporte");
+                    Deporte deporte = DaoDeporte.getDeporte(id_deporte);
+                    Evento evento = new Evento(id_evento, nombre, olimpiada, deporte);
+                    cache.put(evento.getId_evento(), evento);
+                    eventos.add(evento);
+                }
+            }
         } catch (SQLException e) {
             System.err.println(e.getMessage());
         }
@@ -90,24 +198,30 @@ public class DaoEvento {
      * @return true si la actualización fue exitosa, false si hubo un error
      */
     public static boolean modificar(Evento evento, Evento eventoNuevo) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
+        return DaoResumenOlimpiada.conResumen(() -> {
             String consulta = "UPDATE Evento SET nombre = ?,id_olimpiada = ?,id_deporte = ? WHERE id_evento = ?";
-            pstmt = connection.getConnection().prepareStatement(consulta);
-            pstmt.setString(1, eventoNuevo.getNombre());
-            pstmt.setInt(2, eventoNuevo.getOlimpiada().getId_olimpiada());
-            pstmt.setInt(3, eventoNuevo.getDeporte().getId_deporte());
-            pstmt.setInt(4, evento.getId_evento());
-            int filasAfectadas = pstmt.executeUpdate();
-            pstmt.close();
-            connection.closeConnection();
-            return filasAfectadas > 0;
-        } catch (SQLException e) {
-            System.err.println(e.getMessage());
-            return false;
-        }
+            boolean modificado;
+            try (ConexionBBDD connection = new ConexionBBDD();
+                 PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+                pstmt.setString(1, eventoNuevo.getNombre());
+                pstmt.setInt(2, eventoNuevo.getOlimpiada().getId_olimpiada());
+                pstmt.setInt(3, eventoNuevo.getDeporte().getId_deporte());
+                pstmt.setInt(4, evento.getId_evento());
+                int filasAfectadas = pstmt.executeUpdate();
+                Medallero.getInstance().invalidar(AgrupacionMedallero.OLIMPIADA, AgrupacionMedallero.DEPORTE);
+                cache.invalidar(evento.getId_evento());
+                modificado = filasAfectadas > 0;
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+                return false;
+            }
+            if (modificado) {
+                DaoResumenOlimpiada.actualizar(olimpiada(evento), olimpiada(eventoNuevo));
+                eventoNuevo.setId_evento(evento.getId_evento());
+                BusCambios.getInstance().publicar(Cambio.modificado(Evento.class, evento.getId_evento(), evento, eventoNuevo));
+            }
+            return modificado;
+        }, () -> false);
     }
 
     /**
@@ -117,28 +231,70 @@ public class DaoEvento {
      * @return id del nuevo evento o -1 si hubo un error
      */
     public static int insertar(Evento evento) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
+        return DaoResumenOlimpiada.conResumen(() -> {
             String consulta = "INSERT INTO Evento (nombre,id_olimpiada,id_deporte) VALUES (?,?,?) ";
-            pstmt = connection.getConnection().prepareStatement(consulta, PreparedStatement.RETURN_GENERATED_KEYS);
-            pstmt.setString(1, evento.getNombre());
-            pstmt.setInt(2, evento.getOlimpiada().getId_olimpiada());
-            pstmt.setInt(3, evento.getDeporte().getId_deporte());
-            int filasAfectadas = pstmt.executeUpdate();
-            if (filasAfectadas > 0) {
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
-                    int id = rs.getInt(1);
-                    pstmt.close();
-                    connection.closeConnection();
-                    return id;
+            int id = -1;
+            try (ConexionBBDD connection = new ConexionBBDD();
+                 PreparedStatement pstmt = connection.prepararSentencia(consulta, PreparedStatement.RETURN_GENERATED_KEYS)) {
+                pstmt.setString(1, evento.getNombre());
+                pstmt.setInt(2, evento.getOlimpiada().getId_olimpiada());
+                pstmt.setInt(3, evento.getDeporte().getId_deporte());
+                int filasAfectadas = pstmt.executeUpdate();
+                if (filasAfectadas > 0) {
+                    try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            id = rs.getInt(1);
+                        }
+                    }
                 }
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+                return -1;
             }
-            pstmt.close();
-            connection.closeConnection();
-            return -1;
+            if (id > 0) {
+                DaoResumenOlimpiada.actualizar(olimpiada(evento));
+                evento.setId_evento(id);
+                BusCambios.getInstance().publicar(Cambio.insertado(Evento.class, id, evento));
+            }
+            return id;
+        }, () -> -1);
+    }
+
+    /**
+     * Metodo que crea un evento junto con sus participaciones en una única transacción ({@link UnidadDeTrabajo}):
+     * o se guardan todos o no se guarda ninguno. Si se deshace, el evento recupera su id y cada participación su evento.
+     *
+     * @param evento evento nuevo
+     * @param participaciones participaciones del evento; se les asigna el evento con su id nuevo
+     * @return id del nuevo evento o -1 si hubo un error
+     */
+    public static int insertarConParticipaciones(Evento evento, List<Participacion> participaciones) {
+        try (UnidadDeTrabajo unidad = UnidadDeTrabajo.iniciar()) {
+            int idAnterior = evento.getId_evento();
+            List<Evento> eventosAnteriores = new ArrayList<>(participaciones.size());
+            for (Participacion participacion : participaciones) {
+                eventosAnteriores.add(participacion.getEvento());
+            }
+            UnidadDeTrabajo.alDeshacer(() -> {
+                evento.setId_evento(idAnterior);
+                for (int i = 0; i < participaciones.size(); i++) {
+                    participaciones.get(i).setEvento(eventosAnteriores.get(i));
+                }
+            });
+            int id = insertar(evento);
+            if (id <= 0) {
+                return -1;
+            }
+            for (Participacion participacion : participaciones) {
+                participacion.setEvento(evento);
+            }
+            for (boolean insertada : DaoParticipacion.insertarTodos(participaciones)) {
+                if (!insertada) {
+                    return -1;
+                }
+            }
+            unidad.confirmar();
+            return id;
         } catch (SQLException e) {
             System.err.println(e.getMessage());
             return -1;
@@ -152,21 +308,136 @@ public class DaoEvento {
      * @return true si la eliminación fue exitosa, false si hubo un error
      */
     public static boolean eliminar(Evento evento) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
+        return DaoResumenOlimpiada.conResumen(() -> {
             String consulta = "DELETE FROM Evento WHERE id_evento = ?";
-            pstmt = connection.getConnection().prepareStatement(consulta);
-            pstmt.setInt(1, evento.getId_evento());
-            int filasAfectadas = pstmt.executeUpdate();
-            pstmt.close();
-            connection.closeConnection();
-            return filasAfectadas > 0;
-        } catch (SQLException e) {
-            System.err.println(e.getMessage());
-            return false;
-        }
+            boolean eliminado;
+            try (ConexionBBDD connection = new ConexionBBDD();
+                 PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+                pstmt.setInt(1, evento.getId_evento());
+                int filasAfectadas = pstmt.executeUpdate();
+                cache.invalidar(evento.getId_evento());
+                eliminado = filasAfectadas > 0;
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+                return false;
+            }
+            if (eliminado) {
+                DaoResumenOlimpiada.actualizar(olimpiada(evento));
+                BusCambios.getInstance().publicar(Cambio.eliminado(Evento.class, evento.getId_evento(), evento));
+            }
+            return eliminado;
+        }, () -> false);
+    }
+
+    /**
+     * Metodo que inserta los eventos indicados en una única transacción con un lote JDBC.
+     *
+     * @param eventos eventos a insertar
+     * @return el id generado para cada uno en el mismo orden; todos -1 si hubo un error
+     */
+    public static int[] insertarTodos(List<Evento> eventos) {
+        return DaoResumenOlimpiada.conResumen(() -> {
+            String consulta = "INSERT INTO Evento (nombre,id_olimpiada,id_deporte) VALUES (?,?,?)";
+            int[] ids = Lotes.insertar(consulta, eventos.size(), (pstmt, i) -> {
+                Evento evento = eventos.get(i);
+                pstmt.setString(1, evento.getNombre());
+                pstmt.setInt(2, evento.getOlimpiada().getId_olimpiada());
+                pstmt.setInt(3, evento.getDeporte().getId_deporte());
+            });
+            List<Integer> olimpiadas = new ArrayList<>();
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] > 0) {
+                    olimpiadas.add(olimpiada(eventos.get(i)));
+                    eventos.get(i).setId_evento(ids[i]);
+                    BusCambios.getInstance().publicar(Cambio.insertado(Evento.class, ids[i], eventos.get(i)));
+                }
+            }
+            DaoResumenOlimpiada.actualizar(olimpiadas);
+            return ids;
+        }, () -> Lotes.sinIds(eventos.size()));
+    }
+
+    /**
+     * Metodo que modifica los eventos indicados en una única transacción con un lote JDBC.
+     *
+     * @param eventos eventos con los datos actuales
+     * @param nuevos nuevos datos de cada uno, en el mismo orden
+     * @return para cada uno, true si se modificó; todos false si hubo un error
+     */
+    public static boolean[] modificarTodos(List<Evento> eventos, List<Evento> nuevos) {
+        return DaoResumenOlimpiada.conResumen(() -> {
+            Lotes.comprobarTamanio(eventos.size(), nuevos.size());
+            String consulta = "UPDATE Evento SET nombre = ?,id_olimpiada = ?,id_deporte = ? WHERE id_evento = ?";
+            boolean[] resultado = Lotes.ejecutar(consulta, eventos.size(), (pstmt, i) -> {
+                Evento evento = eventos.get(i);
+                Evento eventoNuevo = nuevos.get(i);
+                pstmt.setString(1, eventoNuevo.getNombre());
+                pstmt.setInt(2, eventoNuevo.getOlimpiada().getId_olimpiada());
+                pstmt.setInt(3, eventoNuevo.getDeporte().getId_deporte());
+                pstmt.setInt(4, evento.getId_evento());
+            });
+            List<Integer> olimpiadas = new ArrayList<>();
+            for (int i = 0; i < eventos.size(); i++) {
+                cache.invalidar(eventos.get(i).getId_evento());
+                if (resultado[i]) {
+                    olimpiadas.add(olimpiada(eventos.get(i)));
+                    olimpiadas.add(olimpiada(nuevos.get(i)));
+                    nuevos.get(i).setId_evento(eventos.get(i).getId_evento());
+                    BusCambios.getInstance().publicar(Cambio.modificado(Evento.class, eventos.get(i).getId_evento(), eventos.get(i), nuevos.get(i)));
+                }
+            }
+            Medallero.getInstance().invalidar(AgrupacionMedallero.OLIMPIADA, AgrupacionMedallero.DEPORTE);
+            DaoResumenOlimpiada.actualizar(olimpiadas);
+            return resultado;
+        }, () -> new boolean[eventos.size()]);
+    }
+
+    /**
+     * Metodo que elimina los eventos indicados en una única transacción con un lote JDBC.
+     *
+     * @param eventos eventos a eliminar
+     * @return para cada uno, true si se eliminó; todos false si hubo un error
+     */
+    public static boolean[] eliminarTodos(List<Evento> eventos) {
+        return DaoResumenOlimpiada.conResumen(() -> {
+            String consulta = "DELETE FROM Evento WHERE id_evento = ?";
+            boolean[] resultado = Lotes.ejecutar(consulta, eventos.size(), (pstmt, i) -> {
+                Evento evento = eventos.get(i);
+                pstmt.setInt(1, evento.getId_evento());
+            });
+            List<Integer> olimpiadas = new ArrayList<>();
+            for (int i = 0; i < eventos.size(); i++) {
+                cache.invalidar(eventos.get(i).getId_evento());
+                if (resultado[i]) {
+                    olimpiadas.add(olimpiada(eventos.get(i)));
+                    BusCambios.getInstance().publicar(Cambio.eliminado(Evento.class, eventos.get(i).getId_evento(), eventos.get(i)));
+                }
+            }
+            DaoResumenOlimpiada.actualizar(olimpiadas);
+            return resultado;
+        }, () -> new boolean[eventos.size()]);
+    }
+
+    /**
+     * Metodo que elimina los eventos seleccionados en una única transacción.
+     * Los que tienen participaciones no se eliminan y se devuelven como bloqueados.
+     *
+     * @param eventos eventos a eliminar
+     * @return los eventos eliminados y los bloqueados; si hubo un error no se elimina ninguno
+     */
+    public static ResultadoEliminacion<Evento> eliminarSeleccion(List<Evento> eventos) {
+        return DaoResumenOlimpiada.conResumen(() -> {
+            String consulta = "DELETE FROM Evento WHERE id_evento = ?";
+            ResultadoEliminacion<Evento> resultado = Lotes.eliminar(consulta, eventos, Evento::getId_evento, "Participacion", "id_evento");
+            List<Integer> olimpiadas = new ArrayList<>();
+            for (Evento evento : resultado.getEliminados()) {
+                cache.invalidar(evento.getId_evento());
+                olimpiadas.add(olimpiada(evento));
+                BusCambios.getInstance().publicar(Cambio.eliminado(Evento.class, evento.getId_evento(), evento));
+            }
+            DaoResumenOlimpiada.actualizar(olimpiadas);
+            return resultado;
+        }, () -> new ResultadoEliminacion<>(new ArrayList<>(), new ArrayList<>(), false));
     }
 
     /**
@@ -177,24 +448,48 @@ public class DaoEvento {
      * @return true si el evento puede ser eliminado, false si tiene participaciones asociadas
      */
     public static boolean esEliminable(Evento evento) {
-        ConexionBBDD connection;
         try {
-            connection = new ConexionBBDD();
-            String consulta = "SELECT count(*) as cont FROM Participacion WHERE id_evento = ?";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
-            pstmt.setInt(1, evento.getId_evento());
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int cont = rs.getInt("cont");
-                rs.close();
-                connection.closeConnection();
-                return cont == 0;
-            }
-            rs.close();
-            connection.closeConnection();
+            return !Referencias.existe("Participacion", "id_evento", evento.getId_evento());
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Metodo que obtiene, de entre los eventos indicados, los que se pueden eliminar, con una consulta por cada bloque de ids
+     * en lugar de una comprobación por cada uno.
+     *
+     * @param eventos eventos a comprobar
+     * @return los que no están relacionados con ninguna participación, en el mismo orden; vacío si hubo un error
+     */
+    public static List<Evento> filtrarEliminables(List<Evento> eventos) {
+        List<Integer> ids = new ArrayList<>(eventos.size());
+        for (Evento evento : eventos) {
+            ids.add(evento.getId_evento());
+        }
+        List<Evento> eliminables = new ArrayList<>();
+        try {
+            Set<Integer> usados = Referencias.usados("Participacion", "id_evento", ids);
+            for (Evento evento : eventos) {
+                if (!usados.contains(evento.getId_evento())) {
+                    eliminables.add(evento);
+                }
+            }
         } catch (SQLException e) {
             System.err.println(e.getMessage());
+            eliminables.clear();
         }
-        return false;
+        return eliminables;
+    }
+
+    /**
+     * Obtiene el id de la olimpiada de un evento.
+     *
+     * @param evento evento
+     * @return el id de la olimpiada o -1 si el evento no la tiene cargada
+     */
+    private static int olimpiada(Evento evento) {
+        return evento.getOlimpiada() == null ? -1 : evento.getOlimpiada().getId_olimpiada();
     }
 }
@@ -0,0 +1,130 @@
+package Dao;
+
+import BBDD.ConexionBBDD;
+import BBDD.Configuracion;
+import model.FilaMedallero;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Clase encargada de calcular el medallero en la base de datos.
+ * Las medallas se cuentan con GROUP BY en MariaDB, de forma que solo viaja una fila por grupo
+ * en lugar de todas las participaciones. Si el medallero en memoria ({@link Medallero}) cuenta las medallas
+ * en {@link ColumnasParticipacion}, solo pide aquí los nombres de los grupos.
+ * Se cuenta cada participación con medalla, así que en las pruebas por equipos cada integrante suma una medalla.
+ */
+public class DaoMedallero {
+    /**
+     * Valor de la columna medalla para las medallas de oro.
+     */
+    public static final String ORO = "Gold";
+    /**
+     * Valor de la columna medalla para las medallas de plata.
+     */
+    public static final String PLATA = "Silver";
+    /**
+     * Valor de la columna medalla para las medallas de bronce.
+     */
+    public static final String BRONCE = "Bronze";
+
+    /**
+     * Metodo que calcula el medallero completo con la agrupación indicada.
+     *
+     * @param agrupacion por qué se agrupan las medallas
+     * @return las filas del medallero ordenadas por oros, platas y bronces; vacío si hubo un error
+     */
+    public static List<FilaMedallero> cargar(AgrupacionMedallero agrupacion) {
+        return cargar(agrupacion, 0);
+    }
+
+    /**
+     * Metodo que calcula el medallero de una olimpiada con la agrupación indicada.
+     *
+     * @param agrupacion por qué se agrupan las medallas
+     * @param idOlimpiada id de la olimpiada, 0 para todas
+     * @return las filas del medallero ordenadas por oros, platas y bronces; vacío si hubo un error
+     */
+    public static List<FilaMedallero> cargar(AgrupacionMedallero agrupacion, int idOlimpiada) {
+        try {
+            return consultar(agrupacion, idOlimpiada);
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Ejecuta la consulta del medallero propagando los errores, para que el medallero en memoria
+     * no confunda un error con un medallero vacío.
+     *
+     * @param agrupacion por qué se agrupan las medallas
+     * @param idOlimpiada id de la olimpiada, 0 para todas
+     * @return las filas del medallero ordenadas por oros, platas y bronces
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    static List<FilaMedallero> consultar(AgrupacionMedallero agrupacion, int idOlimpiada) throws SQLException {
+        List<FilaMedallero> filas = new ArrayList<>();
+        String consulta = "SELECT " + agrupacion.getColumnaId() + " AS id, g.nombre,"
+                + " SUM(p.medalla = ?) AS oro, SUM(p.medalla = ?) AS plata, SUM(p.medalla = ?) AS bronce"
+                + " FROM Participacion p"
+                + " JOIN Evento ev ON ev.id_evento = p.id_evento "
+                + agrupacion.getUnion()
+                + " WHERE p.medalla IN (?, ?, ?)"
+                + (idOlimpiada > 0 ? " AND ev.id_olimpiada = ?" : "")
+                + " GROUP BY " + agrupacion.getColumnaId() + ", g.nombre"
+                + " ORDER BY oro DESC, plata DESC, bronce DESC, g.nombre";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            pstmt.setString(1, ORO);
+            pstmt.setString(2, PLATA);
+            pstmt.setString(3, BRONCE);
+            pstmt.setString(4, ORO);
+            pstmt.setString(5, PLATA);
+            pstmt.setString(6, BRONCE);
+            if (idOlimpiada > 0) {
+                pstmt.setInt(7, idOlimpiada);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    filas.add(new FilaMedallero(rs.getInt("id"), rs.getString("nombre"),
+                            rs.getInt("oro"), rs.getInt("plata"), rs.getInt("bronce")));
+                }
+            }
+        }
+        return filas;
+    }
+
+    /**
+     * Obtiene los nombres de los grupos indicados de una agrupación. La tabla se lee por bloques
+     * y solo se guardan los nombres pedidos, para no cargar todos los deportistas.
+     *
+     * @param agrupacion agrupación de los grupos
+     * @param ids ids de los grupos
+     * @return el nombre de cada id encontrado
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    static Map<Integer, String> nombres(AgrupacionMedallero agrupacion, Set<Integer> ids) throws SQLException {
+        Map<Integer, String> nombres = new HashMap<>();
+        String consulta = "SELECT " + agrupacion.getColumnaId() + " AS id, g.nombre FROM " + agrupacion.getTabla() + " g";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            pstmt.setFetchSize(Math.max(1, Configuracion.getActual().getEntero("stream.fetch.size", 1000)));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt("id");
+                    if (ids.contains(id)) {
+                        nombres.put(id, rs.getString("nombre"));
+                    }
+                }
+            }
+        }
+        return nombres;
+    }
+}
@@ -8,12 +8,29 @@ import model.Olimpiada;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Clase donde se ejecutan las consultas relacionadas con la tabla Olimpiada en la base de datos.
  */
 public class DaoOlimpiada {
 
+    /**
+     * Caché de olimpiadas por id, compartida por todas las consultas de esta clase.
+     */
+    private static final CacheEntidades<Olimpiada> cache = new CacheEntidades<>("Olimpiada", 1000);
+
+    /**
+     * Obtiene la caché de olimpiadas, por ejemplo para consultar sus estadísticas.
+     *
+     * @return la caché de olimpiadas
+     */
+    public static CacheEntidades<Olimpiada> getCache() {
+        return cache;
+    }
+
     /**
      * Metodo que busca una olimpiada por medio de su ID.
      *
@@ -21,24 +38,25 @@ public class DaoOlimpiada {
      * @return Olipiada encontrada o null si no se encuentra.
      */
     public static Olimpiada getOlimpiada(int id) {
-        ConexionBBDD connection;
-        Olimpiada olimpiada = null;
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "SELECT id_olimpiada, nombre, anio, temporada, ciudad FROM Olimpiada WHERE id_olimpiada = ?";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
+        Olimpiada olimpiada = cache.get(id);
+        if (olimpiada != null) {
+            return olimpiada;
+        }
+        String consulta = "SELECT id_olimpiada, nombre, anio, temporada, ciudad FROM Olimpiada WHERE id_olimpiada = ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
             pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int id_olimpiada = rs.getInt("id_olimpiada");
-                String nombre = rs.getString("nombre");
-                int anio = rs.getInt("anio");
-                String temporada = rs.getString("temporada");
-                String ciudad = rs.getString("ciudad");
-                olimpiada = new Olimpiada(id_olimpiada, nombre, anio, temporada, ciudad);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    int id_olimpiada = rs.getInt("id_olimpiada");
+                    String nombre = rs.getString("nombre");
+                    int anio = rs.getInt("anio");
+                    String temporada = rs.getString("temporada");
+                    String ciudad = rs.getString("ciudad");
+                    olimpiada = new Olimpiada(id_olimpiada, nombre, anio, temporada, ciudad);
+                    cache.put(olimpiada.getId_olimpiada(), olimpiada);
+                }
             }
-            rs.close();
-            connection.closeConnection();
         } catch (SQLException e) {
             System.err.println(e.getMessage());
         }
@@ -51,24 +69,22 @@ public class DaoOlimpiada {
      * @return Lista observable de olimpiadas.
      */
     public static ObservableList<Olimpiada> cargarListado() {
-        ConexionBBDD connection;
         ObservableList<Olimpiada> olimpiadas = FXCollections.observableArrayList();
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "SELECT id_olimpiada, nombre, anio, temporada, ciudad FROM Olimpiada";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                int id_olimpiada = rs.getInt("id_olimpiada");
-                String nombre = rs.getString("nombre");
-                int anio = rs.getInt("anio");
-                String temporada = rs.getString("temporada");
-                String ciudad = rs.getString("ciudad");
-                Olimpiada olimpiada = new Olimpiada(id_olimpiada, nombre, anio, temporada, ciudad);
-                olimpiadas.add(olimpiada);
+        String consulta = "SELECT id_olimpiada, nombre, anio, temporada, ciudad FROM Olimpiada";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int id_olimpiada = rs.getInt("id_olimpiada");
+                    String nombre = rs.getString("nombre");
+                    int anio = rs.getInt("anio");
+                    String temporada = rs.getString("temporada");
+                    String ciudad = rs.getString("ciudad");
+                    Olimpiada olimpiada = new Olimpiada(id_olimpiada, nombre, anio, temporada, ciudad);
+                    cache.put(olimpiada.getId_olimpiada(), olimpiada);
+                    olimpiadas.add(olimpiada);
+                }
             }
-            rs.close();
-            connection.closeConnection();
         } catch (SQLException e) {
             System.err.println(e.getMessage());
         }
@@ -83,25 +99,34 @@ public class DaoOlimpiada {
      * @return true si la modificación fue exitosa, false en caso contrario.
      */
     public static boolean modificar(Olimpiada olimpiada, Olimpiada olimpiadaNuevo) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
+        return DaoResumenOlimpiada.conResumen(() -> {
             String consulta = "UPDATE Olimpiada SET nombre = ?, anio = ?, temporada = ?, ciudad = ? WHERE id_olimpiada = ?";
-            pstmt = connection.getConnection().prepareStatement(consulta);
-            pstmt.setString(1, olimpiadaNuevo.getNombre());
-            pstmt.setInt(2, olimpiadaNuevo.getAnio());
-            pstmt.setString(3, olimpiadaNuevo.getTemporada().toString());
-            pstmt.setString(4, olimpiadaNuevo.getCiudad());
-            pstmt.setInt(5, olimpiada.getId_olimpiada());
-            int filasAfectadas = pstmt.executeUpdate();
-            pstmt.close();
-            connection.closeConnection();
-            return filasAfectadas > 0;
-        } catch (SQLException e) {
-            System.err.println(e.getMessage());
-            return false;
-        }
+            boolean modificada;
+            try (ConexionBBDD connection = new ConexionBBDD();
+                 PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+                pstmt.setString(1, olimpiadaNuevo.getNombre());
+                pstmt.setInt(2, olimpiadaNuevo.getAnio());
+                pstmt.setString(3, olimpiadaNuevo.getTemporada().toString());
+                pstmt.setString(4, olimpiadaNuevo.getCiudad());
+                pstmt.setInt(5, olimpiada.getId_olimpiada());
+                int filasAfectadas = pstmt.executeUpdate();
+                Medallero.getInstance().invalidar(AgrupacionMedallero.OLIMPIADA);
+                cache.invalidar(olimpiada.getId_olimpiada());
+                // Los eventos en caché apuntan a la olimpiada antigua
+                DaoEvento.getCache().limpiar();
+                modificada = filasAfectadas > 0;
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+                return false;
+            }
+            if (modificada) {
+                // La temporada está copiada en el resumen
+                DaoResumenOlimpiada.actualizar(olimpiada.getId_olimpiada());
+                olimpiadaNuevo.setId_olimpiada(olimpiada.getId_olimpiada());
+                BusCambios.getInstance().publicar(Cambio.modificado(Olimpiada.class, olimpiada.getId_olimpiada(), olimpiada, olimpiadaNuevo));
+            }
+            return modificada;
+        }, () -> false);
     }
 
     /**
@@ -111,33 +136,34 @@ public class DaoOlimpiada {
      * @return ID de la nueva olimpiada si la inserción fue exitosa, -1 en caso contrario.
      */
     public static int insertar(Olimpiada olimpiada) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
+        return DaoResumenOlimpiada.conResumen(() -> {
             String consulta = "INSERT INTO Olimpiada (nombre, anio, temporada, ciudad) VALUES (?, ?, ?, ?)";
-            pstmt = connection.getConnection().prepareStatement(consulta, PreparedStatement.RETURN_GENERATED_KEYS);
-            pstmt.setString(1, olimpiada.getNombre());
-            pstmt.setInt(2, olimpiada.getAnio());
-            pstmt.setString(3, olimpiada.getTemporada().toString());
-            pstmt.setString(4, olimpiada.getCiudad());
-            int filasAfectadas = pstmt.executeUpdate();
-            if (filasAfectadas > 0) {
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
-                    int id = rs.getInt(1);
-                    pstmt.close();
-                    connection.closeConnection();
-                    return id;
+            int id = -1;
+            try (ConexionBBDD connection = new ConexionBBDD();
+                 PreparedStatement pstmt = connection.prepararSentencia(consulta, PreparedStatement.RETURN_GENERATED_KEYS)) {
+                pstmt.setString(1, olimpiada.getNombre());
+                pstmt.setInt(2, olimpiada.getAnio());
+                pstmt.setString(3, olimpiada.getTemporada().toString());
+                pstmt.setString(4, olimpiada.getCiudad());
+                int filasAfectadas = pstmt.executeUpdate();
+                if (filasAfectadas > 0) {
+                    try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            id = rs.getInt(1);
+                        }
+                    }
                 }
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+                return -1;
             }
-            pstmt.close();
-            connection.closeConnection();
-            return -1;
-        } catch (SQLException e) {
-            System.err.println(e.getMessage());
-            return -1;
-        }
+            if (id > 0) {
+                DaoResumenOlimpiada.actualizar(id);
+                olimpiada.setId_olimpiada(id);
+                BusCambios.getInstance().publicar(Cambio.insertado(Olimpiada.class, id, olimpiada));
+            }
+            return id;
+        }, () -> -1);
     }
 
     /**
@@ -147,17 +173,15 @@ public class DaoOlimpiada {
      * @return true si la eliminación fue exitosa, false en caso contrario.
      */
     public static boolean eliminar(Olimpiada olimpiada) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "DELETE FROM Olimpiada WHERE id_olimpiada = ?";
-            pstmt = connection.getConnection().prepareStatement(consulta);
+        String consulta = "DELETE FROM Olimpiada WHERE id_olimpiada = ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
             pstmt.setInt(1, olimpiada.getId_olimpiada());
             int filasAfectadas = pstmt.executeUpdate();
-            pstmt.close();
-            connection.closeConnection();
-
+            cache.invalidar(olimpiada.getId_olimpiada());
+            if (filasAfectadas > 0) {
+                BusCambios.getInstance().publicar(Cambio.eliminado(Olimpiada.class, olimpiada.getId_olimpiada(), olimpiada));
+            }
             return filasAfectadas > 0;
         } catch (SQLException e) {
             System.err.println(e.getMessage());
@@ -165,6 +189,91 @@ public class DaoOlimpiada {
         }
     }
 
+    /**
+     * Metodo que inserta las olimpiadas indicadas en una única transacción con un lote JDBC.
+     *
+     * @param olimpiadas olimpiadas a insertar
+     * @return el id generado para cada una en el mismo orden; todas -1 si hubo un error
+     */
+    public static int[] insertarTodos(List<Olimpiada> olimpiadas) {
+        return DaoResumenOlimpiada.conResumen(() -> {
+            String consulta = "INSERT INTO Olimpiada (nombre, anio, temporada, ciudad) VALUES (?, ?, ?, ?)";
+            int[] ids = Lotes.insertar(consulta, olimpiadas.size(), (pstmt, i) -> {
+                Olimpiada olimpiada = olimpiadas.get(i);
+                pstmt.setString(1, olimpiada.getNombre());
+                pstmt.setInt(2, olimpiada.getAnio());
+                pstmt.setString(3, olimpiada.getTemporada().toString());
+                pstmt.setString(4, olimpiada.getCiudad());
+            });
+            DaoResumenOlimpiada.actualizar(ids);
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] > 0) {
+                    olimpiadas.get(i).setId_olimpiada(ids[i]);
+                    BusCambios.getInstance().publicar(Cambio.insertado(Olimpiada.class, ids[i], olimpiadas.get(i)));
+                }
+            }
+            return ids;
+        }, () -> Lotes.sinIds(olimpiadas.size()));
+    }
+
+    /**
+     * Metodo que modifica las olimpiadas indicadas en una única transacción con un lote JDBC.
+     *
+     * @param olimpiadas olimpiadas con los datos actuales
+     * @param nuevos nuevos datos de cada una, en el mismo orden
+     * @return para cada una, true si se modificó; todas false si hubo un error
+     */
+    public static boolean[] modificarTodos(List<Olimpiada> olimpiadas, List<Olimpiada> nuevos) {
+        return DaoResumenOlimpiada.conResumen(() -> {
+            Lotes.comprobarTamanio(olimpiadas.size(), nuevos.size());
+            String consulta = "UPDATE Olimpiada SET nombre = ?, anio = ?, temporada = ?, ciudad = ? WHERE id_olimpiada = ?";
+            boolean[] resultado = Lotes.ejecutar(consulta, olimpiadas.size(), (pstmt, i) -> {
+                Olimpiada olimpiada = olimpiadas.get(i);
+                Olimpiada olimpiadaNuevo = nuevos.get(i);
+                pstmt.setString(1, olimpiadaNuevo.getNombre());
+                pstmt.setInt(2, olimpiadaNuevo.getAnio());
+                pstmt.setString(3, olimpiadaNuevo.getTemporada().toString());
+                pstmt.setString(4, olimpiadaNuevo.getCiudad());
+                pstmt.setInt(5, olimpiada.getId_olimpiada());
+            });
+            for (Olimpiada olimpiada : olimpiadas) {
+                cache.invalidar(olimpiada.getId_olimpiada());
+            }
+            // Puede haber eventos en caché de cualquiera de estas olimpiadas
+            DaoEvento.getCache().limpiar();
+            Medallero.getInstance().invalidar(AgrupacionMedallero.OLIMPIADA);
+            List<Integer> modificadas = new ArrayList<>();
+            for (int i = 0; i < resultado.length; i++) {
+                if (resultado[i]) {
+                    modificadas.add(olimpiadas.get(i).getId_olimpiada());
+                    nuevos.get(i).setId_olimpiada(olimpiadas.get(i).getId_olimpiada());
+                    BusCambios.getInstance().publicar(Cambio.modificado(Olimpiada.class, olimpiadas.get(i).getId_olimpiada(), olimpiadas.get(i), nuevos.get(i)));
+                }
+            }
+            DaoResumenOlimpiada.actualizar(modificadas);
+            return resultado;
+        }, () -> new boolean[olimpiadas.size()]);
+    }
+
+    /**
+     * Metodo que elimina las olimpiadas indicadas en una única transacción con un lote JDBC.
+     *
+     * @param olimpiadas olimpiadas a eliminar
+     * @return para cada una, true si se eliminó; todas false si hubo un error
+     */
+    public static boolean[] eliminarTodos(List<Olimpiada> olimpiadas) {
+        String consulta = "DELETE FROM Olimpiada WHERE id_olimpiada = ?";
+        boolean[] resultado = Lotes.ejecutar(consulta, olimpiadas.size(), (pstmt, i) -> {
+            Olimpiada olimpiada = olimpiadas.get(i);
+            pstmt.setInt(1, olimpiada.getId_olimpiada());
+        });
+        for (Olimpiada olimpiada : olimpiadas) {
+            cache.invalidar(olimpiada.getId_olimpiada());
+        }
+        BusCambios.getInstance().publicar(resultado, i -> Cambio.eliminado(Olimpiada.class, olimpiadas.get(i).getId_olimpiada(), olimpiadas.get(i)));
+        return resultado;
+    }
+
     /**
      * Verifica si una olimpiada es eliminable, es decir, si no tiene eventos asociados.
      *
@@ -172,24 +281,38 @@ public class DaoOlimpiada {
      * @return true si la olimpiada no tiene eventos asociados y puede ser eliminada, false en caso contrario.
      */
     public static boolean esEliminable(Olimpiada olimpiada) {
-        ConexionBBDD connection;
         try {
-            connection = new ConexionBBDD();
-            String consulta = "SELECT count(*) as cont FROM Evento WHERE id_olimpiada = ?";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
-            pstmt.setInt(1, olimpiada.getId_olimpiada());
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int cont = rs.getInt("cont");
-                rs.close();
-                connection.closeConnection();
-                return (cont == 0);
+            return !Referencias.existe("Evento", "id_olimpiada", olimpiada.getId_olimpiada());
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Metodo que obtiene, de entre las olimpiadas indicadas, las que se pueden eliminar, con una consulta por cada bloque de ids
+     * en lugar de una comprobación por cada una.
+     *
+     * @param olimpiadas olimpiadas a comprobar
+     * @return las que no están relacionadas con ningún evento, en el mismo orden; vacío si hubo un error
+     */
+    public static List<Olimpiada> filtrarEliminables(List<Olimpiada> olimpiadas) {
+        List<Integer> ids = new ArrayList<>(olimpiadas.size());
+        for (Olimpiada olimpiada : olimpiadas) {
+            ids.add(olimpiada.getId_olimpiada());
+        }
+        List<Olimpiada> eliminables = new ArrayList<>();
+        try {
+            Set<Integer> usados = Referencias.usados("Evento", "id_olimpiada", ids);
+            for (Olimpiada olimpiada : olimpiadas) {
+                if (!usados.contains(olimpiada.getId_olimpiada())) {
+                    eliminables.add(olimpiada);
+                }
             }
-            rs.close();
-            connection.closeConnection();
         } catch (SQLException e) {
             System.err.println(e.getMessage());
+            eliminables.clear();
         }
-        return false;
+        return eliminables;
     }
 }
@@ -3,49 +3,87 @@ package Dao;
 import BBDD.ConexionBBDD;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import model.Deportista;
-import model.Equipo;
-import model.Evento;
 import model.Participacion;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Clase encargada de ejecutar las consultas para la tabla Participacion en la base de datos.
  * Permite cargar, modificar, insertar y eliminar registros de participación.
+ * Las escrituras correctas se comunican al {@link Medallero} y recalculan el {@link DaoResumenOlimpiada resumen}
+ * de las olimpiadas afectadas.
  */
 public class DaoParticipacion {
 
     /**
      * Metodo que carga los datos de la tabla Participacion y los devuelve como un listado de participaciones.
      * Este listado puede ser utilizado en un TableView para mostrar los datos.
+     * Las participaciones y sus entidades relacionadas se obtienen en una única consulta con JOIN,
+     * compartiendo las instancias de Deportista, Evento, Equipo, Olimpiada y Deporte.
      *
      * @return ObservableList<Participacion> listado de participaciones cargado desde la base de datos
      */
     public static ObservableList<Participacion> cargarListado() {
-        ConexionBBDD connection;
         ObservableList<Participacion> participacions = FXCollections.observableArrayList();
-        try {
-            connection = new ConexionBBDD();
-            String consulta = "SELECT id_deportista, id_evento, id_equipo, edad, medalla FROM Participacion";
-            PreparedStatement pstmt = connection.getConnection().prepareStatement(consulta);
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                int id_deportista = rs.getInt("id_deportista");
-                Deportista deportista = DaoDeportista.getDeportista(id_deportista);
-                int id_evento = rs.getInt("id_evento");
-                Evento evento = DaoEvento.getEvento(id_evento);
-                int id_equipo = rs.getInt("id_equipo");
-                Equipo equipo = DaoEquipo.getEquipo(id_equipo);
-                int edad = rs.getInt("edad");
-                String medalla = rs.getString("medalla");
-                Participacion participacion = new Participacion(deportista, evento, equipo, edad, medalla);
-                participacions.add(participacion);
+        String consulta = GrafoParticipaciones.CONSULTA;
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                GrafoParticipaciones grafo = new GrafoParticipaciones();
+                while (rs.next()) {
+                    participacions.add(grafo.leer(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+        return participacions;
+    }
+
+    /**
+     * Metodo que recorre todas las participaciones sin cargarlas a la vez en memoria: las filas de la consulta con JOIN
+     * se leen del servidor por bloques a medida que se consume el Stream, con memoria constante.
+     * Es la forma de exportar o agregar millones de participaciones; el Stream tiene una conexión prestada
+     * y debe cerrarse, por ejemplo con try-with-resources.
+     *
+     * @return Stream de participaciones con sus entidades relacionadas, ordenadas por deportista
+     */
+    public static Stream<Participacion> flujo() {
+        GrafoParticipaciones grafo = new GrafoParticipaciones(true);
+        return Flujos.abrir(GrafoParticipaciones.CONSULTA + " ORDER BY p.id_deportista, p.id_evento", grafo::leer);
+    }
+
+    /**
+     * Metodo que carga una página de participaciones ordenadas por su clave (id_deportista, id_evento)
+     * utilizando paginación por clave: solo se leen las participaciones posteriores a la última de la página anterior.
+     *
+     * @param ultimoDeportista id_deportista de la última participación de la página anterior, 0 para la primera página
+     * @param ultimoEvento id_evento de la última participación de la página anterior, 0 para la primera página
+     * @param tamanio número máximo de participaciones de la página
+     * @return página de participaciones, vacía si no quedan más
+     */
+    public static ObservableList<Participacion> cargarPagina(int ultimoDeportista, int ultimoEvento, int tamanio) {
+        ObservableList<Participacion> participacions = FXCollections.observableArrayList();
+        String consulta = GrafoParticipaciones.CONSULTA
+                + " WHERE p.id_deportista > ? OR (p.id_deportista = ? AND p.id_evento > ?)"
+                + " ORDER BY p.id_deportista, p.id_evento LIMIT ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            pstmt.setInt(1, ultimoDeportista);
+            pstmt.setInt(2, ultimoDeportista);
+            pstmt.setInt(3, ultimoEvento);
+            pstmt.setInt(4, tamanio);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                GrafoParticipaciones grafo = new GrafoParticipaciones();
+                while (rs.next()) {
+                    participacions.add(grafo.leer(rs));
+                }
             }
-            rs.close();
-            connection.closeConnection();
         } catch (SQLException e) {
             System.err.println(e.getMessage());
         }
@@ -60,27 +98,30 @@ public class DaoParticipacion {
      * @return true si la modificación fue exitosa, false en caso contrario
      */
     public static boolean modificar(Participacion participacion, Participacion participacionNuevo) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
+        return DaoResumenOlimpiada.conResumen(() -> {
             String consulta = "UPDATE Participacion SET id_deportista = ?, id_evento = ?, id_equipo = ?, edad = ?, medalla = ? WHERE id_deportista = ? AND id_evento = ?";
-            pstmt = connection.getConnection().prepareStatement(consulta);
-            pstmt.setInt(1, participacionNuevo.getDeportista().getId_deportista());
-            pstmt.setInt(2, participacionNuevo.getEvento().getId_evento());
-            pstmt.setInt(3, participacionNuevo.getEquipo().getId_equipo());
-            pstmt.setInt(4, participacionNuevo.getEdad());
-            pstmt.setString(5, participacionNuevo.getMedalla());
-            pstmt.setInt(6, participacion.getDeportista().getId_deportista());
-            pstmt.setInt(7, participacion.getEvento().getId_evento());
-            int filasAfectadas = pstmt.executeUpdate();
-            pstmt.close();
-            connection.closeConnection();
-            return filasAfectadas > 0;
-        } catch (SQLException e) {
-            System.err.println(e.getMessage());
-            return false;
-        }
+            boolean modificada;
+            try (ConexionBBDD connection = new ConexionBBDD();
+                 PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+                pstmt.setInt(1, participacionNuevo.getDeportista().getId_deportista());
+                pstmt.setInt(2, participacionNuevo.getEvento().getId_evento());
+                pstmt.setInt(3, participacionNuevo.getEquipo().getId_equipo());
+                pstmt.setInt(4, participacionNuevo.getEdad());
+                pstmt.setString(5, participacionNuevo.getMedalla());
+                pstmt.setInt(6, participacion.getDeportista().getId_deportista());
+                pstmt.setInt(7, participacion.getEvento().getId_evento());
+                modificada = pstmt.executeUpdate() > 0;
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+                return false;
+            }
+            if (modificada) {
+                Medallero.getInstance().cambiar(participacion, participacionNuevo);
+                DaoResumenOlimpiada.actualizar(olimpiada(participacion), olimpiada(participacionNuevo));
+                BusCambios.getInstance().publicar(Cambio.modificado(Participacion.class, clave(participacion), participacion, participacionNuevo));
+            }
+            return modificada;
+        }, () -> false);
     }
 
     /**
@@ -90,23 +131,28 @@ public class DaoParticipacion {
      * @return true si la inserción fue exitosa, false en caso contrario
      */
     public static boolean insertar(Participacion participacion) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
+        return DaoResumenOlimpiada.conResumen(() -> {
             String consulta = "INSERT INTO Participacion (id_deportista, id_evento, id_equipo, edad, medalla) VALUES (?, ?, ?, ?, ?)";
-            pstmt = connection.getConnection().prepareStatement(consulta);
-            pstmt.setInt(1, participacion.getDeportista().getId_deportista());
-            pstmt.setInt(2, participacion.getEvento().getId_evento());
-            pstmt.setInt(3, participacion.getEquipo().getId_equipo());
-            pstmt.setInt(4, participacion.getEdad());
-            pstmt.setString(5, participacion.getMedalla());
-            int filasAfectadas = pstmt.executeUpdate();
-            return filasAfectadas > 0;
-        } catch (SQLException e) {
-            System.err.println(e.getMessage());
-            return false;
-        }
+            boolean insertada;
+            try (ConexionBBDD connection = new ConexionBBDD();
+                 PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+                pstmt.setInt(1, participacion.getDeportista().getId_deportista());
+                pstmt.setInt(2, participacion.getEvento().getId_evento());
+                pstmt.setInt(3, participacion.getEquipo().getId_equipo());
+                pstmt.setInt(4, participacion.getEdad());
+                pstmt.setString(5, participacion.getMedalla());
+                insertada = pstmt.executeUpdate() > 0;
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+                return false;
+            }
+            if (insertada) {
+                Medallero.getInstance().sumar(participacion);
+                DaoResumenOlimpiada.actualizar(olimpiada(participacion));
+                BusCambios.getInstance().publicar(Cambio.insertado(Participacion.class, clave(participacion), participacion));
+            }
+            return insertada;
+        }, () -> false);
     }
 
     /**
@@ -116,22 +162,158 @@ public class DaoParticipacion {
      * @return true si la eliminación fue exitosa, false en caso contrario
      */
     public static boolean eliminar(Participacion participacion) {
-        ConexionBBDD connection;
-        PreparedStatement pstmt;
-        try {
-            connection = new ConexionBBDD();
+        return DaoResumenOlimpiada.conResumen(() -> {
             String consulta = "DELETE FROM Participacion WHERE id_deportista = ? AND id_evento = ?";
-            pstmt = connection.getConnection().prepareStatement(consulta);
-            pstmt.setInt(1, participacion.getDeportista().getId_deportista());
-            pstmt.setInt(2, participacion.getEvento().getId_evento());
-            int filasAfectadas = pstmt.executeUpdate();
-            pstmt.close();
-            connection.closeConnection();
-            return filasAfectadas > 0;
-        } catch (SQLException e) {
-            System.err.println(e.getMessage());
-            return false;
+            boolean eliminada;
+            try (ConexionBBDD connection = new ConexionBBDD();
+                 PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+                pstmt.setInt(1, participacion.getDeportista().getId_deportista());
+                pstmt.setInt(2, participacion.getEvento().getId_evento());
+                eliminada = pstmt.executeUpdate() > 0;
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+                return false;
+            }
+            if (eliminada) {
+                Medallero.getInstance().restar(participacion);
+                DaoResumenOlimpiada.actualizar(olimpiada(participacion));
+                BusCambios.getInstance().publicar(Cambio.eliminado(Participacion.class, clave(participacion), participacion));
+            }
+            return eliminada;
+        }, () -> false);
+    }
+
+    /**
+     * Metodo que inserta varias participaciones en una única transacción con un lote JDBC.
+     *
+     * @param participaciones participaciones a insertar
+     * @return para cada participación, true si se insertó; todas false si hubo un error
+     */
+    public static boolean[] insertarTodos(List<Participacion> participaciones) {
+        return DaoResumenOlimpiada.conResumen(() -> {
+            String consulta = "INSERT INTO Participacion (id_deportista, id_evento, id_equipo, edad, medalla) VALUES (?, ?, ?, ?, ?)";
+            boolean[] insertadas = Lotes.ejecutar(consulta, participaciones.size(), (pstmt, i) -> {
+                Participacion participacion = participaciones.get(i);
+                pstmt.setInt(1, participacion.getDeportista().getId_deportista());
+                pstmt.setInt(2, participacion.getEvento().getId_evento());
+                pstmt.setInt(3, participacion.getEquipo().getId_equipo());
+                pstmt.setInt(4, participacion.getEdad());
+                pstmt.setString(5, participacion.getMedalla());
+            });
+            List<Integer> olimpiadas = new ArrayList<>();
+            for (int i = 0; i < insertadas.length; i++) {
+                if (insertadas[i]) {
+                    Medallero.getInstance().sumar(participaciones.get(i));
+                    olimpiadas.add(olimpiada(participaciones.get(i)));
+                    BusCambios.getInstance().publicar(Cambio.insertado(Participacion.class, clave(participaciones.get(i)), participaciones.get(i)));
+                }
+            }
+            DaoResumenOlimpiada.actualizar(olimpiadas);
+            return insertadas;
+        }, () -> new boolean[participaciones.size()]);
+    }
+
+    /**
+     * Metodo que modifica las participaciones indicadas en una única transacción con un lote JDBC.
+     *
+     * @param participaciones participaciones con los datos actuales
+     * @param nuevos nuevos datos de cada una, en el mismo orden
+     * @return para cada una, true si se modificó; todas false si hubo un error
+     */
+    public static boolean[] modificarTodos(List<Participacion> participaciones, List<Participacion> nuevos) {
+        return DaoResumenOlimpiada.conResumen(() -> {
+            Lotes.comprobarTamanio(participaciones.size(), nuevos.size());
+            String consulta = "UPDATE Participacion SET id_deportista = ?, id_evento = ?, id_equipo = ?, edad = ?, medalla = ? WHERE id_deportista = ? AND id_evento = ?";
+            boolean[] modificadas = Lotes.ejecutar(consulta, participaciones.size(), (pstmt, i) -> {
+                Participacion participacion = participaciones.get(i);
+                Participacion participacionNuevo = nuevos.get(i);
+                pstmt.setInt(1, participacionNuevo.getDeportista().getId_deportista());
+                pstmt.setInt(2, participacionNuevo.getEvento().getId_evento());
+                pstmt.setInt(3, participacionNuevo.getEquipo().getId_equipo());
+                pstmt.setInt(4, participacionNuevo.getEdad());
+                pstmt.setString(5, participacionNuevo.getMedalla());
+                pstmt.setInt(6, participacion.getDeportista().getId_deportista());
+                pstmt.setInt(7, participacion.getEvento().getId_evento());
+            });
+            List<Integer> olimpiadas = new ArrayList<>();
+            for (int i = 0; i < modificadas.length; i++) {
+                if (modificadas[i]) {
+                    Medallero.getInstance().cambiar(participaciones.get(i), nuevos.get(i));
+                    olimpiadas.add(olimpiada(participaciones.get(i)));
+                    olimpiadas.add(olimpiada(nuevos.get(i)));
+                    BusCambios.getInstance().publicar(Cambio.modificado(Participacion.class, clave(participaciones.get(i)), participaciones.get(i), nuevos.get(i)));
+                }
+            }
+            DaoResumenOlimpiada.actualizar(olimpiadas);
+            return modificadas;
+        }, () -> new boolean[participaciones.size()]);
+    }
+
+    /**
+     * Metodo que elimina las participaciones indicadas en una única transacción con un lote JDBC.
+     *
+     * @param participaciones participaciones a eliminar
+     * @return para cada una, true si se eliminó; todas false si hubo un error
+     */
+    public static boolean[] eliminarTodos(List<Participacion> participaciones) {
+        return DaoResumenOlimpiada.conResumen(() -> {
+            String consulta = "DELETE FROM Participacion WHERE id_deportista = ? AND id_evento = ?";
+            boolean[] eliminadas = Lotes.ejecutar(consulta, participaciones.size(), (pstmt, i) -> {
+                Participacion participacion = participaciones.get(i);
+                pstmt.setInt(1, participacion.getDeportista().getId_deportista());
+                pstmt.setInt(2, participacion.getEvento().getId_evento());
+            });
+            List<Integer> olimpiadas = new ArrayList<>();
+            for (int i = 0; i < eliminadas.length; i++) {
+                if (eliminadas[i]) {
+                    Medallero.getInstance().restar(participaciones.get(i));
+                    olimpiadas.add(olimpiada(participaciones.get(i)));
+                    BusCambios.getInstance().publicar(Cambio.eliminado(Participacion.class, clave(participaciones.get(i)), participaciones.get(i)));
+                }
+            }
+            DaoResumenOlimpiada.actualizar(olimpiadas);
+            return eliminadas;
+        }, () -> new boolean[participaciones.size()]);
+    }
+
+    /**
+     * Metodo que elimina las participaciones seleccionadas en una única transacción.
+     * Ninguna tabla depende de Participacion, así que no puede haber participaciones bloqueadas.
+     *
+     * @param participaciones participaciones a eliminar
+     * @return las participaciones eliminadas; si hubo un error no se elimina ninguna
+     */
+    public static ResultadoEliminacion<Participacion> eliminarSeleccion(List<Participacion> participaciones) {
+        boolean[] eliminadas = eliminarTodos(participaciones);
+        List<Participacion> eliminados = new ArrayList<>();
+        for (int i = 0; i < eliminadas.length; i++) {
+            if (eliminadas[i]) {
+                eliminados.add(participaciones.get(i));
+            }
         }
+        return new ResultadoEliminacion<>(eliminados, new ArrayList<>(), participaciones.isEmpty() || !eliminados.isEmpty());
     }
-}
 
+    /**
+     * Obtiene la clave de una participación para los cambios publicados en el {@link BusCambios}.
+     *
+     * @param participacion participación
+     * @return la lista [id_deportista, id_evento]
+     */
+    private static List<Integer> clave(Participacion participacion) {
+        return List.of(participacion.getDeportista().getId_deportista(), participacion.getEvento().getId_evento());
+    }
+
+    /**
+     * Obtiene el id de la olimpiada del evento de una participación.
+     *
+     * @param participacion participación
+     * @return el id de la olimpiada o -1 si el evento no tiene la olimpiada cargada
+     */
+    private static int olimpiada(Participacion participacion) {
+        if (participacion.getEvento() == null || participacion.getEvento().getOlimpiada() == null) {
+            return -1;
+        }
+        return participacion.getEvento().getOlimpiada().getId_olimpiada();
+    }
+}
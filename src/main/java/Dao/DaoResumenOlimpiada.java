@@ -0,0 +1,243 @@
+package Dao;
+
+import BBDD.ConexionBBDD;
+import BBDD.PoolConexiones;
+import BBDD.UnidadDeTrabajo;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import model.ResumenOlimpiada;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Clase encargada de la tabla materializada ResumenOlimpiada, con el número de eventos, participaciones,
+ * deportistas, equipos y medallas de cada olimpiada.
+ * Los DAO de Olimpiada, Evento y Participacion recalculan las filas de las olimpiadas afectadas en la misma transacción
+ * que cada escritura ({@link #conResumen(Supplier, Supplier)}),
+ * de forma que las consultas de estadísticas leen una fila por olimpiada en lugar de recorrer las participaciones.
+ * Para rellenar la tabla tras una carga masiva (o si se ha escrito en la base de datos desde fuera de la aplicación)
+ * se utiliza {@link #reconstruir()}, también disponible desde la línea de comandos.
+ */
+public class DaoResumenOlimpiada {
+
+    /**
+     * Consulta que calcula el resumen a partir de las tablas. Se le añaden las cláusulas WHERE y GROUP BY.
+     */
+    private static final String CALCULO = "SELECT o.id_olimpiada, o.temporada, COUNT(DISTINCT ev.id_evento), COUNT(p.id_evento),"
+            + " COUNT(DISTINCT p.id_deportista), COUNT(DISTINCT p.id_equipo),"
+            + " COALESCE(SUM(p.medalla = '" + DaoMedallero.ORO + "'), 0),"
+            + " COALESCE(SUM(p.medalla = '" + DaoMedallero.PLATA + "'), 0),"
+            + " COALESCE(SUM(p.medalla = '" + DaoMedallero.BRONCE + "'), 0)"
+            + " FROM Olimpiada o"
+            + " LEFT JOIN Evento ev ON ev.id_olimpiada = o.id_olimpiada"
+            + " LEFT JOIN Participacion p ON p.id_evento = ev.id_evento";
+
+    private static final String COLUMNAS = "(id_olimpiada, temporada, eventos, participaciones, deportistas, equipos, oros, platas, bronces)";
+
+    private static final String LECTURA = "SELECT r.id_olimpiada, o.nombre, o.anio, r.temporada, r.eventos, r.participaciones,"
+            + " r.deportistas, r.equipos, r.oros, r.platas, r.bronces"
+            + " FROM ResumenOlimpiada r JOIN Olimpiada o ON o.id_olimpiada = r.id_olimpiada";
+
+    /**
+     * Metodo que carga el resumen de todas las olimpiadas ordenado por año.
+     *
+     * @return ObservableList<ResumenOlimpiada> listado de resúmenes
+     */
+    public static ObservableList<ResumenOlimpiada> cargarListado() {
+        return cargar(LECTURA + " ORDER BY o.anio, r.temporada", null);
+    }
+
+    /**
+     * Metodo que carga el resumen de las olimpiadas de una temporada ordenado por año.
+     *
+     * @param temporada "Summer" o "Winter"
+     * @return ObservableList<ResumenOlimpiada> listado de resúmenes
+     */
+    public static ObservableList<ResumenOlimpiada> cargarTemporada(String temporada) {
+        return cargar(LECTURA + " WHERE r.temporada = ? ORDER BY o.anio", temporada);
+    }
+
+    /**
+     * Metodo que obtiene el resumen de una olimpiada.
+     *
+     * @param idOlimpiada id de la olimpiada
+     * @return el resumen o null si no existe
+     */
+    public static ResumenOlimpiada getResumen(int idOlimpiada) {
+        String consulta = LECTURA + " WHERE r.id_olimpiada = ?";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            pstmt.setInt(1, idOlimpiada);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return leer(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Ejecuta una escritura de los DAO de Olimpiada, Evento o Participacion y el recálculo de los resúmenes
+     * que provoca en una única transacción: la escritura se hace dentro de una {@link UnidadDeTrabajo}, en la que
+     * {@link #actualizar(Collection)} encola el recálculo para enviarlo justo antes del commit. Si el recálculo falla
+     * se deshace también la escritura, de forma que la tabla nunca queda desfasada. Si ya hay una unidad abierta
+     * la escritura forma parte de ella.
+     *
+     * @param escritura escritura del DAO
+     * @param siFalla resultado de la escritura cuando no se puede confirmar la transacción
+     * @param <T> tipo del resultado
+     * @return el resultado de la escritura, o el de siFalla si se ha deshecho
+     */
+    static <T> T conResumen(Supplier<T> escritura, Supplier<T> siFalla) {
+        if (UnidadDeTrabajo.activa()) {
+            return escritura.get();
+        }
+        try (UnidadDeTrabajo unidad = UnidadDeTrabajo.iniciar()) {
+            T resultado = escritura.get();
+            unidad.confirmar();
+            return resultado;
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            return siFalla.get();
+        }
+    }
+
+    /**
+     * Metodo que recalcula el resumen de las olimpiadas indicadas. Los ids no válidos (0 o negativos) se ignoran.
+     *
+     * @param idOlimpiadas ids de las olimpiadas afectadas por una escritura
+     */
+    public static void actualizar(int... idOlimpiadas) {
+        List<Integer> ids = new ArrayList<>(idOlimpiadas.length);
+        for (int id : idOlimpiadas) {
+            ids.add(id);
+        }
+        actualizar(ids);
+    }
+
+    /**
+     * Metodo que recalcula el resumen de las olimpiadas indicadas en una única transacción.
+     * Cada olimpiada se recalcula una vez aunque aparezca repetida.
+     * Si hay una {@link UnidadDeTrabajo} abierta, el cálculo se encola y se hace al confirmarla.
+     *
+     * @param idOlimpiadas ids de las olimpiadas afectadas por una escritura
+     */
+    public static void actualizar(Collection<Integer> idOlimpiadas) {
+        Set<Integer> distintas = new LinkedHashSet<>();
+        for (Integer id : idOlimpiadas) {
+            if (id != null && id > 0) {
+                distintas.add(id);
+            }
+        }
+        if (distintas.isEmpty()) {
+            return;
+        }
+        String consulta = "REPLACE INTO ResumenOlimpiada " + COLUMNAS + " " + CALCULO
+                + " WHERE o.id_olimpiada = ? GROUP BY o.id_olimpiada, o.temporada";
+        if (UnidadDeTrabajo.activa()) {
+            // Dentro de una unidad de trabajo cada olimpiada se recalcula una sola vez, justo antes del commit
+            for (int id : distintas) {
+                UnidadDeTrabajo.encolar(consulta, id, pstmt -> pstmt.setInt(1, id));
+            }
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(distintas);
+        Lotes.ejecutar(consulta, ids.size(), (pstmt, i) -> pstmt.setInt(1, ids.get(i)));
+    }
+
+    /**
+     * Metodo que vuelve a calcular la tabla de resúmenes entera en una transacción.
+     *
+     * @return true si se reconstruyó, false si hubo un error
+     */
+    public static boolean reconstruir() {
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement borrar = connection.prepararSentencia("DELETE FROM ResumenOlimpiada");
+             PreparedStatement calcular = connection.prepararSentencia("INSERT INTO ResumenOlimpiada " + COLUMNAS + " "
+                     + CALCULO + " GROUP BY o.id_olimpiada, o.temporada")) {
+            Connection conn = connection.getConnection();
+            conn.setAutoCommit(false);
+            try {
+                borrar.executeUpdate();
+                calcular.executeUpdate();
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reconstruye la tabla de resúmenes desde la línea de comandos, por ejemplo tras cargar datos con otra herramienta.
+     * Uso: DaoResumenOlimpiada
+     *
+     * @param args argumentos de la línea de comandos (no se utilizan)
+     */
+    public static void main(String[] args) {
+        try {
+            long inicio = System.nanoTime();
+            if (reconstruir()) {
+                System.out.println("Resumen de olimpiadas reconstruido en " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+            }
+        } finally {
+            PoolConexiones.cerrarPool();
+        }
+    }
+
+    /**
+     * Ejecuta una consulta de lectura de resúmenes.
+     *
+     * @param consulta consulta con como mucho un parámetro de texto
+     * @param parametro valor del parámetro o null si la consulta no tiene
+     * @return los resúmenes leídos
+     */
+    private static ObservableList<ResumenOlimpiada> cargar(String consulta, String parametro) {
+        ObservableList<ResumenOlimpiada> resumenes = FXCollections.observableArrayList();
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            if (parametro != null) {
+                pstmt.setString(1, parametro);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    resumenes.add(leer(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+        return resumenes;
+    }
+
+    /**
+     * Lee el resumen de la fila actual.
+     *
+     * @param rs resultado de una consulta de lectura
+     * @return el resumen
+     * @throws SQLException si ocurre un error al leer
+     */
+    private static ResumenOlimpiada leer(ResultSet rs) throws SQLException {
+        return new ResumenOlimpiada(rs.getInt("id_olimpiada"), rs.getString("nombre"), rs.getInt("anio"),
+                rs.getString("temporada"), rs.getInt("eventos"), rs.getInt("participaciones"), rs.getInt("deportistas"),
+                rs.getInt("equipos"), rs.getInt("oros"), rs.getInt("platas"), rs.getInt("bronces"));
+    }
+}
@@ -0,0 +1,137 @@
+package Dao;
+
+import BBDD.ConexionBBDD;
+import BBDD.Configuracion;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Clase con la lectura en flujo de los listados grandes de los DAO.
+ * En lugar de leer el resultado entero en memoria, el driver de MariaDB recibe las filas del servidor en bloques
+ * del tamaño indicado con setFetchSize (clave "stream.fetch.size" de la configuración, por defecto 1000),
+ * y cada fila se convierte en entidad a medida que se consume el Stream. Así se pueden exportar o agregar
+ * millones de filas con memoria constante.
+ * <p>
+ * El Stream tiene prestada una conexión del pool hasta que se cierra, por lo que debe cerrarse siempre
+ * (preferiblemente con try-with-resources). Mientras se recorre, esa conexión no puede usarse para otras consultas:
+ * si el flujo se abre dentro de una unidad de trabajo y entretanto se hace otra consulta en ella,
+ * el driver lee en memoria el resto del resultado.
+ */
+class Flujos {
+
+    /**
+     * Función que convierte la fila actual del ResultSet en una entidad.
+     *
+     * @param <T> tipo de la entidad
+     */
+    @FunctionalInterface
+    interface Lector<T> {
+        /**
+         * Lee una fila.
+         *
+         * @param rs ResultSet posicionado en la fila
+         * @return la entidad de la fila
+         * @throws SQLException si ocurre un error leyendo la fila
+         */
+        T leer(ResultSet rs) throws SQLException;
+    }
+
+    private Flujos() {}
+
+    /**
+     * Ejecuta una consulta y devuelve sus filas como un Stream que se lee del servidor por bloques.
+     * Si falla la consulta se devuelve un Stream vacío; si falla la lectura de una fila a mitad del recorrido
+     * se lanza una IllegalStateException para que el resultado no se tome por completo.
+     *
+     * @param consulta consulta SELECT sin parámetros
+     * @param lector función que convierte cada fila en una entidad
+     * @param <T> tipo de la entidad
+     * @return Stream de entidades que hay que cerrar al terminar
+     */
+    static <T> Stream<T> abrir(String consulta, Lector<T> lector) {
+        try {
+            return consultar(consulta, lector);
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Igual que {@link #abrir(String, Lector)}, pero si falla la consulta se propaga el error,
+     * para quien no deba confundir un error con una tabla vacía.
+     *
+     * @param consulta consulta SELECT sin parámetros
+     * @param lector función que convierte cada fila en una entidad
+     * @param <T> tipo de la entidad
+     * @return Stream de entidades que hay que cerrar al terminar
+     * @throws SQLException si no se puede ejecutar la consulta
+     */
+    static <T> Stream<T> consultar(String consulta, Lector<T> lector) throws SQLException {
+        ConexionBBDD connection = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            connection = new ConexionBBDD();
+            pstmt = connection.prepararSentencia(consulta);
+            pstmt.setFetchSize(Math.max(1, Configuracion.getActual().getEntero("stream.fetch.size", 1000)));
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            cerrar(rs, pstmt, connection);
+            throw e;
+        }
+        ResultSet filas = rs;
+        PreparedStatement sentencia = pstmt;
+        ConexionBBDD conexion = connection;
+        Spliterator<T> recorrido = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> accion) {
+                try {
+                    if (!filas.next()) {
+                        return false;
+                    }
+                    accion.accept(lector.leer(filas));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Error leyendo el listado: " + e.getMessage(), e);
+                }
+            }
+        };
+        return StreamSupport.stream(recorrido, false).onClose(() -> cerrar(filas, sentencia, conexion));
+    }
+
+    /**
+     * Cierra el resultado, la sentencia y la conexión de un flujo, en ese orden, ignorando los que sean null.
+     *
+     * @param rs resultado
+     * @param pstmt sentencia
+     * @param connection conexión prestada
+     */
+    private static void cerrar(ResultSet rs, PreparedStatement pstmt, ConexionBBDD connection) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+            if (pstmt != null) {
+                pstmt.close();
+            }
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        } finally {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    System.err.println(e.getMessage());
+                }
+            }
+        }
+    }
+}
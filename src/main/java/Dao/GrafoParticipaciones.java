@@ -0,0 +1,141 @@
+package Dao;
+
+import model.Deporte;
+import model.Deportista;
+import model.Equipo;
+import model.Evento;
+import model.Olimpiada;
+import model.Participacion;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Clase que construye el grafo de objetos de las participaciones a partir de una única consulta con JOIN
+ * sobre Participacion, Deportista, Evento, Olimpiada, Deporte y Equipo.
+ * Mantiene un mapa de identidad por entidad para que todas las participaciones de una misma carga
+ * compartan las mismas instancias de Deportista, Evento, Equipo, Olimpiada y Deporte.
+ * En las lecturas en flujo solo se recuerda el último deportista, para que la memoria no crezca con el número de filas;
+ * las filas se piden ordenadas por deportista, así que las participaciones seguidas de un deportista
+ * siguen compartiendo su instancia.
+ */
+class GrafoParticipaciones {
+
+    /**
+     * Consulta que devuelve cada participación junto con todos los datos de sus entidades relacionadas.
+     * Se le pueden añadir cláusulas WHERE, ORDER BY y LIMIT.
+     */
+    static final String CONSULTA = "SELECT p.id_deportista, p.id_evento, p.id_equipo, p.edad, p.medalla,"
+            + " d.nombre AS nombre_deportista, d.sexo, d.peso, d.altura, d.foto IS NOT NULL AS tiene_foto,"
+            + " ev.nombre AS nombre_evento, ev.id_olimpiada, ev.id_deporte,"
+            + " o.nombre AS nombre_olimpiada, o.anio, o.temporada, o.ciudad,"
+            + " dp.nombre AS nombre_deporte,"
+            + " eq.nombre AS nombre_equipo, eq.iniciales"
+            + " FROM Participacion p"
+            + " JOIN Deportista d ON d.id_deportista = p.id_deportista"
+            + " JOIN Evento ev ON ev.id_evento = p.id_evento"
+            + " JOIN Olimpiada o ON o.id_olimpiada = ev.id_olimpiada"
+            + " JOIN Deporte dp ON dp.id_deporte = ev.id_deporte"
+            + " JOIN Equipo eq ON eq.id_equipo = p.id_equipo";
+
+    private final Map<Integer, Deportista> deportistas = new HashMap<>();
+    private final Map<Integer, Evento> eventos = new HashMap<>();
+    private final Map<Integer, Equipo> equipos = new HashMap<>();
+    private final Map<Integer, Olimpiada> olimpiadas = new HashMap<>();
+    private final Map<Integer, Deporte> deportes = new HashMap<>();
+    private final boolean soloUltimoDeportista;
+
+    /**
+     * Constructor para cargar un listado en memoria, que comparte todas las entidades.
+     */
+    GrafoParticipaciones() {
+        this(false);
+    }
+
+    /**
+     * Constructor del grafo.
+     *
+     * @param soloUltimoDeportista true para recordar solo el último deportista leído, en las lecturas en flujo
+     */
+    GrafoParticipaciones(boolean soloUltimoDeportista) {
+        this.soloUltimoDeportista = soloUltimoDeportista;
+    }
+
+    /**
+     * Construye la participación de la fila actual del ResultSet, reutilizando las entidades ya leídas.
+     *
+     * @param rs ResultSet posicionado en una fila de {@link #CONSULTA}
+     * @return la participación con sus entidades relacionadas
+     * @throws SQLException si ocurre un error leyendo la fila
+     */
+    Participacion leer(ResultSet rs) throws SQLException {
+        int id_deportista = rs.getInt("id_deportista");
+        Deportista deportista = deportistas.get(id_deportista);
+        if (deportista == null) {
+            String nombre = rs.getString("nombre_deportista");
+            char sexo = rs.getString("sexo").charAt(0);
+            int peso = rs.getInt("peso");
+            int altura = rs.getInt("altura");
+            deportista = new Deportista(id_deportista, nombre, sexo, peso, altura, null);
+            deportista.setTieneFoto(rs.getBoolean("tiene_foto"));
+            if (soloUltimoDeportista) {
+                deportistas.clear();
+            }
+            deportistas.put(id_deportista, deportista);
+        }
+
+        int id_evento = rs.getInt("id_evento");
+        Evento evento = eventos.get(id_evento);
+        if (evento == null) {
+            evento = new Evento(id_evento, rs.getString("nombre_evento"), leerOlimpiada(rs), leerDeporte(rs));
+            eventos.put(id_evento, evento);
+        }
+
+        int id_equipo = rs.getInt("id_equipo");
+        Equipo equipo = equipos.get(id_equipo);
+        if (equipo == null) {
+            equipo = new Equipo(id_equipo, rs.getString("nombre_equipo"), rs.getString("iniciales"));
+            equipos.put(id_equipo, equipo);
+        }
+
+        int edad = rs.getInt("edad");
+        String medalla = rs.getString("medalla");
+        return new Participacion(deportista, evento, equipo, edad, medalla);
+    }
+
+    /**
+     * Obtiene la olimpiada de la fila actual, reutilizándola si ya se había leído.
+     *
+     * @param rs ResultSet posicionado en una fila de {@link #CONSULTA}
+     * @return la olimpiada del evento
+     * @throws SQLException si ocurre un error leyendo la fila
+     */
+    private Olimpiada leerOlimpiada(ResultSet rs) throws SQLException {
+        int id_olimpiada = rs.getInt("id_olimpiada");
+        Olimpiada olimpiada = olimpiadas.get(id_olimpiada);
+        if (olimpiada == null) {
+            olimpiada = new Olimpiada(id_olimpiada, rs.getString("nombre_olimpiada"), rs.getInt("anio"), rs.getString("temporada"), rs.getString("ciudad"));
+            olimpiadas.put(id_olimpiada, olimpiada);
+        }
+        return olimpiada;
+    }
+
+    /**
+     * Obtiene el deporte de la fila actual, reutilizándolo si ya se había leído.
+     *
+     * @param rs ResultSet posicionado en una fila de {@link #CONSULTA}
+     * @return el deporte del evento
+     * @throws SQLException si ocurre un error leyendo la fila
+     */
+    private Deporte leerDeporte(ResultSet rs) throws SQLException {
+        int id_deporte = rs.getInt("id_deporte");
+        Deporte deporte = deportes.get(id_deporte);
+        if (deporte == null) {
+            deporte = new Deporte(id_deporte, rs.getString("nombre_deporte"));
+            deportes.put(id_deporte, deporte);
+        }
+        return deporte;
+    }
+}
@@ -0,0 +1,486 @@
+package Dao;
+
+import BBDD.ConexionBBDD;
+import BBDD.PoolConexiones;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Clase que importa el conjunto de datos histórico athlete_events.csv (120 años de olimpiadas) en la base de datos.
+ * <p>
+ * El fichero se lee línea a línea sin cargarlo entero en memoria. Cada fila se normaliza en Deporte, Olimpiada,
+ * Evento, Equipo, Deportista y Participacion; las entidades se identifican por su clave natural
+ * (nombre del deporte, nombre de la olimpiada, evento y olimpiada, nombre del equipo, ID del fichero)
+ * mediante mapas en memoria, de forma que cada una se inserta una sola vez.
+ * Los ids se asignan en memoria a partir del máximo existente en cada tabla, por lo que no hace falta leer
+ * las claves generadas y todas las inserciones pueden ir en lotes JDBC.
+ * <p>
+ * Las filas se procesan en bloques de tamaño configurable; cada bloque se escribe en una transacción,
+ * respetando el orden de las claves ajenas, y al confirmarlo se informa del progreso.
+ * La importación debe hacerse sin otros usuarios escribiendo en la base de datos, ya que los ids se reservan en memoria.
+ */
+public class ImportadorCsv {
+
+    /**
+     * Progreso de una importación.
+     */
+    public static class Progreso {
+        private final long filas;
+        private final long nanos;
+
+        private Progreso(long filas, long nanos) {
+            this.filas = filas;
+            this.nanos = nanos;
+        }
+
+        public long getFilas() {
+            return filas;
+        }
+
+        public double getSegundos() {
+            return nanos / 1_000_000_000.0;
+        }
+
+        public double getFilasPorSegundo() {
+            return nanos == 0 ? 0 : filas / getSegundos();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d filas en %.1f s (%.0f filas/s)", filas, getSegundos(), getFilasPorSegundo());
+        }
+    }
+
+    private static final String NA = "NA";
+
+    private final int tamanioBloque;
+    private final Consumer<Progreso> alProgresar;
+
+    private final Map<String, Integer> deportes = new HashMap<>();
+    private final Map<String, Integer> olimpiadas = new HashMap<>();
+    private final Map<String, Integer> equipos = new HashMap<>();
+    private final Map<String, Integer> eventos = new HashMap<>();
+    private final Map<String, Integer> deportistas = new HashMap<>();
+    private int ultimoDeporte;
+    private int ultimaOlimpiada;
+    private int ultimoEquipo;
+    private int ultimoEvento;
+    private int ultimoDeportista;
+
+    private PreparedStatement insertarDeporte;
+    private PreparedStatement insertarOlimpiada;
+    private PreparedStatement insertarEquipo;
+    private PreparedStatement insertarEvento;
+    private PreparedStatement insertarDeportista;
+    private PreparedStatement insertarParticipacion;
+
+    /**
+     * Constructor del importador.
+     *
+     * @param tamanioBloque número de filas del fichero que se escriben en cada transacción
+     * @param alProgresar acción que recibe el progreso después de cada bloque, puede ser null
+     */
+    public ImportadorCsv(int tamanioBloque, Consumer<Progreso> alProgresar) {
+        this.tamanioBloque = tamanioBloque;
+        this.alProgresar = alProgresar;
+    }
+
+    /**
+     * Importa un fichero athlete_events.csv. Las filas ya confirmadas se mantienen si ocurre un error a mitad.
+     *
+     * @param fichero fichero CSV con cabecera
+     * @return el progreso final de la importación
+     * @throws IOException si ocurre un error al leer el fichero o su formato no es válido
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    public Progreso importar(File fichero) throws IOException, SQLException {
+        long inicio = System.nanoTime();
+        long filas = 0;
+        try (ConexionBBDD connection = new ConexionBBDD();
+             BufferedReader lector = Files.newBufferedReader(fichero.toPath(), StandardCharsets.UTF_8)) {
+            Connection conn = connection.getConnection();
+            cargarClaves(conn);
+            prepararSentencias(conn);
+            conn.setAutoCommit(false);
+            try {
+                Map<String, Integer> columnas = leerCabecera(lector);
+                List<String> campos;
+                int enBloque = 0;
+                while ((campos = leerFila(lector)) != null) {
+                    procesar(campos, columnas);
+                    filas++;
+                    if (++enBloque == tamanioBloque) {
+                        escribirBloque(conn);
+                        enBloque = 0;
+                        informar(filas, inicio);
+                    }
+                }
+                escribirBloque(conn);
+                informar(filas, inicio);
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                cerrarSentencias();
+                conn.setAutoCommit(true);
+                // Las filas confirmadas no pasan por DaoParticipacion, el medallero se recalculará
+                Medallero.getInstance().invalidar();
+                ColumnasParticipacion.invalidar();
+            }
+        }
+        DaoResumenOlimpiada.reconstruir();
+        return new Progreso(filas, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Carga las claves naturales de las entidades que ya existen y el id máximo de cada tabla.
+     * Los deportistas existentes no tienen el ID del fichero, por lo que no se reutilizan.
+     *
+     * @param conn conexión a utilizar
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    private void cargarClaves(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT id_deporte,nombre FROM Deporte")) {
+                while (rs.next()) {
+                    deportes.put(rs.getString("nombre"), rs.getInt("id_deporte"));
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT id_olimpiada,nombre FROM Olimpiada")) {
+                while (rs.next()) {
+                    olimpiadas.put(rs.getString("nombre"), rs.getInt("id_olimpiada"));
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT id_equipo,nombre FROM Equipo")) {
+                while (rs.next()) {
+                    equipos.put(rs.getString("nombre"), rs.getInt("id_equipo"));
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT id_evento,nombre,id_olimpiada FROM Evento")) {
+                while (rs.next()) {
+                    eventos.put(rs.getString("nombre") + "|" + rs.getInt("id_olimpiada"), rs.getInt("id_evento"));
+                }
+            }
+            ultimoDeporte = maximo(stmt, "SELECT MAX(id_deporte) FROM Deporte");
+            ultimaOlimpiada = maximo(stmt, "SELECT MAX(id_olimpiada) FROM Olimpiada");
+            ultimoEquipo = maximo(stmt, "SELECT MAX(id_equipo) FROM Equipo");
+            ultimoEvento = maximo(stmt, "SELECT MAX(id_evento) FROM Evento");
+            ultimoDeportista = maximo(stmt, "SELECT MAX(id_deportista) FROM Deportista");
+        }
+    }
+
+    /**
+     * Ejecuta una consulta que devuelve un único entero.
+     *
+     * @param stmt sentencia a utilizar
+     * @param consulta consulta con MAX
+     * @return el valor, 0 si la tabla está vacía
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    private static int maximo(Statement stmt, String consulta) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(consulta)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Prepara las sentencias de inserción de cada tabla.
+     *
+     * @param conn conexión a utilizar
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    private void prepararSentencias(Connection conn) throws SQLException {
+        insertarDeporte = conn.prepareStatement("INSERT INTO Deporte (id_deporte,nombre) VALUES (?,?)");
+        insertarOlimpiada = conn.prepareStatement("INSERT INTO Olimpiada (id_olimpiada,nombre,anio,temporada,ciudad) VALUES (?,?,?,?,?)");
+        insertarEquipo = conn.prepareStatement("INSERT INTO Equipo (id_equipo,nombre,iniciales) VALUES (?,?,?)");
+        insertarEvento = conn.prepareStatement("INSERT INTO Evento (id_evento,nombre,id_olimpiada,id_deporte) VALUES (?,?,?,?)");
+        insertarDeportista = conn.prepareStatement("INSERT INTO Deportista (id_deportista,nombre,sexo,peso,altura) VALUES (?,?,?,?,?)");
+        // El fichero contiene algunas filas repetidas para el mismo deportista y evento
+        insertarParticipacion = conn.prepareStatement("INSERT IGNORE INTO Participacion (id_deportista,id_evento,id_equipo,edad,medalla) VALUES (?,?,?,?,?)");
+    }
+
+    /**
+     * Cierra las sentencias de inserción.
+     *
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    private void cerrarSentencias() throws SQLException {
+        for (PreparedStatement pstmt : new PreparedStatement[]{insertarDeporte, insertarOlimpiada, insertarEquipo,
+                insertarEvento, insertarDeportista, insertarParticipacion}) {
+            if (pstmt != null) {
+                pstmt.close();
+            }
+        }
+    }
+
+    /**
+     * Normaliza una fila del fichero y añade a los lotes las entidades nuevas y la participación.
+     *
+     * @param campos campos de la fila
+     * @param columnas posición de cada columna según la cabecera
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    private void procesar(List<String> campos, Map<String, Integer> columnas) throws SQLException {
+        String deporte = campo(campos, columnas, "Sport");
+        Integer id_deporte = deportes.get(deporte);
+        if (id_deporte == null) {
+            id_deporte = ++ultimoDeporte;
+            deportes.put(deporte, id_deporte);
+            insertarDeporte.setInt(1, id_deporte);
+            insertarDeporte.setString(2, recortar(deporte, 100));
+            insertarDeporte.addBatch();
+        }
+
+        String juegos = campo(campos, columnas, "Games");
+        Integer id_olimpiada = olimpiadas.get(juegos);
+        if (id_olimpiada == null) {
+            id_olimpiada = ++ultimaOlimpiada;
+            olimpiadas.put(juegos, id_olimpiada);
+            insertarOlimpiada.setInt(1, id_olimpiada);
+            insertarOlimpiada.setString(2, recortar(juegos, 11));
+            insertarOlimpiada.setInt(3, Integer.parseInt(campo(campos, columnas, "Year")));
+            insertarOlimpiada.setString(4, campo(campos, columnas, "Season"));
+            insertarOlimpiada.setString(5, recortar(campo(campos, columnas, "City"), 50));
+            insertarOlimpiada.addBatch();
+        }
+
+        String equipo = recortar(campo(campos, columnas, "Team"), 50);
+        Integer id_equipo = equipos.get(equipo);
+        if (id_equipo == null) {
+            id_equipo = ++ultimoEquipo;
+            equipos.put(equipo, id_equipo);
+            insertarEquipo.setInt(1, id_equipo);
+            insertarEquipo.setString(2, equipo);
+            insertarEquipo.setString(3, recortar(campo(campos, columnas, "NOC"), 3));
+            insertarEquipo.addBatch();
+        }
+
+        String evento = recortar(campo(campos, columnas, "Event"), 150);
+        String claveEvento = evento + "|" + id_olimpiada;
+        Integer id_evento = eventos.get(claveEvento);
+        if (id_evento == null) {
+            id_evento = ++ultimoEvento;
+            eventos.put(claveEvento, id_evento);
+            insertarEvento.setInt(1, id_evento);
+            insertarEvento.setString(2, evento);
+            insertarEvento.setInt(3, id_olimpiada);
+            insertarEvento.setInt(4, id_deporte);
+            insertarEvento.addBatch();
+        }
+
+        String id = campo(campos, columnas, "ID");
+        Integer id_deportista = deportistas.get(id);
+        if (id_deportista == null) {
+            id_deportista = ++ultimoDeportista;
+            deportistas.put(id, id_deportista);
+            insertarDeportista.setInt(1, id_deportista);
+            insertarDeportista.setString(2, recortar(campo(campos, columnas, "Name"), 150));
+            insertarDeportista.setString(3, campo(campos, columnas, "Sex"));
+            setEntero(insertarDeportista, 4, campo(campos, columnas, "Weight"));
+            setEntero(insertarDeportista, 5, campo(campos, columnas, "Height"));
+            insertarDeportista.addBatch();
+        }
+
+        insertarParticipacion.setInt(1, id_deportista);
+        insertarParticipacion.setInt(2, id_evento);
+        insertarParticipacion.setInt(3, id_equipo);
+        setEntero(insertarParticipacion, 4, campo(campos, columnas, "Age"));
+        String medalla = campo(campos, columnas, "Medal");
+        if (NA.equals(medalla)) {
+            insertarParticipacion.setNull(5, Types.VARCHAR);
+        } else {
+            insertarParticipacion.setString(5, medalla);
+        }
+        insertarParticipacion.addBatch();
+    }
+
+    /**
+     * Ejecuta los lotes pendientes en el orden de las claves ajenas y confirma la transacción.
+     *
+     * @param conn conexión a utilizar
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    private void escribirBloque(Connection conn) throws SQLException {
+        insertarDeporte.executeBatch();
+        insertarOlimpiada.executeBatch();
+        insertarEquipo.executeBatch();
+        insertarEvento.executeBatch();
+        insertarDeportista.executeBatch();
+        insertarParticipacion.executeBatch();
+        conn.commit();
+    }
+
+    /**
+     * Informa del progreso si hay alguien escuchando.
+     *
+     * @param filas filas procesadas
+     * @param inicio instante de inicio en nanosegundos
+     */
+    private void informar(long filas, long inicio) {
+        if (alProgresar != null) {
+            alProgresar.accept(new Progreso(filas, System.nanoTime() - inicio));
+        }
+    }
+
+    /**
+     * Lee la cabecera del fichero.
+     *
+     * @param lector lector del fichero
+     * @return posición de cada columna
+     * @throws IOException si el fichero está vacío o no tiene las columnas necesarias
+     */
+    private static Map<String, Integer> leerCabecera(BufferedReader lector) throws IOException {
+        List<String> cabecera = leerFila(lector);
+        if (cabecera == null) {
+            throw new IOException("El fichero está vacío");
+        }
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            columnas.put(cabecera.get(i), i);
+        }
+        for (String columna : new String[]{"ID", "Name", "Sex", "Age", "Height", "Weight", "Team", "NOC",
+                "Games", "Year", "Season", "City", "Sport", "Event", "Medal"}) {
+            if (!columnas.containsKey(columna)) {
+                throw new IOException("Falta la columna " + columna);
+            }
+        }
+        return columnas;
+    }
+
+    /**
+     * Lee una fila del fichero separando los campos. Admite campos entre comillas con comas,
+     * comillas dobles escapadas y saltos de línea.
+     *
+     * @param lector lector del fichero
+     * @return campos de la fila o null al llegar al final
+     * @throws IOException si ocurre un error al leer el fichero
+     */
+    private static List<String> leerFila(BufferedReader lector) throws IOException {
+        String linea = lector.readLine();
+        if (linea == null) {
+            return null;
+        }
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        int i = 0;
+        while (true) {
+            if (i == linea.length()) {
+                if (!entreComillas) {
+                    break;
+                }
+                // Campo entre comillas que continúa en la línea siguiente
+                linea = lector.readLine();
+                if (linea == null) {
+                    throw new IOException("Comillas sin cerrar al final del fichero");
+                }
+                campo.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = linea.charAt(i++);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i < linea.length() && linea.charAt(i) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    /**
+     * Obtiene el valor de una columna de la fila.
+     *
+     * @param campos campos de la fila
+     * @param columnas posición de cada columna
+     * @param nombre nombre de la columna
+     * @return el valor de la columna
+     */
+    private static String campo(List<String> campos, Map<String, Integer> columnas, String nombre) {
+        return campos.get(columnas.get(nombre));
+    }
+
+    /**
+     * Asigna un parámetro entero a partir de un valor del fichero, que puede tener decimales o ser NA.
+     *
+     * @param pstmt sentencia
+     * @param indice índice del parámetro
+     * @param valor valor del fichero
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    private static void setEntero(PreparedStatement pstmt, int indice, String valor) throws SQLException {
+        if (valor.isEmpty() || NA.equals(valor)) {
+            pstmt.setNull(indice, Types.INTEGER);
+        } else {
+            pstmt.setInt(indice, (int) Math.round(Double.parseDouble(valor)));
+        }
+    }
+
+    /**
+     * Recorta un texto a la longitud de su columna.
+     *
+     * @param texto texto
+     * @param longitud longitud máxima
+     * @return el texto recortado
+     */
+    private static String recortar(String texto, int longitud) {
+        return texto.length() > longitud ? texto.substring(0, longitud) : texto;
+    }
+
+    /**
+     * Importa un fichero desde la línea de comandos, mostrando el progreso.
+     * Uso: ImportadorCsv fichero.csv [filas por transacción]. Si no se indica, se usa import.batch.size de la configuración.
+     *
+     * @param args argumentos de la línea de comandos
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Uso: ImportadorCsv fichero.csv [filas por transacción]");
+            return;
+        }
+        int tamanio;
+        try {
+            tamanio = Integer.parseInt(args.length > 1 ? args[1] : ConexionBBDD.getConfiguracion().getProperty("import.batch.size", "1000"));
+        } catch (NumberFormatException e) {
+            tamanio = 1000;
+        }
+        try {
+            Progreso progreso = new ImportadorCsv(tamanio, System.out::println).importar(new File(args[0]));
+            System.out.println("Importación terminada: " + progreso);
+        } catch (IOException | SQLException e) {
+            System.err.println(e.getMessage());
+        } finally {
+            PoolConexiones.cerrarPool();
+        }
+    }
+}
@@ -0,0 +1,594 @@
+package Dao;
+
+import BBDD.Configuracion;
+import model.Deporte;
+import model.Deportista;
+import model.Equipo;
+import model.Evento;
+import model.Olimpiada;
+import model.Participacion;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Copia binaria en disco de las seis tablas, para que la ventana principal se pueda abrir al instante con los datos
+ * del último arranque y consultarlos en modo de solo lectura si la base de datos no está disponible.
+ * <p>
+ * El archivo (clave "snapshot.file" de la configuración, por defecto "instantanea.bin") se lee proyectándolo en memoria
+ * con {@link FileChannel#map}: al abrirlo solo se decodifican deportes, olimpiadas y equipos, y los deportistas,
+ * eventos y participaciones se decodifican directamente del archivo a medida que se piden sus páginas.
+ * La proyección se hace en un {@link Arena} propio para poder liberarla en cuanto se va a sustituir el archivo,
+ * ya que en Windows no se puede reemplazar un archivo proyectado.
+ * <p>
+ * Formato, en big-endian: la cabecera (marca, versión y fecha de creación), las seis secciones en el orden
+ * Deporte, Olimpiada, Equipo, Deportista, Evento, Participacion, y al final la posición del índice de cada sección
+ * seguida de la marca. Cada sección tiene sus registros ordenados por clave primaria y después su índice: el número
+ * de registros y la posición de cada uno. Los textos se guardan como su longitud en bytes (0xFFFF para null)
+ * seguida de sus bytes en UTF-8.
+ */
+public class Instantanea {
+    private static final int MARCA = 0x4F4C494D;
+    private static final int VERSION = 1;
+    private static final int SECCIONES = 6;
+    private static final int DEPORTE = 0;
+    private static final int OLIMPIADA = 1;
+    private static final int EQUIPO = 2;
+    private static final int DEPORTISTA = 3;
+    private static final int EVENTO = 4;
+    private static final int PARTICIPACION = 5;
+    private static final int NULO = 0xFFFF;
+    private static Instantanea abierta;
+
+    private final Arena arena;
+    private final ByteBuffer datos;
+    private final long fecha;
+    private final int[] indices = new int[SECCIONES];
+    private final int[] registros = new int[SECCIONES];
+    private final Map<Integer, Deporte> deportes = new HashMap<>();
+    private final Map<Integer, Olimpiada> olimpiadas = new HashMap<>();
+    private final Map<Integer, Equipo> equipos = new HashMap<>();
+
+    /**
+     * Fila de la tabla Evento tal como se guarda, con las claves ajenas sin resolver.
+     */
+    private static class FilaEvento {
+        private int id_evento;
+        private String nombre;
+        private int id_olimpiada;
+        private int id_deporte;
+    }
+
+    /**
+     * Fila de la tabla Participacion tal como se guarda, con las claves ajenas sin resolver.
+     */
+    private static class FilaParticipacion {
+        private int id_deportista;
+        private int id_evento;
+        private int id_equipo;
+        private int edad;
+        private String medalla;
+    }
+
+    /**
+     * Constructor que comprueba el archivo proyectado y decodifica las tablas pequeñas.
+     *
+     * @param arena arena de la proyección del archivo
+     * @param datos contenido del archivo
+     * @throws IOException si el archivo no es una instantánea válida
+     */
+    private Instantanea(Arena arena, ByteBuffer datos) throws IOException {
+        this.arena = arena;
+        this.datos = datos;
+        int fin = datos.limit();
+        int cola = fin - 4 * (SECCIONES + 1);
+        if (fin < 16 + 4 * (SECCIONES + 1) || datos.getInt(0) != MARCA || datos.getInt(fin - 4) != MARCA) {
+            throw new IOException("El archivo no es una instantánea de las olimpiadas");
+        }
+        if (datos.getInt(4) != VERSION) {
+            throw new IOException("Versión de instantánea no soportada: " + datos.getInt(4));
+        }
+        fecha = datos.getLong(8);
+        for (int i = 0; i < SECCIONES; i++) {
+            indices[i] = datos.getInt(cola + 4 * i);
+            if (indices[i] < 16 || indices[i] > cola - 4) {
+                throw new IOException("Índice de la instantánea fuera del archivo");
+            }
+            registros[i] = datos.getInt(indices[i]);
+        }
+        for (int i = 0; i < registros[DEPORTE]; i++) {
+            ByteBuffer registro = registro(DEPORTE, i);
+            int id = registro.getInt();
+            deportes.put(id, new Deporte(id, texto(registro)));
+        }
+        for (int i = 0; i < registros[OLIMPIADA]; i++) {
+            ByteBuffer registro = registro(OLIMPIADA, i);
+            int id = registro.getInt();
+            String nombre = texto(registro);
+            int anio = registro.getInt();
+            String temporada = texto(registro);
+            String ciudad = texto(registro);
+            olimpiadas.put(id, new Olimpiada(id, nombre, anio, temporada, ciudad));
+        }
+        for (int i = 0; i < registros[EQUIPO]; i++) {
+            ByteBuffer registro = registro(EQUIPO, i);
+            int id = registro.getInt();
+            String nombre = texto(registro);
+            equipos.put(id, new Equipo(id, nombre, texto(registro)));
+        }
+    }
+
+    /**
+     * Obtiene la ruta del archivo de la instantánea.
+     *
+     * @return la ruta configurada
+     */
+    private static Path ruta() {
+        return Paths.get(Configuracion.getActual().get("snapshot.file", "instantanea.bin"));
+    }
+
+    /**
+     * Abre la última instantánea guardada proyectando el archivo en memoria. La proyección se mantiene
+     * hasta que se llama a {@link #cerrar()} o se guarda una instantánea nueva.
+     *
+     * @return la instantánea o null si no existe o no es válida
+     */
+    public static synchronized Instantanea abrir() {
+        Path ruta = ruta();
+        if (!Files.isRegularFile(ruta)) {
+            return null;
+        }
+        Arena arena = Arena.ofShared();
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            // La proyección sigue siendo válida después de cerrar el canal, hasta que se cierra la arena
+            MemorySegment segmento = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size(), arena);
+            abierta = new Instantanea(arena, segmento.asByteBuffer());
+            return abierta;
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            System.err.println(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Libera la proyección del archivo. Después ya no se pueden pedir páginas ni hacer búsquedas:
+     * lanzan IllegalStateException.
+     */
+    public void cerrar() {
+        synchronized (Instantanea.class) {
+            if (arena.scope().isAlive()) {
+                arena.close();
+            }
+            if (abierta == this) {
+                abierta = null;
+            }
+        }
+    }
+
+    /**
+     * Lee las seis tablas de la base de datos y guarda una instantánea nueva. Se escribe en un archivo temporal
+     * que después sustituye al anterior, de forma que una escritura interrumpida no estropea la última instantánea.
+     * Si la instantánea anterior sigue abierta se cierra antes de sustituirla.
+     * Las tablas se leen con {@link Flujos#consultar}, que propaga los errores: si falla cualquier consulta o lectura
+     * se borra el archivo temporal y se conserva la instantánea anterior, en lugar de sustituirla por una incompleta.
+     *
+     * @return true si se ha guardado
+     */
+    public static boolean guardar() {
+        Path ruta = ruta().toAbsolutePath();
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporal)))) {
+                int[] indices = new int[SECCIONES];
+                salida.writeInt(MARCA);
+                salida.writeInt(VERSION);
+                salida.writeLong(System.currentTimeMillis());
+                List<Integer> posiciones = new ArrayList<>();
+                try (Stream<Deporte> flujo = Flujos.consultar("SELECT id_deporte,nombre FROM Deporte ORDER BY id_deporte",
+                        rs -> new Deporte(rs.getInt("id_deporte"), rs.getString("nombre")))) {
+                    for (Deporte deporte : (Iterable<Deporte>) flujo::iterator) {
+                        posiciones.add(salida.size());
+                        salida.writeInt(deporte.getId_deporte());
+                        escribirTexto(salida, deporte.getNombre());
+                    }
+                }
+                indices[DEPORTE] = escribirIndice(salida, posiciones);
+                try (Stream<Olimpiada> flujo = Flujos.consultar("SELECT id_olimpiada,nombre,anio,temporada,ciudad FROM Olimpiada ORDER BY id_olimpiada",
+                        rs -> new Olimpiada(rs.getInt("id_olimpiada"), rs.getString("nombre"), rs.getInt("anio"),
+                                rs.getString("temporada"), rs.getString("ciudad")))) {
+                    for (Olimpiada olimpiada : (Iterable<Olimpiada>) flujo::iterator) {
+                        posiciones.add(salida.size());
+                        salida.writeInt(olimpiada.getId_olimpiada());
+                        escribirTexto(salida, olimpiada.getNombre());
+                        salida.writeInt(olimpiada.getAnio());
+                        escribirTexto(salida, olimpiada.getTemporada());
+                        escribirTexto(salida, olimpiada.getCiudad());
+                    }
+                }
+                indices[OLIMPIADA] = escribirIndice(salida, posiciones);
+                try (Stream<Equipo> flujo = Flujos.consultar("SELECT id_equipo,nombre,iniciales FROM Equipo ORDER BY id_equipo",
+                        rs -> new Equipo(rs.getInt("id_equipo"), rs.getString("nombre"), rs.getString("iniciales")))) {
+                    for (Equipo equipo : (Iterable<Equipo>) flujo::iterator) {
+                        posiciones.add(salida.size());
+                        salida.writeInt(equipo.getId_equipo());
+                        escribirTexto(salida, equipo.getNombre());
+                        escribirTexto(salida, equipo.getIniciales());
+                    }
+                }
+                indices[EQUIPO] = escribirIndice(salida, posiciones);
+                String consulta = "SELECT id_deportista,nombre,sexo,peso,altura,foto IS NOT NULL AS tiene_foto FROM Deportista ORDER BY id_deportista";
+                try (Stream<Deportista> flujo = Flujos.consultar(consulta, rs -> {
+                    Deportista deportista = new Deportista(rs.getInt("id_deportista"), rs.getString("nombre"),
+                            rs.getString("sexo").charAt(0), rs.getInt("peso"), rs.getInt("altura"), null);
+                    deportista.setTieneFoto(rs.getBoolean("tiene_foto"));
+                    return deportista;
+                })) {
+                    for (Deportista deportista : (Iterable<Deportista>) flujo::iterator) {
+                        posiciones.add(salida.size());
+                        salida.writeInt(deportista.getId_deportista());
+                        escribirTexto(salida, deportista.getNombre());
+                        salida.writeByte(deportista.getSexo());
+                        salida.writeInt(deportista.getPeso());
+                        salida.writeInt(deportista.getAltura());
+                        salida.writeBoolean(deportista.isTieneFoto());
+                    }
+                }
+                indices[DEPORTISTA] = escribirIndice(salida, posiciones);
+                consulta = "SELECT id_evento,nombre,id_olimpiada,id_deporte FROM Evento ORDER BY id_evento";
+                try (Stream<FilaEvento> flujo = Flujos.consultar(consulta, rs -> {
+                    FilaEvento fila = new FilaEvento();
+                    fila.id_evento = rs.getInt("id_evento");
+                    fila.nombre = rs.getString("nombre");
+                    fila.id_olimpiada = rs.getInt("id_olimpiada");
+                    fila.id_deporte = rs.getInt("id_deporte");
+                    return fila;
+                })) {
+                    for (FilaEvento fila : (Iterable<FilaEvento>) flujo::iterator) {
+                        posiciones.add(salida.size());
+                        salida.writeInt(fila.id_evento);
+                        escribirTexto(salida, fila.nombre);
+                        salida.writeInt(fila.id_olimpiada);
+                        salida.writeInt(fila.id_deporte);
+                    }
+                }
+                indices[EVENTO] = escribirIndice(salida, posiciones);
+                consulta = "SELECT id_deportista,id_evento,id_equipo,edad,medalla FROM Participacion ORDER BY id_deportista,id_evento";
+                try (Stream<FilaParticipacion> flujo = Flujos.consultar(consulta, rs -> {
+                    FilaParticipacion fila = new FilaParticipacion();
+                    fila.id_deportista = rs.getInt("id_deportista");
+                    fila.id_evento = rs.getInt("id_evento");
+                    fila.id_equipo = rs.getInt("id_equipo");
+                    fila.edad = rs.getInt("edad");
+                    fila.medalla = rs.getString("medalla");
+                    return fila;
+                })) {
+                    for (FilaParticipacion fila : (Iterable<FilaParticipacion>) flujo::iterator) {
+                        posiciones.add(salida.size());
+                        salida.writeInt(fila.id_deportista);
+                        salida.writeInt(fila.id_evento);
+                        salida.writeInt(fila.id_equipo);
+                        salida.writeInt(fila.edad);
+                        escribirTexto(salida, fila.medalla);
+                    }
+                }
+                indices[PARTICIPACION] = escribirIndice(salida, posiciones);
+                for (int indice : indices) {
+                    salida.writeInt(indice);
+                }
+                salida.writeInt(MARCA);
+                if (salida.size() == Integer.MAX_VALUE) {
+                    throw new IOException("La instantánea supera el tamaño máximo de 2 GB");
+                }
+            }
+            synchronized (Instantanea.class) {
+                if (abierta != null) {
+                    abierta.cerrar();
+                }
+                Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return true;
+        } catch (IOException | SQLException | IllegalStateException e) {
+            System.err.println(e.getMessage());
+            try {
+                Files.deleteIfExists(temporal);
+            } catch (IOException ex) {
+                System.err.println(ex.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Obtiene la fecha en la que se guardó la instantánea.
+     *
+     * @return milisegundos desde 1970
+     */
+    public long getFecha() {
+        return fecha;
+    }
+
+    /**
+     * Obtiene una página de deportistas ordenados por id, igual que {@link DaoDeportista#cargarPagina(int, int)}.
+     *
+     * @param ultimoId id del último deportista de la página anterior, 0 para la primera
+     * @param tamanio número máximo de deportistas
+     * @return los deportistas de la página, sin foto
+     */
+    public List<Deportista> paginaDeportistas(int ultimoId, int tamanio) {
+        List<Deportista> pagina = new ArrayList<>();
+        int fin = Math.min(registros[DEPORTISTA], siguiente(DEPORTISTA, ultimoId) + tamanio);
+        for (int i = siguiente(DEPORTISTA, ultimoId); i < fin; i++) {
+            pagina.add(deportista(i));
+        }
+        return pagina;
+    }
+
+    /**
+     * Obtiene una página de eventos ordenados por id, igual que {@link DaoEvento#cargarPagina(int, int)}.
+     *
+     * @param ultimoId id del último evento de la página anterior, 0 para la primera
+     * @param tamanio número máximo de eventos
+     * @return los eventos de la página
+     */
+    public List<Evento> paginaEventos(int ultimoId, int tamanio) {
+        List<Evento> pagina = new ArrayList<>();
+        int fin = Math.min(registros[EVENTO], siguiente(EVENTO, ultimoId) + tamanio);
+        for (int i = siguiente(EVENTO, ultimoId); i < fin; i++) {
+            pagina.add(evento(i));
+        }
+        return pagina;
+    }
+
+    /**
+     * Obtiene una página de participaciones ordenadas por deportista y evento,
+     * igual que {@link DaoParticipacion#cargarPagina(int, int, int)}.
+     *
+     * @param ultimoDeportista id del deportista de la última participación de la página anterior, 0 para la primera
+     * @param ultimoEvento id del evento de la última participación de la página anterior
+     * @param tamanio número máximo de participaciones
+     * @return las participaciones de la página
+     */
+    public List<Participacion> paginaParticipaciones(int ultimoDeportista, int ultimoEvento, int tamanio) {
+        // Búsqueda binaria de la primera participación posterior a (ultimoDeportista, ultimoEvento)
+        int inicio = 0;
+        int fin = registros[PARTICIPACION];
+        while (inicio < fin) {
+            int medio = (inicio + fin) >>> 1;
+            int posicion = posicion(PARTICIPACION, medio);
+            int deportista = datos.getInt(posicion);
+            int evento = datos.getInt(posicion + 4);
+            if (deportista < ultimoDeportista || (deportista == ultimoDeportista && evento <= ultimoEvento)) {
+                inicio = medio + 1;
+            } else {
+                fin = medio;
+            }
+        }
+        List<Participacion> pagina = new ArrayList<>();
+        Map<Integer, Deportista> leidos = new HashMap<>();
+        for (int i = inicio; i < Math.min(registros[PARTICIPACION], inicio + tamanio); i++) {
+            ByteBuffer registro = registro(PARTICIPACION, i);
+            int id_deportista = registro.getInt();
+            int id_evento = registro.getInt();
+            int id_equipo = registro.getInt();
+            int edad = registro.getInt();
+            String medalla = texto(registro);
+            Deportista deportista = leidos.computeIfAbsent(id_deportista, this::buscarDeportista);
+            pagina.add(new Participacion(deportista, buscarEvento(id_evento), equipos.get(id_equipo), edad, medalla));
+        }
+        return pagina;
+    }
+
+    /**
+     * Busca deportistas cuyo nombre contiene un texto, sin distinguir mayúsculas.
+     *
+     * @param texto texto a buscar
+     * @param limite número máximo de resultados
+     * @return los deportistas encontrados
+     */
+    public List<Deportista> buscarDeportistas(String texto, int limite) {
+        String buscado = texto.toLowerCase(Locale.ROOT);
+        List<Deportista> encontrados = new ArrayList<>();
+        for (int i = 0; i < registros[DEPORTISTA] && encontrados.size() < limite; i++) {
+            ByteBuffer registro = registro(DEPORTISTA, i);
+            registro.getInt();
+            String nombre = texto(registro);
+            if (nombre != null && nombre.toLowerCase(Locale.ROOT).contains(buscado)) {
+                encontrados.add(deportista(i));
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Busca eventos cuyo nombre contiene un texto, sin distinguir mayúsculas.
+     *
+     * @param texto texto a buscar
+     * @param limite número máximo de resultados
+     * @return los eventos encontrados
+     */
+    public List<Evento> buscarEventos(String texto, int limite) {
+        String buscado = texto.toLowerCase(Locale.ROOT);
+        List<Evento> encontrados = new ArrayList<>();
+        for (int i = 0; i < registros[EVENTO] && encontrados.size() < limite; i++) {
+            ByteBuffer registro = registro(EVENTO, i);
+            registro.getInt();
+            String nombre = texto(registro);
+            if (nombre != null && nombre.toLowerCase(Locale.ROOT).contains(buscado)) {
+                encontrados.add(evento(i));
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Decodifica el deportista de una posición de su sección.
+     *
+     * @param i número de registro
+     * @return el deportista
+     */
+    private Deportista deportista(int i) {
+        ByteBuffer registro = registro(DEPORTISTA, i);
+        int id = registro.getInt();
+        String nombre = texto(registro);
+        char sexo = (char) registro.get();
+        int peso = registro.getInt();
+        int altura = registro.getInt();
+        Deportista deportista = new Deportista(id, nombre, sexo, peso, altura, null);
+        deportista.setTieneFoto(registro.get() != 0);
+        return deportista;
+    }
+
+    /**
+     * Decodifica el evento de una posición de su sección.
+     *
+     * @param i número de registro
+     * @return el evento
+     */
+    private Evento evento(int i) {
+        ByteBuffer registro = registro(EVENTO, i);
+        int id = registro.getInt();
+        String nombre = texto(registro);
+        Olimpiada olimpiada = olimpiadas.get(registro.getInt());
+        Deporte deporte = deportes.get(registro.getInt());
+        return new Evento(id, nombre, olimpiada, deporte);
+    }
+
+    /**
+     * Busca un deportista por id.
+     *
+     * @param id id del deportista
+     * @return el deportista o null si no está en la instantánea
+     */
+    private Deportista buscarDeportista(int id) {
+        int i = siguiente(DEPORTISTA, id - 1);
+        return i < registros[DEPORTISTA] && datos.getInt(posicion(DEPORTISTA, i)) == id ? deportista(i) : null;
+    }
+
+    /**
+     * Busca un evento por id.
+     *
+     * @param id id del evento
+     * @return el evento o null si no está en la instantánea
+     */
+    private Evento buscarEvento(int id) {
+        int i = siguiente(EVENTO, id - 1);
+        return i < registros[EVENTO] && datos.getInt(posicion(EVENTO, i)) == id ? evento(i) : null;
+    }
+
+    /**
+     * Busca el primer registro de una sección cuyo id es mayor que el indicado.
+     *
+     * @param seccion sección ordenada por un id entero
+     * @param id id de referencia
+     * @return número del registro, o el número de registros si no hay ninguno mayor
+     */
+    private int siguiente(int seccion, int id) {
+        int inicio = 0;
+        int fin = registros[seccion];
+        while (inicio < fin) {
+            int medio = (inicio + fin) >>> 1;
+            if (datos.getInt(posicion(seccion, medio)) <= id) {
+                inicio = medio + 1;
+            } else {
+                fin = medio;
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * Obtiene la posición en el archivo de un registro.
+     *
+     * @param seccion sección
+     * @param i número de registro
+     * @return posición del registro
+     */
+    private int posicion(int seccion, int i) {
+        return datos.getInt(indices[seccion] + 4 + 4 * i);
+    }
+
+    /**
+     * Obtiene una vista del archivo situada al principio de un registro. Cada lectura usa su propia vista,
+     * por lo que la instantánea se puede leer desde varios hilos.
+     *
+     * @param seccion sección
+     * @param i número de registro
+     * @return vista del archivo
+     */
+    private ByteBuffer registro(int seccion, int i) {
+        return datos.duplicate().position(posicion(seccion, i));
+    }
+
+    /**
+     * Lee un texto de la posición actual de un registro.
+     *
+     * @param registro vista del archivo
+     * @return el texto o null
+     */
+    private static String texto(ByteBuffer registro) {
+        int longitud = Short.toUnsignedInt(registro.getShort());
+        if (longitud == NULO) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        registro.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Escribe un texto con su longitud.
+     *
+     * @param salida archivo
+     * @param texto texto, puede ser null
+     * @throws IOException si falla la escritura
+     */
+    private static void escribirTexto(DataOutputStream salida, String texto) throws IOException {
+        if (texto == null) {
+            salida.writeShort(NULO);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULO) {
+            throw new IOException("Texto demasiado largo para la instantánea");
+        }
+        salida.writeShort(bytes.length);
+        salida.write(bytes);
+    }
+
+    /**
+     * Escribe el índice de la sección que se acaba de escribir y vacía la lista de posiciones.
+     *
+     * @param salida archivo
+     * @param posiciones posición de cada registro de la sección
+     * @return posición del índice
+     * @throws IOException si falla la escritura
+     */
+    private static int escribirIndice(DataOutputStream salida, List<Integer> posiciones) throws IOException {
+        int indice = salida.size();
+        salida.writeInt(posiciones.size());
+        for (int posicion : posiciones) {
+            salida.writeInt(posicion);
+        }
+        posiciones.clear();
+        return indice;
+    }
+}
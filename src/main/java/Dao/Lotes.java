@@ -0,0 +1,225 @@
+package Dao;
+
+import BBDD.ConexionBBDD;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Clase con las operaciones comunes de escritura por lotes de los DAO.
+ * Todas las filas se envían en una única transacción, con addBatch/executeBatch salvo en los UPDATE y DELETE:
+ * si falla alguna fila se deshace el lote entero y todas las filas se devuelven como fallidas.
+ */
+class Lotes {
+
+    /**
+     * Función que asigna los parámetros de la fila indicada del lote.
+     */
+    @FunctionalInterface
+    interface Parametros {
+        /**
+         * Asigna los parámetros de una fila.
+         *
+         * @param pstmt sentencia a la que se asignan los parámetros
+         * @param fila índice de la fila en el lote
+         * @throws SQLException si ocurre un error al asignar un parámetro
+         */
+        void asignar(PreparedStatement pstmt, int fila) throws SQLException;
+    }
+
+    private Lotes() {}
+
+    /**
+     * Ejecuta un INSERT por lotes y devuelve las claves generadas.
+     *
+     * @param consulta sentencia INSERT
+     * @param filas número de filas del lote
+     * @param parametros función que asigna los parámetros de cada fila
+     * @return el id generado para cada fila, en el mismo orden, o -1 en todas si hubo un error
+     */
+    static int[] insertar(String consulta, int filas, Parametros parametros) {
+        int[] ids = sinIds(filas);
+        if (filas == 0) {
+            return ids;
+        }
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta, PreparedStatement.RETURN_GENERATED_KEYS)) {
+            Connection conn = connection.getConnection();
+            conn.setAutoCommit(false);
+            try {
+                for (int i = 0; i < filas; i++) {
+                    parametros.asignar(pstmt, i);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                    for (int i = 0; i < filas && rs.next(); i++) {
+                        ids[i] = rs.getInt(1);
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            Arrays.fill(ids, -1);
+        }
+        return ids;
+    }
+
+    /**
+     * Ejecuta un INSERT, UPDATE o DELETE por lotes.
+     * Los INSERT y REPLACE se envían con executeBatch: si una fila falla salta una excepción, así que cuando el driver
+     * no informa de las filas afectadas (SUCCESS_NO_INFO, con el protocolo bulk de MariaDB) la fila es correcta.
+     * En un UPDATE o DELETE eso no se puede saber, porque una fila que no encuentra el registro tampoco falla,
+     * por lo que se ejecutan fila a fila con executeUpdate dentro de la misma transacción.
+     *
+     * @param consulta sentencia a ejecutar
+     * @param filas número de filas del lote
+     * @param parametros función que asigna los parámetros de cada fila
+     * @return true para cada fila que ha afectado a algún registro, false en todas si hubo un error
+     */
+    static boolean[] ejecutar(String consulta, int filas, Parametros parametros) {
+        boolean[] resultado = new boolean[filas];
+        if (filas == 0) {
+            return resultado;
+        }
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            Connection conn = connection.getConnection();
+            conn.setAutoCommit(false);
+            try {
+                if (esInsercion(consulta)) {
+                    for (int i = 0; i < filas; i++) {
+                        parametros.asignar(pstmt, i);
+                        pstmt.addBatch();
+                    }
+                    int[] filasAfectadas = pstmt.executeBatch();
+                    for (int i = 0; i < filas && i < filasAfectadas.length; i++) {
+                        resultado[i] = filasAfectadas[i] > 0 || filasAfectadas[i] == Statement.SUCCESS_NO_INFO;
+                    }
+                } else {
+                    for (int i = 0; i < filas; i++) {
+                        parametros.asignar(pstmt, i);
+                        resultado[i] = pstmt.executeUpdate() > 0;
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            Arrays.fill(resultado, false);
+        }
+        return resultado;
+    }
+
+    /**
+     * Crea el resultado de un INSERT por lotes que ha fallado.
+     *
+     * @param filas número de filas del lote
+     * @return un array con -1 en cada fila
+     */
+    static int[] sinIds(int filas) {
+        int[] ids = new int[filas];
+        Arrays.fill(ids, -1);
+        return ids;
+    }
+
+    /**
+     * Indica si una sentencia es un INSERT o un REPLACE, que siempre afectan a la fila si no fallan.
+     *
+     * @param consulta sentencia SQL
+     * @return true si la sentencia inserta filas
+     */
+    private static boolean esInsercion(String consulta) {
+        String inicio = consulta.stripLeading();
+        return inicio.regionMatches(true, 0, "INSERT", 0, 6) || inicio.regionMatches(true, 0, "REPLACE", 0, 7);
+    }
+
+    /**
+     * Elimina varias entidades en una única transacción, comprobando antes en la misma transacción cuáles tienen
+     * filas que dependen de ellas. Esas se dejan sin eliminar y el resto se borra con un lote JDBC.
+     * Las referencias comprobadas se bloquean hasta el final de la transacción para que no aparezcan otras nuevas.
+     *
+     * @param consulta sentencia DELETE con el id como único parámetro
+     * @param entidades entidades a eliminar
+     * @param id función que obtiene el id de cada entidad
+     * @param tablaReferencia tabla con la clave ajena que impide eliminar, o null si no hay ninguna
+     * @param columnaReferencia columna de la clave ajena
+     * @param <T> tipo de la entidad
+     * @return las entidades eliminadas y las bloqueadas; si hubo un error no se elimina ninguna
+     */
+    static <T> ResultadoEliminacion<T> eliminar(String consulta, List<T> entidades, ToIntFunction<T> id,
+                                                String tablaReferencia, String columnaReferencia) {
+        List<T> eliminables = new ArrayList<>();
+        List<T> bloqueados = new ArrayList<>();
+        if (entidades.isEmpty()) {
+            return new ResultadoEliminacion<>(eliminables, bloqueados, true);
+        }
+        try (ConexionBBDD connection = new ConexionBBDD()) {
+            Connection conn = connection.getConnection();
+            conn.setAutoCommit(false);
+            try {
+                Set<Integer> usados = Set.of();
+                if (tablaReferencia != null) {
+                    List<Integer> ids = new ArrayList<>(entidades.size());
+                    for (T entidad : entidades) {
+                        ids.add(id.applyAsInt(entidad));
+                    }
+                    usados = Referencias.usados(connection, tablaReferencia, columnaReferencia, ids, true);
+                }
+                for (T entidad : entidades) {
+                    (usados.contains(id.applyAsInt(entidad)) ? bloqueados : eliminables).add(entidad);
+                }
+                if (!eliminables.isEmpty()) {
+                    try (PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+                        for (T entidad : eliminables) {
+                            pstmt.setInt(1, id.applyAsInt(entidad));
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            return new ResultadoEliminacion<>(new ArrayList<>(), bloqueados, false);
+        }
+        return new ResultadoEliminacion<>(eliminables, bloqueados, true);
+    }
+
+    /**
+     * Comprueba que las listas de datos actuales y nuevos de un modificarTodos tienen el mismo tamaño.
+     *
+     * @param actuales número de elementos con los datos actuales
+     * @param nuevos número de elementos con los datos nuevos
+     */
+    static void comprobarTamanio(int actuales, int nuevos) {
+        if (actuales != nuevos) {
+            throw new IllegalArgumentException("Las listas de datos actuales y nuevos tienen distinto tamaño");
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package Dao;
+
+import BBDD.Configuracion;
+import BBDD.UnidadDeTrabajo;
+import model.FilaMedallero;
+import model.Participacion;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Medallero en memoria que se mantiene al día de forma incremental.
+ * Cada agrupación se calcula una vez con {@link DaoMedallero}, que devuelve una fila por grupo, y a partir de ahí
+ * DaoParticipacion le comunica
+ * las participaciones insertadas, modificadas y eliminadas, de forma que el ranking se obtiene sin consultar
+ * la base de datos. Si se modifica una entidad de la que depende una agrupación (por ejemplo el nombre de un equipo
+ * o la olimpiada de un evento) la agrupación se invalida y se vuelve a calcular la siguiente vez que se pida.
+ * <p>
+ * Si llega un cambio mientras se está calculando una agrupación, el resultado de ese cálculo no se guarda,
+ * porque no se sabe si la consulta ya incluía el cambio.
+ * <p>
+ * Con la clave "medals.source=columns" de la configuración, si ya hay una copia por columnas de las participaciones
+ * al día ({@link ColumnasParticipacion#getVigente()}) las medallas se cuentan en ella en lugar de en la base de datos.
+ * El medallero nunca construye esa copia: si no la hay, se usa la consulta con GROUP BY.
+ */
+public class Medallero {
+    private static Medallero instance;
+
+    private final Map<AgrupacionMedallero, Map<Integer, Contador>> cargadas = new EnumMap<>(AgrupacionMedallero.class);
+    private final Map<AgrupacionMedallero, List<FilaMedallero>> rankings = new EnumMap<>(AgrupacionMedallero.class);
+    private final Set<AgrupacionMedallero> cargando = EnumSet.noneOf(AgrupacionMedallero.class);
+    private final Set<AgrupacionMedallero> sucias = EnumSet.noneOf(AgrupacionMedallero.class);
+    private final Calculo calculo;
+
+    /**
+     * Cálculo completo de una agrupación, que se hace la primera vez que se pide o tras invalidarla.
+     */
+    @FunctionalInterface
+    interface Calculo {
+        /**
+         * Calcula todas las filas de una agrupación.
+         *
+         * @param agrupacion por qué se agrupan las medallas
+         * @return las filas del medallero
+         * @throws SQLException si ocurre un error con la base de datos
+         */
+        List<FilaMedallero> calcular(AgrupacionMedallero agrupacion) throws SQLException;
+    }
+
+    /**
+     * Medallas de un grupo.
+     */
+    private static class Contador {
+        private final String nombre;
+        private final int[] medallas = new int[3];
+
+        private Contador(String nombre) {
+            this.nombre = nombre;
+        }
+
+        private boolean vacio() {
+            return medallas[0] == 0 && medallas[1] == 0 && medallas[2] == 0;
+        }
+    }
+
+    private Medallero() {
+        this(Medallero::calcular);
+    }
+
+    /**
+     * Constructor con el cálculo completo de las agrupaciones.
+     *
+     * @param calculo cálculo que se utiliza la primera vez que se pide cada agrupación
+     */
+    Medallero(Calculo calculo) {
+        this.calculo = calculo;
+    }
+
+    /**
+     * Crea y devuelve la instancia única del medallero.
+     *
+     * @return el medallero
+     */
+    public static synchronized Medallero getInstance() {
+        if (instance == null) {
+            instance = new Medallero();
+        }
+        return instance;
+    }
+
+    /**
+     * Obtiene el ranking de una agrupación. La primera vez se calcula en la base de datos;
+     * después se devuelve el que se mantiene en memoria.
+     *
+     * @param agrupacion por qué se agrupan las medallas
+     * @return filas ordenadas por oros, platas y bronces (lista no modificable), o null si no se pudo calcular
+     */
+    public List<FilaMedallero> getRanking(AgrupacionMedallero agrupacion) {
+        synchronized (this) {
+            List<FilaMedallero> ranking = rankings.get(agrupacion);
+            if (ranking != null) {
+                return ranking;
+            }
+            if (cargadas.containsKey(agrupacion)) {
+                return ordenar(agrupacion);
+            }
+            cargando.add(agrupacion);
+            sucias.remove(agrupacion);
+        }
+        List<FilaMedallero> filas;
+        try {
+            filas = calculo.calcular(agrupacion);
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            synchronized (this) {
+                cargando.remove(agrupacion);
+            }
+            return null;
+        }
+        synchronized (this) {
+            cargando.remove(agrupacion);
+            if (!sucias.remove(agrupacion)) {
+                Map<Integer, Contador> contadores = new HashMap<>();
+                for (FilaMedallero fila : filas) {
+                    Contador contador = new Contador(fila.getNombre());
+                    contador.medallas[0] = fila.getOro();
+                    contador.medallas[1] = fila.getPlata();
+                    contador.medallas[2] = fila.getBronce();
+                    contadores.put(fila.getId(), contador);
+                }
+                cargadas.put(agrupacion, contadores);
+                rankings.put(agrupacion, Collections.unmodifiableList(filas));
+            }
+        }
+        return Collections.unmodifiableList(filas);
+    }
+
+    /**
+     * Calcula una agrupación completa. Se cuenta en la copia por columnas si está activado y hay una al día;
+     * si no, en la base de datos con GROUP BY.
+     *
+     * @param agrupacion por qué se agrupan las medallas
+     * @return las filas del medallero ordenadas por oros, platas y bronces
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    private static List<FilaMedallero> calcular(AgrupacionMedallero agrupacion) throws SQLException {
+        ColumnasParticipacion columnas = desdeColumnas() ? ColumnasParticipacion.getVigente() : null;
+        if (columnas == null) {
+            return DaoMedallero.consultar(agrupacion, 0);
+        }
+        Map<Integer, int[]> medallas = columnas.contarMedallas(agrupacion);
+        Map<Integer, String> nombres = DaoMedallero.nombres(agrupacion, medallas.keySet());
+        List<FilaMedallero> filas = new ArrayList<>(medallas.size());
+        for (Map.Entry<Integer, int[]> entrada : medallas.entrySet()) {
+            int[] grupo = entrada.getValue();
+            filas.add(new FilaMedallero(entrada.getKey(), nombres.get(entrada.getKey()), grupo[0], grupo[1], grupo[2]));
+        }
+        filas.sort(FilaMedallero.ORDEN);
+        return filas;
+    }
+
+    /**
+     * Indica si la configuración permite contar las medallas en la copia por columnas.
+     *
+     * @return true si "medals.source" vale "columns"
+     */
+    private static boolean desdeColumnas() {
+        return "columns".equalsIgnoreCase(Configuracion.getActual().get("medals.source", "database"));
+    }
+
+    /**
+     * Suma al medallero la medalla de una participación insertada.
+     *
+     * @param participacion participación insertada
+     */
+    public synchronized void sumar(Participacion participacion) {
+        aplicar(participacion, 1);
+    }
+
+    /**
+     * Resta del medallero la medalla de una participación eliminada.
+     *
+     * @param participacion participación eliminada
+     */
+    public synchronized void restar(Participacion participacion) {
+        aplicar(participacion, -1);
+    }
+
+    /**
+     * Actualiza el medallero con una participación modificada: resta la medalla anterior y suma la nueva.
+     * También tiene en cuenta que cambie el deportista, el evento o el equipo.
+     *
+     * @param anterior participación con los datos anteriores
+     * @param nueva participación con los datos nuevos
+     */
+    public synchronized void cambiar(Participacion anterior, Participacion nueva) {
+        aplicar(anterior, -1);
+        aplicar(nueva, 1);
+    }
+
+    /**
+     * Descarta las agrupaciones indicadas, que se volverán a calcular en la base de datos la siguiente vez que se pidan.
+     * Si no se indica ninguna se descartan todas, por ejemplo tras una importación masiva.
+     *
+     * @param agrupaciones agrupaciones a descartar
+     */
+    public synchronized void invalidar(AgrupacionMedallero... agrupaciones) {
+        Set<AgrupacionMedallero> descartadas = agrupaciones.length == 0
+                ? EnumSet.allOf(AgrupacionMedallero.class) : EnumSet.of(agrupaciones[0], agrupaciones);
+        // La copia por columnas guarda la olimpiada y el deporte de cada evento; marcarla no la vuelve a leer
+        if (desdeColumnas() && (descartadas.contains(AgrupacionMedallero.OLIMPIADA) || descartadas.contains(AgrupacionMedallero.DEPORTE))) {
+            ColumnasParticipacion.invalidar();
+        }
+        for (AgrupacionMedallero agrupacion : descartadas) {
+            cargadas.remove(agrupacion);
+            rankings.remove(agrupacion);
+            if (cargando.contains(agrupacion)) {
+                sucias.add(agrupacion);
+            }
+        }
+    }
+
+    /**
+     * Suma o resta la medalla de una participación en todas las agrupaciones calculadas.
+     * Debe llamarse con el monitor del medallero tomado.
+     *
+     * @param participacion participación
+     * @param signo 1 para sumar, -1 para restar
+     */
+    private void aplicar(Participacion participacion, int signo) {
+        int medalla = indice(participacion.getMedalla());
+        if (medalla < 0) {
+            return;
+        }
+        // Si la escritura forma parte de una unidad de trabajo que luego se deshace, los contadores ya no son válidos
+        UnidadDeTrabajo.alDeshacer(() -> invalidar());
+        if (desdeColumnas()) {
+            // Para que un cálculo posterior no cuente en una copia que aún no incluye este cambio
+            ColumnasParticipacion.invalidar();
+        }
+        sucias.addAll(cargando);
+        // Copia de las claves porque invalidar las quita del mapa; copyOf no admite un conjunto vacío
+        Set<AgrupacionMedallero> calculadas = EnumSet.noneOf(AgrupacionMedallero.class);
+        calculadas.addAll(cargadas.keySet());
+        for (AgrupacionMedallero agrupacion : calculadas) {
+            int id = agrupacion.id(participacion);
+            if (id < 0) {
+                // Sin las entidades no se sabe a qué grupo pertenece, se recalculará desde la base de datos
+                invalidar(agrupacion);
+                continue;
+            }
+            Map<Integer, Contador> contadores = cargadas.get(agrupacion);
+            Contador contador = contadores.get(id);
+            if (contador == null) {
+                contador = new Contador(agrupacion.nombre(participacion));
+                contadores.put(id, contador);
+            }
+            contador.medallas[medalla] += signo;
+            if (contador.vacio()) {
+                contadores.remove(id);
+            }
+            rankings.remove(agrupacion);
+        }
+    }
+
+    /**
+     * Construye y guarda el ranking ordenado de una agrupación a partir de sus contadores.
+     * Debe llamarse con el monitor del medallero tomado.
+     *
+     * @param agrupacion agrupación calculada
+     * @return el ranking ordenado
+     */
+    private List<FilaMedallero> ordenar(AgrupacionMedallero agrupacion) {
+        List<FilaMedallero> filas = new ArrayList<>();
+        for (Map.Entry<Integer, Contador> entrada : cargadas.get(agrupacion).entrySet()) {
+            int[] medallas = entrada.getValue().medallas;
+            filas.add(new FilaMedallero(entrada.getKey(), entrada.getValue().nombre, medallas[0], medallas[1], medallas[2]));
+        }
+        filas.sort(FilaMedallero.ORDEN);
+        List<FilaMedallero> ranking = Collections.unmodifiableList(filas);
+        rankings.put(agrupacion, ranking);
+        return ranking;
+    }
+
+    /**
+     * Obtiene la posición de una medalla en los contadores.
+     *
+     * @param medalla valor de la columna medalla
+     * @return 0 para oro, 1 para plata, 2 para bronce y -1 si no es una medalla
+     */
+    private static int indice(String medalla) {
+        if (DaoMedallero.ORO.equalsIgnoreCase(medalla)) {
+            return 0;
+        } else if (DaoMedallero.PLATA.equalsIgnoreCase(medalla)) {
+            return 1;
+        } else if (DaoMedallero.BRONCE.equalsIgnoreCase(medalla)) {
+            return 2;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,149 @@
+package Dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modos de búsqueda por nombre que se resuelven en la base de datos.
+ * Cada modo genera la condición SQL y el valor del parámetro que le corresponde.
+ */
+public enum ModoBusqueda {
+    /**
+     * El nombre empieza por el texto. Utiliza el índice normal sobre el nombre.
+     */
+    PREFIJO,
+    /**
+     * El nombre contiene el texto. No puede buscar en el índice, pero lo recorre en lugar de la tabla
+     * y se detiene al llegar al límite.
+     */
+    SUBCADENA,
+    /**
+     * El nombre contiene palabras que empiezan por cada palabra del texto. Utiliza el índice FULLTEXT.
+     */
+    TEXTO_COMPLETO;
+
+    /**
+     * Longitud mínima de las palabras que guarda un índice FULLTEXT de InnoDB (innodb_ft_min_token_size).
+     */
+    private static final int LONGITUD_MINIMA = 3;
+
+    /**
+     * Obtiene un modo a partir de su nombre en la configuración (prefix, substring o fulltext).
+     *
+     * @param nombre nombre del modo
+     * @param porDefecto modo que se devuelve si el nombre no es válido
+     * @return el modo de búsqueda
+     */
+    public static ModoBusqueda desde(String nombre, ModoBusqueda porDefecto) {
+        if (nombre == null) {
+            return porDefecto;
+        }
+        switch (nombre.trim().toLowerCase()) {
+            case "prefix":
+                return PREFIJO;
+            case "substring":
+                return SUBCADENA;
+            case "fulltext":
+                return TEXTO_COMPLETO;
+            default:
+                return porDefecto;
+        }
+    }
+
+    /**
+     * Obtiene el modo que se puede usar realmente con un texto. Las palabras cortas no están en el índice FULLTEXT,
+     * así que si el texto no tiene ninguna palabra indexable se busca por prefijo.
+     *
+     * @param texto texto buscado
+     * @return el modo a utilizar
+     */
+    ModoBusqueda para(String texto) {
+        if (this == TEXTO_COMPLETO && palabras(texto).isEmpty()) {
+            return PREFIJO;
+        }
+        return this;
+    }
+
+    /**
+     * Genera la consulta de búsqueda por la columna nombre, ordenada por nombre, con dos parámetros:
+     * el de {@link #parametro(String)} y el límite de filas.
+     * Por subcadena, los ids se buscan recorriendo solo el índice normal del nombre, que ya tiene la clave primaria,
+     * en orden de nombre y hasta el límite; después se leen las filas de esos ids. Así no se lee la tabla entera
+     * (en Deportista, con las fotos) ni se ordena el resultado.
+     *
+     * @param columnas columnas seleccionadas, sin prefijo de tabla
+     * @param tabla tabla en la que se busca
+     * @param id clave primaria de la tabla
+     * @param indice índice normal sobre el nombre
+     * @return la consulta SQL
+     */
+    String consulta(String columnas, String tabla, String id, String indice) {
+        if (this == SUBCADENA) {
+            return "SELECT " + columnas + " FROM (SELECT " + id + " FROM " + tabla + " FORCE INDEX (" + indice + ")"
+                    + " WHERE " + condicion("nombre") + " ORDER BY nombre LIMIT ?) encontrados"
+                    + " JOIN " + tabla + " USING (" + id + ") ORDER BY nombre";
+        }
+        return "SELECT " + columnas + " FROM " + tabla + " WHERE " + condicion("nombre") + " ORDER BY nombre LIMIT ?";
+    }
+
+    /**
+     * Genera la condición SQL sobre una columna, con un único parámetro.
+     *
+     * @param columna columna de la tabla
+     * @return condición para la cláusula WHERE
+     */
+    String condicion(String columna) {
+        if (this == TEXTO_COMPLETO) {
+            return "MATCH(" + columna + ") AGAINST (? IN BOOLEAN MODE)";
+        }
+        return columna + " LIKE ?";
+    }
+
+    /**
+     * Genera el valor del parámetro de la condición para un texto.
+     *
+     * @param texto texto buscado
+     * @return el valor del parámetro
+     */
+    String parametro(String texto) {
+        switch (this) {
+            case PREFIJO:
+                return escaparLike(texto) + "%";
+            case SUBCADENA:
+                return "%" + escaparLike(texto) + "%";
+            default:
+                // Todas las palabras son obligatorias y pueden ser el principio de una palabra del nombre
+                StringBuilder consulta = new StringBuilder();
+                for (String palabra : palabras(texto)) {
+                    consulta.append('+').append(palabra).append("* ");
+                }
+                return consulta.toString().trim();
+        }
+    }
+
+    /**
+     * Escapa los comodines de LIKE para que el texto se busque literalmente.
+     *
+     * @param texto texto buscado
+     * @return texto con los caracteres \, % y _ escapados
+     */
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Obtiene las palabras indexables de un texto, sin los operadores de la búsqueda booleana.
+     *
+     * @param texto texto buscado
+     * @return palabras con al menos la longitud mínima del índice
+     */
+    private static List<String> palabras(String texto) {
+        List<String> palabras = new ArrayList<>();
+        for (String palabra : texto.replaceAll("[+\\-<>()~*\"@]", " ").trim().split("\\s+")) {
+            if (palabra.length() >= LONGITUD_MINIMA) {
+                palabras.add(palabra);
+            }
+        }
+        return palabras;
+    }
+}
@@ -0,0 +1,107 @@
+package Dao;
+
+import BBDD.ConexionBBDD;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Clase con las comprobaciones comunes de si una entidad está referenciada desde otra tabla,
+ * utilizadas por los esEliminable de los DAO.
+ * Las comprobaciones usan EXISTS o DISTINCT sobre la columna de la clave ajena, de forma que el servidor
+ * se detiene en la primera fila que encuentra en el índice en lugar de contarlas todas.
+ */
+class Referencias {
+    /**
+     * Número máximo de ids por consulta.
+     */
+    private static final int MAXIMO_IDS = 1000;
+
+    private Referencias() {}
+
+    /**
+     * Comprueba si algún registro de una tabla hace referencia a un id.
+     *
+     * @param tabla tabla que contiene la clave ajena
+     * @param columna columna de la clave ajena
+     * @param id id referenciado
+     * @return true si existe alguna referencia
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    static boolean existe(String tabla, String columna, int id) throws SQLException {
+        String consulta = "SELECT EXISTS (SELECT 1 FROM " + tabla + " WHERE " + columna + " = ?) AS usado";
+        try (ConexionBBDD connection = new ConexionBBDD();
+             PreparedStatement pstmt = connection.prepararSentencia(consulta)) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getBoolean("usado");
+            }
+        }
+    }
+
+    /**
+     * Obtiene cuáles de los ids indicados están referenciados desde una tabla, con una consulta por cada bloque de ids.
+     * El número de parámetros se redondea a la siguiente potencia de dos repitiendo el último id,
+     * para que haya pocos textos SQL distintos y se reutilicen las sentencias preparadas.
+     *
+     * @param tabla tabla que contiene la clave ajena
+     * @param columna columna de la clave ajena
+     * @param ids ids a comprobar
+     * @return los ids que tienen alguna referencia
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    static Set<Integer> usados(String tabla, String columna, Collection<Integer> ids) throws SQLException {
+        try (ConexionBBDD connection = new ConexionBBDD()) {
+            return usados(connection, tabla, columna, ids, false);
+        }
+    }
+
+    /**
+     * Obtiene cuáles de los ids indicados están referenciados desde una tabla utilizando una conexión ya prestada,
+     * para poder comprobar y eliminar dentro de la misma transacción.
+     *
+     * @param connection conexión en la que se ejecuta la consulta
+     * @param tabla tabla que contiene la clave ajena
+     * @param columna columna de la clave ajena
+     * @param ids ids a comprobar
+     * @param bloquear true para bloquear las filas leídas (LOCK IN SHARE MODE) hasta el final de la transacción,
+     *                 de forma que no se puedan añadir referencias nuevas entre la comprobación y el borrado
+     * @return los ids que tienen alguna referencia
+     * @throws SQLException si ocurre un error con la base de datos
+     */
+    static Set<Integer> usados(ConexionBBDD connection, String tabla, String columna, Collection<Integer> ids, boolean bloquear) throws SQLException {
+        Set<Integer> usados = new HashSet<>();
+        List<Integer> distintos = new ArrayList<>(new LinkedHashSet<>(ids));
+        for (int inicio = 0; inicio < distintos.size(); inicio += MAXIMO_IDS) {
+            List<Integer> bloque = distintos.subList(inicio, Math.min(distintos.size(), inicio + MAXIMO_IDS));
+            int parametros = bloque.size() == 1 ? 1 : Math.min(MAXIMO_IDS, Integer.highestOneBit(bloque.size() - 1) << 1);
+            StringBuilder consulta = new StringBuilder("SELECT DISTINCT ").append(columna).append(" FROM ")
+                    .append(tabla).append(" WHERE ").append(columna).append(" IN (?");
+            for (int i = 1; i < parametros; i++) {
+                consulta.append(",?");
+            }
+            consulta.append(')');
+            if (bloquear) {
+                consulta.append(" LOCK IN SHARE MODE");
+            }
+            try (PreparedStatement pstmt = connection.prepararSentencia(consulta.toString())) {
+                for (int i = 0; i < parametros; i++) {
+                    pstmt.setInt(i + 1, bloque.get(Math.min(i, bloque.size() - 1)));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        usados.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+        return usados;
+    }
+}
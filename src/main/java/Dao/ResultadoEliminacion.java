@@ -0,0 +1,56 @@
+package Dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de eliminar varias entidades a la vez: las que se han eliminado y las que no se han podido eliminar
+ * porque otras filas dependen de ellas.
+ *
+ * @param <T> tipo de la entidad eliminada
+ */
+public class ResultadoEliminacion<T> {
+    private final List<T> eliminados;
+    private final List<T> bloqueados;
+    private final boolean correcto;
+
+    /**
+     * Constructor del resultado.
+     *
+     * @param eliminados entidades eliminadas
+     * @param bloqueados entidades que no se han eliminado por tener filas que dependen de ellas
+     * @param correcto false si ocurrió un error y se deshizo toda la eliminación
+     */
+    ResultadoEliminacion(List<T> eliminados, List<T> bloqueados, boolean correcto) {
+        this.eliminados = Collections.unmodifiableList(eliminados);
+        this.bloqueados = Collections.unmodifiableList(bloqueados);
+        this.correcto = correcto;
+    }
+
+    /**
+     * Obtiene las entidades eliminadas.
+     *
+     * @return las entidades eliminadas, vacío si hubo un error
+     */
+    public List<T> getEliminados() {
+        return eliminados;
+    }
+
+    /**
+     * Obtiene las entidades que no se han eliminado porque otras filas dependen de ellas.
+     *
+     * @return las entidades bloqueadas
+     */
+    public List<T> getBloqueados() {
+        return bloqueados;
+    }
+
+    /**
+     * Indica si la eliminación terminó sin errores. Si hubo un error no se ha eliminado nada.
+     *
+     * @return true si no hubo errores
+     */
+    public boolean isCorrecto() {
+        return correcto;
+    }
+}
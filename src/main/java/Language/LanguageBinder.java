@@ -0,0 +1,140 @@
+package Language;
+
+import javafx.beans.property.StringProperty;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.ComboBoxBase;
+import javafx.scene.control.Control;
+import javafx.scene.control.Labeled;
+import javafx.scene.control.Menu;
+import javafx.scene.control.MenuBar;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.TextInputControl;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+
+/**
+ * Clase que enlaza con {@link LanguageManager#texto(String)} los textos que un FXML toma del idioma con "%clave",
+ * para que cambien al cambiar el idioma sin volver a cargar la vista.
+ * <p>
+ * El FXML se carga con el recurso que devuelve {@link #getBundle()}: cada texto que entrega es una instancia nueva
+ * de String cuya clave se recuerda. El FXMLLoader asigna esa misma instancia a las propiedades, así que después
+ * {@link #vincular(Parent)} recorre la vista y reconoce por identidad qué clave tiene cada texto, aunque dos claves
+ * tengan el mismo valor.
+ */
+public class LanguageBinder {
+    private final Map<String, String> claves = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final ResourceBundle bundle;
+
+    /**
+     * Constructor que envuelve el recurso de idioma actual.
+     */
+    public LanguageBinder() {
+        ResourceBundle actual = LanguageManager.getInstance().getBundle();
+        bundle = new ResourceBundle() {
+            @Override
+            protected Object handleGetObject(String key) {
+                // Se crea una instancia nueva para poder reconocerla después por identidad
+                String texto = new String(actual.getString(key));
+                claves.put(texto, key);
+                return texto;
+            }
+
+            @Override
+            protected Set<String> handleKeySet() {
+                return actual.keySet();
+            }
+
+            @Override
+            public Enumeration<String> getKeys() {
+                return actual.getKeys();
+            }
+
+            @Override
+            public Locale getLocale() {
+                return actual.getLocale();
+            }
+        };
+    }
+
+    /**
+     * Obtiene el recurso de idioma con el que se debe cargar el FXML.
+     *
+     * @return el recurso que recuerda la clave de cada texto entregado
+     */
+    public ResourceBundle getBundle() {
+        return bundle;
+    }
+
+    /**
+     * Enlaza con el idioma actual los textos de una vista cargada con {@link #getBundle()}: textos de etiquetas
+     * y botones, menús, tooltips y textos de ayuda de los campos.
+     *
+     * @param raiz raíz de la vista
+     */
+    public void vincular(Parent raiz) {
+        vincularNodo(raiz);
+    }
+
+    /**
+     * Enlaza los textos de un nodo y de sus hijos.
+     *
+     * @param nodo nodo de la vista
+     */
+    private void vincularNodo(Node nodo) {
+        if (nodo instanceof Labeled labeled) {
+            vincularTexto(labeled.textProperty());
+        }
+        if (nodo instanceof Control control && control.getTooltip() != null) {
+            vincularTexto(control.getTooltip().textProperty());
+        }
+        if (nodo instanceof TextInputControl campo) {
+            vincularTexto(campo.promptTextProperty());
+        }
+        if (nodo instanceof ComboBoxBase<?> combo) {
+            vincularTexto(combo.promptTextProperty());
+        }
+        if (nodo instanceof MenuBar barra) {
+            for (Menu menu : barra.getMenus()) {
+                vincularMenu(menu);
+            }
+        }
+        if (nodo instanceof Parent padre) {
+            for (Node hijo : padre.getChildrenUnmodifiable()) {
+                vincularNodo(hijo);
+            }
+        }
+    }
+
+    /**
+     * Enlaza el texto de una opción de menú y, si es un menú, el de sus opciones.
+     *
+     * @param item opción de menú
+     */
+    private void vincularMenu(MenuItem item) {
+        vincularTexto(item.textProperty());
+        if (item instanceof Menu menu) {
+            for (MenuItem hijo : menu.getItems()) {
+                vincularMenu(hijo);
+            }
+        }
+    }
+
+    /**
+     * Enlaza una propiedad de texto si su valor es uno de los entregados por el recurso.
+     *
+     * @param propiedad propiedad de texto
+     */
+    private void vincularTexto(StringProperty propiedad) {
+        String clave = claves.get(propiedad.get());
+        if (clave != null && !propiedad.isBound()) {
+            propiedad.bind(LanguageManager.getInstance().texto(clave));
+        }
+    }
+}
@@ -1,24 +1,26 @@
 package Language;
 
-import BBDD.ConexionBBDD;
+import BBDD.Configuracion;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Properties;
 import java.util.ResourceBundle;
 
 /**
  * Clase que se encarga de manejar los idiomas en la aplicación. Proporciona métodos para
  * cargar el archivo de propiedades de idioma y establecer el idioma actual.
+ * <p>
+ * El recurso de idioma es observable: los textos de la interfaz se enlazan con {@link #texto(String)}
+ * y cambian solos al llamar a {@link #setLocale(Locale)}, sin volver a cargar las ventanas.
+ * Debe cambiarse desde el hilo de JavaFX.
  */
 public class LanguageManager {
     private static LanguageManager instance;
     private Locale locale = new Locale.Builder().setLanguage(LanguageManager.getLanguage()).build();
-    private ResourceBundle bundle;
+    private final ReadOnlyObjectWrapper<ResourceBundle> bundle = new ReadOnlyObjectWrapper<>();
 
     /**
      * Constructor privado de la clase que carga el recurso de idioma (bundle).
@@ -30,28 +32,13 @@ public class LanguageManager {
 
     /**
      * Obtiene el idioma configurado en el archivo de propiedades "lang.properties".
+     * El archivo se lee una sola vez y se vuelve a leer cuando cambia (ver {@link Configuracion}).
      *
      * @return el código de idioma configurado, obtenido del archivo de propiedades.
-     * @throws RuntimeException si el archivo de propiedades no se encuentra.
+     * @throws RuntimeException si el archivo de configuración no se encuentra.
      */
     public static String getLanguage() {
-        HashMap<String, String> map = new HashMap<>();
-        File f = new File("lang.properties");
-        Properties properties;
-        try {
-            FileInputStream configFileReader = new FileInputStream(f);
-            properties = new Properties();
-            try {
-                properties.load(configFileReader);
-                configFileReader.close();
-            } catch (IOException e) {
-                System.out.println(e.getMessage());
-            }
-        } catch (FileNotFoundException e) {
-            System.out.println(e.getMessage());
-            throw new RuntimeException("lang.properties not found at config file path " + f.getPath());
-        }
-        return properties.getProperty("language");
+        return Configuracion.getActual().getIdioma();
     }
 
     /**
@@ -70,7 +57,7 @@ public class LanguageManager {
      * Carga el recurso de idioma (bundle) en función del idioma configurado en locale.
      */
     private void loadResourceBundle() {
-        bundle = ResourceBundle.getBundle("languages/lang", locale);
+        bundle.set(ResourceBundle.getBundle("languages/lang", locale));
     }
 
     /**
@@ -79,6 +66,9 @@ public class LanguageManager {
      * @param locale el nuevo objeto Locale a establecer
      */
     public void setLocale(Locale locale) {
+        if (locale.equals(this.locale)) {
+            return;
+        }
         this.locale = locale;
         loadResourceBundle();
     }
@@ -89,7 +79,27 @@ public class LanguageManager {
      * @return el ResourceBundle que contiene los textos en el idioma configurado
      */
     public ResourceBundle getBundle() {
-        return bundle;
+        return bundle.get();
+    }
+
+    /**
+     * Obtiene la propiedad con el recurso de idioma actual, para saber cuándo cambia el idioma.
+     *
+     * @return la propiedad de solo lectura
+     */
+    public ReadOnlyObjectProperty<ResourceBundle> bundleProperty() {
+        return bundle.getReadOnlyProperty();
+    }
+
+    /**
+     * Obtiene un texto traducido que se actualiza al cambiar el idioma.
+     * Se utiliza enlazando una propiedad, por ejemplo {@code columna.textProperty().bind(texto("table.event.name"))}.
+     *
+     * @param clave clave del texto en los archivos de idioma
+     * @return el texto en el idioma actual
+     */
+    public StringBinding texto(String clave) {
+        return Bindings.createStringBinding(() -> bundle.get().getString(clave), bundle);
     }
 
     /**
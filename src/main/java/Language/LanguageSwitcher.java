@@ -1,14 +1,12 @@
 package Language;
 
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.stage.Stage;
 import java.util.Locale;
-import java.util.ResourceBundle;
 
 /**
- * Clase dedicada al cambio de idioma de la aplicación. Esta clase se encarga de
- * recargar la interfaz de usuario en el idioma seleccionado por el usuario.
+ * Clase dedicada al cambio de idioma de la aplicación. Los textos de la interfaz están enlazados al idioma
+ * de {@link LanguageManager}, así que basta con cambiarlo: la ventana no se vuelve a cargar
+ * y la tabla conserva sus datos.
  */
 public class LanguageSwitcher {
     private Stage stage;
@@ -23,25 +21,16 @@ public class LanguageSwitcher {
     }
 
     /**
-     * Cambia el idioma de la aplicación al actualizar el Locale en LanguageManager y recargar
-     * la interfaz en el idioma seleccionado.
+     * Cambia el idioma de la aplicación al actualizar el Locale en LanguageManager.
+     * Debe llamarse desde el hilo de JavaFX.
      *
      * @param locale el nuevo objeto Locale que especifica el idioma deseado
      */
     public void switchLanguage(Locale locale) {
-        // Actualiza el Locale en el LanguageManager
         LanguageManager.getInstance().setLocale(locale);
-        // Obtiene el ResourceBundle actualizado
-        ResourceBundle bundle = LanguageManager.getInstance().getBundle();
-        try {
-            // Recarga el archivo FXML con el nuevo ResourceBundle
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/Inicio.fxml"), bundle);
-            Parent root = loader.load();
-            stage.setTitle(bundle.getString("app.name"));
-            // Actualiza la escena con la nueva raíz (nuevo idioma)
-            stage.getScene().setRoot(root);
-        } catch (Exception e) {
-            e.printStackTrace();
+        // El título de la ventana principal está enlazado; el de otras ventanas se actualiza aquí
+        if (!stage.titleProperty().isBound()) {
+            stage.setTitle(LanguageManager.getInstance().getBundle().getString("app.name"));
         }
     }
 }
@@ -1,5 +1,6 @@
 package controlador;
 
+import Dao.DaoAsync;
 import Dao.DaoDeporte;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -8,6 +9,7 @@ import javafx.fxml.Initializable;
 import model.Deporte;
 import javafx.beans.value.ObservableValue;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.net.URL;
 import java.util.ResourceBundle;
 import javafx.scene.control.*;
@@ -20,12 +22,17 @@ import javafx.stage.Stage;
 public class DeportesController implements Initializable {
     private Deporte deporte;
     private Deporte crear;
+    private CompletableFuture<Void> carga;
 
+    @FXML
+    private Button btt_Guardar;
     @FXML
     private Button btt_Eliminar;
     @FXML
     private Label lbl_Delete;
     @FXML
+    private Label lbl_Deporte;
+    @FXML
     private ComboBox<Deporte> cb_Deporte;
     @FXML
     private TextField txt_Nombre;
@@ -57,9 +64,15 @@ public class DeportesController implements Initializable {
     public void cargarDeportes() {
         cb_Deporte.getItems().clear();
         cb_Deporte.getItems().add(crear);
-        ObservableList<Deporte> deportes = DaoDeporte.cargarListado();
-        cb_Deporte.getItems().addAll(deportes);
         cb_Deporte.getSelectionModel().select(0);
+        DaoAsync.cancelar(carga);
+        ProgressIndicator indicador = new ProgressIndicator();
+        indicador.setPrefSize(16, 16);
+        lbl_Deporte.setGraphic(indicador);
+        carga = DaoAsync.ejecutar(DaoDeporte::cargarListado, deportes -> {
+            lbl_Deporte.setGraphic(null);
+            cb_Deporte.getItems().addAll(deportes);
+        });
     }
 
     /**
@@ -80,11 +93,18 @@ public class DeportesController implements Initializable {
             } else {
                 deporte = newValue;
                 txt_Nombre.setText(deporte.getNombre());
-                if (DaoDeporte.esEliminable(deporte)) {
-                    btt_Eliminar.setDisable(false);
-                } else {
-                    lbl_Delete.setVisible(true);
-                }
+                Deporte seleccionado = deporte;
+                DaoAsync.ejecutar(() -> DaoDeporte.esEliminable(seleccionado), eliminable -> {
+                    // La selección puede haber cambiado mientras se comprobaba
+                    if (seleccionado != deporte) {
+                        return;
+                    }
+                    if (eliminable) {
+                        btt_Eliminar.setDisable(false);
+                    } else {
+                        lbl_Delete.setVisible(true);
+                    }
+                });
             }
         }
     }
@@ -114,12 +134,15 @@ public class DeportesController implements Initializable {
         alert.setContentText(resources.getString("delete.sports.prompt"));
         Optional<ButtonType> result = alert.showAndWait();
         if (result.get() == ButtonType.OK) {
-            if (DaoDeporte.eliminar(deporte)) {
-                confirmacion(resources.getString("delete.sports.success"));
-                cargarDeportes();
-            } else {
-                alerta(resources.getString("delete.sports.fail"));
-            }
+            Deporte eliminado = deporte;
+            DaoAsync.ejecutar(() -> DaoDeporte.eliminar(eliminado), exito -> {
+                if (exito) {
+                    confirmacion(resources.getString("delete.sports.success"));
+                    cargarDeportes();
+                } else {
+                    alerta(resources.getString("delete.sports.fail"));
+                }
+            });
         }
     }
 
@@ -137,20 +160,28 @@ public class DeportesController implements Initializable {
             Deporte nuevo = new Deporte();
             nuevo.setNombre(txt_Nombre.getText());
             if (this.deporte == null) {
-                int id = DaoDeporte.insertar(nuevo);
-                if (id == -1) {
-                    alerta(resources.getString("save.fail"));
-                } else {
-                    confirmacion(resources.getString("save.sports"));
-                    cargarDeportes();
-                }
+                btt_Guardar.setDisable(true);
+                DaoAsync.ejecutar(() -> DaoDeporte.insertar(nuevo), id -> {
+                    btt_Guardar.setDisable(false);
+                    if (id == -1) {
+                        alerta(resources.getString("save.fail"));
+                    } else {
+                        confirmacion(resources.getString("save.sports"));
+                        cargarDeportes();
+                    }
+                });
             } else {
-                if (DaoDeporte.modificar(this.deporte, nuevo)) {
-                    confirmacion(resources.getString("update.sports"));
-                    cargarDeportes();
-                } else {
-                    alerta(resources.getString("save.fail"));
-                }
+                Deporte anterior = this.deporte;
+                btt_Guardar.setDisable(true);
+                DaoAsync.ejecutar(() -> DaoDeporte.modificar(anterior, nuevo), exito -> {
+                    btt_Guardar.setDisable(false);
+                    if (exito) {
+                        confirmacion(resources.getString("update.sports"));
+                        cargarDeportes();
+                    } else {
+                        alerta(resources.getString("save.fail"));
+                    }
+                });
             }
         }
     }
@@ -1,5 +1,6 @@
 package controlador;
 
+import Dao.DaoAsync;
 import Dao.DaoDeportista;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -24,6 +25,7 @@ import java.util.ResourceBundle;
 public class DeportistaController implements Initializable {
     private Deportista deportista;
     private Blob imagen;
+    private boolean fotoCambiada = false;
 
     @FXML
     private ImageView foto;
@@ -41,6 +43,8 @@ public class DeportistaController implements Initializable {
     private TextField txt_Peso;
     @FXML
     private Button btt_FotoBorrar;
+    @FXML
+    private Button btt_Guardar;
 
     @FXML
     private ResourceBundle resources;
@@ -67,16 +71,43 @@ public class DeportistaController implements Initializable {
             }
             txt_Peso.setText(deportista.getPeso() + "");
             txt_Altura.setText(deportista.getAltura() + "");
-            if (deportista.getFoto() != null) {
-                this.imagen = deportista.getFoto();
-                try {
-                    InputStream imagen = deportista.getFoto().getBinaryStream();
-                    foto.setImage(new Image(imagen));
-                } catch (SQLException e) {
-                    throw new RuntimeException(e);
-                }
-                btt_FotoBorrar.setDisable(false);
+            // Los listados no traen la foto, se carga en segundo plano solo al editar y no se puede guardar hasta tenerla
+            if (deportista.getFoto() == null && deportista.isTieneFoto()) {
+                Deportista editado = deportista;
+                btt_Guardar.setDisable(true);
+                ProgressIndicator indicador = new ProgressIndicator();
+                indicador.setPrefSize(16, 16);
+                btt_Guardar.setGraphic(indicador);
+                DaoAsync.ejecutar(() -> DaoDeportista.getFoto(editado.getId_deportista()), blob -> {
+                    editado.setFoto(blob);
+                    // Si el usuario ya ha elegido o borrado la foto no se sustituye
+                    if (!fotoCambiada) {
+                        mostrarFoto(blob);
+                    }
+                    btt_Guardar.setGraphic(null);
+                    btt_Guardar.setDisable(false);
+                });
+            } else {
+                mostrarFoto(deportista.getFoto());
+            }
+        }
+    }
+
+    /**
+     * Muestra la foto del deportista y la guarda como imagen actual.
+     *
+     * @param blob la foto del deportista, si es null no se hace nada
+     */
+    private void mostrarFoto(Blob blob) {
+        if (blob != null) {
+            this.imagen = blob;
+            try {
+                InputStream imagen = blob.getBinaryStream();
+                foto.setImage(new Image(imagen));
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
             }
+            btt_FotoBorrar.setDisable(false);
         }
     }
 
@@ -91,7 +122,8 @@ public class DeportistaController implements Initializable {
     @FXML
     void borrarFoto(ActionEvent event) {
         imagen = null;
-        foto.setImage(new Image(getClass().getResourceAsStream("/Imagenes/persona.jpg")));
+        fotoCambiada = true;
+        foto.setImage(RecursosVentanas.getInstance().getImagen("/Imagenes/persona.jpg"));
         btt_FotoBorrar.setDisable(true);
     }
 
@@ -129,22 +161,30 @@ public class DeportistaController implements Initializable {
             nuevo.setAltura(Integer.parseInt(txt_Altura.getText()));
             nuevo.setFoto(this.imagen);
             if (this.deportista == null) {
-                int id = DaoDeportista.insertar(nuevo);
-                if (id == -1) {
-                    alerta(resources.getString("save.fail"));
-                } else {
-                    confirmacion(resources.getString("save.athlete"));
-                    Stage stage = (Stage) txt_Nombre.getScene().getWindow();
-                    stage.close();
-                }
+                btt_Guardar.setDisable(true);
+                DaoAsync.ejecutar(() -> DaoDeportista.insertar(nuevo), id -> {
+                    btt_Guardar.setDisable(false);
+                    if (id == -1) {
+                        alerta(resources.getString("save.fail"));
+                    } else {
+                        confirmacion(resources.getString("save.athlete"));
+                        Stage stage = (Stage) txt_Nombre.getScene().getWindow();
+                        stage.close();
+                    }
+                });
             } else {
-                if (DaoDeportista.modificar(this.deportista, nuevo)) {
-                    confirmacion(resources.getString("update.athlete"));
-                    Stage stage = (Stage) txt_Nombre.getScene().getWindow();
-                    stage.close();
-                } else {
-                    alerta(resources.getString("save.fail"));
-                }
+                btt_Guardar.setDisable(true);
+                DaoAsync.ejecutar(() -> DaoDeportista.modificar(this.deportista, nuevo, fotoCambiada), exito -> {
+                    btt_Guardar.setDisable(false);
+                    if (exito) {
+                        MiniaturasDeportistas.getInstance().invalidar(this.deportista.getId_deportista());
+                        confirmacion(resources.getString("update.athlete"));
+                        Stage stage = (Stage) txt_Nombre.getScene().getWindow();
+                        stage.close();
+                    } else {
+                        alerta(resources.getString("save.fail"));
+                    }
+                });
             }
         }
     }
@@ -217,6 +257,7 @@ public class DeportistaController implements Initializable {
                     Image image = new Image(imagen);
                     foto.setImage(image);  // Cargamos la imagen en el control ImageView
                     this.imagen = DaoDeportista.convertFileToBlob(file);  // Si necesitas el Blob
+                    fotoCambiada = true;
                     btt_FotoBorrar.setDisable(false);
                 } catch (IllegalArgumentException | IOException e) {
                     alerta("No se pudo procesar la imagen. Asegúrate de que el archivo sea una imagen válida.");
@@ -1,5 +1,6 @@
 package controlador;
 
+import Dao.DaoAsync;
 import Dao.DaoEquipo;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -10,6 +11,7 @@ import javafx.scene.control.*;
 import javafx.stage.Stage;
 import java.net.URL;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.ResourceBundle;
 import model.Equipo;
 
@@ -17,12 +19,18 @@ public class EquiposController implements Initializable {
 
     private Equipo equipo;
     private Equipo crear;
+    private CompletableFuture<Void> carga;
+
+    @FXML
+    private Button btt_Guardar;
 
     @FXML
     private Button btt_Eliminar;
 
     @FXML
     private Label lbl_Delete;
+    @FXML
+    private Label lbl_Equipo;
 
     @FXML
     private ComboBox<Equipo> cb_Equipo;
@@ -62,9 +70,15 @@ public class EquiposController implements Initializable {
     public void cargarEquipos() {
         cb_Equipo.getItems().clear();
         cb_Equipo.getItems().add(crear);
-        ObservableList<Equipo> equipos = DaoEquipo.cargarListado();
-        cb_Equipo.getItems().addAll(equipos);
         cb_Equipo.getSelectionModel().select(0);
+        DaoAsync.cancelar(carga);
+        ProgressIndicator indicador = new ProgressIndicator();
+        indicador.setPrefSize(16, 16);
+        lbl_Equipo.setGraphic(indicador);
+        carga = DaoAsync.ejecutar(DaoEquipo::cargarListado, equipos -> {
+            lbl_Equipo.setGraphic(null);
+            cb_Equipo.getItems().addAll(equipos);
+        });
     }
 
     /**
@@ -87,11 +101,18 @@ public class EquiposController implements Initializable {
                 equipo = newValue;
                 txt_Nombre.setText(equipo.getNombre());
                 txt_Iniciales.setText(equipo.getIniciales());
-                if (DaoEquipo.esEliminable(equipo)) {
-                    btt_Eliminar.setDisable(false);
-                } else {
-                    lbl_Delete.setVisible(true);
-                }
+                Equipo seleccionado = equipo;
+                DaoAsync.ejecutar(() -> DaoEquipo.esEliminable(seleccionado), eliminable -> {
+                    // La selección puede haber cambiado mientras se comprobaba
+                    if (seleccionado != equipo) {
+                        return;
+                    }
+                    if (eliminable) {
+                        btt_Eliminar.setDisable(false);
+                    } else {
+                        lbl_Delete.setVisible(true);
+                    }
+                });
             }
         }
     }
@@ -121,12 +142,15 @@ public class EquiposController implements Initializable {
         alert.setContentText(resources.getString("delete.teams.prompt"));
         Optional<ButtonType> result = alert.showAndWait();
         if (result.get() == ButtonType.OK) {
-            if (DaoEquipo.eliminar(equipo)) {
-                confirmacion(resources.getString("delete.teams.success"));
-                cargarEquipos();
-            } else {
-                alerta(resources.getString("delete.teams.fail"));
-            }
+            Equipo eliminado = equipo;
+            DaoAsync.ejecutar(() -> DaoEquipo.eliminar(eliminado), exito -> {
+                if (exito) {
+                    confirmacion(resources.getString("delete.teams.success"));
+                    cargarEquipos();
+                } else {
+                    alerta(resources.getString("delete.teams.fail"));
+                }
+            });
         }
     }
 
@@ -156,20 +180,28 @@ public class EquiposController implements Initializable {
             nuevo.setNombre(txt_Nombre.getText());
             nuevo.setIniciales(txt_Iniciales.getText());
             if (this.equipo == null) {
-                int id = DaoEquipo.insertar(nuevo);
-                if (id == -1) {
-                    alerta(resources.getString("save.fail"));
-                } else {
-                    confirmacion(resources.getString("save.teams"));
-                    cargarEquipos();
-                }
+                btt_Guardar.setDisable(true);
+                DaoAsync.ejecutar(() -> DaoEquipo.insertar(nuevo), id -> {
+                    btt_Guardar.setDisable(false);
+                    if (id == -1) {
+                        alerta(resources.getString("save.fail"));
+                    } else {
+                        confirmacion(resources.getString("save.teams"));
+                        cargarEquipos();
+                    }
+                });
             } else {
-                if (DaoEquipo.modificar(equipo, nuevo)) {
-                    confirmacion(resources.getString("update.teams"));
-                    cargarEquipos();
-                } else {
-                    alerta(resources.getString("save.fail"));
-                }
+                Equipo anterior = equipo;
+                btt_Guardar.setDisable(true);
+                DaoAsync.ejecutar(() -> DaoEquipo.modificar(anterior, nuevo), exito -> {
+                    btt_Guardar.setDisable(false);
+                    if (exito) {
+                        confirmacion(resources.getString("update.teams"));
+                        cargarEquipos();
+                    } else {
+                        alerta(resources.getString("save.fail"));
+                    }
+                });
             }
         }
     }
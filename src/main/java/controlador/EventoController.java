@@ -1,16 +1,18 @@
 package controlador;
 
+import Dao.DaoAsync;
 import Dao.DaoDeporte;
 import Dao.DaoEvento;
 import Dao.DaoOlimpiada;
 import model.Deporte;
 import model.Evento;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
 import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import model.Olimpiada;
@@ -21,6 +23,9 @@ import java.util.ResourceBundle;
 public class EventoController implements Initializable {
     private Evento evento;
 
+    @FXML
+    private Button btt_Guardar;
+
     @FXML
     private ListView<Deporte> lst_Deporte;
 
@@ -59,22 +64,33 @@ public class EventoController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         this.resources = resourceBundle;
-        cargarListas();
         if (this.evento != null) {
             txt_Nombre.setText(evento.getNombre());
-            lst_Olimpiada.getSelectionModel().select(evento.getOlimpiada());
-            lst_Deporte.getSelectionModel().select(evento.getDeporte());
         }
+        cargarListas();
     }
 
     /**
      * Carga las listas de olimpiadas y deportes desde la base de datos y las muestra en los ListView.
+     * Las listas se cargan en segundo plano; cuando llegan se selecciona la olimpiada y el deporte del evento editado.
      */
     public void cargarListas() {
-        ObservableList<Olimpiada> olimpiadas = DaoOlimpiada.cargarListado();
-        lst_Olimpiada.getItems().addAll(olimpiadas);
-        ObservableList<Deporte> deportes = DaoDeporte.cargarListado();
-        lst_Deporte.getItems().addAll(deportes);
+        lst_Olimpiada.setPlaceholder(new ProgressIndicator());
+        DaoAsync.ejecutar(DaoOlimpiada::cargarListado, olimpiadas -> {
+            lst_Olimpiada.setPlaceholder(null);
+            lst_Olimpiada.getItems().addAll(olimpiadas);
+            if (this.evento != null) {
+                lst_Olimpiada.getSelectionModel().select(evento.getOlimpiada());
+            }
+        });
+        lst_Deporte.setPlaceholder(new ProgressIndicator());
+        DaoAsync.ejecutar(DaoDeporte::cargarListado, deportes -> {
+            lst_Deporte.setPlaceholder(null);
+            lst_Deporte.getItems().addAll(deportes);
+            if (this.evento != null) {
+                lst_Deporte.getSelectionModel().select(evento.getDeporte());
+            }
+        });
     }
 
     /**
@@ -114,22 +130,29 @@ public class EventoController implements Initializable {
             nuevo.setOlimpiada(lst_Olimpiada.getSelectionModel().getSelectedItem());
             nuevo.setDeporte(lst_Deporte.getSelectionModel().getSelectedItem());
             if (this.evento == null) {
-                int id = DaoEvento.insertar(nuevo);
-                if (id == -1) {
-                    alerta(resources.getString("save.fail"));
-                } else {
-                    confirmacion(resources.getString("save.events"));
-                    Stage stage = (Stage) txt_Nombre.getScene().getWindow();
-                    stage.close();
-                }
+                btt_Guardar.setDisable(true);
+                DaoAsync.ejecutar(() -> DaoEvento.insertar(nuevo), id -> {
+                    btt_Guardar.setDisable(false);
+                    if (id == -1) {
+                        alerta(resources.getString("save.fail"));
+                    } else {
+                        confirmacion(resources.getString("save.events"));
+                        Stage stage = (Stage) txt_Nombre.getScene().getWindow();
+                        stage.close();
+                    }
+                });
             } else {
-                if (DaoEvento.modificar(evento, nuevo)) {
-                    confirmacion(resources.getString("update.events"));
-                    Stage stage = (Stage) txt_Nombre.getScene().getWindow();
-                    stage.close();
-                } else {
-                    alerta(resources.getString("save.fail"));
-                }
+                btt_Guardar.setDisable(true);
+                DaoAsync.ejecutar(() -> DaoEvento.modificar(evento, nuevo), exito -> {
+                    btt_Guardar.setDisable(false);
+                    if (exito) {
+                        confirmacion(resources.getString("update.events"));
+                        Stage stage = (Stage) txt_Nombre.getScene().getWindow();
+                        stage.close();
+                    } else {
+                        alerta(resources.getString("save.fail"));
+                    }
+                });
             }
         }
     }
@@ -0,0 +1,164 @@
+package controlador;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Índice en memoria que permite buscar elementos cuyo nombre contiene un texto.
+ * Cada nombre se guarda en minúsculas y se descompone en trigramas (grupos de tres caracteres seguidos);
+ * para cada trigrama se guarda el conjunto de elementos que lo contienen.
+ * Una búsqueda intersecta los conjuntos de los trigramas del texto buscado, empezando por el más pequeño,
+ * y solo comprueba {@link String#contains} sobre los candidatos que quedan.
+ * Los textos de menos de tres caracteres se comprueban sobre los nombres ya pasados a minúsculas.
+ *
+ * @param <T> tipo de los elementos indexados
+ */
+public class IndiceTrigramas<T> {
+    private static final int N = 3;
+
+    private final Function<T, String> nombre;
+    private final Map<T, String> nombres = new HashMap<>();
+    private final Map<String, Set<T>> trigramas = new HashMap<>();
+
+    /**
+     * Constructor del índice.
+     *
+     * @param nombre función que obtiene el texto indexado de cada elemento; si devuelve null el elemento no se indexa
+     */
+    public IndiceTrigramas(Function<T, String> nombre) {
+        this.nombre = nombre;
+    }
+
+    /**
+     * Añade un elemento al índice. Si ya estaba se vuelve a indexar con su nombre actual.
+     *
+     * @param elemento elemento a añadir
+     */
+    public void aniadir(T elemento) {
+        eliminar(elemento);
+        String texto = nombre.apply(elemento);
+        if (texto == null) {
+            return;
+        }
+        texto = texto.toLowerCase();
+        nombres.put(elemento, texto);
+        for (String trigrama : trigramas(texto)) {
+            trigramas.computeIfAbsent(trigrama, t -> new HashSet<>()).add(elemento);
+        }
+    }
+
+    /**
+     * Elimina un elemento del índice utilizando el nombre con el que se indexó.
+     *
+     * @param elemento elemento a eliminar
+     */
+    public void eliminar(T elemento) {
+        String texto = nombres.remove(elemento);
+        if (texto == null) {
+            return;
+        }
+        for (String trigrama : trigramas(texto)) {
+            Set<T> elementos = trigramas.get(trigrama);
+            if (elementos != null) {
+                elementos.remove(elemento);
+                if (elementos.isEmpty()) {
+                    trigramas.remove(trigrama);
+                }
+            }
+        }
+    }
+
+    /**
+     * Vacía el índice.
+     */
+    public void limpiar() {
+        nombres.clear();
+        trigramas.clear();
+    }
+
+    /**
+     * Busca los elementos cuyo nombre contiene el texto indicado, sin distinguir mayúsculas.
+     *
+     * @param texto texto a buscar
+     * @return conjunto con los elementos encontrados
+     */
+    public Set<T> buscar(String texto) {
+        String valor = texto.toLowerCase();
+        Set<T> resultado = new HashSet<>();
+        if (valor.length() < N) {
+            for (Map.Entry<T, String> entrada : nombres.entrySet()) {
+                if (entrada.getValue().contains(valor)) {
+                    resultado.add(entrada.getKey());
+                }
+            }
+            return resultado;
+        }
+        // Se recorren los conjuntos de menor a mayor para que la intersección sea lo más pequeña posible
+        List<Set<T>> conjuntos = new ArrayList<>();
+        for (String trigrama : trigramas(valor)) {
+            Set<T> elementos = trigramas.get(trigrama);
+            if (elementos == null) {
+                return resultado;
+            }
+            conjuntos.add(elementos);
+        }
+        conjuntos.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        for (T candidato : conjuntos.get(0)) {
+            if (enTodos(candidato, conjuntos) && nombres.get(candidato).contains(valor)) {
+                resultado.add(candidato);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Comprueba si el nombre indexado de un elemento contiene el texto indicado.
+     *
+     * @param elemento elemento a comprobar
+     * @param texto texto a buscar, ya en minúsculas
+     * @return true si el elemento está indexado y su nombre contiene el texto
+     */
+    public boolean coincide(T elemento, String texto) {
+        String indexado = nombres.get(elemento);
+        return indexado != null && indexado.contains(texto);
+    }
+
+    /**
+     * Comprueba si un elemento está en todos los conjuntos salvo el primero, que es del que procede.
+     *
+     * @param elemento elemento a comprobar
+     * @param conjuntos conjuntos de los trigramas buscados, ordenados por tamaño
+     * @return true si está en todos
+     */
+    private boolean enTodos(T elemento, List<Set<T>> conjuntos) {
+        for (int i = 1; i < conjuntos.size(); i++) {
+            if (!conjuntos.get(i).contains(elemento)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene los trigramas distintos de un texto.
+     *
+     * @param texto texto en minúsculas
+     * @return trigramas del texto, vacío si tiene menos de tres caracteres
+     */
+    private static Set<String> trigramas(String texto) {
+        if (texto.length() < N) {
+            return Collections.emptySet();
+        }
+        Set<String> resultado = new HashSet<>();
+        for (int i = 0; i + N <= texto.length(); i++) {
+            resultado.add(texto.substring(i, i + N));
+        }
+        return resultado;
+    }
+}
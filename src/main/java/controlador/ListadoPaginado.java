@@ -0,0 +1,204 @@
+package controlador;
+
+import Dao.DaoAsync;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Modelo de una tabla que se carga por páginas a medida que el usuario se desplaza.
+ * Los elementos se van añadiendo a una lista observable; cuando se muestra una fila cercana al final
+ * se añade la siguiente página, que ya se ha pedido por adelantado en segundo plano.
+ * <p>
+ * Los cambios hechos desde la aplicación se aplican a la lista con {@link #insertado(Object)}, {@link #modificado(Object, Object)}
+ * y {@link #eliminado(Object)}. Mientras quedan páginas por cargar se recuerdan, para que una página pedida antes del cambio
+ * no vuelva a añadir una fila eliminada, duplique una añadida o muestre los datos anteriores de una modificada.
+ * Los elementos se comparan con equals, que en las entidades compara su clave.
+ *
+ * @param <T> tipo de los elementos de la tabla
+ */
+public class ListadoPaginado<T> {
+
+    /**
+     * Función que carga la página siguiente a un elemento.
+     *
+     * @param <T> tipo de los elementos
+     */
+    @FunctionalInterface
+    public interface CargadorPagina<T> {
+        /**
+         * Carga una página.
+         *
+         * @param ultimo último elemento de la página anterior, null para la primera página
+         * @param tamanio número máximo de elementos de la página
+         * @return los elementos de la página, vacía si no quedan más
+         */
+        List<T> cargar(T ultimo, int tamanio);
+    }
+
+    private final ObservableList<T> elementos;
+    private final CargadorPagina<T> cargador;
+    private final int tamanioPagina;
+    private final ReadOnlyBooleanWrapper cargando = new ReadOnlyBooleanWrapper(true);
+    private final Set<T> aniadidos = new HashSet<>();
+    private final Set<T> descartados = new HashSet<>();
+    private final Map<T, T> reemplazos = new HashMap<>();
+    private CompletableFuture<List<T>> siguiente;
+    private CompletableFuture<Void> pendiente;
+    private boolean fin = false;
+    private boolean detenido = false;
+
+    /**
+     * Constructor del listado. Empieza a cargar la primera página en segundo plano;
+     * mientras tanto {@link #cargandoProperty()} vale true.
+     *
+     * @param elementos lista observable donde se añaden las páginas, normalmente la que muestra la tabla
+     * @param cargador función que carga cada página desde la base de datos
+     * @param tamanioPagina número de elementos de cada página
+     */
+    public ListadoPaginado(ObservableList<T> elementos, CargadorPagina<T> cargador, int tamanioPagina) {
+        this.elementos = elementos;
+        this.cargador = cargador;
+        this.tamanioPagina = tamanioPagina;
+        pendiente = DaoAsync.ejecutar(() -> cargador.cargar(null, tamanioPagina), pagina -> {
+            pendiente = null;
+            cargando.set(false);
+            aniadirPagina(pagina);
+        });
+    }
+
+    /**
+     * Avisa al listado de que se está mostrando la fila indicada.
+     * Si está dentro de la última página cargada se añade la página siguiente.
+     *
+     * @param indice índice de la fila mostrada
+     */
+    public void filaMostrada(int indice) {
+        if (detenido || fin || pendiente != null || siguiente == null || indice < elementos.size() - tamanioPagina / 2) {
+            return;
+        }
+        pendiente = siguiente.thenAcceptAsync(pagina -> {
+            pendiente = null;
+            aniadirPagina(pagina);
+        }, DaoAsync.HILO_FX);
+    }
+
+    /**
+     * Detiene el listado: las páginas que estén cargándose se descartan.
+     * Se utiliza cuando la tabla pasa a mostrar otros datos.
+     */
+    public void detener() {
+        detenido = true;
+        DaoAsync.cancelar(pendiente);
+        DaoAsync.cancelar(siguiente);
+        cargando.set(false);
+    }
+
+    /**
+     * Indica si ya se han cargado todas las páginas.
+     *
+     * @return true si no quedan más elementos por cargar
+     */
+    public boolean isCompleto() {
+        return fin;
+    }
+
+    /**
+     * Añade a la lista un elemento insertado en la base de datos.
+     *
+     * @param elemento elemento insertado
+     */
+    public void insertado(T elemento) {
+        elementos.add(elemento);
+        if (!fin) {
+            aniadidos.add(elemento);
+            descartados.remove(elemento);
+        }
+    }
+
+    /**
+     * Sustituye en la lista un elemento modificado en la base de datos.
+     * Si todavía no se ha cargado, se sustituirá cuando llegue su página.
+     * Si ha cambiado su clave se trata como una eliminación seguida de una inserción.
+     *
+     * @param anterior elemento con los datos anteriores
+     * @param nuevo elemento con los datos nuevos
+     */
+    public void modificado(T anterior, T nuevo) {
+        if (!anterior.equals(nuevo)) {
+            // Ha cambiado la clave (por ejemplo el evento de una participación): la fila pasa a ocupar otra posición
+            eliminado(anterior);
+            insertado(nuevo);
+            return;
+        }
+        int indice = elementos.indexOf(anterior);
+        if (indice >= 0) {
+            elementos.set(indice, nuevo);
+        } else if (!fin) {
+            reemplazos.put(anterior, nuevo);
+        }
+    }
+
+    /**
+     * Quita de la lista un elemento eliminado de la base de datos.
+     *
+     * @param elemento elemento eliminado
+     */
+    public void eliminado(T elemento) {
+        elementos.remove(elemento);
+        if (!fin) {
+            aniadidos.remove(elemento);
+            descartados.add(elemento);
+        }
+    }
+
+    /**
+     * Propiedad que indica si se está cargando la primera página.
+     *
+     * @return true mientras la tabla todavía no tiene datos que mostrar
+     */
+    public ReadOnlyBooleanProperty cargandoProperty() {
+        return cargando.getReadOnlyProperty();
+    }
+
+    /**
+     * Añade una página a la lista y, si puede haber más, pide la siguiente en segundo plano.
+     *
+     * @param pagina elementos de la página
+     */
+    private void aniadirPagina(List<T> pagina) {
+        if (detenido) {
+            return;
+        }
+        if (aniadidos.isEmpty() && descartados.isEmpty() && reemplazos.isEmpty()) {
+            elementos.addAll(pagina);
+        } else {
+            List<T> filas = new ArrayList<>(pagina.size());
+            for (T elemento : pagina) {
+                T reemplazo = reemplazos.remove(elemento);
+                if (!descartados.contains(elemento) && !aniadidos.contains(elemento)) {
+                    filas.add(reemplazo != null ? reemplazo : elemento);
+                }
+            }
+            elementos.addAll(filas);
+        }
+        if (pagina.size() < tamanioPagina) {
+            fin = true;
+            siguiente = null;
+            aniadidos.clear();
+            descartados.clear();
+            reemplazos.clear();
+        } else {
+            T ultimo = pagina.get(pagina.size() - 1);
+            siguiente = DaoAsync.ejecutar(() -> cargador.cargar(ultimo, tamanioPagina));
+        }
+    }
+}
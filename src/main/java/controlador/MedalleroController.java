@@ -0,0 +1,119 @@
+package controlador;
+
+import Dao.AgrupacionMedallero;
+import Dao.DaoAsync;
+import Dao.Medallero;
+import javafx.collections.FXCollections;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
+import model.FilaMedallero;
+
+import java.net.URL;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controlador de la ventana del medallero. Muestra el ranking de medallas de la agrupación elegida,
+ * que se obtiene del {@link Medallero} en memoria: solo la primera vez que se pide cada agrupación se calcula.
+ */
+public class MedalleroController implements Initializable {
+    private CompletableFuture<Void> carga;
+
+    @FXML
+    private ComboBox<AgrupacionMedallero> cb_Agrupacion;
+    @FXML
+    private TableView<FilaMedallero> tabla;
+    @FXML
+    private TableColumn<FilaMedallero, String> colNombre;
+    @FXML
+    private TableColumn<FilaMedallero, Integer> colOro;
+    @FXML
+    private TableColumn<FilaMedallero, Integer> colPlata;
+    @FXML
+    private TableColumn<FilaMedallero, Integer> colBronce;
+    @FXML
+    private TableColumn<FilaMedallero, Integer> colTotal;
+    @FXML
+    private ResourceBundle resources;
+
+    /**
+     * Inicializa el controlador: configura las columnas de la tabla y el combo de agrupaciones
+     * y carga el medallero por equipos.
+     *
+     * @param url La URL de la localización.
+     * @param resourceBundle El conjunto de recursos para la localización.
+     */
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        this.resources = resourceBundle;
+        colNombre.setCellValueFactory(new PropertyValueFactory<>("nombre"));
+        colOro.setCellValueFactory(new PropertyValueFactory<>("oro"));
+        colPlata.setCellValueFactory(new PropertyValueFactory<>("plata"));
+        colBronce.setCellValueFactory(new PropertyValueFactory<>("bronce"));
+        colTotal.setCellValueFactory(new PropertyValueFactory<>("total"));
+
+        cb_Agrupacion.getItems().addAll(AgrupacionMedallero.values());
+        cb_Agrupacion.setCellFactory(lista -> new CeldaAgrupacion());
+        cb_Agrupacion.setButtonCell(new CeldaAgrupacion());
+        cb_Agrupacion.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue != null) {
+                cargar(newValue);
+            }
+        });
+        cb_Agrupacion.getSelectionModel().select(AgrupacionMedallero.EQUIPO);
+    }
+
+    /**
+     * Carga en segundo plano el ranking de una agrupación y lo muestra en la tabla.
+     * Si no se puede calcular, la tabla muestra el error de conexión en lugar de aparecer vacía.
+     *
+     * @param agrupacion por qué se agrupan las medallas
+     */
+    private void cargar(AgrupacionMedallero agrupacion) {
+        DaoAsync.cancelar(carga);
+        tabla.getItems().clear();
+        tabla.setPlaceholder(new ProgressIndicator());
+        carga = DaoAsync.ejecutar(() -> Medallero.getInstance().getRanking(agrupacion), filas -> {
+            if (filas == null) {
+                // Sin conexión (por ejemplo, mientras se muestra la instantánea) no se puede calcular
+                tabla.setPlaceholder(new Label(resources.getString("db.error")));
+                return;
+            }
+            tabla.setPlaceholder(new Label(resources.getString("medals.empty")));
+            tabla.setItems(FXCollections.observableArrayList(filas));
+        });
+    }
+
+    /**
+     * Cierra la ventana.
+     *
+     * @param event El evento de acción.
+     */
+    @FXML
+    void cerrar(ActionEvent event) {
+        DaoAsync.cancelar(carga);
+        Stage stage = (Stage) tabla.getScene().getWindow();
+        stage.close();
+    }
+
+    /**
+     * Celda del combo que muestra el nombre traducido de la agrupación.
+     */
+    private class CeldaAgrupacion extends ListCell<AgrupacionMedallero> {
+        @Override
+        protected void updateItem(AgrupacionMedallero item, boolean empty) {
+            super.updateItem(item, empty);
+            setText(empty || item == null ? null : resources.getString("medals.group." + item.name().toLowerCase(Locale.ROOT)));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package controlador;
+
+import Dao.CacheEntidades;
+import Dao.DaoDeportista;
+import javafx.scene.image.Image;
+
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Clase que carga y guarda las miniaturas de las fotos de los deportistas.
+ * Las fotos se leen de la base de datos y se decodifican al tamaño de la miniatura en segundo plano,
+ * y se guardan en una caché limitada por id_deportista para no repetir el trabajo al desplazarse por la tabla.
+ */
+public class MiniaturasDeportistas {
+    private static final int TAMANIO = 50;
+    private static MiniaturasDeportistas instance;
+
+    private final CacheEntidades<Image> cache = new CacheEntidades<>("Miniatura", 2000);
+    private final Map<Integer, CompletableFuture<Image>> pendientes = new HashMap<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2, r -> {
+        Thread hilo = new Thread(r, "miniaturas-deportistas");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private final Image imagenPorDefecto = new Image(getClass().getResourceAsStream("/Imagenes/persona.jpg"), TAMANIO, TAMANIO, true, true);
+
+    private MiniaturasDeportistas() {}
+
+    /**
+     * Crea y devuelve la instancia única de MiniaturasDeportistas.
+     *
+     * @return la instancia de MiniaturasDeportistas
+     */
+    public static synchronized MiniaturasDeportistas getInstance() {
+        if (instance == null) {
+            instance = new MiniaturasDeportistas();
+        }
+        return instance;
+    }
+
+    /**
+     * Obtiene la imagen que se muestra para los deportistas sin foto o mientras se carga la suya.
+     *
+     * @return la imagen por defecto
+     */
+    public Image getImagenPorDefecto() {
+        return imagenPorDefecto;
+    }
+
+    /**
+     * Obtiene la miniatura de un deportista si ya está en la caché.
+     *
+     * @param id id del deportista
+     * @return la miniatura o null si todavía no se ha cargado
+     */
+    public Image getMiniatura(int id) {
+        return cache.get(id);
+    }
+
+    /**
+     * Carga en segundo plano la miniatura de un deportista. Si ya se está cargando se devuelve la misma carga.
+     *
+     * @param id id del deportista
+     * @return la carga de la miniatura; termina con la imagen por defecto si no tiene foto o hay un error
+     */
+    public synchronized CompletableFuture<Image> cargar(int id) {
+        Image miniatura = cache.get(id);
+        if (miniatura != null) {
+            return CompletableFuture.completedFuture(miniatura);
+        }
+        CompletableFuture<Image> carga = pendientes.get(id);
+        if (carga == null) {
+            carga = CompletableFuture.supplyAsync(() -> decodificar(id), executor);
+            pendientes.put(id, carga);
+            carga.whenComplete((imagen, error) -> terminar(id, imagen));
+        }
+        return carga;
+    }
+
+    /**
+     * Elimina la miniatura de un deportista de la caché, por ejemplo al cambiar su foto.
+     *
+     * @param id id del deportista
+     */
+    public void invalidar(int id) {
+        cache.invalidar(id);
+    }
+
+    /**
+     * Guarda la miniatura cargada en la caché y la quita de las cargas pendientes.
+     *
+     * @param id id del deportista
+     * @param imagen miniatura cargada
+     */
+    private synchronized void terminar(int id, Image imagen) {
+        pendientes.remove(id);
+        cache.put(id, imagen);
+    }
+
+    /**
+     * Lee la foto de la base de datos y la decodifica al tamaño de la miniatura.
+     *
+     * @param id id del deportista
+     * @return la miniatura o la imagen por defecto si no tiene foto o no se puede leer
+     */
+    private Image decodificar(int id) {
+        Blob foto = DaoDeportista.getFoto(id);
+        if (foto == null) {
+            return imagenPorDefecto;
+        }
+        try {
+            Image imagen = new Image(foto.getBinaryStream(), TAMANIO, TAMANIO, true, true);
+            return imagen.isError() ? imagenPorDefecto : imagen;
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            return imagenPorDefecto;
+        }
+    }
+}
@@ -1,37 +1,56 @@
 package controlador;
 
 import BBDD.ConexionBBDD;
+import BBDD.Configuracion;
+import Dao.BusCambios;
+import Dao.Cambio;
+import Dao.DaoAsync;
 import Dao.DaoDeportista;
 import Dao.DaoEvento;
 import Dao.DaoParticipacion;
+import Dao.Instantanea;
+import Dao.ModoBusqueda;
+import Dao.ResultadoEliminacion;
+import Language.LanguageManager;
 import Language.LanguageSwitcher;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseButton;
-import javafx.stage.Modality;
 import javafx.stage.Stage;
-import javafx.stage.Window;
+import javafx.util.Duration;
 import model.Deportista;
 import model.Evento;
 import model.Participacion;
 
 import java.io.IOException;
 import java.net.URL;
-import java.sql.Blob;
 import java.sql.SQLException;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Clase que controla los eventos de la ventana principal
@@ -44,7 +63,7 @@ public class OlimpiadaAppController implements Initializable {
     private MenuItem btnEliminar;
 
     @FXML
-    private ComboBox<String> cbTabla;
+    private ComboBox<TipoTabla> cbTabla;
 
     @FXML
     private TextField filtroNombre;
@@ -65,7 +84,16 @@ public class OlimpiadaAppController implements Initializable {
     private ResourceBundle resources;
 
     private ObservableList masterData = FXCollections.observableArrayList();
-    private ObservableList filteredData = FXCollections.observableArrayList();
+    private FilteredList filteredData;
+    private final IndiceTrigramas<Object> indice = new IndiceTrigramas<>(this::nombreFiltrable);
+    private Set<Object> resultadoFiltro;
+    private String consultaFiltro;
+    private SortedList sortedData;
+    private CompletableFuture<Void> busqueda;
+    private ListadoPaginado<?> listado;
+    private final ProgressIndicator indicadorCarga = new ProgressIndicator();
+    private Instantanea instantanea;
+    private static boolean instantaneaGuardada = false;
 
     /**
      * Función que se ejecuta cuando se inicia la ventana
@@ -76,21 +104,27 @@ public class OlimpiadaAppController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         this.resources = resourceBundle;
+        // Si hay una instantánea se muestra en seguida y la base de datos se comprueba en segundo plano
+        if (!instantaneaGuardada) {
+            instantanea = Instantanea.abrir();
+        }
         // Controlar acceso a la base de datos
-
-        try {
-            new ConexionBBDD();
-        } catch (SQLException e) {
-            alerta(resources.getString("db.error") + ": " + e.getLocalizedMessage());
-            Platform.exit(); // Cierra la aplicación
-            return;
+        if (instantanea == null) {
+            try {
+                new ConexionBBDD().closeConnection();
+            } catch (SQLException e) {
+                alerta(resources.getString("db.error") + ": " + e.getLocalizedMessage());
+                Platform.exit(); // Cierra la aplicación
+                return;
+            }
+            // Sin instantánea previa (por ejemplo, en el primer arranque) también se guarda una
+            if (!instantaneaGuardada) {
+                instantaneaGuardada = true;
+                DaoAsync.ejecutar(Instantanea::guardar);
+            }
         }
 
-        if (resources.getLocale().equals(new Locale("es"))) {
-            langES.setSelected(true);
-        } else {
-            langEN.setSelected(true);
-        }
+        seleccionarIdioma(resources.getLocale());
         tgIdioma.selectedToggleProperty().addListener((observableValue, oldToggle, newToggle) -> {
             Locale locale;
             if (langES.isSelected()) {
@@ -100,95 +134,363 @@ public class OlimpiadaAppController implements Initializable {
             }
             new LanguageSwitcher((Stage) tabla.getScene().getWindow()).switchLanguage(locale);
         });
-        // Event Listener para ComboBox
-        cbTabla.getItems().addAll(resources.getString("cb.athletes"),resources.getString("cb.participations"),resources.getString("cb.events"));
-        cbTabla.setValue(resources.getString("cb.athletes"));
+        // Los textos enlazados cambian solos con el idioma; los mensajes se toman del recurso actual
+        LanguageManager.getInstance().bundleProperty().addListener((observable, oldBundle, newBundle) -> {
+            resources = newBundle;
+            seleccionarIdioma(newBundle.getLocale());
+        });
+        // Event Listener para ComboBox, que muestra el nombre traducido de cada tabla
+        cbTabla.setCellFactory(lista -> new CeldaTabla());
+        cbTabla.setButtonCell(new CeldaTabla());
+        cbTabla.getItems().addAll(TipoTabla.values());
+        cbTabla.setValue(TipoTabla.DEPORTISTAS);
         cbTabla.getSelectionModel().selectedItemProperty().addListener((observableValue, oldValue, newValue) -> {
-            if (newValue.equals(resources.getString("cb.athletes"))) {
+            if (newValue == TipoTabla.DEPORTISTAS) {
                 cargarDeportistas();
-            } else if (newValue.equals(resources.getString("cb.participations"))) {
+            } else if (newValue == TipoTabla.PARTICIPACIONES) {
                 cargarParticipaciones();
             } else {
                 cargarEventos();
             }
         });
         // Event Listener para celdas de la tabla
+        tabla.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         tabla.getSelectionModel().selectedItemProperty().addListener((observableValue, oldValue, newValue) -> {
             deshabilitarMenus(newValue == null);
         });
         // Context Menu
         ContextMenu contextMenu = new ContextMenu();
-        MenuItem editarItem = new MenuItem(resources.getString("contextmenu.edit"));
-        MenuItem borrarItem = new MenuItem(resources.getString("contextmenu.delete"));
+        MenuItem editarItem = new MenuItem();
+        editarItem.textProperty().bind(texto("contextmenu.edit"));
+        MenuItem borrarItem = new MenuItem();
+        borrarItem.textProperty().bind(texto("contextmenu.delete"));
         contextMenu.getItems().addAll(editarItem,borrarItem);
         editarItem.setOnAction(this::editar);
         borrarItem.setOnAction(this::eliminar);
         tabla.setRowFactory(tv -> {
             TableRow<Object> row = new TableRow<>();
+            // Al mostrar las últimas filas cargadas se añade la página siguiente
+            row.indexProperty().addListener((observable, oldIndex, newIndex) -> {
+                if (listado != null && tabla.getItems() == sortedData && filteredData.getPredicate() == null) {
+                    listado.filaMostrada(newIndex.intValue());
+                }
+            });
             row.setOnContextMenuRequested(event -> {
                 if (!row.isEmpty()) {
-                    tabla.getSelectionModel().select(row.getItem());
+                    // No se pierde la selección múltiple al pulsar con el botón derecho sobre una fila ya seleccionada
+                    if (!row.isSelected()) {
+                        tabla.getSelectionModel().clearAndSelect(row.getIndex());
+                    }
                     contextMenu.show(row, event.getScreenX(), event.getScreenY());
                 }
             });
             return row;
         });
-        // Event Listener para el filtro
-        filtroNombre.setOnKeyTyped(keyEvent -> filtrar());
+        // El índice del filtro se mantiene al añadir o quitar filas. Se registra antes de crear la vista
+        // filtrada para que las filas nuevas ya estén indexadas cuando ésta evalúa el filtro.
+        masterData.addListener((ListChangeListener<Object>) this::indexar);
+        filteredData = new FilteredList<>(masterData);
+        sortedData = new SortedList<>(filteredData);
+        sortedData.comparatorProperty().bind(tabla.comparatorProperty());
+        tabla.setItems(sortedData);
+        // Event Listener para el filtro, que espera a que se deje de escribir
+        PauseTransition pausaFiltro = new PauseTransition(Duration.millis(250));
+        pausaFiltro.setOnFinished(event -> filtrar());
+        filtroNombre.textProperty().addListener((observable, oldValue, newValue) -> pausaFiltro.playFromStart());
         // Doble-click para editar
         tabla.setOnMouseClicked(event -> {
             if (event.getButton() == MouseButton.PRIMARY && event.getClickCount() == 2) {
                 editar(null);
             }
         });
+        // Las altas, modificaciones y bajas hechas desde la aplicación se aplican a la tabla sin volver a cargarla.
+        // La suscripción se cancela cuando la vista se sustituye, por ejemplo al cambiar de idioma
+        Consumer<Cambio<?>> suscriptor = cambio -> Platform.runLater(() -> aplicarCambio(cambio));
+        BusCambios.getInstance().suscribir(suscriptor);
+        tabla.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (oldScene != null && newScene == null) {
+                BusCambios.getInstance().cancelar(suscriptor);
+            }
+        });
         // Carga inicial
         cargarDeportistas();
+        if (instantanea != null) {
+            conciliar();
+        }
     }
 
     /**
-     * Función que filtra la tabla por nombre
+     * Función que comprueba en segundo plano si la base de datos está disponible tras abrir la ventana con la instantánea.
+     * Si lo está, la tabla se vuelve a cargar desde la base de datos y se guarda una instantánea nueva;
+     * si no, se avisa de que solo se pueden consultar los datos guardados.
      */
-    public void filtrar() {
-        String valor = filtroNombre.getText();
-        if (valor != null) {
-            valor = valor.toLowerCase();
-            String item = cbTabla.getSelectionModel().getSelectedItem();
-            if (item.equals(resources.getString("cb.athletes"))) {
-                // Deportistas
-                if (valor.isEmpty()) {
-                    tabla.setItems(masterData);
-                } else {
-                    filteredData.clear();
-                    for (Object obj : masterData) {
-                        Deportista deportista = (Deportista) obj;
-                        String nombre = deportista.getNombre();
-                        nombre = nombre.toLowerCase();
-                        if (nombre.contains(valor)) {
-                            filteredData.add(deportista);
-                        }
+    private void conciliar() {
+        DaoAsync.ejecutar(() -> {
+            try {
+                new ConexionBBDD().closeConnection();
+                return true;
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+                return false;
+            }
+        }, conectada -> {
+            if (conectada) {
+                // La proyección se libera al guardar la instantánea nueva
+                instantanea = null;
+                instantaneaGuardada = true;
+                recargar();
+                DaoAsync.ejecutar(Instantanea::guardar);
+            } else {
+                String fecha = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, resources.getLocale())
+                        .format(new Date(instantanea.getFecha()));
+                confirmacion(resources.getString("snapshot.readonly") + " " + fecha);
+            }
+        });
+    }
+
+    /**
+     * Función que abre una ventana modal sobre la principal y espera a que se cierre
+     *
+     * @param fxml ruta del FXML de la ventana
+     * @param controlador controlador de la ventana, o null si el FXML indica el suyo
+     * @param titulo título de la ventana
+     */
+    private void abrirVentana(String fxml, Object controlador, String titulo) {
+        try {
+            RecursosVentanas.getInstance().abrirModal(tabla.getScene().getWindow(), fxml, resources, controlador, titulo);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            alerta(resources.getString("message.window_open"));
+        }
+    }
+
+    /**
+     * Función que vuelve a cargar la tabla que se está mostrando
+     */
+    private void recargar() {
+        Class<?> tipo = tipoMostrado();
+        if (tipo == Deportista.class) {
+            cargarDeportistas();
+        } else if (tipo == Participacion.class) {
+            cargarParticipaciones();
+        } else {
+            cargarEventos();
+        }
+    }
+
+    /**
+     * Función que comprueba si se pueden hacer cambios. Mientras se muestra la instantánea no se puede,
+     * porque la base de datos no está disponible o todavía no se ha comprobado.
+     *
+     * @return true si se puede escribir en la base de datos
+     */
+    private boolean permitirEscritura() {
+        if (instantanea != null) {
+            alerta(resources.getString("snapshot.readonly.action"));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Función que aplica a la tabla un cambio publicado por los DAO si es del tipo de entidad que se está mostrando.
+     * También se aplica al resultado de una búsqueda en la base de datos si es lo que muestra la tabla,
+     * salvo las inserciones, que no se sabe si coinciden con la búsqueda.
+     *
+     * @param cambio cambio publicado en el bus
+     */
+    @SuppressWarnings("unchecked")
+    private void aplicarCambio(Cambio<?> cambio) {
+        if (listado == null || cambio.getTipo() != tipoMostrado()) {
+            return;
+        }
+        ListadoPaginado<Object> lista = (ListadoPaginado<Object>) listado;
+        ObservableList<Object> resultadoBusqueda = null;
+        if (tabla.getItems() != sortedData && tabla.getItems() instanceof SortedList<?> ordenados) {
+            resultadoBusqueda = (ObservableList<Object>) ordenados.getSource();
+        }
+        switch (cambio.getOperacion()) {
+            case INSERTADO:
+                lista.insertado(cambio.getEntidad());
+                break;
+            case MODIFICADO:
+                lista.modificado(cambio.getAnterior(), cambio.getEntidad());
+                if (resultadoBusqueda != null) {
+                    int indice = resultadoBusqueda.indexOf(cambio.getAnterior());
+                    if (indice >= 0) {
+                        resultadoBusqueda.set(indice, cambio.getEntidad());
                     }
-                    tabla.setItems(filteredData);
                 }
+                break;
+            case ELIMINADO:
+                lista.eliminado(cambio.getEntidad());
+                if (resultadoBusqueda != null) {
+                    resultadoBusqueda.remove(cambio.getEntidad());
+                }
+                break;
+        }
+    }
+
+    /**
+     * Función que obtiene la clase de las entidades que muestra la tabla
+     *
+     * @return Deportista, Participacion o Evento
+     */
+    private Class<?> tipoMostrado() {
+        return cbTabla.getValue().getTipo();
+    }
+
+    /**
+     * Celda del combo de tablas, con el nombre de la tabla enlazado al idioma
+     */
+    private class CeldaTabla extends ListCell<TipoTabla> {
+        @Override
+        protected void updateItem(TipoTabla item, boolean empty) {
+            super.updateItem(item, empty);
+            textProperty().unbind();
+            if (empty || item == null) {
+                setText(null);
             } else {
-                // Eventos
-                if (valor.isEmpty()) {
-                    tabla.setItems(masterData);
-                } else {
-                    filteredData.clear();
-                    for (Object obj : masterData) {
-                        Evento evento = (Evento) obj;
-                        String nombre = evento.getNombre();
-                        nombre = nombre.toLowerCase();
-                        if (nombre.contains(valor)) {
-                            filteredData.add(evento);
-                        }
-                    }
-                    tabla.setItems(filteredData);
+                textProperty().bind(texto(item.getClave()));
+            }
+        }
+    }
+
+    /**
+     * Función que marca en el menú el idioma indicado
+     *
+     * @param locale idioma actual
+     */
+    private void seleccionarIdioma(Locale locale) {
+        if (locale.getLanguage().equals("es")) {
+            langES.setSelected(true);
+        } else {
+            langEN.setSelected(true);
+        }
+    }
+
+    /**
+     * Función que obtiene un texto traducido que cambia con el idioma
+     *
+     * @param clave clave del texto en los archivos de idioma
+     * @return el texto enlazable
+     */
+    private StringBinding texto(String clave) {
+        return LanguageManager.getInstance().texto(clave);
+    }
+
+    /**
+     * Función que crea una columna de la tabla con la cabecera enlazada al idioma
+     *
+     * @param clave clave de la cabecera en los archivos de idioma
+     * @param <S> tipo de las filas
+     * @param <T> tipo de las celdas
+     * @return la columna
+     */
+    private <S, T> TableColumn<S, T> columna(String clave) {
+        TableColumn<S, T> columna = new TableColumn<>();
+        columna.textProperty().bind(texto(clave));
+        return columna;
+    }
+
+    /**
+     * Función que filtra la tabla por nombre. Las filas cargadas se filtran al momento con el índice de trigramas.
+     * Si la tabla tiene muchas filas o no están todas cargadas, además se busca en la base de datos y su resultado
+     * se une al de las filas cargadas, de forma que aparecen también las coincidencias que faltan por cargar
+     */
+    public void filtrar() {
+        String valor = filtroNombre.getText();
+        DaoAsync.cancelar(busqueda);
+        if (tabla.getItems() != sortedData) {
+            tabla.setItems(sortedData);
+        }
+        if (valor == null || valor.isEmpty()) {
+            resultadoFiltro = null;
+            consultaFiltro = null;
+            filteredData.setPredicate(null);
+        } else {
+            consultaFiltro = valor.toLowerCase();
+            resultadoFiltro = indice.buscar(consultaFiltro);
+            Set<Object> resultado = resultadoFiltro;
+            filteredData.setPredicate(obj -> resultado.contains(obj));
+            int umbralBusqueda = Configuracion.getActual().getEntero("search.threshold", 5000);
+            if (masterData.size() > umbralBusqueda || (listado != null && !listado.isCompleto())) {
+                buscar(valor);
+            }
+        }
+    }
+
+    /**
+     * Función que busca por nombre en la base de datos y muestra en la tabla su resultado junto con las filas cargadas
+     * que ya coincidían con el filtro
+     *
+     * @param valor texto a buscar
+     */
+    private void buscar(String valor) {
+        // La configuración se lee en cada búsqueda para que los cambios del archivo se apliquen sin reiniciar
+        Configuracion configuracion = Configuracion.getActual();
+        int limiteBusqueda = configuracion.getEntero("search.limit", 500);
+        // Por defecto la base de datos busca por subcadena, igual que el filtro en memoria y la instantánea
+        ModoBusqueda modoBusqueda = ModoBusqueda.desde(configuracion.get("search.mode"), ModoBusqueda.SUBCADENA);
+        Supplier<ObservableList<?>> consulta;
+        Instantanea origen = instantanea;
+        if (cbTabla.getValue() == TipoTabla.DEPORTISTAS) {
+            consulta = origen != null
+                    ? () -> FXCollections.observableArrayList(origen.buscarDeportistas(valor, limiteBusqueda))
+                    : () -> DaoDeportista.buscar(valor, modoBusqueda, limiteBusqueda);
+        } else {
+            consulta = origen != null
+                    ? () -> FXCollections.observableArrayList(origen.buscarEventos(valor, limiteBusqueda))
+                    : () -> DaoEvento.buscar(valor, modoBusqueda, limiteBusqueda);
+        }
+        busqueda = DaoAsync.ejecutar(consulta, resultado -> {
+            Set<Object> filas = new LinkedHashSet<>(filteredData);
+            filas.addAll(resultado);
+            SortedList ordenados = new SortedList<>(FXCollections.observableArrayList(filas));
+            ordenados.comparatorProperty().bind(tabla.comparatorProperty());
+            tabla.setItems(ordenados);
+        });
+    }
+
+    /**
+     * Función que actualiza el índice del filtro con los cambios de la lista de datos.
+     * Las filas que llegan mientras hay un filtro activo se añaden a su resultado si coinciden.
+     *
+     * @param cambio cambio de la lista de datos
+     */
+    private void indexar(ListChangeListener.Change<?> cambio) {
+        if (cambio.getList().isEmpty()) {
+            indice.limpiar();
+            return;
+        }
+        while (cambio.next()) {
+            for (Object obj : cambio.getRemoved()) {
+                indice.eliminar(obj);
+            }
+            for (Object obj : cambio.getAddedSubList()) {
+                indice.aniadir(obj);
+                if (resultadoFiltro != null && indice.coincide(obj, consultaFiltro)) {
+                    resultadoFiltro.add(obj);
                 }
             }
         }
     }
 
+    /**
+     * Función que obtiene el nombre por el que se filtra cada fila
+     *
+     * @param obj fila de la tabla
+     * @return el nombre del deportista o evento, o null si la fila no se puede filtrar
+     */
+    private String nombreFiltrable(Object obj) {
+        if (obj instanceof Deportista deportista) {
+            return deportista.getNombre();
+        } else if (obj instanceof Evento evento) {
+            return evento.getNombre();
+        }
+        return null;
+    }
+
     /**
      * Función que se ejecuta cuando se pulsa el botón "Añadir". Abre una ventana para añadir objetos de la tabla seleccionada
      *
@@ -196,70 +498,19 @@ public class OlimpiadaAppController implements Initializable {
      */
     @FXML
     void aniadir(ActionEvent event) {
-        String item = cbTabla.getSelectionModel().getSelectedItem();
-        if (item.equals(resources.getString("cb.athletes"))) {
+        if (!permitirEscritura()) {
+            return;
+        }
+        TipoTabla item = cbTabla.getValue();
+        if (item == TipoTabla.DEPORTISTAS) {
             // Deportista
-            try {
-                Window ventana = tabla.getScene().getWindow();
-                FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/Deportista.fxml"),resources);
-                DeportistaController controlador = new DeportistaController();
-                fxmlLoader.setController(controlador);
-                Scene scene = new Scene(fxmlLoader.load());
-                Stage stage = new Stage();
-                stage.setScene(scene);
-                stage.setResizable(false);
-                stage.getIcons().add(new Image(getClass().getResourceAsStream("/Imagenes/olimpiadas.png")));
-                stage.setTitle(resources.getString("window.add") + " " + resources.getString("window.athlete") + " - " + resources.getString("app.name"));
-                stage.initOwner(ventana);
-                stage.initModality(Modality.APPLICATION_MODAL);
-                stage.showAndWait();
-                cargarDeportistas();
-            } catch (IOException e) {
-                System.err.println(e.getMessage());
-                alerta(resources.getString("message.window_open"));
-            }
-        } else if (item.equals(resources.getString("cb.participations"))) {
+            abrirVentana("/fxml/Deportista.fxml", new DeportistaController(), resources.getString("window.add") + " " + resources.getString("window.athlete") + " - " + resources.getString("app.name"));
+        } else if (item == TipoTabla.PARTICIPACIONES) {
             // Participación
-            try {
-                Window ventana = tabla.getScene().getWindow();
-                FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/Participacion.fxml"),resources);
-                ParticipacionController controlador = new ParticipacionController();
-                fxmlLoader.setController(controlador);
-                Scene scene = new Scene(fxmlLoader.load());
-                Stage stage = new Stage();
-                stage.setScene(scene);
-                stage.setResizable(false);
-                stage.getIcons().add(new Image(getClass().getResourceAsStream("/Imagenes/olimpiadas.png")));
-                stage.setTitle(resources.getString("window.add") + " " + resources.getString("window.participation") + " - " + resources.getString("app.name"));
-                stage.initOwner(ventana);
-                stage.initModality(Modality.APPLICATION_MODAL);
-                stage.showAndWait();
-                cargarParticipaciones();
-            } catch (IOException e) {
-                System.err.println(e.getMessage());
-                alerta(resources.getString("message.window_open"));
-            }
+            abrirVentana("/fxml/Participacion.fxml", new ParticipacionController(), resources.getString("window.add") + " " + resources.getString("window.participation") + " - " + resources.getString("app.name"));
         } else {
             // Evento
-            try {
-                Window ventana = tabla.getScene().getWindow();
-                FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/Evento.fxml"),resources);
-                EventoController controlador = new EventoController();
-                fxmlLoader.setController(controlador);
-                Scene scene = new Scene(fxmlLoader.load());
-                Stage stage = new Stage();
-                stage.setScene(scene);
-                stage.setResizable(false);
-                stage.getIcons().add(new Image(getClass().getResourceAsStream("/Imagenes/olimpiadas.png")));
-                stage.setTitle(resources.getString("window.add") + " " + resources.getString("window.event") + " - " + resources.getString("app.name"));
-                stage.initOwner(ventana);
-                stage.initModality(Modality.APPLICATION_MODAL);
-                stage.showAndWait();
-                cargarEventos();
-            } catch (IOException e) {
-                System.err.println(e.getMessage());
-                alerta(resources.getString("message.window_open"));
-            }
+            abrirVentana("/fxml/Evento.fxml", new EventoController(), resources.getString("window.add") + " " + resources.getString("window.event") + " - " + resources.getString("app.name"));
         }
     }
 
@@ -270,22 +521,10 @@ public class OlimpiadaAppController implements Initializable {
      */
     @FXML
     void deportes(ActionEvent event) {
-        try {
-            Window ventana = tabla.getScene().getWindow();
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/Deportes.fxml"),resources);
-            Scene scene = new Scene(fxmlLoader.load());
-            Stage stage = new Stage();
-            stage.setScene(scene);
-            stage.setResizable(false);
-            stage.getIcons().add(new Image(getClass().getResourceAsStream("/Imagenes/olimpiadas.png")));
-            stage.setTitle(resources.getString("window.sports") + " - " + resources.getString("app.name"));
-            stage.initOwner(ventana);
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.showAndWait();
-        } catch (IOException e) {
-            System.err.println(e.getMessage());
-            alerta(resources.getString("message.window_open"));
+        if (!permitirEscritura()) {
+            return;
         }
+        abrirVentana("/fxml/Deportes.fxml", null, resources.getString("window.sports") + " - " + resources.getString("app.name"));
     }
 
     /**
@@ -295,152 +534,157 @@ public class OlimpiadaAppController implements Initializable {
      */
     @FXML
     void editar(ActionEvent event) {
+        if (!permitirEscritura()) {
+            return;
+        }
         Object seleccion = tabla.getSelectionModel().getSelectedItem();
         if (seleccion != null) {
-            String item = cbTabla.getSelectionModel().getSelectedItem();
-            if (item.equals(resources.getString("cb.athletes"))) {
+            TipoTabla item = cbTabla.getValue();
+            if (item == TipoTabla.DEPORTISTAS) {
                 // Deportista
                 Deportista deportista = (Deportista) seleccion;
-                try {
-                    Window ventana = tabla.getScene().getWindow();
-                    FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/Deportista.fxml"),resources);
-                    DeportistaController controlador = new DeportistaController(deportista);
-                    fxmlLoader.setController(controlador);
-                    Scene scene = new Scene(fxmlLoader.load());
-                    Stage stage = new Stage();
-                    stage.setScene(scene);
-                    stage.setResizable(false);
-                    stage.getIcons().add(new Image(getClass().getResourceAsStream("/Imagenes/olimpiadas.png")));
-                    stage.setTitle(resources.getString("window.edit") + " " + resources.getString("window.athlete") + " - " + resources.getString("app.name"));
-                    stage.initOwner(ventana);
-                    stage.initModality(Modality.APPLICATION_MODAL);
-                    stage.showAndWait();
-                    cargarDeportistas();
-                } catch (IOException e) {
-                    System.err.println(e.getMessage());
-                    alerta(resources.getString("message.window_open"));
-                }
-            } else if (item.equals(resources.getString("cb.participations"))) {
+                abrirVentana("/fxml/Deportista.fxml", new DeportistaController(deportista), resources.getString("window.edit") + " " + resources.getString("window.athlete") + " - " + resources.getString("app.name"));
+            } else if (item == TipoTabla.PARTICIPACIONES) {
                 // Participación
                 Participacion participacion = (Participacion) seleccion;
-                try {
-                    Window ventana = tabla.getScene().getWindow();
-                    FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/Participacion.fxml"),resources);
-                    ParticipacionController controlador = new ParticipacionController(participacion);
-                    fxmlLoader.setController(controlador);
-                    Scene scene = new Scene(fxmlLoader.load());
-                    Stage stage = new Stage();
-                    stage.setScene(scene);
-                    stage.setResizable(false);
-                    stage.getIcons().add(new Image(getClass().getResourceAsStream("/Imagenes/olimpiadas.png")));
-                    stage.setTitle(resources.getString("window.edit") + " " + resources.getString("window.participation") + " - " + resources.getString("app.name"));
-                    stage.initOwner(ventana);
-                    stage.initModality(Modality.APPLICATION_MODAL);
-                    stage.showAndWait();
-                    cargarParticipaciones();
-                } catch (IOException e) {
-                    System.err.println(e.getMessage());
-                    alerta(resources.getString("message.window_open"));
-                }
+                abrirVentana("/fxml/Participacion.fxml", new ParticipacionController(participacion), resources.getString("window.edit") + " " + resources.getString("window.participation") + " - " + resources.getString("app.name"));
             } else {
                 // Evento
                 Evento evento = (Evento) seleccion;
-                try {
-                    Window ventana = tabla.getScene().getWindow();
-                    FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/Evento.fxml"),resources);
-                    EventoController controlador = new EventoController(evento);
-                    fxmlLoader.setController(controlador);
-                    Scene scene = new Scene(fxmlLoader.load());
-                    Stage stage = new Stage();
-                    stage.setScene(scene);
-                    stage.setResizable(false);
-                    stage.getIcons().add(new Image(getClass().getResourceAsStream("/Imagenes/olimpiadas.png")));
-                    stage.setTitle(resources.getString("window.edit") + " " + resources.getString("window.event") + " - " + resources.getString("app.name"));
-                    stage.initOwner(ventana);
-                    stage.initModality(Modality.APPLICATION_MODAL);
-                    stage.showAndWait();
-                    cargarEventos();
-                } catch (IOException e) {
-                    System.err.println(e.getMessage());
-                    alerta(resources.getString("message.window_open"));
-                }
+                abrirVentana("/fxml/Evento.fxml", new EventoController(evento), resources.getString("window.edit") + " " + resources.getString("window.event") + " - " + resources.getString("app.name"));
             }
         }
     }
 
     /**
-     * Función que se ejecuta cuando se pulsa el menu item "Eliminar...". Elimina el objeto seleccionado.
+     * Función que se ejecuta cuando se pulsa el menu item "Eliminar...". Elimina el objeto seleccionado,
+     * o todos los seleccionados si hay más de uno.
      *
      * @param event
      */
     @FXML
     void eliminar(ActionEvent event) {
+        if (!permitirEscritura()) {
+            return;
+        }
+        if (tabla.getSelectionModel().getSelectedItems().size() > 1) {
+            eliminarSeleccion(new ArrayList<Object>(tabla.getSelectionModel().getSelectedItems()));
+            return;
+        }
         Object seleccion = tabla.getSelectionModel().getSelectedItem();
         if (seleccion != null) {
-            String item = cbTabla.getSelectionModel().getSelectedItem();
-            if (item.equals(resources.getString("cb.athletes"))) {
+            TipoTabla item = cbTabla.getValue();
+            if (item == TipoTabla.DEPORTISTAS) {
                 // Deportista
                 Deportista deportista = (Deportista) seleccion;
-                if (DaoDeportista.esEliminable(deportista)) {
-                    Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
-                    alert.initOwner(tabla.getScene().getWindow());
-                    alert.setHeaderText(null);
-                    alert.setTitle(resources.getString("window.confirm"));
-                    alert.setContentText(resources.getString("delete.athlete.prompt"));
-                    Optional<ButtonType> result = alert.showAndWait();
-                    if (result.get() == ButtonType.OK) {
-                        if (DaoDeportista.eliminar(deportista)) {
-                            cargarDeportistas();
-                            confirmacion(resources.getString("delete.athlete.success"));
-                        } else {
-                            alerta(resources.getString("delete.athlete.fail"));
+                DaoAsync.ejecutar(() -> DaoDeportista.esEliminable(deportista), eliminable -> {
+                    if (eliminable) {
+                        if (confirmarEliminacion(resources.getString("delete.athlete.prompt"))) {
+                            DaoAsync.ejecutar(() -> DaoDeportista.eliminar(deportista), eliminado -> {
+                                if (eliminado) {
+                                    confirmacion(resources.getString("delete.athlete.success"));
+                                } else {
+                                    alerta(resources.getString("delete.athlete.fail"));
+                                }
+                            });
                         }
+                    } else {
+                        alerta(resources.getString("delete.athlete.error"));
                     }
-                } else {
-                    alerta(resources.getString("delete.athlete.error"));
-                }
-            } else if (item.equals(resources.getString("cb.participations"))) {
+                });
+            } else if (item == TipoTabla.PARTICIPACIONES) {
                 // Participación
                 Participacion participacion = (Participacion) seleccion;
-                Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
-                alert.initOwner(tabla.getScene().getWindow());
-                alert.setHeaderText(null);
-                alert.setTitle(resources.getString("window.confirm"));
-                alert.setContentText(resources.getString("delete.participation.prompt"));
-                Optional<ButtonType> result = alert.showAndWait();
-                if (result.get() == ButtonType.OK) {
-                    if (DaoParticipacion.eliminar(participacion)) {
-                        cargarParticipaciones();
-                        confirmacion(resources.getString("delete.participation.success"));
-                    } else {
-                        alerta(resources.getString("delete.participation.fail"));
-                    }
+                if (confirmarEliminacion(resources.getString("delete.participation.prompt"))) {
+                    DaoAsync.ejecutar(() -> DaoParticipacion.eliminar(participacion), eliminado -> {
+                        if (eliminado) {
+                            confirmacion(resources.getString("delete.participation.success"));
+                        } else {
+                            alerta(resources.getString("delete.participation.fail"));
+                        }
+                    });
                 }
             } else {
                 // Evento
                 Evento evento = (Evento) seleccion;
-                if (DaoEvento.esEliminable(evento)) {
-                    Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
-                    alert.initOwner(tabla.getScene().getWindow());
-                    alert.setHeaderText(null);
-                    alert.setTitle(resources.getString("window.confirm"));
-                    alert.setContentText(resources.getString("delete.event.prompt"));
-                    Optional<ButtonType> result = alert.showAndWait();
-                    if (result.get() == ButtonType.OK) {
-                        if (DaoEvento.eliminar(evento)) {
-                            cargarEventos();
-                            confirmacion(resources.getString("delete.event.success"));
-                        } else {
-                            alerta(resources.getString("delete.event.fail"));
+                DaoAsync.ejecutar(() -> DaoEvento.esEliminable(evento), eliminable -> {
+                    if (eliminable) {
+                        if (confirmarEliminacion(resources.getString("delete.event.prompt"))) {
+                            DaoAsync.ejecutar(() -> DaoEvento.eliminar(evento), eliminado -> {
+                                if (eliminado) {
+                                    confirmacion(resources.getString("delete.event.success"));
+                                } else {
+                                    alerta(resources.getString("delete.event.fail"));
+                                }
+                            });
                         }
+                    } else {
+                        alerta(resources.getString("delete.event.error"));
                     }
-                } else {
-                    alerta(resources.getString("delete.event.error"));
-                }
+                });
             }
         }
     }
 
+    /**
+     * Función que elimina en una única transacción todas las filas seleccionadas.
+     * Las que tienen participaciones que dependen de ellas no se eliminan y se muestran al usuario.
+     * Las eliminadas se quitan de la tabla al recibir sus cambios del {@link BusCambios}.
+     *
+     * @param seleccion filas seleccionadas
+     */
+    @SuppressWarnings("unchecked")
+    private void eliminarSeleccion(List<Object> seleccion) {
+        if (!confirmarEliminacion(resources.getString("delete.multiple.prompt") + " (" + seleccion.size() + ")")) {
+            return;
+        }
+        TipoTabla item = cbTabla.getValue();
+        Supplier<? extends ResultadoEliminacion<?>> eliminacion;
+        if (item == TipoTabla.DEPORTISTAS) {
+            List<Deportista> deportistas = (List<Deportista>) (List<?>) seleccion;
+            eliminacion = () -> DaoDeportista.eliminarSeleccion(deportistas);
+        } else if (item == TipoTabla.PARTICIPACIONES) {
+            List<Participacion> participaciones = (List<Participacion>) (List<?>) seleccion;
+            eliminacion = () -> DaoParticipacion.eliminarSeleccion(participaciones);
+        } else {
+            List<Evento> eventos = (List<Evento>) (List<?>) seleccion;
+            eliminacion = () -> DaoEvento.eliminarSeleccion(eventos);
+        }
+        DaoAsync.ejecutar(eliminacion, resultado -> {
+            if (!resultado.isCorrecto()) {
+                alerta(resources.getString("delete.multiple.fail"));
+                return;
+            }
+            if (resultado.getBloqueados().isEmpty()) {
+                confirmacion(resources.getString("delete.multiple.success") + " " + resultado.getEliminados().size());
+            } else {
+                StringBuilder texto = new StringBuilder(resources.getString("delete.multiple.success"))
+                        .append(' ').append(resultado.getEliminados().size()).append("\n\n")
+                        .append(resources.getString("delete.multiple.blocked"));
+                for (Object bloqueado : resultado.getBloqueados()) {
+                    texto.append("\n - ").append(bloqueado);
+                }
+                alerta(texto.toString());
+            }
+        });
+    }
+
+    /**
+     * Función que pide confirmación al usuario antes de eliminar
+     *
+     * @param texto pregunta que se muestra al usuario
+     * @return true si el usuario ha aceptado
+     */
+    private boolean confirmarEliminacion(String texto) {
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.initOwner(tabla.getScene().getWindow());
+        alert.setHeaderText(null);
+        alert.setTitle(resources.getString("window.confirm"));
+        alert.setContentText(texto);
+        Optional<ButtonType> result = alert.showAndWait();
+        return result.isPresent() && result.get() == ButtonType.OK;
+    }
+
     /**
      * Función que se ejecuta cuando se pulsa el menu item "Equipos". Abre la ventana de equipos
      *
@@ -448,22 +692,10 @@ public class OlimpiadaAppController implements Initializable {
      */
     @FXML
     void equipos(ActionEvent event) {
-        try {
-            Window ventana = tabla.getScene().getWindow();
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/Equipos.fxml"),resources);
-            Scene scene = new Scene(fxmlLoader.load());
-            Stage stage = new Stage();
-            stage.setScene(scene);
-            stage.setResizable(false);
-            stage.getIcons().add(new Image(getClass().getResourceAsStream("/Imagenes/olimpiadas.png")));
-            stage.setTitle(resources.getString("window.teams") + " - " + resources.getString("app.name"));
-            stage.initOwner(ventana);
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.showAndWait();
-        } catch (IOException e) {
-            System.err.println(e.getMessage());
-            alerta(resources.getString("message.window_open"));
+        if (!permitirEscritura()) {
+            return;
         }
+        abrirVentana("/fxml/Equipos.fxml", null, resources.getString("window.teams") + " - " + resources.getString("app.name"));
     }
 
     /**
@@ -473,22 +705,21 @@ public class OlimpiadaAppController implements Initializable {
      */
     @FXML
     void olimpiadas(ActionEvent event) {
-        try {
-            Window ventana = tabla.getScene().getWindow();
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/Olimpiadas.fxml"),resources);
-            Scene scene = new Scene(fxmlLoader.load());
-            Stage stage = new Stage();
-            stage.setScene(scene);
-            stage.setResizable(false);
-            stage.getIcons().add(new Image(getClass().getResourceAsStream("/Imagenes/olimpiadas.png")));
-            stage.setTitle(resources.getString("window.olympics") + " - " + resources.getString("app.name"));
-            stage.initOwner(ventana);
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.showAndWait();
-        } catch (IOException e) {
-            System.err.println(e.getMessage());
-            alerta(resources.getString("message.window_open"));
+        if (!permitirEscritura()) {
+            return;
         }
+        abrirVentana("/fxml/Olimpiadas.fxml", null, resources.getString("window.olympics") + " - " + resources.getString("app.name"));
+    }
+
+    /**
+     * Función que se ejecuta cuando se pulsa el menu item "Medallero". Abre la ventana del medallero,
+     * que solo consulta datos y por eso no depende de {@link #permitirEscritura()}
+     *
+     * @param event
+     */
+    @FXML
+    void medallero(ActionEvent event) {
+        abrirVentana("/fxml/Medallero.fxml", null, resources.getString("window.medals") + " - " + resources.getString("app.name"));
     }
 
     /**
@@ -496,70 +727,78 @@ public class OlimpiadaAppController implements Initializable {
      */
     private void cargarDeportistas() {
         // Vaciar tabla
+        detenerListado();
         tabla.getSelectionModel().clearSelection();
         filtroNombre.setText(null);
+        filtrar();
         filtroNombre.setDisable(false);
         masterData.clear();
-        filteredData.clear();
-        tabla.getItems().clear();
         tabla.getColumns().clear();
         // Cargar columnas
         TableColumn<Deportista, Integer> colId = new TableColumn<>("ID");
         colId.setCellValueFactory(new PropertyValueFactory("id_deportista"));
-        TableColumn<Deportista, String> colNombre = new TableColumn<>(resources.getString("table.athlete.name"));
+        TableColumn<Deportista, String> colNombre = columna("table.athlete.name");
         colNombre.setCellValueFactory(new PropertyValueFactory("nombre"));
-        TableColumn<Deportista, Deportista.SexCategory> colSexo = new TableColumn<>(resources.getString("table.athlete.sex"));
+        TableColumn<Deportista, Deportista.SexCategory> colSexo = columna("table.athlete.sex");
         colSexo.setCellValueFactory(new PropertyValueFactory("sexo"));
-        TableColumn<Deportista, Integer> colPeso = new TableColumn<>(resources.getString("table.athlete.weight"));
+        TableColumn<Deportista, Integer> colPeso = columna("table.athlete.weight");
         colPeso.setCellValueFactory(new PropertyValueFactory("peso"));
-        TableColumn<Deportista, Integer> colAltura = new TableColumn<>(resources.getString("table.athlete.height"));
+        TableColumn<Deportista, Integer> colAltura = columna("table.athlete.height");
         colAltura.setCellValueFactory(new PropertyValueFactory("altura"));
 
-        TableColumn<Deportista, Blob> colFoto = new TableColumn<>(resources.getString("table.athlete.foto"));
-        colFoto.setCellValueFactory(new PropertyValueFactory<>("foto"));
-        // Configurar el cell factory para mostrar las imágenes
-        colFoto.setCellFactory(column -> new TableCell<Deportista, Blob>() {
+        TableColumn<Deportista, Deportista> colFoto = columna("table.athlete.foto");
+        colFoto.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue()));
+        // Configurar el cell factory para mostrar las miniaturas, que se cargan en segundo plano
+        colFoto.setCellFactory(column -> new TableCell<Deportista, Deportista>() {
             private final ImageView imageView = new ImageView();
-            private final Image imagenPorDefecto = new Image(getClass().getResourceAsStream("/Imagenes/persona.jpg"));
 
             @Override
-            protected void updateItem(Blob item, boolean empty) {
+            protected void updateItem(Deportista item, boolean empty) {
                 super.updateItem(item, empty);
 
                 // Asegúrate de limpiar el gráfico si la celda está vacía
-                if (empty) {
+                if (empty || item == null) {
                     setGraphic(null);
+                    return;
+                }
+                MiniaturasDeportistas miniaturas = MiniaturasDeportistas.getInstance();
+                if (!item.isTieneFoto()) {
+                    // No hay imagen, usar imagen por defecto
+                    imageView.setImage(miniaturas.getImagenPorDefecto());
                 } else {
-                    if (item == null) {
-                        // No hay imagen, usar imagen por defecto
-                        imageView.setImage(imagenPorDefecto);
+                    Image miniatura = miniaturas.getMiniatura(item.getId_deportista());
+                    if (miniatura != null) {
+                        imageView.setImage(miniatura);
                     } else {
-                        try {
-                            // Convierte el Blob a un Image
-                            Image image = new Image(item.getBinaryStream());
-                            imageView.setImage(image);
-                        } catch (SQLException e) {
-                            e.printStackTrace();
-                            // En caso de error, establecer la imagen por defecto
-                            imageView.setImage(imagenPorDefecto);
-                        }
+                        // Mientras se carga se muestra la imagen por defecto
+                        imageView.setImage(miniaturas.getImagenPorDefecto());
+                        miniaturas.cargar(item.getId_deportista()).thenAccept(imagen -> Platform.runLater(() -> {
+                            // La celda puede haberse reutilizado para otro deportista mientras tanto
+                            if (getItem() == item) {
+                                imageView.setImage(imagen);
+                            }
+                        }));
                     }
+                }
 
-                    // Ajusta el tamaño de la imagen y mantiene su proporción
-                    imageView.setFitWidth(50); // Establece el ancho de la imagen
-                    imageView.setFitHeight(50); // Establece la altura de la imagen
-                    imageView.setPreserveRatio(true); // Mantiene la proporción de la imagen
+                // Ajusta el tamaño de la imagen y mantiene su proporción
+                imageView.setFitWidth(50); // Establece el ancho de la imagen
+                imageView.setFitHeight(50); // Establece la altura de la imagen
+                imageView.setPreserveRatio(true); // Mantiene la proporción de la imagen
 
-                    // Establecer la gráfica de la celda
-                    setGraphic(imageView); // Muestra la imagen en la celda
-                }
+                // Establecer la gráfica de la celda
+                setGraphic(imageView); // Muestra la imagen en la celda
             }
         });
         tabla.getColumns().addAll(colId,colNombre,colSexo,colPeso,colAltura,colFoto);
-        // Cargar deportistas
-        ObservableList<Deportista> deportistas = DaoDeportista.cargarListado();
-        masterData.setAll(deportistas);
-        tabla.setItems(deportistas);
+        // Cargar deportistas, de la instantánea si todavía no se ha comprobado la base de datos
+        Instantanea origen = instantanea;
+        listado = new ListadoPaginado<>((ObservableList<Deportista>) masterData,
+                (ultimo, tamanio) -> origen != null
+                        ? origen.paginaDeportistas(ultimo == null ? 0 : ultimo.getId_deportista(), tamanio)
+                        : DaoDeportista.cargarPagina(ultimo == null ? 0 : ultimo.getId_deportista(), tamanio),
+                Configuracion.getActual().getEntero("page.size", 200));
+        mostrarCarga();
     }
 
     /**
@@ -567,29 +806,37 @@ public class OlimpiadaAppController implements Initializable {
      */
     private void cargarParticipaciones() {
         // Vaciar tabla
+        detenerListado();
         tabla.getSelectionModel().clearSelection();
         filtroNombre.setText(null);
+        filtrar();
         filtroNombre.setDisable(true);
         masterData.clear();
-        filteredData.clear();
-        tabla.getItems().clear();
         tabla.getColumns().clear();
         // Cargar columnas
-        TableColumn<Participacion, String> colDeportista = new TableColumn<>(resources.getString("table.participation.athlete"));
+        TableColumn<Participacion, String> colDeportista = columna("table.participation.athlete");
         colDeportista.setCellValueFactory(cellData -> javafx.beans.binding.Bindings.createObjectBinding(() -> cellData.getValue().getDeportista().getNombre()));
-        TableColumn<Participacion, String> colEvento = new TableColumn<>(resources.getString("table.participation.event"));
+        TableColumn<Participacion, String> colEvento = columna("table.participation.event");
         colEvento.setCellValueFactory(cellData -> javafx.beans.binding.Bindings.createObjectBinding(() -> cellData.getValue().getEvento().getNombre()));
-        TableColumn<Participacion, String> colEquipo = new TableColumn<>(resources.getString("table.participation.team"));
+        TableColumn<Participacion, String> colEquipo = columna("table.participation.team");
         colEquipo.setCellValueFactory(cellData -> javafx.beans.binding.Bindings.createObjectBinding(() -> cellData.getValue().getEquipo().getNombre()));
-        TableColumn<Participacion, Integer> colEdad = new TableColumn<>(resources.getString("table.participation.age"));
+        TableColumn<Participacion, Integer> colEdad = columna("table.participation.age");
         colEdad.setCellValueFactory(new PropertyValueFactory("edad"));
-        TableColumn<Participacion, String> colMedalla = new TableColumn<>(resources.getString("table.participation.medal"));
+        TableColumn<Participacion, String> colMedalla = columna("table.participation.medal");
         colMedalla.setCellValueFactory(new PropertyValueFactory("medalla"));
         tabla.getColumns().addAll(colDeportista,colEvento,colEquipo,colEdad,colMedalla);
-        // Cargar participaciones
-        ObservableList<Participacion> participaciones = DaoParticipacion.cargarListado();
-        masterData.addAll(participaciones);
-        tabla.setItems(participaciones);
+        // Cargar participaciones, de la instantánea si todavía no se ha comprobado la base de datos
+        Instantanea origen = instantanea;
+        listado = new ListadoPaginado<>((ObservableList<Participacion>) masterData,
+                (ultimo, tamanio) -> {
+                    int ultimoDeportista = ultimo == null ? 0 : ultimo.getDeportista().getId_deportista();
+                    int ultimoEvento = ultimo == null ? 0 : ultimo.getEvento().getId_evento();
+                    return origen != null
+                            ? origen.paginaParticipaciones(ultimoDeportista, ultimoEvento, tamanio)
+                            : DaoParticipacion.cargarPagina(ultimoDeportista, ultimoEvento, tamanio);
+                },
+                Configuracion.getActual().getEntero("page.size", 200));
+        mostrarCarga();
     }
 
     /**
@@ -597,27 +844,54 @@ public class OlimpiadaAppController implements Initializable {
      */
     private void cargarEventos() {
         // Vaciar tabla
+        detenerListado();
         tabla.getSelectionModel().clearSelection();
         filtroNombre.setText(null);
+        filtrar();
         filtroNombre.setDisable(false);
         masterData.clear();
-        filteredData.clear();
-        tabla.getItems().clear();
         tabla.getColumns().clear();
         // Cargar columnas
         TableColumn<Evento, Integer> colId = new TableColumn<>("ID");
         colId.setCellValueFactory(new PropertyValueFactory("id_evento"));
-        TableColumn<Evento, String> colNombre = new TableColumn<>(resources.getString("table.event.name"));
+        TableColumn<Evento, String> colNombre = columna("table.event.name");
         colNombre.setCellValueFactory(new PropertyValueFactory("nombre"));
-        TableColumn<Evento, String> colOlimpiada = new TableColumn<>(resources.getString("table.event.olympic"));
+        TableColumn<Evento, String> colOlimpiada = columna("table.event.olympic");
         colOlimpiada.setCellValueFactory(cellData -> javafx.beans.binding.Bindings.createObjectBinding(() -> cellData.getValue().getOlimpiada().getNombre()));
-        TableColumn<Evento, String> colDeporte = new TableColumn<>(resources.getString("table.event.sport"));
+        TableColumn<Evento, String> colDeporte = columna("table.event.sport");
         colDeporte.setCellValueFactory(cellData -> javafx.beans.binding.Bindings.createObjectBinding(() -> cellData.getValue().getDeporte().getNombre()));
         tabla.getColumns().addAll(colId,colNombre,colOlimpiada,colDeporte);
-        // Cargar eventos
-        ObservableList<Evento> eventos = DaoEvento.cargarListado();
-        masterData.setAll(eventos);
-        tabla.setItems(eventos);
+        // Cargar eventos, de la instantánea si todavía no se ha comprobado la base de datos
+        Instantanea origen = instantanea;
+        listado = new ListadoPaginado<>((ObservableList<Evento>) masterData,
+                (ultimo, tamanio) -> origen != null
+                        ? origen.paginaEventos(ultimo == null ? 0 : ultimo.getId_evento(), tamanio)
+                        : DaoEvento.cargarPagina(ultimo == null ? 0 : ultimo.getId_evento(), tamanio),
+                Configuracion.getActual().getEntero("page.size", 200));
+        mostrarCarga();
+    }
+
+    /**
+     * Función que muestra un indicador de carga en la tabla hasta que llega la primera página
+     */
+    private void mostrarCarga() {
+        ListadoPaginado<?> actual = listado;
+        tabla.setPlaceholder(indicadorCarga);
+        actual.cargandoProperty().addListener((observable, oldValue, cargando) -> {
+            if (!cargando && listado == actual) {
+                tabla.setPlaceholder(null);
+            }
+        });
+    }
+
+    /**
+     * Función que detiene la carga por páginas de la tabla actual, si la hay
+     */
+    private void detenerListado() {
+        if (listado != null) {
+            listado.detener();
+            listado = null;
+        }
     }
 
     /**
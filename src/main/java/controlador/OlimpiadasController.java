@@ -10,7 +10,9 @@ import javafx.collections.ObservableList;
 import javafx.stage.Stage;
 import java.net.URL;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.ResourceBundle;
+import Dao.DaoAsync;
 import Dao.DaoOlimpiada;
 
 /**
@@ -21,7 +23,10 @@ public class OlimpiadasController implements Initializable {
 
     private Olimpiada olimpiada;
     private Olimpiada crear;
+    private CompletableFuture<Void> carga;
 
+    @FXML
+    private Button btt_Guardar;
     @FXML
     private Button btnEliminar;
     @FXML
@@ -33,6 +38,8 @@ public class OlimpiadasController implements Initializable {
     @FXML
     private Label lblDelete;
     @FXML
+    private Label lblOlimpiada;
+    @FXML
     private ToggleGroup tgTemporada;
     @FXML
     private TextField txtAnio;
@@ -69,9 +76,15 @@ public class OlimpiadasController implements Initializable {
     public void cargarOlimpiadas() {
         cbOlimpiada.getItems().clear();
         cbOlimpiada.getItems().add(crear);
-        ObservableList<Olimpiada> olimpiadas = DaoOlimpiada.cargarListado();
-        cbOlimpiada.getItems().addAll(olimpiadas);
         cbOlimpiada.getSelectionModel().select(0);
+        DaoAsync.cancelar(carga);
+        ProgressIndicator indicador = new ProgressIndicator();
+        indicador.setPrefSize(16, 16);
+        lblOlimpiada.setGraphic(indicador);
+        carga = DaoAsync.ejecutar(DaoOlimpiada::cargarListado, olimpiadas -> {
+            lblOlimpiada.setGraphic(null);
+            cbOlimpiada.getItems().addAll(olimpiadas);
+        });
     }
 
     /**
@@ -105,11 +118,18 @@ public class OlimpiadasController implements Initializable {
                     rbInvierno.setSelected(false);
                 }
                 txtCiudad.setText(olimpiada.getCiudad());
-                if (DaoOlimpiada.esEliminable(olimpiada)) {
-                    btnEliminar.setDisable(false);
-                } else {
-                    lblDelete.setVisible(true);
-                }
+                Olimpiada seleccionado = olimpiada;
+                DaoAsync.ejecutar(() -> DaoOlimpiada.esEliminable(seleccionado), eliminable -> {
+                    // La selección puede haber cambiado mientras se comprobaba
+                    if (seleccionado != olimpiada) {
+                        return;
+                    }
+                    if (eliminable) {
+                        btnEliminar.setDisable(false);
+                    } else {
+                        lblDelete.setVisible(true);
+                    }
+                });
             }
         }
     }
@@ -139,12 +159,15 @@ public class OlimpiadasController implements Initializable {
         alert.setContentText(resources.getString("delete.olympics.prompt"));
         Optional<ButtonType> result = alert.showAndWait();
         if (result.get() == ButtonType.OK) {
-            if (DaoOlimpiada.eliminar(olimpiada)) {
-                confirmacion(resources.getString("delete.olympics.success"));
-                cargarOlimpiadas();
-            } else {
-                alerta(resources.getString("delete.olympics.fail"));
-            }
+            Olimpiada eliminado = olimpiada;
+            DaoAsync.ejecutar(() -> DaoOlimpiada.eliminar(eliminado), exito -> {
+                if (exito) {
+                    confirmacion(resources.getString("delete.olympics.success"));
+                    cargarOlimpiadas();
+                } else {
+                    alerta(resources.getString("delete.olympics.fail"));
+                }
+            });
         }
     }
 
@@ -170,20 +193,28 @@ public class OlimpiadasController implements Initializable {
             }
             nuevo.setCiudad(txtCiudad.getText());
             if (this.olimpiada == null) {
-                int id = DaoOlimpiada.insertar(nuevo);
-                if (id == -1) {
-                    alerta(resources.getString("save.fail"));
-                } else {
-                    confirmacion(resources.getString("save.olympics"));
-                    cargarOlimpiadas();
-                }
+                btt_Guardar.setDisable(true);
+                DaoAsync.ejecutar(() -> DaoOlimpiada.insertar(nuevo), id -> {
+                    btt_Guardar.setDisable(false);
+                    if (id == -1) {
+                        alerta(resources.getString("save.fail"));
+                    } else {
+                        confirmacion(resources.getString("save.olympics"));
+                        cargarOlimpiadas();
+                    }
+                });
             } else {
-                if (DaoOlimpiada.modificar(this.olimpiada, nuevo)) {
-                    confirmacion(resources.getString("update.olympics"));
-                    cargarOlimpiadas();
-                } else {
-                    alerta(resources.getString("save.fail"));
-                }
+                Olimpiada anterior = this.olimpiada;
+                btt_Guardar.setDisable(true);
+                DaoAsync.ejecutar(() -> DaoOlimpiada.modificar(anterior, nuevo), exito -> {
+                    btt_Guardar.setDisable(false);
+                    if (exito) {
+                        confirmacion(resources.getString("update.olympics"));
+                        cargarOlimpiadas();
+                    } else {
+                        alerta(resources.getString("save.fail"));
+                    }
+                });
             }
         }
     }
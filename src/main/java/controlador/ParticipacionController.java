@@ -1,16 +1,18 @@
 package controlador;
 
+import Dao.DaoAsync;
 import Dao.DaoDeportista;
 import Dao.DaoEquipo;
 import Dao.DaoEvento;
 import Dao.DaoParticipacion;
 import model.*;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
 import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import java.net.URL;
@@ -22,6 +24,8 @@ import java.util.ResourceBundle;
 public class ParticipacionController implements Initializable {
     private Participacion participacion;
 
+    @FXML
+    private Button btt_Guardar;
     @FXML
     private ListView<Deportista> lstDeportista;
     @FXML
@@ -60,28 +64,44 @@ public class ParticipacionController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         this.resources = resourceBundle;
-        cargarListas();
         if (this.participacion != null) {
-            lstDeportista.getSelectionModel().select(participacion.getDeportista());
             lstDeportista.setDisable(true);
-            lstEvento.getSelectionModel().select(participacion.getEvento());
             lstEvento.setDisable(true);
-            lstEquipo.getSelectionModel().select(participacion.getEquipo());
             txtEdad.setText(participacion.getEdad() + "");
             txtMedalla.setText(participacion.getMedalla());
         }
+        cargarListas();
     }
 
     /**
-     * Carga las listas de deportistas, equipos y eventos.
+     * Carga las listas de deportistas, equipos y eventos en segundo plano.
+     * Cuando llega cada lista se seleccionan los valores de la participación editada.
      */
     public void cargarListas() {
-        ObservableList<Deportista> deportistas = DaoDeportista.cargarListado();
-        lstDeportista.getItems().addAll(deportistas);
-        ObservableList<Evento> eventos = DaoEvento.cargarListado();
-        lstEvento.getItems().addAll(eventos);
-        ObservableList<Equipo> equipos = DaoEquipo.cargarListado();
-        lstEquipo.getItems().addAll(equipos);
+        lstDeportista.setPlaceholder(new ProgressIndicator());
+        DaoAsync.ejecutar(DaoDeportista::cargarListado, deportistas -> {
+            lstDeportista.setPlaceholder(null);
+            lstDeportista.getItems().addAll(deportistas);
+            if (this.participacion != null) {
+                lstDeportista.getSelectionModel().select(participacion.getDeportista());
+            }
+        });
+        lstEvento.setPlaceholder(new ProgressIndicator());
+        DaoAsync.ejecutar(DaoEvento::cargarListado, eventos -> {
+            lstEvento.setPlaceholder(null);
+            lstEvento.getItems().addAll(eventos);
+            if (this.participacion != null) {
+                lstEvento.getSelectionModel().select(participacion.getEvento());
+            }
+        });
+        lstEquipo.setPlaceholder(new ProgressIndicator());
+        DaoAsync.ejecutar(DaoEquipo::cargarListado, equipos -> {
+            lstEquipo.setPlaceholder(null);
+            lstEquipo.getItems().addAll(equipos);
+            if (this.participacion != null) {
+                lstEquipo.getSelectionModel().select(participacion.getEquipo());
+            }
+        });
     }
 
     /**
@@ -113,21 +133,29 @@ public class ParticipacionController implements Initializable {
             nuevo.setEdad(Integer.parseInt(txtEdad.getText()));
             nuevo.setMedalla(txtMedalla.getText());
             if (this.participacion == null) {
-                if (DaoParticipacion.insertar(nuevo)) {
-                    confirmacion(resources.getString("save.participation"));
-                    Stage stage = (Stage) txtEdad.getScene().getWindow();
-                    stage.close();
-                } else {
-                    alerta(resources.getString("save.fail"));
-                }
+                btt_Guardar.setDisable(true);
+                DaoAsync.ejecutar(() -> DaoParticipacion.insertar(nuevo), exito -> {
+                    btt_Guardar.setDisable(false);
+                    if (exito) {
+                        confirmacion(resources.getString("save.participation"));
+                        Stage stage = (Stage) txtEdad.getScene().getWindow();
+                        stage.close();
+                    } else {
+                        alerta(resources.getString("save.fail"));
+                    }
+                });
             } else {
-                if (DaoParticipacion.modificar(participacion, nuevo)) {
-                    confirmacion(resources.getString("update.participation"));
-                    Stage stage = (Stage) txtEdad.getScene().getWindow();
-                    stage.close();
-                } else {
-                    alerta(resources.getString("save.fail"));
-                }
+                btt_Guardar.setDisable(true);
+                DaoAsync.ejecutar(() -> DaoParticipacion.modificar(participacion, nuevo), exito -> {
+                    btt_Guardar.setDisable(false);
+                    if (exito) {
+                        confirmacion(resources.getString("update.participation"));
+                        Stage stage = (Stage) txtEdad.getScene().getWindow();
+                        stage.close();
+                    } else {
+                        alerta(resources.getString("save.fail"));
+                    }
+                });
             }
         }
     }
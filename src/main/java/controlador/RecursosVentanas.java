@@ -0,0 +1,220 @@
+package controlador;
+
+import Language.LanguageBinder;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Registro compartido de los recursos de las ventanas: el contenido de los archivos FXML y las imágenes decodificadas.
+ * Cada recurso se lee del classpath una sola vez y las siguientes ventanas lo toman de memoria.
+ * <p>
+ * JavaFX no permite copiar un árbol de nodos, así que cada ventana sigue construyendo el suyo con un FXMLLoader;
+ * lo que se ahorra es buscar y leer el FXML, decodificar el icono y, gracias a {@link #precargar(Locale)},
+ * la carga de las clases de los controles y del idioma la primera vez que se abre cada ventana.
+ * El tiempo de cada apertura se mide para comparar la primera con las siguientes ({@link #getEstadisticas()}).
+ */
+public class RecursosVentanas {
+    /**
+     * Icono de todas las ventanas de la aplicación.
+     */
+    public static final String ICONO = "/Imagenes/olimpiadas.png";
+    private static final List<String> VENTANAS = List.of("/fxml/Inicio.fxml", "/fxml/Deportista.fxml",
+            "/fxml/Participacion.fxml", "/fxml/Evento.fxml", "/fxml/Deportes.fxml", "/fxml/Equipos.fxml",
+            "/fxml/Olimpiadas.fxml", "/fxml/Medallero.fxml");
+    private static final List<String> IMAGENES = List.of(ICONO, "/Imagenes/persona.jpg");
+    private static final Pattern IMPORTACION = Pattern.compile("<\\?import\\s+([\\w.]+)\\s*\\?>");
+    private static final String IDIOMAS = "languages/lang";
+    private static RecursosVentanas instance;
+
+    private final Map<String, byte[]> plantillas = new ConcurrentHashMap<>();
+    private final Map<String, Image> imagenes = new ConcurrentHashMap<>();
+    private final Map<String, Tiempos> tiempos = new ConcurrentHashMap<>();
+
+    /**
+     * Tiempos de apertura de una ventana.
+     */
+    private static class Tiempos {
+        private long aperturas = 0;
+        private long primeraNanos = 0;
+        private long totalNanos = 0;
+
+        private synchronized void anotar(long nanos) {
+            if (aperturas == 0) {
+                primeraNanos = nanos;
+            }
+            aperturas++;
+            totalNanos += nanos;
+        }
+
+        @Override
+        public synchronized String toString() {
+            long mediaSiguientes = aperturas > 1 ? (totalNanos - primeraNanos) / (aperturas - 1) : 0;
+            return "aperturas=" + aperturas + ", primera=" + primeraNanos / 1_000_000 + " ms"
+                    + ", media siguientes=" + mediaSiguientes / 1_000_000 + " ms";
+        }
+    }
+
+    private RecursosVentanas() {}
+
+    /**
+     * Crea y devuelve la instancia única del registro.
+     *
+     * @return el registro de recursos
+     */
+    public static synchronized RecursosVentanas getInstance() {
+        if (instance == null) {
+            instance = new RecursosVentanas();
+        }
+        return instance;
+    }
+
+    /**
+     * Obtiene una imagen del classpath, decodificándola solo la primera vez.
+     *
+     * @param ruta ruta de la imagen, por ejemplo "/Imagenes/persona.jpg"
+     * @return la imagen compartida
+     */
+    public Image getImagen(String ruta) {
+        return imagenes.computeIfAbsent(ruta, clave -> new Image(getClass().getResourceAsStream(clave)));
+    }
+
+    /**
+     * Carga la vista de un FXML a partir de su contenido en memoria.
+     *
+     * @param ruta ruta del FXML, por ejemplo "/fxml/Deportista.fxml"
+     * @param resources idioma de la vista
+     * @param controlador controlador de la vista, o null si el FXML indica el suyo
+     * @return la raíz de la vista
+     * @throws IOException si no se encuentra el FXML o no se puede cargar
+     */
+    public Parent cargar(String ruta, ResourceBundle resources, Object controlador) throws IOException {
+        long inicio = System.nanoTime();
+        URL ubicacion = getClass().getResource(ruta);
+        if (ubicacion == null) {
+            throw new IOException("No se encuentra " + ruta);
+        }
+        // La ubicación se indica para que las rutas relativas del FXML (hojas de estilo, imágenes) se resuelvan igual
+        FXMLLoader fxmlLoader = new FXMLLoader(ubicacion, resources);
+        if (controlador != null) {
+            fxmlLoader.setController(controlador);
+        }
+        Parent raiz = fxmlLoader.load(new ByteArrayInputStream(getPlantilla(ruta)));
+        tiempos.computeIfAbsent(ruta, clave -> new Tiempos()).anotar(System.nanoTime() - inicio);
+        return raiz;
+    }
+
+    /**
+     * Carga la vista de un FXML con el idioma actual y enlaza sus textos para que cambien con el idioma
+     * sin volver a cargarla. Se utiliza en la ventana principal, que permanece abierta al cambiar de idioma.
+     *
+     * @param ruta ruta del FXML
+     * @return la raíz de la vista
+     * @throws IOException si no se encuentra el FXML o no se puede cargar
+     */
+    public Parent cargarTraducible(String ruta) throws IOException {
+        LanguageBinder binder = new LanguageBinder();
+        Parent raiz = cargar(ruta, binder.getBundle(), null);
+        binder.vincular(raiz);
+        return raiz;
+    }
+
+    /**
+     * Abre una ventana modal, no redimensionable y con el icono de la aplicación, y espera a que se cierre.
+     *
+     * @param propietaria ventana sobre la que se abre
+     * @param ruta ruta del FXML
+     * @param resources idioma de la ventana
+     * @param controlador controlador de la ventana, o null si el FXML indica el suyo
+     * @param titulo título de la ventana
+     * @throws IOException si no se puede cargar el FXML
+     */
+    public void abrirModal(Window propietaria, String ruta, ResourceBundle resources, Object controlador, String titulo) throws IOException {
+        Scene scene = new Scene(cargar(ruta, resources, controlador));
+        Stage stage = new Stage();
+        stage.setScene(scene);
+        stage.setResizable(false);
+        stage.getIcons().add(getImagen(ICONO));
+        stage.setTitle(titulo);
+        stage.initOwner(propietaria);
+        stage.initModality(Modality.APPLICATION_MODAL);
+        stage.showAndWait();
+    }
+
+    /**
+     * Prepara en un hilo en segundo plano los recursos de todas las ventanas: lee los FXML, decodifica las imágenes,
+     * carga las clases de los controles que importan los FXML y el idioma indicado. Así la primera apertura
+     * de cada ventana no tiene que esperar a nada de eso. Los errores se ignoran, el recurso se cargará al usarlo.
+     *
+     * @param locale idioma de las ventanas
+     */
+    public void precargar(Locale locale) {
+        Thread hilo = new Thread(() -> {
+            ResourceBundle.getBundle(IDIOMAS, locale);
+            for (String ruta : IMAGENES) {
+                getImagen(ruta);
+            }
+            for (String ruta : VENTANAS) {
+                try {
+                    Matcher importacion = IMPORTACION.matcher(new String(getPlantilla(ruta), StandardCharsets.UTF_8));
+                    while (importacion.find()) {
+                        Class.forName(importacion.group(1), true, getClass().getClassLoader());
+                    }
+                } catch (IOException | ClassNotFoundException | LinkageError e) {
+                    System.err.println(e.getMessage());
+                }
+            }
+        }, "precarga-ventanas");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Obtiene los tiempos de apertura de cada ventana: la primera y la media de las siguientes.
+     *
+     * @return una línea por ventana abierta
+     */
+    public String getEstadisticas() {
+        StringBuilder texto = new StringBuilder();
+        tiempos.forEach((ruta, tiempo) -> texto.append(ruta).append(": ").append(tiempo).append(System.lineSeparator()));
+        return texto.toString();
+    }
+
+    /**
+     * Obtiene el contenido de un FXML, leyéndolo del classpath solo la primera vez.
+     *
+     * @param ruta ruta del FXML
+     * @return el contenido del archivo
+     * @throws IOException si no se encuentra o no se puede leer
+     */
+    private byte[] getPlantilla(String ruta) throws IOException {
+        byte[] plantilla = plantillas.get(ruta);
+        if (plantilla == null) {
+            try (InputStream entrada = getClass().getResourceAsStream(ruta)) {
+                if (entrada == null) {
+                    throw new IOException("No se encuentra " + ruta);
+                }
+                plantilla = entrada.readAllBytes();
+            }
+            plantillas.put(ruta, plantilla);
+        }
+        return plantilla;
+    }
+}
@@ -0,0 +1,50 @@
+package controlador;
+
+import model.Deportista;
+import model.Evento;
+import model.Participacion;
+
+/**
+ * Tablas que se pueden mostrar en la ventana principal. El combo de la ventana guarda estos valores
+ * y muestra su nombre traducido, de forma que la tabla elegida no depende del idioma.
+ */
+enum TipoTabla {
+    /**
+     * Tabla de deportistas.
+     */
+    DEPORTISTAS("cb.athletes", Deportista.class),
+    /**
+     * Tabla de participaciones.
+     */
+    PARTICIPACIONES("cb.participations", Participacion.class),
+    /**
+     * Tabla de eventos.
+     */
+    EVENTOS("cb.events", Evento.class);
+
+    private final String clave;
+    private final Class<?> tipo;
+
+    TipoTabla(String clave, Class<?> tipo) {
+        this.clave = clave;
+        this.tipo = tipo;
+    }
+
+    /**
+     * Obtiene la clave del nombre de la tabla en los archivos de idioma.
+     *
+     * @return la clave
+     */
+    String getClave() {
+        return clave;
+    }
+
+    /**
+     * Obtiene la clase de las entidades de la tabla.
+     *
+     * @return Deportista, Participacion o Evento
+     */
+    Class<?> getTipo() {
+        return tipo;
+    }
+}
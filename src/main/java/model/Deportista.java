@@ -14,6 +14,7 @@ public class Deportista {
     private int peso;
     private int altura;
     private Blob foto;
+    private boolean tieneFoto;
 
     /**
      * Constructor con parámetros para crear una instancia de Deportista.
@@ -32,6 +33,7 @@ public class Deportista {
         this.peso = peso;
         this.altura = altura;
         this.foto = foto;
+        this.tieneFoto = foto != null;
     }
 
     /**
@@ -170,6 +172,26 @@ public class Deportista {
      */
     public void setFoto(Blob foto) {
         this.foto = foto;
+        this.tieneFoto = foto != null;
+    }
+
+    /**
+     * Indica si el deportista tiene foto en la base de datos.
+     * En los listados la foto no se carga, por lo que puede ser true aunque {@link #getFoto()} devuelva null.
+     *
+     * @return true si el deportista tiene foto
+     */
+    public boolean isTieneFoto() {
+        return tieneFoto;
+    }
+
+    /**
+     * Establece si el deportista tiene foto en la base de datos sin cargarla.
+     *
+     * @param tieneFoto true si el deportista tiene foto
+     */
+    public void setTieneFoto(boolean tieneFoto) {
+        this.tieneFoto = tieneFoto;
     }
 
     /**
@@ -0,0 +1,104 @@
+package model;
+
+import java.util.Comparator;
+
+/**
+ * Clase que representa una fila del medallero: las medallas de oro, plata y bronce
+ * conseguidas por un equipo, olimpiada, deporte o deportista.
+ */
+public class FilaMedallero {
+    /**
+     * Orden del medallero: más oros, después más platas, después más bronces y, a igualdad, por nombre.
+     */
+    public static final Comparator<FilaMedallero> ORDEN = Comparator.comparingInt(FilaMedallero::getOro).reversed()
+            .thenComparing(Comparator.comparingInt(FilaMedallero::getPlata).reversed())
+            .thenComparing(Comparator.comparingInt(FilaMedallero::getBronce).reversed())
+            .thenComparing(FilaMedallero::getNombre, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final int id;
+    private final String nombre;
+    private final int oro;
+    private final int plata;
+    private final int bronce;
+
+    /**
+     * Constructor con parámetros para crear una fila del medallero.
+     *
+     * @param id el id del equipo, olimpiada, deporte o deportista
+     * @param nombre el nombre del equipo, olimpiada, deporte o deportista
+     * @param oro el número de medallas de oro
+     * @param plata el número de medallas de plata
+     * @param bronce el número de medallas de bronce
+     */
+    public FilaMedallero(int id, String nombre, int oro, int plata, int bronce) {
+        this.id = id;
+        this.nombre = nombre;
+        this.oro = oro;
+        this.plata = plata;
+        this.bronce = bronce;
+    }
+
+    /**
+     * Obtiene el id del equipo, olimpiada, deporte o deportista.
+     *
+     * @return el id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Obtiene el nombre del equipo, olimpiada, deporte o deportista.
+     *
+     * @return el nombre
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene el número de medallas de oro.
+     *
+     * @return las medallas de oro
+     */
+    public int getOro() {
+        return oro;
+    }
+
+    /**
+     * Obtiene el número de medallas de plata.
+     *
+     * @return las medallas de plata
+     */
+    public int getPlata() {
+        return plata;
+    }
+
+    /**
+     * Obtiene el número de medallas de bronce.
+     *
+     * @return las medallas de bronce
+     */
+    public int getBronce() {
+        return bronce;
+    }
+
+    /**
+     * Obtiene el número total de medallas.
+     *
+     * @return la suma de oros, platas y bronces
+     */
+    public int getTotal() {
+        return oro + plata + bronce;
+    }
+
+    /**
+     * Devuelve una representación en forma de cadena de la fila.
+     *
+     * @return el nombre con sus medallas
+     */
+    @Override
+    public String toString() {
+        return nombre + " (" + oro + "/" + plata + "/" + bronce + ")";
+    }
+}
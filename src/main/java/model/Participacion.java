@@ -1,5 +1,7 @@
 package model;
 
+import java.util.Objects;
+
 /**
  * Clase que representa la participación de un deportista en un evento,
  * asociada a un equipo y con información sobre su edad y medalla obtenida.
@@ -122,4 +124,29 @@ public class Participacion {
     public void setMedalla(String medalla) {
         this.medalla = medalla;
     }
+
+    /**
+     * Compara esta participación con otro objeto. Dos participaciones son iguales si son del mismo deportista
+     * en el mismo evento, que es la clave de la tabla Participacion.
+     *
+     * @param o el objeto a comparar
+     * @return true si los objetos son iguales, de lo contrario false
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Participacion that = (Participacion) o;
+        return Objects.equals(deportista, that.deportista) && Objects.equals(evento, that.evento);
+    }
+
+    /**
+     * Genera un código hash para esta participación en base a su deportista y su evento.
+     *
+     * @return el código hash de la participación
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(deportista, evento);
+    }
 }
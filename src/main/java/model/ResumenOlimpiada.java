@@ -0,0 +1,159 @@
+package model;
+
+/**
+ * Clase que representa el resumen de una olimpiada: número de eventos, participaciones,
+ * deportistas y equipos distintos, y medallas repartidas.
+ * Los datos se leen de la tabla ResumenOlimpiada, que se mantiene al escribir en la base de datos.
+ */
+public class ResumenOlimpiada {
+    private final int id_olimpiada;
+    private final String nombre;
+    private final int anio;
+    private final String temporada;
+    private final int eventos;
+    private final int participaciones;
+    private final int deportistas;
+    private final int equipos;
+    private final int oros;
+    private final int platas;
+    private final int bronces;
+
+    /**
+     * Constructor con parámetros para crear una instancia de ResumenOlimpiada.
+     *
+     * @param id_olimpiada el identificador de la olimpiada
+     * @param nombre el nombre de la olimpiada
+     * @param anio el año de la olimpiada
+     * @param temporada la temporada de la olimpiada (Winter o Summer)
+     * @param eventos el número de eventos
+     * @param participaciones el número de participaciones
+     * @param deportistas el número de deportistas distintos
+     * @param equipos el número de equipos distintos
+     * @param oros el número de medallas de oro
+     * @param platas el número de medallas de plata
+     * @param bronces el número de medallas de bronce
+     */
+    public ResumenOlimpiada(int id_olimpiada, String nombre, int anio, String temporada, int eventos, int participaciones,
+                            int deportistas, int equipos, int oros, int platas, int bronces) {
+        this.id_olimpiada = id_olimpiada;
+        this.nombre = nombre;
+        this.anio = anio;
+        this.temporada = temporada;
+        this.eventos = eventos;
+        this.participaciones = participaciones;
+        this.deportistas = deportistas;
+        this.equipos = equipos;
+        this.oros = oros;
+        this.platas = platas;
+        this.bronces = bronces;
+    }
+
+    /**
+     * Obtiene el identificador de la olimpiada.
+     *
+     * @return el id de la olimpiada
+     */
+    public int getId_olimpiada() {
+        return id_olimpiada;
+    }
+
+    /**
+     * Obtiene el nombre de la olimpiada.
+     *
+     * @return el nombre de la olimpiada
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene el año de la olimpiada.
+     *
+     * @return el año
+     */
+    public int getAnio() {
+        return anio;
+    }
+
+    /**
+     * Obtiene la temporada de la olimpiada.
+     *
+     * @return "Winter" o "Summer"
+     */
+    public String getTemporada() {
+        return temporada;
+    }
+
+    /**
+     * Obtiene el número de eventos de la olimpiada.
+     *
+     * @return el número de eventos
+     */
+    public int getEventos() {
+        return eventos;
+    }
+
+    /**
+     * Obtiene el número de participaciones en los eventos de la olimpiada.
+     *
+     * @return el número de participaciones
+     */
+    public int getParticipaciones() {
+        return participaciones;
+    }
+
+    /**
+     * Obtiene el número de deportistas distintos que participaron en la olimpiada.
+     *
+     * @return el número de deportistas
+     */
+    public int getDeportistas() {
+        return deportistas;
+    }
+
+    /**
+     * Obtiene el número de equipos distintos que participaron en la olimpiada.
+     *
+     * @return el número de equipos
+     */
+    public int getEquipos() {
+        return equipos;
+    }
+
+    /**
+     * Obtiene el número de medallas de oro repartidas.
+     *
+     * @return las medallas de oro
+     */
+    public int getOros() {
+        return oros;
+    }
+
+    /**
+     * Obtiene el número de medallas de plata repartidas.
+     *
+     * @return las medallas de plata
+     */
+    public int getPlatas() {
+        return platas;
+    }
+
+    /**
+     * Obtiene el número de medallas de bronce repartidas.
+     *
+     * @return las medallas de bronce
+     */
+    public int getBronces() {
+        return bronces;
+    }
+
+    /**
+     * Devuelve una representación en forma de cadena del resumen.
+     *
+     * @return el nombre de la olimpiada con sus participaciones
+     */
+    @Override
+    public String toString() {
+        return nombre + ": " + participaciones + " participaciones de " + deportistas + " deportistas";
+    }
+}
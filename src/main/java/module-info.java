@@ -9,6 +9,7 @@ module org.hugo.olimpiadas_hugo {
     opens Language to javafx.fxml;
     exports model;
     exports Dao;
+    exports BBDD;
     opens org.hugo.olimpiadas_hugo to javafx.fxml;
     exports org.hugo.olimpiadas_hugo;
 }
\ No newline at end of file
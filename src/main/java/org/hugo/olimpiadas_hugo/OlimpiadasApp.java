@@ -1,14 +1,21 @@
 package org.hugo.olimpiadas_hugo;
 
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import Language.LanguageManager;
+import Language.LanguageSwitcher;
+import BBDD.Configuracion;
+import BBDD.Migraciones;
+import BBDD.PoolConexiones;
+import Dao.DaoAsync;
+import controlador.RecursosVentanas;
+import java.util.Locale;
 import java.util.ResourceBundle;
-import javafx.scene.image.Image;
 
 import java.io.IOException;
+import java.sql.SQLException;
 
 /**
  * Clase principal que lanza la aplicación de la Olimpiada.
@@ -18,28 +25,39 @@ public class OlimpiadasApp extends Application {
 
     /**
      * Función heredada de {@link Application#start(Stage)} que inicializa y muestra la ventana principal de la aplicación.
-     * Carga el archivo FXML de inicio, establece el idioma de la aplicación,
+     * Aplica en segundo plano las migraciones pendientes del esquema antes de cualquier consulta de los DAO, carga el archivo FXML de inicio, establece el idioma de la aplicación,
      * y configura los parámetros básicos de la ventana como el icono, el título y el tamaño.
+     * También empieza a vigilar los archivos de configuración, de forma que un cambio de idioma en "lang.properties"
+     * se aplica a la ventana sin reiniciar la aplicación.
      *
      * @param stage la ventana principal de la aplicación
      * @throws IOException si ocurre un error al cargar el archivo FXML
      */
     @Override
     public void start(Stage stage) throws IOException {
+        // Actualizar el esquema de la base de datos sin retrasar la ventana. Las consultas de las ventanas esperan a que termine
+        // y, si no se puede conectar, la ventana principal avisa del error
+        DaoAsync.antesDeTodo(() -> {
+            try {
+                return Migraciones.aplicar();
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+                return 0;
+            }
+        });
+
         // Cargar el idioma de la aplicación
         ResourceBundle bundle = LanguageManager.getInstance().getBundle();
 
-        // Cargar la interfaz de usuario desde el archivo FXML
-        FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/Inicio.fxml"), bundle);
-
         // Establecer el icono de la ventana
-        stage.getIcons().add(new Image(getClass().getResourceAsStream("/Imagenes/olimpiadas.png")));
+        RecursosVentanas recursos = RecursosVentanas.getInstance();
+        stage.getIcons().add(recursos.getImagen(RecursosVentanas.ICONO));
 
-        // Crear la escena y asignarla al escenario (ventana)
-        Scene scene = new Scene(fxmlLoader.load());
+        // Cargar la interfaz de usuario desde el archivo FXML, con sus textos enlazados al idioma, y crear la escena
+        Scene scene = new Scene(recursos.cargarTraducible("/fxml/Inicio.fxml"));
 
         // Establecer el título de la ventana usando el recurso del idioma
-        stage.setTitle(bundle.getString("app.name"));
+        stage.titleProperty().bind(LanguageManager.getInstance().texto("app.name"));
 
         // Establecer las dimensiones mínimas de la ventana
         stage.setMinWidth(550);
@@ -48,6 +66,32 @@ public class OlimpiadasApp extends Application {
         // Asignar la escena al escenario y mostrar la ventana
         stage.setScene(scene);
         stage.show();
+
+        // Preparar en segundo plano los recursos de las demás ventanas
+        recursos.precargar(bundle.getLocale());
+
+        // Recargar la configuración cuando cambien los archivos
+        Configuracion.addListener((anterior, nueva) -> {
+            if (!anterior.getIdioma().equals(nueva.getIdioma())) {
+                Locale locale = new Locale.Builder().setLanguage(nueva.getIdioma()).build();
+                Platform.runLater(() -> new LanguageSwitcher(stage).switchLanguage(locale));
+            }
+        });
+        Configuracion.vigilar();
+    }
+
+    /**
+     * Función heredada de {@link Application#stop()} que se ejecuta al cerrar la aplicación.
+     * Deja de vigilar la configuración y cierra las conexiones abiertas del pool de conexiones.
+     * Si la clave "debug.window.timings" de la configuración vale true, muestra los tiempos de apertura de las ventanas.
+     */
+    @Override
+    public void stop() {
+        Configuracion.dejarDeVigilar();
+        PoolConexiones.cerrarPool();
+        if (Boolean.parseBoolean(Configuracion.getActual().get("debug.window.timings", "false"))) {
+            System.out.print(RecursosVentanas.getInstance().getEstadisticas());
+        }
     }
 
     /**
@@ -0,0 +1,25 @@
+-- Tabla de resumen de cada olimpiada para las bases de datos creadas antes de que existiera
+
+CREATE TABLE IF NOT EXISTS `ResumenOlimpiada` (
+	`id_olimpiada` int(11) NOT NULL,
+	`temporada` enum('Summer', 'Winter') NOT NULL,
+	`eventos` int(11) NOT NULL DEFAULT 0,
+	`participaciones` int(11) NOT NULL DEFAULT 0,
+	`deportistas` int(11) NOT NULL DEFAULT 0,
+	`equipos` int(11) NOT NULL DEFAULT 0,
+	`oros` int(11) NOT NULL DEFAULT 0,
+	`platas` int(11) NOT NULL DEFAULT 0,
+	`bronces` int(11) NOT NULL DEFAULT 0,
+	PRIMARY KEY (`id_olimpiada`),
+	KEY `idx_resumen_temporada` (`temporada`),
+	CONSTRAINT `FK_ResumenOlimpiada_Olimpiada` FOREIGN KEY (`id_olimpiada`) REFERENCES `Olimpiada` (`id_olimpiada`) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARACTER SET = latin1 COLLATE = latin1_spanish_ci;
+
+REPLACE INTO `ResumenOlimpiada` (`id_olimpiada`, `temporada`, `eventos`, `participaciones`, `deportistas`, `equipos`, `oros`, `platas`, `bronces`)
+SELECT o.`id_olimpiada`, o.`temporada`, COUNT(DISTINCT ev.`id_evento`), COUNT(p.`id_evento`),
+	COUNT(DISTINCT p.`id_deportista`), COUNT(DISTINCT p.`id_equipo`),
+	COALESCE(SUM(p.`medalla` = 'Gold'), 0), COALESCE(SUM(p.`medalla` = 'Silver'), 0), COALESCE(SUM(p.`medalla` = 'Bronze'), 0)
+FROM `Olimpiada` o
+LEFT JOIN `Evento` ev ON ev.`id_olimpiada` = o.`id_olimpiada`
+LEFT JOIN `Participacion` p ON p.`id_evento` = ev.`id_evento`
+GROUP BY o.`id_olimpiada`, o.`temporada`;
@@ -0,0 +1,11 @@
+-- Índices secundarios para las consultas de los DAO que filtran por clave ajena:
+-- comprobaciones de eliminación, medallero y resumen de olimpiadas.
+-- InnoDB sustituye el índice implícito de la clave ajena por el índice explícito.
+
+CREATE INDEX IF NOT EXISTS `idx_evento_olimpiada` ON `Evento` (`id_olimpiada`);
+
+CREATE INDEX IF NOT EXISTS `idx_evento_deporte` ON `Evento` (`id_deporte`);
+
+CREATE INDEX IF NOT EXISTS `idx_participacion_evento` ON `Participacion` (`id_evento`, `medalla`);
+
+CREATE INDEX IF NOT EXISTS `idx_participacion_equipo` ON `Participacion` (`id_equipo`);
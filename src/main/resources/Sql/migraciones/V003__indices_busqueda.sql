@@ -0,0 +1,10 @@
+-- Índices de la búsqueda por nombre de DaoDeportista y DaoEvento para las bases de datos creadas antes de que existieran:
+-- el índice normal para la búsqueda por prefijo y el FULLTEXT para la búsqueda de texto completo.
+
+CREATE INDEX IF NOT EXISTS `idx_deportista_nombre` ON `Deportista` (`nombre`);
+
+CREATE INDEX IF NOT EXISTS `idx_evento_nombre` ON `Evento` (`nombre`);
+
+ALTER TABLE `Deportista` ADD FULLTEXT INDEX IF NOT EXISTS `ft_deportista_nombre` (`nombre`);
+
+ALTER TABLE `Evento` ADD FULLTEXT INDEX IF NOT EXISTS `ft_evento_nombre` (`nombre`);
@@ -31,7 +31,9 @@ CREATE TABLE `Deportista` (
 	`peso` int(11) DEFAULT NULL,
 	`altura` int(11) DEFAULT NULL,
 	`foto` blob NULL,
-	PRIMARY KEY (`id_deportista`)
+	PRIMARY KEY (`id_deportista`),
+	KEY `idx_deportista_nombre` (`nombre`),
+	FULLTEXT KEY `ft_deportista_nombre` (`nombre`)
 ) ENGINE = InnoDB AUTO_INCREMENT = 10 DEFAULT CHARACTER SET = latin1 COLLATE = latin1_spanish_ci;
 
 INSERT INTO `Deportista` ( `id_deportista`, `nombre`, `sexo`,`peso`, `altura`)
@@ -82,6 +84,10 @@ CREATE TABLE `Evento` (
 	`id_olimpiada` int(11) NOT NULL,
 	`id_deporte` int(11) NOT NULL,
 	PRIMARY KEY (`id_evento`),
+	KEY `idx_evento_nombre` (`nombre`),
+	FULLTEXT KEY `ft_evento_nombre` (`nombre`),
+	KEY `idx_evento_olimpiada` (`id_olimpiada`),
+	KEY `idx_evento_deporte` (`id_deporte`),
 	CONSTRAINT `FK_Evento_Deporte` FOREIGN KEY (`id_deporte`) REFERENCES `Deporte` (`id_deporte`),
 	CONSTRAINT `FK_Evento_Olimpiada` FOREIGN KEY (`id_olimpiada`) REFERENCES `Olimpiada` (`id_olimpiada`)
 ) ENGINE = InnoDB AUTO_INCREMENT = 10 DEFAULT CHARACTER SET = latin1 COLLATE = latin1_spanish_ci;
@@ -98,9 +104,41 @@ CREATE TABLE `Participacion` (
 	`edad` tinyint(4) DEFAULT NULL,
 	`medalla` varchar(6) DEFAULT NULL,
     PRIMARY KEY (`id_deportista`, `id_evento`),
+	KEY `idx_participacion_evento` (`id_evento`, `medalla`),
+	KEY `idx_participacion_equipo` (`id_equipo`),
 	CONSTRAINT `FK_Participacion_Deportista` FOREIGN KEY (`id_deportista`) REFERENCES `Deportista` (`id_deportista`),
     CONSTRAINT `FK_Participacion_Equipo` FOREIGN KEY (`id_equipo`) REFERENCES `Equipo` (`id_equipo`),
     CONSTRAINT `FK_Participacion_Evento` FOREIGN KEY (`id_evento`) REFERENCES `Evento` (`id_evento`)
 ) ENGINE = InnoDB DEFAULT CHARACTER SET = latin1 COLLATE = latin1_spanish_ci;
 
+---------------------------
+-- Tabla `ResumenOlimpiada`
+-- Resumen materializado de cada olimpiada, mantenido por los DAO.
+-- Se puede reconstruir con Dao.DaoResumenOlimpiada
+---------------------------
+
+CREATE TABLE `ResumenOlimpiada` (
+	`id_olimpiada` int(11) NOT NULL,
+	`temporada` enum('Summer', 'Winter') NOT NULL,
+	`eventos` int(11) NOT NULL DEFAULT 0,
+	`participaciones` int(11) NOT NULL DEFAULT 0,
+	`deportistas` int(11) NOT NULL DEFAULT 0,
+	`equipos` int(11) NOT NULL DEFAULT 0,
+	`oros` int(11) NOT NULL DEFAULT 0,
+	`platas` int(11) NOT NULL DEFAULT 0,
+	`bronces` int(11) NOT NULL DEFAULT 0,
+	PRIMARY KEY (`id_olimpiada`),
+	KEY `idx_resumen_temporada` (`temporada`),
+	CONSTRAINT `FK_ResumenOlimpiada_Olimpiada` FOREIGN KEY (`id_olimpiada`) REFERENCES `Olimpiada` (`id_olimpiada`) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARACTER SET = latin1 COLLATE = latin1_spanish_ci;
+
+INSERT INTO `ResumenOlimpiada` (`id_olimpiada`, `temporada`, `eventos`, `participaciones`, `deportistas`, `equipos`, `oros`, `platas`, `bronces`)
+SELECT o.`id_olimpiada`, o.`temporada`, COUNT(DISTINCT ev.`id_evento`), COUNT(p.`id_evento`),
+	COUNT(DISTINCT p.`id_deportista`), COUNT(DISTINCT p.`id_equipo`),
+	COALESCE(SUM(p.`medalla` = 'Gold'), 0), COALESCE(SUM(p.`medalla` = 'Silver'), 0), COALESCE(SUM(p.`medalla` = 'Bronze'), 0)
+FROM `Olimpiada` o
+LEFT JOIN `Evento` ev ON ev.`id_olimpiada` = o.`id_olimpiada`
+LEFT JOIN `Participacion` p ON p.`id_evento` = ev.`id_evento`
+GROUP BY o.`id_olimpiada`, o.`temporada`;
+
 COMMIT;
\ No newline at end of file
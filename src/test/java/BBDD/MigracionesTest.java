@@ -0,0 +1,49 @@
+package BBDD;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Pruebas de las migraciones contra la base de datos de configuration.properties.
+ * Si no está disponible las pruebas se omiten.
+ */
+class MigracionesTest {
+
+    @BeforeAll
+    static void comprobarConexion() {
+        boolean disponible;
+        try {
+            new ConexionBBDD().closeConnection();
+            disponible = true;
+        } catch (SQLException e) {
+            disponible = false;
+        }
+        assumeTrue(disponible, "La base de datos no está disponible");
+    }
+
+    @AfterAll
+    static void cerrarPool() {
+        PoolConexiones.cerrarPool();
+    }
+
+    @Test
+    void aplicarDosVecesNoRepiteMigraciones() throws SQLException {
+        Migraciones.aplicar();
+        assertEquals(0, Migraciones.aplicar());
+    }
+
+    @Test
+    void consultasUsanIndice() throws SQLException {
+        Migraciones.aplicar();
+        List<String> avisos = Migraciones.comprobarIndices();
+        assertTrue(avisos.isEmpty(), () -> String.join("\n", avisos));
+    }
+}
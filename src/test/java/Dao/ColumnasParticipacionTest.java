@@ -0,0 +1,93 @@
+package Dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la copia por columnas de las participaciones, construida directamente sin la base de datos.
+ */
+class ColumnasParticipacionTest {
+    private static final byte SIN = 0;
+    private static final byte ORO = 1;
+    private static final byte PLATA = 2;
+    private static final byte BRONCE = 3;
+
+    /**
+     * Cinco participaciones de tres deportistas en tres eventos de dos olimpiadas y dos deportes.
+     */
+    private static ColumnasParticipacion ejemplo() {
+        int[] deportista = {10, 10, 20, 30, 20};
+        int[] evento = {100, 101, 100, 102, 102};
+        int[] equipo = {1, 1, 2, 2, 1};
+        byte[] edad = {20, 21, 30, 25, (byte) 200};
+        byte[] medalla = {ORO, SIN, PLATA, BRONCE, ORO};
+        int[] olimpiada = {7, 7, 7, 8, 8};
+        int[] deporte = {3, 4, 3, 3, 3};
+        return new ColumnasParticipacion(5, deportista, evento, equipo, edad, medalla, olimpiada, deporte);
+    }
+
+    @Test
+    void decodificaLasColumnas() {
+        ColumnasParticipacion columnas = ejemplo();
+        assertEquals(5, columnas.getFilas());
+        assertEquals(20, columnas.getIdDeportista(2));
+        assertEquals(102, columnas.getIdEvento(3));
+        assertEquals(1, columnas.getIdEquipo(4));
+        assertEquals(25, columnas.getEdad(3));
+        assertEquals(200, columnas.getEdad(4));
+        assertEquals(DaoMedallero.ORO, columnas.getMedalla(0));
+        assertEquals(DaoMedallero.BRONCE, columnas.getMedalla(3));
+        assertNull(columnas.getMedalla(1));
+    }
+
+    @Test
+    void filtraYCuentaPorCondicion() {
+        ColumnasParticipacion columnas = ejemplo();
+        assertArrayEquals(new int[]{0, 4}, columnas.filtrar((d, ev, eq, edad, medalla) -> medalla > 0 && eq == 1));
+        assertEquals(3, columnas.contar((d, ev, eq, edad, medalla) -> edad >= 25));
+        assertEquals(0, columnas.filtrar((d, ev, eq, edad, medalla) -> d == 99).length);
+    }
+
+    @Test
+    void cuentaMedallasPorEquipoYDeportista() {
+        ColumnasParticipacion columnas = ejemplo();
+        Map<Integer, int[]> equipos = columnas.contarMedallas(AgrupacionMedallero.EQUIPO);
+        assertEquals(2, equipos.size());
+        assertArrayEquals(new int[]{2, 0, 0}, equipos.get(1));
+        assertArrayEquals(new int[]{0, 1, 1}, equipos.get(2));
+
+        Map<Integer, int[]> deportistas = columnas.contarMedallas(AgrupacionMedallero.DEPORTISTA);
+        assertArrayEquals(new int[]{1, 0, 0}, deportistas.get(10));
+        assertArrayEquals(new int[]{1, 1, 0}, deportistas.get(20));
+        assertArrayEquals(new int[]{0, 0, 1}, deportistas.get(30));
+    }
+
+    @Test
+    void cuentaMedallasPorOlimpiadaYDeporteATravesDelEvento() {
+        ColumnasParticipacion columnas = ejemplo();
+        Map<Integer, int[]> olimpiadas = columnas.contarMedallas(AgrupacionMedallero.OLIMPIADA);
+        assertArrayEquals(new int[]{1, 1, 0}, olimpiadas.get(7));
+        assertArrayEquals(new int[]{1, 0, 1}, olimpiadas.get(8));
+
+        // Los eventos 100 y 102 son del mismo deporte y se suman en un único grupo
+        Map<Integer, int[]> deportes = columnas.contarMedallas(AgrupacionMedallero.DEPORTE);
+        assertEquals(1, deportes.size());
+        assertArrayEquals(new int[]{2, 1, 1}, deportes.get(3));
+        assertFalse(deportes.containsKey(4));
+    }
+
+    @Test
+    void copiaVaciaNoTieneMedallas() {
+        int[] vacio = new int[0];
+        ColumnasParticipacion columnas = new ColumnasParticipacion(0, vacio, vacio, vacio, new byte[0], new byte[0], vacio, vacio);
+        assertEquals(0, columnas.getFilas());
+        assertTrue(columnas.contarMedallas(AgrupacionMedallero.EQUIPO).isEmpty());
+    }
+}
@@ -0,0 +1,179 @@
+package Dao;
+
+import model.Deporte;
+import model.Deportista;
+import model.Equipo;
+import model.Evento;
+import model.FilaMedallero;
+import model.Olimpiada;
+import model.Participacion;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del medallero incremental, con un cálculo completo simulado en lugar de la base de datos.
+ */
+class MedalleroTest {
+    private static final Equipo ESPANIA = new Equipo(1, "España", "ESP");
+    private static final Equipo ITALIA = new Equipo(2, "Italia", "ITA");
+    private static final Evento EVENTO = new Evento(1, "100 metros", new Olimpiada(1, "2024 Summer", 2024, "Summer", "París"),
+            new Deporte(1, "Atletismo"));
+
+    private final List<FilaMedallero> calculadas = new ArrayList<>();
+    private Medallero medallero;
+    private Runnable duranteCalculo = () -> {};
+    private int calculos = 0;
+
+    /**
+     * Crea un medallero cuyo cálculo completo devuelve las filas de {@link #calculadas}.
+     */
+    private Medallero crear() {
+        medallero = new Medallero(agrupacion -> {
+            calculos++;
+            duranteCalculo.run();
+            return new ArrayList<>(calculadas);
+        });
+        return medallero;
+    }
+
+    private static Participacion participacion(int idDeportista, Equipo equipo, String medalla) {
+        Deportista deportista = new Deportista(idDeportista, "Deportista " + idDeportista, 'F', 60, 170, null);
+        return new Participacion(deportista, EVENTO, equipo, 25, medalla);
+    }
+
+    private static FilaMedallero fila(List<FilaMedallero> ranking, int id) {
+        for (FilaMedallero fila : ranking) {
+            if (fila.getId() == id) {
+                return fila;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    void calculaUnaVezYDespuesUsaLaMemoria() {
+        calculadas.add(new FilaMedallero(1, "España", 1, 0, 0));
+        crear();
+        medallero.getRanking(AgrupacionMedallero.EQUIPO);
+        List<FilaMedallero> ranking = medallero.getRanking(AgrupacionMedallero.EQUIPO);
+        assertEquals(1, calculos);
+        assertEquals(1, ranking.size());
+    }
+
+    @Test
+    void insercionSumaLaMedalla() {
+        calculadas.add(new FilaMedallero(1, "España", 1, 0, 0));
+        crear();
+        medallero.getRanking(AgrupacionMedallero.EQUIPO);
+        medallero.sumar(participacion(2, ITALIA, DaoMedallero.PLATA));
+        medallero.sumar(participacion(3, ESPANIA, DaoMedallero.ORO));
+        List<FilaMedallero> ranking = medallero.getRanking(AgrupacionMedallero.EQUIPO);
+        assertEquals(1, calculos);
+        assertEquals(2, ranking.size());
+        assertEquals(2, ranking.get(0).getOro());
+        assertEquals("Italia", ranking.get(1).getNombre());
+        assertEquals(1, ranking.get(1).getPlata());
+    }
+
+    @Test
+    void eliminacionRestaLaMedallaYQuitaElGrupoVacio() {
+        calculadas.add(new FilaMedallero(1, "España", 1, 0, 0));
+        calculadas.add(new FilaMedallero(2, "Italia", 0, 0, 1));
+        crear();
+        medallero.getRanking(AgrupacionMedallero.EQUIPO);
+        medallero.restar(participacion(1, ESPANIA, DaoMedallero.ORO));
+        List<FilaMedallero> ranking = medallero.getRanking(AgrupacionMedallero.EQUIPO);
+        assertEquals(1, ranking.size());
+        assertEquals("Italia", ranking.get(0).getNombre());
+    }
+
+    @Test
+    void modificacionCambiaLaMedallaYElGrupo() {
+        calculadas.add(new FilaMedallero(1, "España", 1, 0, 0));
+        crear();
+        medallero.getRanking(AgrupacionMedallero.EQUIPO);
+        medallero.cambiar(participacion(1, ESPANIA, DaoMedallero.ORO), participacion(1, ITALIA, DaoMedallero.BRONCE));
+        List<FilaMedallero> ranking = medallero.getRanking(AgrupacionMedallero.EQUIPO);
+        assertEquals(1, ranking.size());
+        assertEquals(2, ranking.get(0).getId());
+        assertEquals(0, ranking.get(0).getOro());
+        assertEquals(1, ranking.get(0).getBronce());
+    }
+
+    @Test
+    void participacionSinMedallaNoCambiaNada() {
+        calculadas.add(new FilaMedallero(1, "España", 1, 0, 0));
+        crear();
+        List<FilaMedallero> antes = medallero.getRanking(AgrupacionMedallero.EQUIPO);
+        medallero.sumar(participacion(2, ITALIA, null));
+        assertEquals(antes, medallero.getRanking(AgrupacionMedallero.EQUIPO));
+    }
+
+    @Test
+    void cambioEnUnaAgrupacionSeAplicaATodasLasCalculadas() {
+        crear();
+        medallero.getRanking(AgrupacionMedallero.EQUIPO);
+        medallero.getRanking(AgrupacionMedallero.DEPORTE);
+        medallero.sumar(participacion(1, ESPANIA, DaoMedallero.ORO));
+        assertEquals(1, fila(medallero.getRanking(AgrupacionMedallero.EQUIPO), 1).getOro());
+        assertEquals(1, fila(medallero.getRanking(AgrupacionMedallero.DEPORTE), 1).getOro());
+        assertEquals(2, calculos);
+    }
+
+    @Test
+    void invalidarVuelveACalcular() {
+        crear();
+        medallero.getRanking(AgrupacionMedallero.EQUIPO);
+        medallero.invalidar(AgrupacionMedallero.EQUIPO);
+        calculadas.add(new FilaMedallero(1, "España", 3, 0, 0));
+        List<FilaMedallero> ranking = medallero.getRanking(AgrupacionMedallero.EQUIPO);
+        assertEquals(2, calculos);
+        assertEquals(3, ranking.get(0).getOro());
+    }
+
+    @Test
+    void invalidacionDuranteElCalculoNoGuardaElResultado() {
+        calculadas.add(new FilaMedallero(1, "España", 1, 0, 0));
+        crear();
+        duranteCalculo = () -> medallero.invalidar(AgrupacionMedallero.EQUIPO);
+        List<FilaMedallero> primera = medallero.getRanking(AgrupacionMedallero.EQUIPO);
+        assertEquals(1, primera.size());
+        duranteCalculo = () -> {};
+        medallero.getRanking(AgrupacionMedallero.EQUIPO);
+        assertEquals(2, calculos);
+    }
+
+    @Test
+    void cambioDuranteElCalculoNoGuardaElResultado() {
+        crear();
+        duranteCalculo = () -> medallero.sumar(participacion(1, ESPANIA, DaoMedallero.ORO));
+        assertTrue(medallero.getRanking(AgrupacionMedallero.EQUIPO).isEmpty());
+        // El cálculo siguiente ya incluye la participación que llegó durante el primero
+        duranteCalculo = () -> {};
+        calculadas.add(new FilaMedallero(1, "España", 1, 0, 0));
+        List<FilaMedallero> ranking = medallero.getRanking(AgrupacionMedallero.EQUIPO);
+        assertEquals(2, calculos);
+        assertEquals(1, ranking.get(0).getOro());
+    }
+
+    @Test
+    void errorEnElCalculoDevuelveNullYSeReintenta() {
+        medallero = new Medallero(agrupacion -> {
+            calculos++;
+            if (calculos == 1) {
+                throw new SQLException("Sin conexión");
+            }
+            return new ArrayList<>(calculadas);
+        });
+        assertNull(medallero.getRanking(AgrupacionMedallero.EQUIPO));
+        assertTrue(medallero.getRanking(AgrupacionMedallero.EQUIPO).isEmpty());
+        assertEquals(2, calculos);
+    }
+}